@@ -35,4 +35,5 @@ dependencies {
     testImplementation("com.mockrunner:mockrunner-jdbc:2.0.7")
     testImplementation("com.github.maxim5:java-basics:0.5.0:test-fixtures")
     testImplementation("com.github.maxim5:prima:0.1.4:test-fixtures")
+    testRuntimeOnly("com.h2database:h2:2.2.224")
 }
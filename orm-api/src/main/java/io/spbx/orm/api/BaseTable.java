@@ -1,6 +1,8 @@
 package io.spbx.orm.api;
 
 import com.google.common.collect.Lists;
+import io.spbx.orm.api.batch.BatchOptions;
+import io.spbx.orm.api.batch.BatchResult;
 import io.spbx.orm.api.entity.BatchEntityData;
 import io.spbx.orm.api.entity.EntityData;
 import io.spbx.orm.api.query.CompositeFilter;
@@ -17,6 +19,7 @@ import org.jetbrains.annotations.Nullable;
 import java.util.Collection;
 import java.util.List;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * A base interface providing common API for table operations. Each {@link BaseTable} instance is working in context
@@ -52,6 +55,19 @@ public interface BaseTable<E> extends Iterable<E>, HasEngine, HasRunner {
      */
     @NotNull BaseTable<E> withReferenceFollowOnRead(@NotNull ReadFollow follow);
 
+    /**
+     * Returns whether the read operations in this table fill in the entities of the foreign references
+     * (see {@link #withReferenceFollowOnRead}), rather than only their ids.
+     */
+    boolean followsReferencesOnRead();
+
+    /**
+     * Returns a copy of {@link BaseTable} instance with custom {@code options} for iteration in the table,
+     * e.g. {@link ReadOptions#streaming(int)} for full-table scans.
+     * Default value is {@link ReadOptions#DEFAULT}.
+     */
+    @NotNull BaseTable<E> withReadOptions(@NotNull ReadOptions options);
+
     // Size
 
     /**
@@ -97,6 +113,32 @@ public interface BaseTable<E> extends Iterable<E>, HasEngine, HasRunner {
         return count(where) > 0;
     }
 
+    /**
+     * Returns whether the {@code filter} selects at least one row. Unlike the {@link #count(Filter)},
+     * the query stops at the first matching row.
+     */
+    default boolean exists(@NotNull Filter filter) {
+        return countUpTo(filter, 1) > 0;
+    }
+
+    /**
+     * Returns the count of the rows selected by the {@code filter}, but at most {@code limit}, e.g. to display
+     * "100+ results". Unlike the {@link #count(Filter)}, the query stops after {@code limit} matching rows.
+     */
+    default int countUpTo(@NotNull Filter filter, int limit) {
+        assert limit > 0 : "Invalid limit: " + limit;
+        return (int) Math.min(count64(filter), limit);
+    }
+
+    /**
+     * Returns the estimated table size, which is read from the engine statistics if available
+     * (see {@link TableStatistics}), or the exact {@link #count64()} otherwise.
+     * The estimate can be stale or imprecise and must not be used instead of the exact count.
+     */
+    default long estimateCount() {
+        return count64();
+    }
+
     // Iteration
 
     /**
@@ -143,6 +185,42 @@ public interface BaseTable<E> extends Iterable<E>, HasEngine, HasRunner {
         }
     }
 
+    /**
+     * Returns a lazy stream over all entries in the table. The rows are fetched and converted only when consumed.
+     * <b>Important</b>: the caller is responsible for closing the stream:
+     * {@snippet lang="java" :
+     *     try (Stream<Entity> stream = table.stream()) {
+     *         stream.forEach(action);
+     *     }
+     * }
+     */
+    @MustBeClosed
+    default @NotNull Stream<E> stream() {
+        return iterator().stream();
+    }
+
+    /**
+     * Returns a lazy stream over the entries matching the {@code filter}.
+     * <b>Important</b>: the caller is responsible for closing the stream.
+     *
+     * @see #stream()
+     */
+    @MustBeClosed
+    default @NotNull Stream<E> stream(@NotNull Filter filter) {
+        return iterator(filter).stream();
+    }
+
+    /**
+     * Returns the cold {@link java.util.concurrent.Flow.Publisher} over the entries matching the {@code filter}.
+     * The query is executed upon the first request of each subscription and the entries are fetched and converted
+     * only as they are requested. Cancelling the subscription closes the underlying statement.
+     *
+     * @see ResultSetPublisher
+     */
+    default @NotNull ResultSetPublisher<E> publisher(@NotNull Filter filter) {
+        return ResultSetPublisher.of(() -> iterator(filter));
+    }
+
     /**
      * Fetches the whole table into a list of entries.
      */
@@ -186,6 +264,19 @@ public interface BaseTable<E> extends Iterable<E>, HasEngine, HasRunner {
         }
     }
 
+    /**
+     * Sets the foreign entities of the {@code entities}, usually read with {@link ReadFollow#NO_FOLLOW}, instead of
+     * joining the foreign tables. Each foreign reference is resolved with a single {@code getBatchByPk()} call
+     * of the referenced table for all {@code entities}, the fetched entities are resolved recursively up to
+     * the {@code depth} levels (zero does nothing). The references already holding an entity are not changed.
+     * <p>
+     * The default implementation does nothing, i.e. is suitable for the tables without foreign references.
+     *
+     * @see ForeignResolver
+     */
+    default void resolveForeign(@NotNull Collection<? extends E> entities, int depth) {
+    }
+
     // INSERT
 
     /**
@@ -224,6 +315,17 @@ public interface BaseTable<E> extends Iterable<E>, HasEngine, HasRunner {
     @CanIgnoreReturnValue
     int[] insertBatch(@NotNull Collection<? extends E> batch);
 
+    /**
+     * Inserts the entities from the {@code batch} stream into the table in chunks according to the {@code options}.
+     * The entities are consumed lazily, so the stream can be arbitrarily large.
+     *
+     * @return the summary of the batch execution
+     * @throws QueryException if the insertion failed, e.g. due to PK or FK conflict. Note that the chunks executed
+     *                        before the failure may remain in the table
+     */
+    @CanIgnoreReturnValue
+    @NotNull BatchResult insertBatch(@NotNull Stream<? extends E> batch, @NotNull BatchOptions options);
+
     /**
      * Inserts the {@code BatchEntityData} into the table. The {@code batchData} rows may or may not be complete.
      *
@@ -233,6 +335,29 @@ public interface BaseTable<E> extends Iterable<E>, HasEngine, HasRunner {
     @CanIgnoreReturnValue
     int[] insertDataBatch(@NotNull BatchEntityData<?> batchData);
 
+    /**
+     * Loads the entities from the {@code batch} stream into the table via the engine-native bulk loader,
+     * e.g. {@code COPY} in PostgreSQL. Falls back to the chunked multi-row inserts if the engine isn't supported.
+     * The entities are consumed lazily, so the stream can be arbitrarily large.
+     *
+     * @return the number of inserted rows
+     * @throws QueryException if the load failed, e.g. due to PK or FK conflict
+     * @see io.spbx.orm.api.batch.BulkLoader
+     */
+    @CanIgnoreReturnValue
+    long bulkLoad(@NotNull Stream<? extends E> batch);
+
+    /**
+     * Loads the {@code BatchEntityData} into the table via the engine-native bulk loader.
+     * Falls back to the JDBC batch if the engine isn't supported.
+     *
+     * @return the number of inserted rows
+     * @throws QueryException if the load failed, e.g. due to PK or FK conflict
+     * @see io.spbx.orm.api.batch.BulkLoader
+     */
+    @CanIgnoreReturnValue
+    long bulkLoadData(@NotNull BatchEntityData<?> batchData);
+
     // UPDATE
 
     /**
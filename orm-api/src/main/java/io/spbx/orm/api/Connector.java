@@ -1,5 +1,6 @@
 package io.spbx.orm.api;
 
+import io.spbx.orm.api.metrics.QueryListener;
 import org.jetbrains.annotations.NotNull;
 
 import java.sql.Connection;
@@ -29,4 +30,89 @@ public interface Connector extends HasRunner, HasEngine {
     default @NotNull Engine engine() {
         return Engine.fromConnectionSafe(connection());
     }
+
+    /**
+     * Returns whether the current thread holds a state of this connector which its queries depend on,
+     * e.g. a bound connection (which may have an open transaction) or the reads routed to the primary.
+     * The queries of such a thread must run in this thread and not be handed over to another one. By default, false.
+     */
+    default boolean isBoundToCurrentThread() {
+        return false;
+    }
+
+    /**
+     * Returns a connector which prepares the statements via the bounded {@link StatementCache} attached to each
+     * {@link #connection()}. Closing a statement returns it to the cache instead of closing.
+     * The cache evicts the least recently used statements when exceeds the {@code capacity}.
+     * <p>
+     * The caches are owned by the returned connector: the connectors returned by different calls don't share them.
+     */
+    default @NotNull Connector withStatementCache(int capacity) {
+        Connector delegate = this;
+        StatementCache.PerConnection caches = new StatementCache.PerConnection(capacity);
+        return new Connector() {
+            @Override
+            public @NotNull Connection connection() {
+                return delegate.connection();
+            }
+
+            @Override
+            public @NotNull QueryRunner runner() {
+                QueryRunner runner = delegate.runner();
+                return runner.withStatementCache(caches.attachedTo(runner.connection()));
+            }
+
+            @Override
+            public @NotNull QueryRunner readRunner() {
+                QueryRunner runner = delegate.readRunner();
+                return runner.withStatementCache(caches.attachedTo(runner.connection()));
+            }
+
+            @Override
+            public @NotNull Engine engine() {
+                return delegate.engine();
+            }
+
+            @Override
+            public boolean isBoundToCurrentThread() {
+                return delegate.isBoundToCurrentThread();
+            }
+        };
+    }
+
+    /**
+     * Returns a connector which reports all statements prepared and executed by its runners to the {@code listener}.
+     *
+     * @see QueryListener
+     * @see io.spbx.orm.api.metrics.QueryMetrics
+     */
+    default @NotNull Connector withListener(@NotNull QueryListener listener) {
+        Connector delegate = this;
+        return new Connector() {
+            @Override
+            public @NotNull Connection connection() {
+                return delegate.connection();
+            }
+
+            @Override
+            public @NotNull QueryRunner runner() {
+                return delegate.runner().withListener(listener);
+            }
+
+            @Override
+            public @NotNull QueryRunner readRunner() {
+                return delegate.readRunner().withListener(listener);
+            }
+
+            @Override
+            public @NotNull Engine engine() {
+                return delegate.engine();
+            }
+
+            @Override
+            public boolean isBoundToCurrentThread() {
+                return delegate.isBoundToCurrentThread();
+            }
+        };
+    }
 }
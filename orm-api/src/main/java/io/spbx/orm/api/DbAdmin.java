@@ -42,6 +42,10 @@ public class DbAdmin {
         return new DbAdmin(runner::connection);
     }
 
+    public @NotNull Connector connector() {
+        return connector;
+    }
+
     public @Nullable String getDatabase() {
         try {
             String catalog = connector.connection().getCatalog();
@@ -53,6 +53,30 @@ public enum Engine {
         return false;
     }
 
+    /**
+     * Returns the max number of {@code ?} params that can be bound to a single statement in this engine.
+     * The value for the {@link #Unknown} engine is conservative.
+     */
+    public int maxQueryParams() {
+        return switch (this) {
+            case SQLite -> 32766;  // SQLITE_MAX_VARIABLE_NUMBER since 3.32.0 (999 before)
+            case MsSqlServer -> 2098;  // 2100 minus the params reserved by sp_prepexec
+            case Sybase -> 2048;
+            case Derby, H2, HyperSQL, MariaDB, MySQL, Oracle, PostgreSQL -> 65535;
+            case Unknown -> 999;
+        };
+    }
+
+    /**
+     * Returns the max number of items in a single {@code IN (...)} list in this engine.
+     */
+    public int maxInListSize() {
+        return switch (this) {
+            case Oracle -> 1000;  // ORA-01795
+            default -> maxQueryParams();
+        };
+    }
+
     private static final Map<String, Engine> ENGINE_MAP = BasicMaps.indexBy(Engine.values(), Engine::jdbcType);
 
     public static @NotNull Engine fromJdbcType(@NotNull String jdbcType) {
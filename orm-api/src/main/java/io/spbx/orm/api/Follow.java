@@ -0,0 +1,134 @@
+package io.spbx.orm.api;
+
+import com.google.common.collect.ImmutableMap;
+import io.spbx.orm.api.query.Column;
+import io.spbx.orm.api.query.InvalidQueryException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.LinkedHashMap;
+import java.util.Set;
+
+/**
+ * Represents the graph of the foreign keys to follow on reads, as an alternative to the table-wide {@link ReadFollow}
+ * level. Each node maps the foreign key columns of a table (usually {@code OwnColumn} constants of the generated
+ * table) to the nested graph of the referenced table. Only the foreign keys in the graph are joined and read,
+ * the rest get only an id.
+ * <p>
+ * Usage:
+ * <pre>
+ *     Follow graph = Follow.of(UserTable.OwnColumn.company_id, Follow.of(CompanyTable.OwnColumn.country_id))
+ *                          .and(UserTable.OwnColumn.manager_id);
+ *     List&lt;User&gt; users = userTable.withFollow(graph).fetchAllMatching(filter);
+ * </pre>
+ * The graph takes precedence over the {@link ReadFollow} level and is kept by the copies of the table with other
+ * read settings, e.g. via {@code withReferenceFollowOnRead()} or {@code withReadOptions()}.
+ * <p>
+ * The depth of the graph is limited by {@link #MAX_DEPTH}, hence the paths may visit the same table several times,
+ * e.g. follow the self-referencing foreign key (such as {@code parent_id}) to a fixed depth.
+ */
+@Immutable
+public final class Follow {
+    public static final int MAX_DEPTH = 8;
+
+    public static final Follow NONE = new Follow(ImmutableMap.of());
+
+    private final ImmutableMap<Column, Follow> nested;
+
+    private Follow(@NotNull ImmutableMap<Column, Follow> nested) {
+        this.nested = nested;
+        InvalidQueryException.assure(depth() <= MAX_DEPTH, "The follow graph is too deep: %s", this);
+    }
+
+    /**
+     * Returns the graph following a single foreign key {@code column} to the entity without its references.
+     */
+    public static @NotNull Follow of(@NotNull Column column) {
+        return NONE.and(column);
+    }
+
+    /**
+     * Returns the graph following a single foreign key {@code column}, then the {@code nested} graph
+     * of the referenced table.
+     */
+    public static @NotNull Follow of(@NotNull Column column, @NotNull Follow nested) {
+        return NONE.and(column, nested);
+    }
+
+    /**
+     * Returns the graph additionally following the foreign key {@code column}.
+     */
+    public @NotNull Follow and(@NotNull Column column) {
+        return and(column, NONE);
+    }
+
+    /**
+     * Returns the graph additionally following the foreign key {@code column}, then the {@code nested} graph.
+     * If the {@code column} is already followed, the nested graphs are merged.
+     */
+    public @NotNull Follow and(@NotNull Column column, @NotNull Follow nested) {
+        LinkedHashMap<Column, Follow> map = new LinkedHashMap<>(this.nested);
+        map.merge(column, nested, Follow::merge);
+        return new Follow(ImmutableMap.copyOf(map));
+    }
+
+    /**
+     * Returns the graph following the union of the foreign keys of this and {@code other} graph.
+     */
+    public @NotNull Follow merge(@NotNull Follow other) {
+        Follow result = this;
+        for (var entry : other.nested.entrySet()) {
+            result = result.and(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the nested graph of the foreign key {@code column}, or null if the column isn't followed.
+     */
+    public @Nullable Follow nested(@NotNull Column column) {
+        return nested.get(column);
+    }
+
+    public @NotNull Set<Column> columns() {
+        return nested.keySet();
+    }
+
+    public boolean isEmpty() {
+        return nested.isEmpty();
+    }
+
+    /**
+     * Returns the max number of joins from the root table, i.e. 0 for {@link #NONE}.
+     */
+    public int depth() {
+        int depth = 0;
+        for (Follow follow : nested.values()) {
+            depth = Math.max(depth, follow.depth() + 1);
+        }
+        return depth;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return this == obj || obj instanceof Follow that && nested.equals(that.nested);
+    }
+
+    @Override
+    public int hashCode() {
+        return nested.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        nested.forEach((column, follow) -> {
+            builder.append(builder.length() > 1 ? ", " : "").append(column.name());
+            if (!follow.isEmpty()) {
+                builder.append(" -> ").append(follow);
+            }
+        });
+        return builder.append("}").toString();
+    }
+}
@@ -0,0 +1,108 @@
+package io.spbx.orm.api;
+
+import io.spbx.orm.api.query.Column;
+import io.spbx.orm.api.query.InvalidQueryException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Builds the {@code SELECT} statement of the entities along with the foreign entities of a {@link Follow} graph.
+ * The generated tables describe their columns and foreign keys to the builder recursively (see
+ * {@code selectFollow()} of the generated table), so that the columns appear in the order expected by
+ * the {@code fromRow()} of the same graph.
+ * <p>
+ * The root table is referenced by its name (so that the filters qualified with the table name apply),
+ * the joined tables are aliased, hence the same table may be joined several times: via several foreign keys or
+ * on the same path, e.g. via the self-referencing foreign key. The graph depth is bounded by {@link Follow#MAX_DEPTH}.
+ */
+@NotThreadSafe
+public class FollowSelect {
+    private final List<String> columns = new ArrayList<>();
+    private final List<String> joins = new ArrayList<>();
+    private final ArrayDeque<Node> path = new ArrayDeque<>();
+    private @Nullable String root;
+    private @Nullable Node joined;
+
+    /**
+     * Returns the {@code SELECT} statement made by the {@code appender} (usually the {@code selectFollow()}
+     * of the generated table) for the {@code graph}.
+     */
+    public static @NotNull String make(@NotNull Follow graph, @NotNull BiConsumer<FollowSelect, Follow> appender) {
+        FollowSelect select = new FollowSelect();
+        appender.accept(select, graph);
+        return select.toSql();
+    }
+
+    /**
+     * Starts the columns of the {@code table}: the root table or the one just joined via {@link #join}.
+     * Checks that the {@code graph} follows only the {@code foreignKeys} of the {@code table}.
+     */
+    public void enter(@NotNull String table, @NotNull Follow graph, @NotNull Column @NotNull... foreignKeys) {
+        for (Column column : graph.columns()) {
+            InvalidQueryException.assure(List.of(foreignKeys).contains(column),
+                                         "Column `%s` is not a foreign key of `%s`: %s", column.name(), table, graph);
+        }
+        if (root == null) {
+            assert path.isEmpty() && joined == null : "The root table is already entered: " + path;
+            root = table;
+            path.push(new Node(table, table));
+        } else {
+            assert joined != null && joined.table.equals(table) : "The table is not joined: " + table;
+            path.push(joined);
+            joined = null;
+        }
+    }
+
+    /**
+     * Adds the {@code column} of the current table.
+     */
+    public void column(@NotNull String column) {
+        columns.add(current().alias + "." + column);
+    }
+
+    /**
+     * Joins the {@code table} via the {@code foreignKey} column of the current table.
+     * The columns of the {@code table} should follow after {@link #enter}.
+     */
+    public void join(@NotNull String foreignKey, @NotNull String table, @NotNull String primaryKey) {
+        assert joined == null : "The joined table is not entered: " + joined;
+        Node current = current();
+        joined = new Node(table, "t" + (joins.size() + 1));
+        joins.add("LEFT JOIN %s AS %s ON %s.%s = %s.%s".formatted(table, joined.alias,
+                                                                   current.alias, foreignKey,
+                                                                   joined.alias, primaryKey));
+    }
+
+    /**
+     * Completes the columns of the current table.
+     */
+    public void exit() {
+        assert joined == null : "The joined table is not entered: " + joined;
+        path.pop();
+    }
+
+    public @NotNull String toSql() {
+        assert root != null && path.isEmpty() : "The select is incomplete: " + path;
+        StringBuilder builder = new StringBuilder()
+            .append("SELECT ").append(String.join(", ", columns)).append('\n')
+            .append("FROM ").append(root).append('\n');
+        for (String join : joins) {
+            builder.append(join).append('\n');
+        }
+        return builder.toString();
+    }
+
+    private @NotNull Node current() {
+        Node current = path.peek();
+        assert current != null : "No table entered";
+        return current;
+    }
+
+    private record Node(@NotNull String table, @NotNull String alias) {}
+}
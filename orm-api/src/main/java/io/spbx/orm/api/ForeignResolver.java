@@ -0,0 +1,142 @@
+package io.spbx.orm.api;
+
+import com.carrotsearch.hppc.IntHashSet;
+import com.carrotsearch.hppc.IntObjectMap;
+import com.carrotsearch.hppc.LongHashSet;
+import com.carrotsearch.hppc.LongObjectMap;
+import com.carrotsearch.hppc.cursors.ObjectCursor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Resolves the {@link Foreign} references of the entities read without following (see {@link ReadFollow#NO_FOLLOW})
+ * in batches, DataLoader-style: the foreign keys of a single reference are collected from all entities,
+ * de-duplicated and fetched via one {@code getBatchByPk()} call of the referenced table. The fetched entities are
+ * set via {@link Foreign#setEntityIfMissing}, hence the entities referenced by many rows are transferred
+ * and instantiated once. The references which already hold an entity are left intact.
+ * <p>
+ * Used by the generated tables, see {@link BaseTable#resolveForeign(Collection, int)}.
+ */
+public class ForeignResolver {
+    /**
+     * Resolves the reference returned by the {@code reference} function of each of the {@code entities} via
+     * the {@code table} with an {@code int} primary key, then resolves the fetched entities recursively
+     * with the {@code depth - 1}.
+     */
+    public static <E, F> void resolveInt(@NotNull Collection<? extends E> entities,
+                                         @NotNull Function<? super E, ? extends Foreign<Integer, F>> reference,
+                                         @NotNull TableInt<F> table,
+                                         int depth) {
+        List<Foreign<Integer, F>> unresolved = unresolvedOf(entities, reference);
+        if (unresolved.isEmpty()) {
+            return;
+        }
+        IntHashSet keys = new IntHashSet(unresolved.size());
+        for (Foreign<Integer, F> foreign : unresolved) {
+            keys.add(intKeyOf(foreign));
+        }
+        IntObjectMap<F> fetched = table.getBatchByPk(keys);
+        for (Foreign<Integer, F> foreign : unresolved) {
+            F entity = fetched.get(intKeyOf(foreign));
+            if (entity != null) {
+                foreign.setEntityIfMissing(entity);
+            }
+        }
+        if (depth > 1 && !fetched.isEmpty()) {
+            table.resolveForeign(valuesOf(fetched.values()), depth - 1);
+        }
+    }
+
+    /**
+     * Resolves the reference returned by the {@code reference} function of each of the {@code entities} via
+     * the {@code table} with a {@code long} primary key, then resolves the fetched entities recursively
+     * with the {@code depth - 1}.
+     */
+    public static <E, F> void resolveLong(@NotNull Collection<? extends E> entities,
+                                          @NotNull Function<? super E, ? extends Foreign<Long, F>> reference,
+                                          @NotNull TableLong<F> table,
+                                          int depth) {
+        List<Foreign<Long, F>> unresolved = unresolvedOf(entities, reference);
+        if (unresolved.isEmpty()) {
+            return;
+        }
+        LongHashSet keys = new LongHashSet(unresolved.size());
+        for (Foreign<Long, F> foreign : unresolved) {
+            keys.add(longKeyOf(foreign));
+        }
+        LongObjectMap<F> fetched = table.getBatchByPk(keys);
+        for (Foreign<Long, F> foreign : unresolved) {
+            F entity = fetched.get(longKeyOf(foreign));
+            if (entity != null) {
+                foreign.setEntityIfMissing(entity);
+            }
+        }
+        if (depth > 1 && !fetched.isEmpty()) {
+            table.resolveForeign(valuesOf(fetched.values()), depth - 1);
+        }
+    }
+
+    /**
+     * Resolves the reference returned by the {@code reference} function of each of the {@code entities} via
+     * the {@code table} with an arbitrary primary key, then resolves the fetched entities recursively
+     * with the {@code depth - 1}.
+     */
+    public static <E, K, F> void resolveObj(@NotNull Collection<? extends E> entities,
+                                            @NotNull Function<? super E, ? extends Foreign<K, F>> reference,
+                                            @NotNull TableObj<K, F> table,
+                                            int depth) {
+        List<Foreign<K, F>> unresolved = unresolvedOf(entities, reference);
+        if (unresolved.isEmpty()) {
+            return;
+        }
+        LinkedHashSet<K> keys = new LinkedHashSet<>(unresolved.size());
+        for (Foreign<K, F> foreign : unresolved) {
+            keys.add(foreign.getFkOrDie());
+        }
+        Map<K, F> fetched = table.getBatchByPk(keys);
+        for (Foreign<K, F> foreign : unresolved) {
+            F entity = fetched.get(foreign.getFkOrDie());
+            if (entity != null) {
+                foreign.setEntityIfMissing(entity);
+            }
+        }
+        if (depth > 1 && !fetched.isEmpty()) {
+            table.resolveForeign(fetched.values(), depth - 1);
+        }
+    }
+
+    private static <E, K, F> @NotNull List<Foreign<K, F>> unresolvedOf(
+            @NotNull Collection<? extends E> entities,
+            @NotNull Function<? super E, ? extends Foreign<K, F>> reference) {
+        ArrayList<Foreign<K, F>> unresolved = new ArrayList<>(entities.size());
+        for (E entity : entities) {
+            Foreign<K, F> foreign = reference.apply(entity);
+            if (foreign.isPresent() && foreign.hasNullEntity()) {
+                unresolved.add(foreign);
+            }
+        }
+        return unresolved;
+    }
+
+    private static int intKeyOf(@NotNull Foreign<Integer, ?> foreign) {
+        return foreign instanceof ForeignInt<?> foreignInt ? foreignInt.getIntId() : foreign.getFkOrDie();
+    }
+
+    private static long longKeyOf(@NotNull Foreign<Long, ?> foreign) {
+        return foreign instanceof ForeignLong<?> foreignLong ? foreignLong.getLongId() : foreign.getFkOrDie();
+    }
+
+    private static <F> @NotNull List<F> valuesOf(@NotNull Iterable<ObjectCursor<F>> cursors) {
+        ArrayList<F> values = new ArrayList<>();
+        for (ObjectCursor<F> cursor : cursors) {
+            values.add(cursor.value);
+        }
+        return values;
+    }
+}
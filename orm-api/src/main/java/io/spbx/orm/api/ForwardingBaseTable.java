@@ -0,0 +1,209 @@
+package io.spbx.orm.api;
+
+import io.spbx.orm.api.batch.BatchOptions;
+import io.spbx.orm.api.batch.BatchResult;
+import io.spbx.orm.api.entity.BatchEntityData;
+import io.spbx.orm.api.entity.EntityData;
+import io.spbx.orm.api.query.Contextual;
+import io.spbx.orm.api.query.Filter;
+import io.spbx.orm.api.query.Where;
+import io.spbx.util.base.annotate.CanIgnoreReturnValue;
+import io.spbx.util.base.annotate.MustBeClosed;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.stream.Stream;
+
+/**
+ * A {@link BaseTable} which forwards the method calls to the {@link #delegate()} table.
+ * The subclasses override the methods to decorate the behavior of the delegate (e.g. with caching).
+ * <p>
+ * The default methods composed of other methods (e.g. {@link #stream()} or {@link #fetchAll()}) are not forwarded,
+ * hence they are served via the (possibly overridden) methods of this class. The {@code with...} methods are
+ * forwarded as is, i.e. return the undecorated copies of the delegate, unless overridden.
+ *
+ * @param <E> the entity type
+ */
+public abstract class ForwardingBaseTable<E> implements BaseTable<E> {
+    protected abstract @NotNull BaseTable<E> delegate();
+
+    @Override
+    public @NotNull Engine engine() {
+        return delegate().engine();
+    }
+
+    @Override
+    public @NotNull QueryRunner runner() {
+        return delegate().runner();
+    }
+
+    @Override
+    public @NotNull QueryRunner readRunner() {
+        return delegate().readRunner();
+    }
+
+    @Override
+    public @NotNull TableMeta meta() {
+        return delegate().meta();
+    }
+
+    @Override
+    public @NotNull DbAdmin admin() {
+        return delegate().admin();
+    }
+
+    @Override
+    public boolean followsReferencesOnRead() {
+        return delegate().followsReferencesOnRead();
+    }
+
+    @Override
+    public @NotNull BaseTable<E> withReferenceFollowOnRead(@NotNull ReadFollow follow) {
+        return delegate().withReferenceFollowOnRead(follow);
+    }
+
+    @Override
+    public @NotNull BaseTable<E> withReadOptions(@NotNull ReadOptions options) {
+        return delegate().withReadOptions(options);
+    }
+
+    @Override
+    public int count() {
+        return delegate().count();
+    }
+
+    @Override
+    public long count64() {
+        return delegate().count64();
+    }
+
+    @Override
+    public int count(@NotNull Filter filter) {
+        return delegate().count(filter);
+    }
+
+    @Override
+    public long count64(@NotNull Filter filter) {
+        return delegate().count64(filter);
+    }
+
+    @Override
+    public boolean isNotEmpty() {
+        return delegate().isNotEmpty();
+    }
+
+    @Override
+    public boolean exists(@NotNull Where where) {
+        return delegate().exists(where);
+    }
+
+    @Override
+    public boolean exists(@NotNull Filter filter) {
+        return delegate().exists(filter);
+    }
+
+    @Override
+    public int countUpTo(@NotNull Filter filter, int limit) {
+        return delegate().countUpTo(filter, limit);
+    }
+
+    @Override
+    public long estimateCount() {
+        return delegate().estimateCount();
+    }
+
+    @Override
+    @MustBeClosed
+    public @NotNull ResultSetIterator<E> iterator() {
+        return delegate().iterator();
+    }
+
+    @Override
+    @MustBeClosed
+    public @NotNull ResultSetIterator<E> iterator(@NotNull Filter filter) {
+        return delegate().iterator(filter);
+    }
+
+    @Override
+    public void resolveForeign(@NotNull Collection<? extends E> entities, int depth) {
+        delegate().resolveForeign(entities, depth);
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public int insert(@NotNull E entity) {
+        return delegate().insert(entity);
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public int insertIgnore(@NotNull E entity) {
+        return delegate().insertIgnore(entity);
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public int insertData(@NotNull EntityData<?> data) {
+        return delegate().insertData(data);
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public int[] insertBatch(@NotNull Collection<? extends E> batch) {
+        return delegate().insertBatch(batch);
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public @NotNull BatchResult insertBatch(@NotNull Stream<? extends E> batch, @NotNull BatchOptions options) {
+        return delegate().insertBatch(batch, options);
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public int[] insertDataBatch(@NotNull BatchEntityData<?> batchData) {
+        return delegate().insertDataBatch(batchData);
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public long bulkLoad(@NotNull Stream<? extends E> batch) {
+        return delegate().bulkLoad(batch);
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public long bulkLoadData(@NotNull BatchEntityData<?> batchData) {
+        return delegate().bulkLoadData(batchData);
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public int updateWhere(@NotNull E entity, @NotNull Where where) {
+        return delegate().updateWhere(entity, where);
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public int updateDataWhere(@NotNull EntityData<?> data, @NotNull Where where) {
+        return delegate().updateDataWhere(data, where);
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public int[] updateWhereBatch(@NotNull Collection<? extends E> batch, @NotNull Contextual<Where, E> where) {
+        return delegate().updateWhereBatch(batch, where);
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public <B> int[] updateDataWhereBatch(@NotNull BatchEntityData<B> batchData, @NotNull Contextual<Where, B> where) {
+        return delegate().updateDataWhereBatch(batchData, where);
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public int deleteWhere(@NotNull Where where) {
+        return delegate().deleteWhere(where);
+    }
+}
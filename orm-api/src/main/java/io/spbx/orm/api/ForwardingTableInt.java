@@ -0,0 +1,81 @@
+package io.spbx.orm.api;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.IntContainer;
+import com.carrotsearch.hppc.IntObjectMap;
+import io.spbx.orm.api.query.Filter;
+import io.spbx.util.base.annotate.CanIgnoreReturnValue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * A {@link TableInt} which forwards the method calls to the {@link #delegate()} table.
+ * The {@link Integer} versions of the key-based methods are served via the native {@code int} ones.
+ *
+ * @param <E> the entity type
+ * @see ForwardingBaseTable
+ */
+public abstract class ForwardingTableInt<E> extends ForwardingBaseTable<E> implements TableInt<E> {
+    @Override
+    protected abstract @NotNull TableInt<E> delegate();
+
+    @Override
+    public @NotNull TableInt<E> withReferenceFollowOnRead(@NotNull ReadFollow follow) {
+        return delegate().withReferenceFollowOnRead(follow);
+    }
+
+    @Override
+    public @NotNull TableInt<E> withReadOptions(@NotNull ReadOptions options) {
+        return delegate().withReadOptions(options);
+    }
+
+    @Override
+    public boolean exists(int key) {
+        return delegate().exists(key);
+    }
+
+    @Override
+    public @Nullable E getByPkOrNull(int key) {
+        return delegate().getByPkOrNull(key);
+    }
+
+    @Override
+    public @NotNull IntObjectMap<E> getBatchByPk(@NotNull IntContainer keys) {
+        return delegate().getBatchByPk(keys);
+    }
+
+    @Override
+    public @NotNull Map<Integer, E> getBatchByPk(@NotNull Collection<? extends Integer> keys) {
+        return delegate().getBatchByPk(keys);
+    }
+
+    @Override
+    public @NotNull IntArrayList fetchPks(@NotNull Filter filter) {
+        return delegate().fetchPks(filter);
+    }
+
+    @Override
+    public int insertAutoIncPk(@NotNull E entity) {
+        return delegate().insertAutoIncPk(entity);
+    }
+
+    @Override
+    public int intKeyOf(@NotNull E entity) {
+        return delegate().intKeyOf(entity);
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public int updateByPk(@NotNull E entity) {
+        return delegate().updateByPk(entity);
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public int deleteByPk(int key) {
+        return delegate().deleteByPk(key);
+    }
+}
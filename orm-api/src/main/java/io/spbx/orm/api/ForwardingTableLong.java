@@ -0,0 +1,81 @@
+package io.spbx.orm.api;
+
+import com.carrotsearch.hppc.LongArrayList;
+import com.carrotsearch.hppc.LongContainer;
+import com.carrotsearch.hppc.LongObjectMap;
+import io.spbx.orm.api.query.Filter;
+import io.spbx.util.base.annotate.CanIgnoreReturnValue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * A {@link TableLong} which forwards the method calls to the {@link #delegate()} table.
+ * The {@link Long} versions of the key-based methods are served via the native {@code long} ones.
+ *
+ * @param <E> the entity type
+ * @see ForwardingBaseTable
+ */
+public abstract class ForwardingTableLong<E> extends ForwardingBaseTable<E> implements TableLong<E> {
+    @Override
+    protected abstract @NotNull TableLong<E> delegate();
+
+    @Override
+    public @NotNull TableLong<E> withReferenceFollowOnRead(@NotNull ReadFollow follow) {
+        return delegate().withReferenceFollowOnRead(follow);
+    }
+
+    @Override
+    public @NotNull TableLong<E> withReadOptions(@NotNull ReadOptions options) {
+        return delegate().withReadOptions(options);
+    }
+
+    @Override
+    public boolean exists(long key) {
+        return delegate().exists(key);
+    }
+
+    @Override
+    public @Nullable E getByPkOrNull(long key) {
+        return delegate().getByPkOrNull(key);
+    }
+
+    @Override
+    public @NotNull LongObjectMap<E> getBatchByPk(@NotNull LongContainer keys) {
+        return delegate().getBatchByPk(keys);
+    }
+
+    @Override
+    public @NotNull Map<Long, E> getBatchByPk(@NotNull Collection<? extends Long> keys) {
+        return delegate().getBatchByPk(keys);
+    }
+
+    @Override
+    public @NotNull LongArrayList fetchPks(@NotNull Filter filter) {
+        return delegate().fetchPks(filter);
+    }
+
+    @Override
+    public long insertAutoIncPk(@NotNull E entity) {
+        return delegate().insertAutoIncPk(entity);
+    }
+
+    @Override
+    public long longKeyOf(@NotNull E entity) {
+        return delegate().longKeyOf(entity);
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public int updateByPk(@NotNull E entity) {
+        return delegate().updateByPk(entity);
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public int deleteByPk(long key) {
+        return delegate().deleteByPk(key);
+    }
+}
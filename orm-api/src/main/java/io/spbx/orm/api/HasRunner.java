@@ -12,4 +12,13 @@ public interface HasRunner {
      * Returns the query runner this instance is connected to or has in its context.
      */
     @NotNull QueryRunner runner();
+
+    /**
+     * Returns the query runner for the read-only queries. By default, the same as {@link #runner()},
+     * but may be connected to a read replica (see {@link io.spbx.orm.api.pool.RoutingConnector}).
+     * The reads issued via this runner may observe stale data.
+     */
+    default @NotNull QueryRunner readRunner() {
+        return runner();
+    }
 }
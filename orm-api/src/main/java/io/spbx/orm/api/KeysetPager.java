@@ -0,0 +1,136 @@
+package io.spbx.orm.api;
+
+import io.spbx.orm.api.async.AsyncExecutor;
+import io.spbx.orm.api.query.CompositeFilter;
+import io.spbx.orm.api.query.FetchOnly;
+import io.spbx.orm.api.query.InvalidQueryException;
+import io.spbx.orm.api.query.Keyset;
+import io.spbx.orm.api.query.Limit;
+import io.spbx.orm.api.query.Where;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Fetches the pages of the table via the keyset (seek) pagination, see {@link Keyset}.
+ * <p>
+ * Each page is fetched by a single query: {@code WHERE <filter> AND <seek predicate> ORDER BY <keyset>
+ * LIMIT <limit + 1>}. The extra row only tells whether the next page exists, so that the last page is detected
+ * without another round-trip. The next page token encodes the sort key of the last row of the page,
+ * extracted by the {@code keyOf} function (the values in the order of the {@link Keyset} columns).
+ * <p>
+ * The sequential readers (e.g. the exports or the infinite scrolls) can {@link #pages iterate} the pages with
+ * the prefetch: the next page is requested asynchronously as soon as the current one is returned.
+ *
+ * @param <E> the entity type
+ */
+@Immutable
+public class KeysetPager<E> {
+    private final BaseTable<E> table;
+    private final Keyset keyset;
+    private final Function<? super E, Object[]> keyOf;
+
+    public KeysetPager(@NotNull BaseTable<E> table,
+                       @NotNull Keyset keyset,
+                       @NotNull Function<? super E, Object[]> keyOf) {
+        this.table = table;
+        this.keyset = keyset;
+        this.keyOf = keyOf;
+    }
+
+    public static <E> @NotNull KeysetPager<E> of(@NotNull BaseTable<E> table,
+                                                 @NotNull Keyset keyset,
+                                                 @NotNull Function<? super E, Object[]> keyOf) {
+        return new KeysetPager<>(table, keyset, keyOf);
+    }
+
+    public @NotNull Keyset keyset() {
+        return keyset;
+    }
+
+    /**
+     * Fetches the page of the entities matching the {@code where} (if set) after the {@code token}
+     * (the first page if null).
+     *
+     * @throws InvalidQueryException if the {@code token} isn't a valid token of this keyset
+     */
+    public @NotNull Page<E> fetchPage(@Nullable Where where, @Nullable PageToken token, int limit) {
+        assert limit > 0 : "Invalid page limit: " + limit;
+        Engine engine = table.engine();
+        CompositeFilter.Builder builder = CompositeFilter.builder();
+        if (where != null) {
+            builder.with(where);
+        }
+        if (token != null) {
+            Object[] lastKey = keyset.fromPageToken(token);
+            InvalidQueryException.assure(lastKey != null, "Invalid keyset page token:", token);
+            builder.with(Where.of(keyset.seekAfter(lastKey, engine)));
+        }
+        builder.with(keyset.orderBy());
+        int limitPlusOne = limit < Integer.MAX_VALUE ? limit + 1 : limit;
+        builder.with(engine.isOneOf(Engine.MsSqlServer, Engine.Oracle) ?
+                         FetchOnly.of(limitPlusOne) :
+                         Limit.of(limitPlusOne));
+
+        List<E> items = table.fetchAllMatching(builder.build());
+        if (items.size() <= limit) {
+            return new Page<>(items, null);
+        }
+        List<E> pageItems = new ArrayList<>(items.subList(0, limit));
+        PageToken nextToken = keyset.toPageToken(keyOf.apply(pageItems.getLast()));
+        return new Page<>(pageItems, nextToken);
+    }
+
+    /**
+     * Fetches the next page after the {@code page}, or returns null if the {@code page} is the last one.
+     */
+    public @Nullable Page<E> fetchNextPage(@Nullable Where where, @NotNull Page<E> page, int limit) {
+        return page.hasNextPage() ? fetchPage(where, page.nextToken(), limit) : null;
+    }
+
+    /**
+     * Fetches the page asynchronously via the {@code executor}, which must operate over the connector of the table.
+     */
+    public @NotNull CompletableFuture<Page<E>> fetchPageAsync(@Nullable Where where,
+                                                              @Nullable PageToken token,
+                                                              int limit,
+                                                              @NotNull AsyncExecutor executor) {
+        return executor.supply(() -> fetchPage(where, token, limit));
+    }
+
+    /**
+     * Iterates over the pages of the entities matching the {@code where} (if set) starting after the {@code token}
+     * (from the first page if null). The next page is prefetched via the {@code executor} when the current page
+     * is returned by the iterator, i.e. while the caller processes it.
+     */
+    public @NotNull Iterator<Page<E>> pages(@Nullable Where where,
+                                            @Nullable PageToken token,
+                                            int limit,
+                                            @NotNull AsyncExecutor executor) {
+        return new Iterator<>() {
+            private @Nullable CompletableFuture<Page<E>> next = fetchPageAsync(where, token, limit, executor);
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Page<E> next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Page<E> page = next.join();
+                next = page.hasNextPage() ? fetchPageAsync(where, page.nextToken(), limit, executor) : null;
+                return page;
+            }
+        };
+    }
+}
@@ -0,0 +1,296 @@
+package io.spbx.orm.api;
+
+import io.spbx.orm.api.pool.PooledConnector;
+import io.spbx.orm.api.query.Column;
+import io.spbx.orm.api.query.CompositeFilter;
+import io.spbx.orm.api.query.Filter;
+import io.spbx.orm.api.query.HardcodedSelectQuery;
+import io.spbx.orm.api.query.InvalidQueryException;
+import io.spbx.orm.api.query.OrderBy;
+import io.spbx.orm.api.query.Variable;
+import io.spbx.orm.api.query.Where;
+import io.spbx.util.base.annotate.MustBeClosed;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static io.spbx.orm.api.query.Shortcuts.between;
+import static io.spbx.orm.api.query.Shortcuts.var;
+
+/**
+ * Scans the table with a single numeric primary key by the key ranges, potentially in parallel.
+ * <p>
+ * The scan is backed by a {@link Spliterator} over the {@code [MIN(pk), MAX(pk)]} range, which is split in halves
+ * (down to the {@code minSplitSize} keys) when the stream is parallel. Each split issues one
+ * {@code WHERE pk BETWEEN ? AND ?} query from the thread processing it, i.e. the splits are fetched concurrently by
+ * the fork-join pool running the stream, each via the connection of its worker thread. Hence, the parallel scan
+ * requires the table to be connected via the {@link PooledConnector} provided via {@link #withPool}: each split
+ * holds a lease of the worker thread connection while open. The splits are ordered by
+ * the key ranges, hence the ordered stream operations observe the rows in the primary key order
+ * (if the filter has no other {@code ORDER BY}).
+ * <p>
+ * The splits are processed lazily, at most one result set per split is open at a time. The result set is closed as
+ * soon as the split is exhausted, the remaining ones are closed when the stream is closed (e.g. after the early
+ * termination of a short-circuiting operation), along with the leases of the worker threads which have abandoned
+ * their splits. Hence, the stream must be closed:
+ * {@snippet lang="java" :
+ *     try (Stream<Entity> stream = table.parallelStream(pool, filter)) {
+ *         stream.forEach(action);
+ *     }
+ * }
+ *
+ * @param <E> the entity type
+ */
+@Immutable
+public class PkRangeScan<E> {
+    public static final long DEFAULT_MIN_SPLIT_SIZE = 1024;
+
+    private final BaseTable<E> table;
+    private final Column pk;
+    private final boolean intKeys;
+    private final long minSplitSize;
+    private final @Nullable PooledConnector pool;
+
+    private PkRangeScan(@NotNull BaseTable<E> table,
+                        @NotNull Column pk,
+                        boolean intKeys,
+                        long minSplitSize,
+                        @Nullable PooledConnector pool) {
+        assert minSplitSize > 0 : "Invalid min split size: " + minSplitSize;
+        this.table = table;
+        this.pk = pk;
+        this.intKeys = intKeys;
+        this.minSplitSize = minSplitSize;
+        this.pool = pool;
+    }
+
+    public static <E> @NotNull PkRangeScan<E> of(@NotNull TableInt<E> table) {
+        return new PkRangeScan<>(table, primaryKeyOf(table), true, DEFAULT_MIN_SPLIT_SIZE, null);
+    }
+
+    public static <E> @NotNull PkRangeScan<E> of(@NotNull TableLong<E> table) {
+        return new PkRangeScan<>(table, primaryKeyOf(table), false, DEFAULT_MIN_SPLIT_SIZE, null);
+    }
+
+    /**
+     * Returns a copy of the scan which doesn't split the ranges with less than {@code minSplitSize} keys.
+     */
+    public @NotNull PkRangeScan<E> withMinSplitSize(long minSplitSize) {
+        return new PkRangeScan<>(table, pk, intKeys, minSplitSize, pool);
+    }
+
+    /**
+     * Returns a copy of the scan which leases the connections of the {@code pool} per split.
+     * The {@code pool} must be the connector of the table.
+     */
+    public @NotNull PkRangeScan<E> withPool(@NotNull PooledConnector pool) {
+        return new PkRangeScan<>(table, pk, intKeys, minSplitSize, pool);
+    }
+
+    /**
+     * Returns the stream over all entities of the table.
+     * <b>Important</b>: the caller is responsible for closing the stream.
+     */
+    @MustBeClosed
+    public @NotNull Stream<E> stream(boolean parallel) {
+        return stream(null, parallel);
+    }
+
+    /**
+     * Returns the stream over the entities of the table matching the {@code filter}.
+     * The {@code filter} can contain a {@code WHERE} and an {@code ORDER BY} clause, but no {@code LIMIT}
+     * or {@code OFFSET}, which can't be applied per split. The {@code parallel} stream requires the {@link #withPool}.
+     * <b>Important</b>: the caller is responsible for closing the stream.
+     */
+    @MustBeClosed
+    public @NotNull Stream<E> stream(@Nullable Filter filter, boolean parallel) {
+        InvalidQueryException.assure(!parallel || pool != null,
+                                     "Parallel range scan requires a pooled connector:", table.meta().sqlTableName());
+        CompositeFilter base = toCompositeFilter(filter);
+        String query = "SELECT MIN(%s), MAX(%s) FROM %s".formatted(pk.name(), pk.name(), table.meta().sqlTableName());
+        long[] range = table.readRunner().runAndGet(HardcodedSelectQuery.of(query), resultSet -> {
+            Object min = resultSet.getObject(1);
+            return min != null ? new long[] { resultSet.getLong(1), resultSet.getLong(2) } : null;
+        });
+        if (range == null) {
+            return Stream.empty();
+        }
+        OpenSplits openSplits = new OpenSplits();
+        RangeSpliterator spliterator = new RangeSpliterator(range[0], range[1], base, openSplits);
+        return StreamSupport.stream(spliterator, parallel).onClose(openSplits::closeAll);
+    }
+
+    private static @NotNull Column primaryKeyOf(@NotNull BaseTable<?> table) {
+        TableMeta.Constraint primaryKeys = table.meta().primaryKeys();
+        InvalidQueryException.assure(primaryKeys.isSingle() && !primaryKeys.columns().isEmpty(),
+                                     "Range scan requires a single-column primary key:", table.meta().sqlTableName());
+        return primaryKeys.columns().getFirst();
+    }
+
+    private static @NotNull CompositeFilter toCompositeFilter(@Nullable Filter filter) {
+        CompositeFilter.Builder builder = CompositeFilter.builder();
+        switch (filter) {
+            case null -> {}
+            case Where where -> builder.with(where);
+            case OrderBy orderBy -> builder.with(orderBy);
+            case CompositeFilter composite -> {
+                InvalidQueryException.assure(composite.limit() == null && composite.offset() == null,
+                                             "Range scan doesn't support the limit and offset:", filter);
+                builder.with(composite);
+            }
+            default -> throw InvalidQueryException.newInvalidQueryException("Unsupported range scan filter:", filter);
+        }
+        return builder.build();
+    }
+
+    private final class RangeSpliterator implements Spliterator<E> {
+        private final CompositeFilter filter;
+        private final OpenSplits openSplits;
+        private long lo;        // inclusive
+        private final long hi;  // inclusive
+        private @Nullable Split<E> split;
+        private boolean done;
+
+        private RangeSpliterator(long lo, long hi, @NotNull CompositeFilter filter, @NotNull OpenSplits openSplits) {
+            this.lo = lo;
+            this.hi = hi;
+            this.filter = filter;
+            this.openSplits = openSplits;
+        }
+
+        @Override
+        public boolean tryAdvance(@NotNull Consumer<? super E> action) {
+            if (done) {
+                return false;
+            }
+            ResultSetIterator<E> iterator = open().iterator;
+            if (iterator.hasNext()) {
+                action.accept(iterator.next());
+                return true;
+            }
+            finish();
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(@NotNull Consumer<? super E> action) {
+            if (done) {
+                return;
+            }
+            try {
+                open().iterator.forEachRemaining(action);
+            } finally {
+                finish();
+            }
+        }
+
+        @Override
+        public @Nullable Spliterator<E> trySplit() {
+            long span = hi - lo;  // the number of keys minus one (unsigned)
+            if (split != null || done || Long.compareUnsigned(span, minSplitSize) < 0) {
+                return null;
+            }
+            long mid = lo + (span >>> 1);
+            RangeSpliterator prefix = new RangeSpliterator(lo, mid, filter, openSplits);
+            lo = mid + 1;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            long span = hi - lo;
+            return done ? 0 : span >= 0 && span < Long.MAX_VALUE ? span + 1 : Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+
+        private @NotNull Split<E> open() {
+            if (split == null) {
+                Variable from = intKeys ? var((int) lo) : var(lo);
+                Variable to = intKeys ? var((int) hi) : var(hi);
+                CompositeFilter rangeFilter = CompositeFilter.builder()
+                    .with(Where.of(between(pk, from, to)))
+                    .with(filter)
+                    .build();
+                PooledConnector.Lease lease = pool != null ? pool.lease() : null;
+                try {
+                    PooledConnector owned = lease != null && lease.ownsConnection() ? pool : null;
+                    split = new Split<>(table.iterator(rangeFilter), owned, Thread.currentThread());
+                } catch (RuntimeException e) {
+                    if (lease != null) {
+                        lease.close();
+                    }
+                    throw e;
+                }
+                openSplits.add(split);
+            }
+            return split;
+        }
+
+        private void finish() {
+            done = true;
+            if (split != null) {
+                openSplits.close(split);
+            }
+        }
+    }
+
+    // The `pool` is set if the split has bound the connection of the `thread`, i.e. is responsible for returning it.
+    private record Split<T>(@NotNull ResultSetIterator<T> iterator,
+                            @Nullable PooledConnector pool,
+                            @NotNull Thread thread) {
+        private void close() {
+            try {
+                iterator.close();
+            } finally {
+                // Closed by another thread only if the split has been abandoned by its thread (e.g. after the early
+                // termination), which means the stream is closed and the thread no longer uses the connection
+                if (pool != null) {
+                    pool.release(thread);
+                }
+            }
+        }
+    }
+
+    private static final class OpenSplits {
+        private final Set<Split<?>> splits = ConcurrentHashMap.newKeySet();
+
+        private void add(@NotNull Split<?> split) {
+            splits.add(split);
+        }
+
+        private void close(@NotNull Split<?> split) {
+            if (splits.remove(split)) {
+                split.close();
+            }
+        }
+
+        private void closeAll() {
+            RuntimeException failure = null;
+            for (Split<?> split : splits) {
+                try {
+                    close(split);
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package io.spbx.orm.api;
+
+import com.google.common.collect.Lists;
+import io.spbx.orm.api.query.Filter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * A read-only view of the table, which selects only the columns of the projection {@code P} and converts the rows
+ * directly to the projection, skipping the rest of the entity columns. Suitable for the wide tables, when only a few
+ * columns are needed.
+ * <p>
+ * The projections are declared via {@link io.spbx.orm.api.annotate.Model#projections()}, the generated tables provide
+ * the instances by the projection class, along with the lookups by the primary key.
+ *
+ * @param <P> the projection type
+ */
+public interface ProjectedTable<P> {
+    /**
+     * Returns an iterator over the projections of all entries in the table.
+     * <b>Important</b>: the caller is responsible for closing the iterator:
+     * <pre>
+     *     try (ResultSetIterator<Projection> iterator = table.project(Projection.class).iterator()) {
+     *         iterator.forEachRemaining(action);
+     *     }
+     * </pre>
+     */
+    @NotNull ResultSetIterator<P> iterator();
+
+    /**
+     * Returns an iterator over the projections of the entries matching the {@code filter}.
+     * <b>Important</b>: the caller is responsible for closing the iterator.
+     */
+    @NotNull ResultSetIterator<P> iterator(@NotNull Filter filter);
+
+    /**
+     * Iterates over the projections of the entries matching the {@code filter} and calls the {@code action}.
+     */
+    default void forEach(@NotNull Filter filter, @NotNull Consumer<? super P> action) {
+        try (ResultSetIterator<P> iterator = iterator(filter)) {
+            iterator.forEachRemaining(action);
+        }
+    }
+
+    /**
+     * Returns a stream over the projections of the entries matching the {@code filter}.
+     * <b>Important</b>: the caller is responsible for closing the stream.
+     */
+    default @NotNull Stream<P> stream(@NotNull Filter filter) {
+        return iterator(filter).stream();
+    }
+
+    /**
+     * Returns the projections of all entries in the table.
+     */
+    default @NotNull List<P> fetchAll() {
+        try (ResultSetIterator<P> iterator = iterator()) {
+            return Lists.newArrayList(iterator);
+        }
+    }
+
+    /**
+     * Returns the projections of the entries matching the {@code filter}.
+     */
+    default @NotNull List<P> fetchAllMatching(@NotNull Filter filter) {
+        try (ResultSetIterator<P> iterator = iterator(filter)) {
+            return Lists.newArrayList(iterator);
+        }
+    }
+
+    /**
+     * Returns the projection of the first entry matching the {@code filter} or null if nothing matches.
+     */
+    default @Nullable P getFirstMatchingOrNull(@NotNull Filter filter) {
+        try (ResultSetIterator<P> iterator = iterator(filter)) {
+            return iterator.hasNext() ? iterator.next() : null;
+        }
+    }
+}
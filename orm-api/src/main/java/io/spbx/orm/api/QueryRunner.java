@@ -7,12 +7,23 @@ import com.carrotsearch.hppc.LongContainer;
 import com.carrotsearch.hppc.cursors.IntCursor;
 import com.carrotsearch.hppc.cursors.LongCursor;
 import com.google.common.collect.Lists;
+import io.spbx.orm.api.batch.BatchExecutor;
+import io.spbx.orm.api.batch.BatchOptions;
+import io.spbx.orm.api.batch.BatchResult;
+import io.spbx.orm.api.batch.BulkLoader;
+import io.spbx.orm.api.batch.MultiRowInsert;
+import io.spbx.orm.api.entity.BatchEntityData;
+import io.spbx.orm.api.metrics.QueryEvent;
+import io.spbx.orm.api.metrics.QueryListener;
+import io.spbx.orm.api.metrics.QueryProbe;
 import io.spbx.orm.api.query.Args;
+import io.spbx.orm.api.query.Column;
 import io.spbx.orm.api.query.DataDefinitionQuery;
 import io.spbx.orm.api.query.SelectQuery;
 import io.spbx.orm.api.tx.InTransaction;
 import io.spbx.util.base.annotate.CheckReturnValue;
 import io.spbx.util.base.annotate.MustBeClosed;
+import io.spbx.util.base.error.Unchecked;
 import io.spbx.util.func.ThrowConsumer;
 import io.spbx.util.func.ThrowFunction;
 import io.spbx.util.func.ThrowSupplier;
@@ -25,7 +36,10 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * A utility wrapper-class of a {@code Connection} which provides a more convenient API methods for
@@ -33,15 +47,95 @@ import java.util.List;
  */
 public class QueryRunner {
     private final Connection connection;
+    private final @Nullable StatementCache cache;
+    private final @Nullable QueryProbe probe;
+    private @Nullable Engine engine;
 
     public QueryRunner(@NotNull Connection connection) {
+        this(connection, null, null);
+    }
+
+    public QueryRunner(@NotNull Connection connection, @Nullable StatementCache cache) {
+        this(connection, cache, null);
+    }
+
+    public QueryRunner(@NotNull Connection connection, @Nullable StatementCache cache, @Nullable QueryProbe probe) {
+        this(connection, cache, probe, probe != null ? probe.engine() : null);
+    }
+
+    private QueryRunner(@NotNull Connection connection,
+                        @Nullable StatementCache cache,
+                        @Nullable QueryProbe probe,
+                        @Nullable Engine engine) {
+        assert cache == null || cache.connection() == connection : "Statement cache is attached to another connection";
         this.connection = connection;
+        this.cache = cache;
+        this.probe = probe;
+        this.engine = engine;
     }
 
     /*package*/ @NotNull Connection connection() {
         return connection;
     }
 
+    /**
+     * Returns the engine of the connection. Resolved from the connection metadata once per runner,
+     * and passed on to the copies of this runner.
+     */
+    public @NotNull Engine engine() throws SQLException {
+        Engine result = engine;
+        if (result == null) {
+            engine = result = Engine.fromConnection(connection);
+        }
+        return result;
+    }
+
+    private @NotNull Engine engineSafe() {
+        try {
+            return engine();
+        } catch (SQLException e) {
+            return Unchecked.rethrow(e);
+        }
+    }
+
+    /**
+     * Returns a copy of this runner which prepares the statements via the {@code cache}.
+     */
+    public @NotNull QueryRunner withStatementCache(@NotNull StatementCache cache) {
+        return new QueryRunner(connection, cache, probe, engine);
+    }
+
+    /**
+     * Returns the statement cache used by this runner, if any.
+     */
+    public @Nullable StatementCache statementCache() {
+        return cache;
+    }
+
+    /**
+     * Returns a copy of this runner which reports all prepared and executed statements to the {@code listener}.
+     *
+     * @see QueryListener
+     */
+    public @NotNull QueryRunner withListener(@NotNull QueryListener listener) {
+        return new QueryRunner(connection, cache, new QueryProbe(listener, engineSafe(), null));
+    }
+
+    /**
+     * Returns a runner which reports the queries on behalf of the {@code table}.
+     * Returns this runner if there is no listener to report to.
+     */
+    public @NotNull QueryRunner forTable(@NotNull String table) {
+        return probe == null ? this : new QueryRunner(connection, cache, probe.forTable(table), engine);
+    }
+
+    /**
+     * Returns the probe reporting the queries of this runner, if any.
+     */
+    public @Nullable QueryProbe probe() {
+        return probe;
+    }
+
     @CheckReturnValue
     public @NotNull InTransaction<QueryRunner> tx() {
         return new InTransaction<>(connection, this);
@@ -122,12 +216,121 @@ public class QueryRunner {
     public <E> @NotNull ResultSetIterator<E> iterate(@NotNull SelectQuery query,
                                                      @NotNull ResultSetIterator.Converter<E> converter) {
         try {
-            return ResultSetIterator.of(prepareQuery(query).executeQuery(), converter);
+            PreparedStatement statement = prepareQuery(query);
+            try {
+                return ResultSetIterator.of(statement, statement.executeQuery(), converter);
+            } catch (SQLException | RuntimeException e) {
+                statement.close();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new QueryException("Failed to execute select query", query.repr(), query.args(), e);
+        }
+    }
+
+    @MustBeClosed
+    public <E> @NotNull ResultSetIterator<E> iterate(@NotNull SelectQuery query,
+                                                     @NotNull ReadOptions options,
+                                                     @NotNull ResultSetIterator.Converter<E> converter) {
+        try {
+            return iterate(query.repr(), query.args(), options, converter);
         } catch (SQLException e) {
             throw new QueryException("Failed to execute select query", query.repr(), query.args(), e);
         }
     }
 
+    /**
+     * Executes the {@code sql} query and returns the iterator over the results read according to the {@code options}.
+     * <p>
+     * The non-default options make the statement {@link ResultSet#TYPE_FORWARD_ONLY} and
+     * {@link ResultSet#CONCUR_READ_ONLY} and set the engine-specific fetch size.
+     * If the engine streams the rows only within a transaction, the auto-commit is turned off for the lifetime
+     * of the iterator and restored on close.
+     * <b>Important</b>: while the rows are streamed, some engines (e.g. MySQL) can't run other queries
+     * on the same connection.
+     */
+    @MustBeClosed
+    public <E> @NotNull ResultSetIterator<E> iterate(@NotNull String sql,
+                                                     @NotNull Args args,
+                                                     @NotNull ReadOptions options,
+                                                     @NotNull ResultSetIterator.Converter<E> converter) throws SQLException {
+        if (options.isDefault()) {
+            PreparedStatement statement = prepareQuery(sql, args);
+            try {
+                return ResultSetIterator.of(statement, statement.executeQuery(), converter);
+            } catch (SQLException | RuntimeException e) {
+                statement.close();
+                throw e;
+            }
+        }
+
+        Engine engine = engine();
+        boolean disableAutoCommit = options.requiresTransaction(engine) && connection.getAutoCommit();
+        if (disableAutoCommit) {
+            connection.setAutoCommit(false);
+        }
+        try {
+            PreparedStatement statement = prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            try {
+                assert args.isAllResolved() : "Query contains unresolved args: query=`%s` args=`%s`".formatted(sql, args);
+                args.setPreparedParams(statement);
+                statement.setFetchSize(options.fetchSizeFor(engine));
+                return new StreamingIterator<>(statement, statement.executeQuery(), converter, disableAutoCommit);
+            } catch (SQLException | RuntimeException e) {
+                statement.close();
+                throw e;
+            }
+        } catch (SQLException | RuntimeException e) {
+            if (disableAutoCommit) {
+                connection.setAutoCommit(true);
+            }
+            throw e;
+        }
+    }
+
+    private class StreamingIterator<E> extends ResultSetIterator<E> {
+        private final Statement statement;
+        private final boolean restoreAutoCommit;
+
+        private StreamingIterator(@NotNull Statement statement,
+                                  @NotNull ResultSet resultSet,
+                                  @NotNull Converter<E> converter,
+                                  boolean restoreAutoCommit) {
+            super(resultSet, statement, true, converter);
+            this.statement = statement;
+            this.restoreAutoCommit = restoreAutoCommit;
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (cache != null && !statement.isClosed()) {
+                    statement.setFetchSize(0);  // the cached statement can be reused without streaming
+                }
+                super.close();
+                if (restoreAutoCommit) {
+                    connection.setAutoCommit(true);  // commits the read-only transaction
+                }
+            } catch (SQLException e) {
+                Unchecked.rethrow(e);
+            }
+        }
+    }
+
+    @MustBeClosed
+    public <E> @NotNull Stream<E> stream(@NotNull SelectQuery query, @NotNull ResultSetIterator.Converter<E> converter) {
+        return iterate(query, converter).stream();
+    }
+
+    /**
+     * Returns the cold publisher of the {@code query} results. The query is executed by this runner upon the first
+     * request of each subscription, and the rows are converted only as they are requested by the subscriber.
+     */
+    public <E> @NotNull ResultSetPublisher<E> publisher(@NotNull SelectQuery query,
+                                                        @NotNull ResultSetIterator.Converter<E> converter) {
+        return ResultSetPublisher.of(() -> iterate(query, converter));
+    }
+
     public <E> @NotNull List<E> fetchAll(@NotNull SelectQuery query, @NotNull ResultSetIterator.Converter<E> converter) {
         try (ResultSetIterator<E> iterator = iterate(query, converter)) {
             return Lists.newArrayList(iterator);
@@ -174,34 +377,34 @@ public class QueryRunner {
 
     @MustBeClosed
     public @NotNull PreparedStatement prepareQuery(@NotNull String sql) throws SQLException {
-        return connection.prepareStatement(sql);
+        return prepareStatement(sql);
     }
 
     @MustBeClosed
     public @NotNull PreparedStatement prepareQuery(@NotNull String sql, @NotNull Args args) throws SQLException {
         assert args.isAllResolved() : "Query contains unresolved args: query=`%s` args=`%s`".formatted(sql, args);
-        PreparedStatement prepared = connection.prepareStatement(sql);
+        PreparedStatement prepared = prepareStatement(sql);
         args.setPreparedParams(prepared);
         return prepared;
     }
 
     @MustBeClosed
     public @NotNull PreparedStatement prepareQuery(@NotNull String sql, @Nullable Object param) throws SQLException {
-        PreparedStatement prepared = connection.prepareStatement(sql);
+        PreparedStatement prepared = prepareStatement(sql);
         prepared.setObject(1, param);
         return prepared;
     }
 
     @MustBeClosed
     public @NotNull PreparedStatement prepareQuery(@NotNull String sql, int param) throws SQLException {
-        PreparedStatement prepared = connection.prepareStatement(sql);
+        PreparedStatement prepared = prepareStatement(sql);
         prepared.setInt(1, param);
         return prepared;
     }
 
     @MustBeClosed
     public @NotNull PreparedStatement prepareQuery(@NotNull String sql, long param) throws SQLException {
-        PreparedStatement prepared = connection.prepareStatement(sql);
+        PreparedStatement prepared = prepareStatement(sql);
         prepared.setLong(1, param);
         return prepared;
     }
@@ -210,7 +413,7 @@ public class QueryRunner {
     public @NotNull PreparedStatement prepareQuery(@NotNull String sql,
                                                    @Nullable Object param1,
                                                    @Nullable Object param2) throws SQLException {
-        PreparedStatement prepared = connection.prepareStatement(sql);
+        PreparedStatement prepared = prepareStatement(sql);
         prepared.setObject(1, param1);
         prepared.setObject(2, param2);
         return prepared;
@@ -221,7 +424,7 @@ public class QueryRunner {
                                                    @Nullable Object param1,
                                                    @Nullable Object param2,
                                                    @Nullable Object param3) throws SQLException {
-        PreparedStatement prepared = connection.prepareStatement(sql);
+        PreparedStatement prepared = prepareStatement(sql);
         prepared.setObject(1, param1);
         prepared.setObject(2, param2);
         prepared.setObject(3, param3);
@@ -231,28 +434,28 @@ public class QueryRunner {
     @MustBeClosed
     public @NotNull PreparedStatement prepareQuery(@NotNull String sql,
                                                    @Nullable Object @NotNull ... params) throws SQLException {
-        PreparedStatement prepared = connection.prepareStatement(sql);
+        PreparedStatement prepared = prepareStatement(sql);
         setPreparedParams(prepared, params);
         return prepared;
     }
 
     @MustBeClosed
     public @NotNull PreparedStatement prepareQuery(@NotNull String sql, @NotNull Iterable<?> params) throws SQLException {
-        PreparedStatement prepared = connection.prepareStatement(sql);
+        PreparedStatement prepared = prepareStatement(sql);
         setPreparedParams(prepared, params);
         return prepared;
     }
 
     @MustBeClosed
     public @NotNull PreparedStatement prepareQuery(@NotNull String sql, @NotNull IntContainer params) throws SQLException {
-        PreparedStatement prepared = connection.prepareStatement(sql);
+        PreparedStatement prepared = prepareStatement(sql);
         setPreparedParams(prepared, params);
         return prepared;
     }
 
     @MustBeClosed
     public @NotNull PreparedStatement prepareQuery(@NotNull String sql, @NotNull LongContainer params) throws SQLException {
-        PreparedStatement prepared = connection.prepareStatement(sql);
+        PreparedStatement prepared = prepareStatement(sql);
         setPreparedParams(prepared, params);
         return prepared;
     }
@@ -262,6 +465,51 @@ public class QueryRunner {
         return prepareQuery(query.repr(), query.args());
     }
 
+    @MustBeClosed
+    private @NotNull PreparedStatement prepareStatement(@NotNull String sql) throws SQLException {
+        if (probe == null) {
+            return cache != null ? cache.prepare(sql) : connection.prepareStatement(sql);
+        }
+        return instrument(sql, () -> cache != null ? cache.prepare(sql) : connection.prepareStatement(sql));
+    }
+
+    @MustBeClosed
+    private @NotNull PreparedStatement prepareStatement(@NotNull String sql, int autoGeneratedKeys) throws SQLException {
+        if (probe == null) {
+            return cache != null ? cache.prepare(sql, autoGeneratedKeys) : connection.prepareStatement(sql, autoGeneratedKeys);
+        }
+        return instrument(sql, () -> cache != null ?
+            cache.prepare(sql, autoGeneratedKeys) :
+            connection.prepareStatement(sql, autoGeneratedKeys));
+    }
+
+    @MustBeClosed
+    private @NotNull PreparedStatement prepareStatement(@NotNull String sql, int type, int concurrency) throws SQLException {
+        if (probe == null) {
+            return cache != null ? cache.prepare(sql, type, concurrency) : connection.prepareStatement(sql, type, concurrency);
+        }
+        return instrument(sql, () -> cache != null ?
+            cache.prepare(sql, type, concurrency) :
+            connection.prepareStatement(sql, type, concurrency));
+    }
+
+    @MustBeClosed
+    private @NotNull PreparedStatement instrument(@NotNull String sql,
+                                                  @NotNull ThrowSupplier<PreparedStatement, SQLException> preparer)
+            throws SQLException {
+        assert probe != null : "No probe to instrument the statement with: " + sql;
+        long start = System.nanoTime();
+        PreparedStatement statement;
+        try {
+            statement = preparer.get();
+        } catch (SQLException | RuntimeException e) {
+            probe.report(QueryEvent.Kind.PREPARE, sql, start, -1, 0, e);
+            throw e;
+        }
+        probe.report(QueryEvent.Kind.PREPARE, sql, start, -1, 0, null);
+        return probe.instrument(statement, sql);
+    }
+
     // Set params
 
     public static int setPreparedParams(@NotNull PreparedStatement statement,
@@ -317,8 +565,18 @@ public class QueryRunner {
     // Run Updates
 
     public int runUnpreparedUpdate(@NotNull String sql) throws SQLException {
+        long start = System.nanoTime();
         try (Statement statement = connection.createStatement()) {
-            return statement.executeUpdate(sql);
+            int rows = statement.executeUpdate(sql);
+            if (probe != null) {
+                probe.report(QueryEvent.Kind.UPDATE, sql, start, rows, 0, null);
+            }
+            return rows;
+        } catch (SQLException | RuntimeException e) {
+            if (probe != null) {
+                probe.report(QueryEvent.Kind.UPDATE, sql, start, -1, 0, e);
+            }
+            throw e;
         }
     }
 
@@ -327,7 +585,7 @@ public class QueryRunner {
     }
 
     public int runUpdate(@NotNull String sql) throws SQLException {
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (PreparedStatement statement = prepareStatement(sql)) {
             return statement.executeUpdate();
         }
     }
@@ -385,7 +643,7 @@ public class QueryRunner {
 
     public @NotNull AutoIncResult runAutoIncUpdate(@NotNull String sql,
                                                    @Nullable Object @NotNull ... params) throws SQLException {
-        try (PreparedStatement prepared = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (PreparedStatement prepared = prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             setPreparedParams(prepared, params);
 
             // See https://stackoverflow.com/questions/1915166/how-to-get-the-insert-id-in-jdbc
@@ -411,6 +669,115 @@ public class QueryRunner {
         }
     }
 
+    /**
+     * Executes the batch update with the params pulled lazily from the {@code paramsBatch} iterator
+     * in chunks according to the {@code options}.
+     *
+     * @see BatchExecutor
+     */
+    public @NotNull BatchResult runUpdateBatch(@NotNull String sql,
+                                               @NotNull Iterator<? extends @Nullable Object @NotNull[]> paramsBatch,
+                                               @NotNull BatchOptions options) throws SQLException {
+        try (PreparedStatement prepared = prepareQuery(sql)) {
+            return new BatchExecutor(connection, options).execute(prepared, paramsBatch);
+        }
+    }
+
+    /**
+     * Executes the batch update with the params consumed lazily from the {@code paramsBatch} stream
+     * in chunks according to the {@code options}.
+     *
+     * @see BatchExecutor
+     */
+    public @NotNull BatchResult runUpdateBatch(@NotNull String sql,
+                                               @NotNull Stream<? extends @Nullable Object @NotNull[]> paramsBatch,
+                                               @NotNull BatchOptions options) throws SQLException {
+        return runUpdateBatch(sql, paramsBatch.iterator(), options);
+    }
+
+    /**
+     * Inserts the rows pulled lazily from the {@code paramsBatch} iterator in chunks according to the {@code options}.
+     * If {@link BatchOptions#isMultiRow()}, the rows are sent via multi-row statements of the {@code insert},
+     * otherwise one statement per row.
+     *
+     * @see BatchExecutor
+     * @see MultiRowInsert
+     */
+    public @NotNull BatchResult runInsertBatch(@NotNull MultiRowInsert insert,
+                                               @NotNull Iterator<? extends @Nullable Object @NotNull[]> paramsBatch,
+                                               @NotNull BatchOptions options) throws SQLException {
+        if (!options.isMultiRow()) {
+            return runUpdateBatch(insert.sql(0), paramsBatch, options);
+        }
+        Engine engine = engine();
+        return new BatchExecutor(connection, options).execute(insert, engine, this::prepareQuery, paramsBatch);
+    }
+
+    public @NotNull BatchResult runInsertBatch(@NotNull MultiRowInsert insert,
+                                               @NotNull Stream<? extends @Nullable Object @NotNull[]> paramsBatch,
+                                               @NotNull BatchOptions options) throws SQLException {
+        return runInsertBatch(insert, paramsBatch.iterator(), options);
+    }
+
+    /**
+     * Loads the {@code rows} into the {@code columns} of the {@code table} via the engine-native bulk loader.
+     * Falls back to the chunked multi-row inserts with {@code fallbackOptions} if the engine isn't supported.
+     *
+     * @return the number of inserted rows
+     * @see BulkLoader
+     */
+    public long runBulkLoad(@NotNull String table,
+                            @NotNull List<String> columns,
+                            @NotNull Iterator<? extends @Nullable Object @NotNull[]> rows,
+                            @NotNull BatchOptions fallbackOptions) throws SQLException {
+        Engine engine = engine();
+        if (BulkLoader.isSupported(engine)) {
+            return reportBulk(table, () -> new BulkLoader(connection, engine).load(table, columns, rows));
+        }
+        String header = "INSERT INTO %s (%s)\nVALUES\n".formatted(table, String.join(", ", columns));
+        return runInsertBatch(MultiRowInsert.of(header, columns.size()), rows, fallbackOptions).rows();
+    }
+
+    /**
+     * Loads the {@code batchData} into the {@code table} via the engine-native bulk loader.
+     * Falls back to the JDBC batch if the engine isn't supported.
+     *
+     * @return the number of inserted rows
+     * @see BulkLoader
+     */
+    public long runBulkLoad(@NotNull String table, @NotNull BatchEntityData<?> batchData) throws SQLException {
+        Engine engine = engine();
+        if (BulkLoader.isSupported(engine)) {
+            return reportBulk(table, () -> new BulkLoader(connection, engine).load(table, batchData));
+        }
+        int size = batchData.dataSize();
+        String sql = "INSERT INTO %s (%s)\nVALUES (%s)".formatted(
+            table,
+            batchData.columns().stream().map(Column::name).collect(Collectors.joining(", ")),
+            "?, ".repeat(size - 1) + "?"
+        );
+        try (PreparedStatement prepared = prepareQuery(sql)) {
+            batchData.provideBatchValues(prepared, null);
+            return prepared.executeBatch().length;
+        }
+    }
+
+    private long reportBulk(@NotNull String table, @NotNull ThrowSupplier<Long, SQLException> load) throws SQLException {
+        if (probe == null) {
+            return load.get();
+        }
+        String description = "BULK LOAD " + table;
+        long start = System.nanoTime();
+        try {
+            long rows = load.get();
+            probe.report(QueryEvent.Kind.BULK, description, start, rows, 0, null);
+            return rows;
+        } catch (SQLException | RuntimeException e) {
+            probe.report(QueryEvent.Kind.BULK, description, start, -1, 0, e);
+            throw e;
+        }
+    }
+
     public static void setBatchPreparedParams(@NotNull PreparedStatement prepared,
                                               @NotNull Collection<Object[]> paramsBatch) throws SQLException {
         for (Object[] params : paramsBatch) {
@@ -0,0 +1,62 @@
+package io.spbx.orm.api;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Holds the JDBC options for the read (iteration) queries: the fetch size and whether the rows must be streamed
+ * from the server rather than buffered on the client.
+ * <p>
+ * The default options leave the fetch behavior to the driver. Note that the drivers differ a lot in that respect:
+ * <ul>
+ *     <li>MySQL buffers the whole result unless the fetch size is {@link Integer#MIN_VALUE}.</li>
+ *     <li>PostgreSQL respects the fetch size only if auto-commit is off.</li>
+ *     <li>MariaDB streams the rows with any positive fetch size.</li>
+ * </ul>
+ * The {@link #streaming(int)} options take care of these differences given the {@link Engine}.
+ *
+ * @param fetchSize the fetch size hint, 0 means the driver default
+ * @param streaming whether the rows must be streamed from the server
+ */
+@Immutable
+public record ReadOptions(int fetchSize, boolean streaming) {
+    public static final ReadOptions DEFAULT = new ReadOptions(0, false);
+
+    public ReadOptions {
+        assert fetchSize >= 0 : "Fetch size must be non-negative: " + fetchSize;
+        assert !streaming || fetchSize > 0 : "Streaming requires positive fetch size: " + fetchSize;
+    }
+
+    /**
+     * Returns the options to stream the rows from the server in chunks of roughly {@code fetchSize} rows.
+     */
+    public static @NotNull ReadOptions streaming(int fetchSize) {
+        return new ReadOptions(fetchSize, true);
+    }
+
+    /**
+     * Returns the options with the fetch size hint, which may or may not be respected by the driver.
+     */
+    public static @NotNull ReadOptions fetchSize(int fetchSize) {
+        return new ReadOptions(fetchSize, false);
+    }
+
+    public boolean isDefault() {
+        return fetchSize == 0 && !streaming;
+    }
+
+    /**
+     * Returns the fetch size to set to the statement for the {@code engine}.
+     */
+    public int fetchSizeFor(@NotNull Engine engine) {
+        return streaming && engine == Engine.MySQL ? Integer.MIN_VALUE : fetchSize;
+    }
+
+    /**
+     * Returns whether the {@code engine} can stream the rows only within an explicit transaction (auto-commit off).
+     */
+    public boolean requiresTransaction(@NotNull Engine engine) {
+        return streaming && engine == Engine.PostgreSQL;
+    }
+}
@@ -12,7 +12,11 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static io.spbx.util.base.lang.EasyCast.castAny;
 
@@ -24,13 +28,22 @@ import static io.spbx.util.base.lang.EasyCast.castAny;
  */
 public class ResultSetIterator<E> implements Iterator<E>, Closeable {
     private final ResultSet resultSet;
+    private final @Nullable Statement statement;
     private final boolean ownsStatement;
     private final Converter<E> converter;
     private final AtomicBoolean nextCalled = new AtomicBoolean();
     private final AtomicBoolean hasNextCached = new AtomicBoolean();
 
     public ResultSetIterator(@NotNull ResultSet resultSet, boolean ownsStatement, @NotNull Converter<E> converter) {
+        this(resultSet, null, ownsStatement, converter);
+    }
+
+    protected ResultSetIterator(@NotNull ResultSet resultSet,
+                                @Nullable Statement statement,
+                                boolean ownsStatement,
+                                @NotNull Converter<E> converter) {
         this.resultSet = resultSet;
+        this.statement = statement;
         this.ownsStatement = ownsStatement;
         this.converter = converter;
     }
@@ -40,6 +53,35 @@ public class ResultSetIterator<E> implements Iterator<E>, Closeable {
         return new ResultSetIterator<>(resultSet, true, converter);
     }
 
+    /**
+     * Creates the iterator which owns the {@code statement} explicitly, i.e. closes exactly this instance
+     * rather than the one returned by {@link ResultSet#getStatement()} (which can be different, e.g. when
+     * the statement is a cached wrapper).
+     */
+    @MustBeClosed
+    public static <E> @NotNull ResultSetIterator<E> of(@NotNull Statement statement,
+                                                       @NotNull ResultSet resultSet,
+                                                       @NotNull Converter<E> converter) {
+        return new ResultSetIterator<>(resultSet, statement, true, converter);
+    }
+
+    /**
+     * Returns a sequential lazy {@link Stream} over the remaining rows. The rows are fetched and converted only when
+     * consumed by the stream pipeline. Closing the stream closes this iterator.
+     * <b>Important</b>: the caller is responsible for closing the stream:
+     * {@snippet lang="java" :
+     *     try (Stream<Entity> stream = iterator.stream()) {
+     *         stream.forEach(action);
+     *     }
+     * }
+     */
+    @MustBeClosed
+    public @NotNull Stream<E> stream() {
+        int characteristics = Spliterator.ORDERED | Spliterator.NONNULL;
+        Spliterator<E> spliterator = Spliterators.spliteratorUnknownSize(this, characteristics);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
     @Override
     public boolean hasNext() {
         // switch to resultSet.isLast() when it's supported:
@@ -79,6 +121,13 @@ public class ResultSetIterator<E> implements Iterator<E>, Closeable {
             // Best-effort to close the statement (if owns). Notes:
             // - Calling the method close on a ResultSet object that is already closed is a no-op.
             // - Calling the method close on a Statement object that is already closed has no effect.
+            if (this.statement != null) {
+                resultSet.close();
+                if (ownsStatement) {
+                    this.statement.close();
+                }
+                return;
+            }
             Statement statement = ownsStatement ? getStatementOrNull() : null;
             if (statement != null) {
                 statement.close();
@@ -0,0 +1,143 @@
+package io.spbx.orm.api;
+
+import io.spbx.util.logging.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A cold {@link Flow.Publisher} streaming the rows of a query via {@link ResultSetIterator}.
+ * <p>
+ * Each subscription opens its own {@link ResultSetIterator} upon the first request and honors the subscriber demand:
+ * the rows are fetched and converted only as they are requested, so the memory footprint stays constant regardless
+ * of the result size. Cancellation, completion or an error closes the iterator (and the statement).
+ * <p>
+ * The rows are emitted serially, either on the thread calling {@link Flow.Subscription#request(long)}
+ * (the default) or on the provided {@code executor}. Note that the JDBC connection is used from that thread.
+ *
+ * @param <E> the type of the emitted items
+ */
+public class ResultSetPublisher<E> implements Flow.Publisher<E> {
+    private static final Logger log = Logger.forEnclosingClass();
+
+    private final Supplier<ResultSetIterator<E>> opener;
+    private final Executor executor;
+
+    public ResultSetPublisher(@NotNull Supplier<ResultSetIterator<E>> opener, @NotNull Executor executor) {
+        this.opener = opener;
+        this.executor = executor;
+    }
+
+    public static <E> @NotNull ResultSetPublisher<E> of(@NotNull Supplier<ResultSetIterator<E>> opener) {
+        return new ResultSetPublisher<>(opener, Runnable::run);
+    }
+
+    public static <E> @NotNull ResultSetPublisher<E> of(@NotNull Supplier<ResultSetIterator<E>> opener,
+                                                       @NotNull Executor executor) {
+        return new ResultSetPublisher<>(opener, executor);
+    }
+
+    @Override
+    public void subscribe(@NotNull Flow.Subscriber<? super E> subscriber) {
+        subscriber.onSubscribe(new RowSubscription(subscriber));
+    }
+
+    private class RowSubscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super E> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled = false;
+        private volatile @Nullable Throwable invalidRequest;
+        private @Nullable ResultSetIterator<E> iterator;  // accessed only within `run()`
+
+        private RowSubscription(@NotNull Flow.Subscriber<? super E> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Non-positive request: " + n);  // Rule 3.9
+            } else {
+                demand.accumulateAndGet(n, (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                if (cancelled) {
+                    closeIterator();
+                    return;
+                }
+                Throwable invalid = invalidRequest;
+                if (invalid != null) {
+                    terminate(invalid);
+                    return;
+                }
+                try {
+                    if (iterator == null) {
+                        iterator = opener.get();
+                    }
+                    long requested = demand.get();
+                    long emitted = 0;
+                    while (emitted != requested && !cancelled) {
+                        if (!iterator.hasNext()) {
+                            terminate(null);
+                            return;
+                        }
+                        subscriber.onNext(iterator.next());
+                        emitted++;
+                    }
+                    if (emitted > 0 && requested != Long.MAX_VALUE) {
+                        demand.addAndGet(-emitted);
+                    }
+                } catch (Throwable throwable) {
+                    terminate(throwable);
+                    return;
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void terminate(@Nullable Throwable error) {
+            cancelled = true;
+            closeIterator();
+            if (error == null) {
+                subscriber.onComplete();
+            } else {
+                subscriber.onError(error);
+            }
+        }
+
+        private void closeIterator() {
+            if (iterator != null) {
+                try {
+                    iterator.close();
+                } catch (Throwable e) {
+                    log.warn().withCause(e).log("Failed to close the result set: %s", e.getMessage());
+                }
+                iterator = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package io.spbx.orm.api;
+
+import io.spbx.util.base.annotate.MustBeClosed;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded LRU cache of {@link PreparedStatement}s attached to a single JDBC {@link Connection}.
+ * <p>
+ * The statements are keyed by the SQL string along with the result set type, concurrency and generated keys flags.
+ * A statement obtained from the cache is exclusively owned by the caller until it is closed. Closing the statement
+ * does not close the underlying JDBC statement, instead it clears the params and returns it to the cache.
+ * The least recently used statements are closed when the cache exceeds its capacity.
+ * <p>
+ * The cache is opt-in: see {@link Connector#withStatementCache(int)} and {@link QueryRunner#withStatementCache}.
+ */
+public class StatementCache implements AutoCloseable {
+    private final Connection connection;
+    private final int capacity;
+    private final LinkedHashMap<Key, PreparedStatement> idle;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public StatementCache(@NotNull Connection connection, int capacity) {
+        assert capacity > 0 : "Invalid statement cache capacity: " + capacity;
+        this.connection = connection;
+        this.capacity = capacity;
+        this.idle = new LinkedHashMap<>(capacity, 0.75f, true);
+    }
+
+    public @NotNull Connection connection() {
+        return connection;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    @MustBeClosed
+    public @NotNull PreparedStatement prepare(@NotNull String sql) throws SQLException {
+        return prepare(Key.of(sql));
+    }
+
+    @MustBeClosed
+    public @NotNull PreparedStatement prepare(@NotNull String sql, int autoGeneratedKeys) throws SQLException {
+        return prepare(new Key(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, autoGeneratedKeys));
+    }
+
+    @MustBeClosed
+    public @NotNull PreparedStatement prepare(@NotNull String sql,
+                                              int resultSetType,
+                                              int resultSetConcurrency) throws SQLException {
+        return prepare(new Key(sql, resultSetType, resultSetConcurrency, Statement.NO_GENERATED_KEYS));
+    }
+
+    @MustBeClosed
+    public @NotNull PreparedStatement prepare(@NotNull Key key) throws SQLException {
+        PreparedStatement statement;
+        synchronized (idle) {
+            statement = idle.remove(key);
+        }
+        if (statement != null && !statement.isClosed()) {
+            hits.increment();
+        } else {
+            misses.increment();
+            statement = key.prepare(connection);
+        }
+        return new CachedStatement(key, statement);
+    }
+
+    /**
+     * Returns the current cache statistics.
+     */
+    public @NotNull Stats stats() {
+        int size;
+        synchronized (idle) {
+            size = idle.size();
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+    /**
+     * Closes all idle statements in the cache. The statements that are currently in use are closed upon release.
+     */
+    public void clear() throws SQLException {
+        List<PreparedStatement> statements;
+        synchronized (idle) {
+            statements = new ArrayList<>(idle.values());
+            idle.clear();
+        }
+        closeAll(statements);
+    }
+
+    @Override
+    public void close() throws SQLException {
+        clear();
+    }
+
+    private void release(@NotNull Key key, @NotNull PreparedStatement statement) throws SQLException {
+        if (statement.isClosed()) {
+            return;
+        }
+        statement.clearParameters();
+        statement.clearBatch();
+
+        List<PreparedStatement> toClose = new ArrayList<>(1);
+        synchronized (idle) {
+            PreparedStatement displaced = idle.put(key, statement);
+            if (displaced != null) {
+                toClose.add(displaced);  // the same query has been prepared concurrently
+            }
+            Iterator<Map.Entry<Key, PreparedStatement>> iterator = idle.entrySet().iterator();
+            while (idle.size() > capacity && iterator.hasNext()) {
+                toClose.add(iterator.next().getValue());
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+        closeAll(toClose);
+    }
+
+    private static void closeAll(@NotNull List<PreparedStatement> statements) throws SQLException {
+        SQLException exception = null;
+        for (PreparedStatement statement : statements) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    /**
+     * The cache key of the {@link PreparedStatement}.
+     */
+    @Immutable
+    public record Key(@NotNull String sql, int resultSetType, int resultSetConcurrency, int autoGeneratedKeys) {
+        public static @NotNull Key of(@NotNull String sql) {
+            return new Key(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, Statement.NO_GENERATED_KEYS);
+        }
+
+        private @NotNull PreparedStatement prepare(@NotNull Connection connection) throws SQLException {
+            if (autoGeneratedKeys != Statement.NO_GENERATED_KEYS) {
+                return connection.prepareStatement(sql, autoGeneratedKeys);
+            }
+            if (resultSetType != ResultSet.TYPE_FORWARD_ONLY || resultSetConcurrency != ResultSet.CONCUR_READ_ONLY) {
+                return connection.prepareStatement(sql, resultSetType, resultSetConcurrency);
+            }
+            return connection.prepareStatement(sql);
+        }
+    }
+
+    /**
+     * The snapshot of the cache counters.
+     */
+    @Immutable
+    public record Stats(long hits, long misses, long evictions, int size) {
+        public long requests() {
+            return hits + misses;
+        }
+
+        public double hitRatio() {
+            long requests = requests();
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+
+    /**
+     * Holds the caches of the connections used by a single owner (see {@link Connector#withStatementCache(int)}),
+     * all of the same capacity. The caches of the closed connections are dropped once a new connection is attached.
+     */
+    @ThreadSafe
+    static class PerConnection {
+        private final int capacity;
+        private final Map<Connection, StatementCache> caches = new IdentityHashMap<>();
+
+        PerConnection(int capacity) {
+            assert capacity > 0 : "Invalid statement cache capacity: " + capacity;
+            this.capacity = capacity;
+        }
+
+        synchronized @NotNull StatementCache attachedTo(@NotNull Connection connection) {
+            StatementCache cache = caches.get(connection);
+            if (cache == null) {
+                caches.keySet().removeIf(PerConnection::isClosed);
+                cache = new StatementCache(connection, capacity);
+                caches.put(connection, cache);
+            }
+            return cache;
+        }
+
+        synchronized int size() {
+            return caches.size();
+        }
+
+        private static boolean isClosed(@NotNull Connection connection) {
+            try {
+                return connection.isClosed();
+            } catch (SQLException e) {
+                return true;
+            }
+        }
+    }
+
+    private class CachedStatement extends ForwardingPreparedStatement {
+        private final Key key;
+        private final PreparedStatement statement;
+        private boolean released = false;
+
+        private CachedStatement(@NotNull Key key, @NotNull PreparedStatement statement) {
+            this.key = key;
+            this.statement = statement;
+        }
+
+        @Override
+        protected @NotNull PreparedStatement delegate() throws SQLException {
+            if (released) {
+                throw new SQLException("Statement is returned to the cache: " + key.sql());
+            }
+            return statement;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (!released) {
+                released = true;
+                release(key, statement);
+            }
+        }
+
+        @Override
+        public boolean isClosed() throws SQLException {
+            return released || statement.isClosed();
+        }
+
+        @Override
+        public String toString() {
+            return "Cached[%s]".formatted(statement);
+        }
+    }
+}
@@ -3,12 +3,15 @@ package io.spbx.orm.api;
 import com.carrotsearch.hppc.LongArrayList;
 import com.carrotsearch.hppc.LongContainer;
 import com.carrotsearch.hppc.LongObjectMap;
+import io.spbx.orm.api.pool.PooledConnector;
 import io.spbx.orm.api.query.Filter;
 import io.spbx.util.base.annotate.CanIgnoreReturnValue;
+import io.spbx.util.base.annotate.MustBeClosed;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static java.util.Objects.requireNonNull;
 
@@ -28,6 +31,13 @@ public interface TableLong<E> extends TableObj<Long, E> {
     @Override
     @NotNull TableLong<E> withReferenceFollowOnRead(@NotNull ReadFollow follow);
 
+    /**
+     * Returns a copy of {@link TableLong} instance with custom {@code options} for iteration in the table.
+     * Default value is {@link ReadOptions#DEFAULT}.
+     */
+    @Override
+    @NotNull TableLong<E> withReadOptions(@NotNull ReadOptions options);
+
     /**
      * Returns whether the table contains the entity matching the {@code key} (native {@code long} version).
      */
@@ -90,6 +100,31 @@ public interface TableLong<E> extends TableObj<Long, E> {
      */
     @NotNull LongObjectMap<E> getBatchByPk(@NotNull LongContainer keys);
 
+    /**
+     * Returns the stream over all entities of the table, fetched in parallel by the primary key ranges.
+     * Each range is fetched via a connection leased from the {@code pool}, which must be the connector of this table.
+     * <b>Important</b>: the caller is responsible for closing the stream.
+     *
+     * @see PkRangeScan
+     */
+    @MustBeClosed
+    default @NotNull Stream<E> parallelStream(@NotNull PooledConnector pool) {
+        return PkRangeScan.of(this).withPool(pool).stream(true);
+    }
+
+    /**
+     * Returns the stream over the entities matching the {@code filter}, fetched in parallel by the primary key ranges.
+     * Each range is fetched via a connection leased from the {@code pool}, which must be the connector of this table.
+     * The {@code filter} can't contain a {@code LIMIT} or {@code OFFSET}.
+     * <b>Important</b>: the caller is responsible for closing the stream.
+     *
+     * @see PkRangeScan
+     */
+    @MustBeClosed
+    default @NotNull Stream<E> parallelStream(@NotNull PooledConnector pool, @NotNull Filter filter) {
+        return PkRangeScan.of(this).withPool(pool).stream(filter, true);
+    }
+
     /**
      * Fetches and returns the long array list of ids for entities that match specified {@code filter}.
      */
@@ -25,6 +25,13 @@ public interface TableObj<K, E> extends BaseTable<E> {
     @Override
     @NotNull TableObj<K, E> withReferenceFollowOnRead(@NotNull ReadFollow follow);
 
+    /**
+     * Returns a copy of {@link TableObj} instance with custom {@code options} for iteration in the table.
+     * Default value is {@link ReadOptions#DEFAULT}.
+     */
+    @Override
+    @NotNull TableObj<K, E> withReadOptions(@NotNull ReadOptions options);
+
     /**
      * Returns whether the table contains the entity matching the {@code key}.
      */
@@ -0,0 +1,143 @@
+package io.spbx.orm.api;
+
+import com.google.common.collect.MapMaker;
+import io.spbx.orm.api.query.Args;
+import io.spbx.orm.api.query.HardcodedSelectQuery;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Provides the approximate table sizes from the engine statistics, which are maintained by the DBMS
+ * (e.g. by {@code ANALYZE}) and are read in constant time, unlike the {@code SELECT COUNT(*)} scanning the table
+ * or the index. The estimates suit the query planning, the progress reporting or the UI hints,
+ * but not the business logic.
+ * <p>
+ * The supported statistics are:
+ * <ul>
+ *     <li>PostgreSQL: {@code pg_class.reltuples}</li>
+ *     <li>MySQL, MariaDB: {@code information_schema.TABLES.TABLE_ROWS}</li>
+ *     <li>SQLite: {@code sqlite_stat1} (collected by {@code ANALYZE})</li>
+ *     <li>H2: {@code INFORMATION_SCHEMA.TABLES.ROW_COUNT_ESTIMATE}</li>
+ * </ul>
+ * The other engines, as well as the tables without the collected statistics, fall back to the exact count.
+ * <p>
+ * The estimates are cached per {@link Connector} and table for the short {@code ttl}.
+ * The connectors are referenced weakly.
+ */
+@ThreadSafe
+public class TableStatistics {
+    public static final Duration DEFAULT_TTL = Duration.ofSeconds(10);
+
+    private static final TableStatistics SHARED = new TableStatistics(DEFAULT_TTL);
+
+    private final ConcurrentMap<Connector, ConcurrentMap<String, Estimate>> estimates =
+        new MapMaker().weakKeys().makeMap();
+    private final long ttlNanos;
+
+    public TableStatistics(@NotNull Duration ttl) {
+        assert !ttl.isNegative() : "Invalid ttl: " + ttl;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Returns the statistics shared by the generated tables.
+     */
+    public static @NotNull TableStatistics shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the estimated number of rows in the {@code table} operating via the {@code connector}.
+     */
+    public long estimateCount(@NotNull Connector connector, @NotNull BaseTable<?> table) {
+        ConcurrentMap<String, Estimate> tables = estimates.computeIfAbsent(connector, k -> new ConcurrentHashMap<>());
+        String tableName = table.meta().sqlTableName();
+        Estimate estimate = tables.get(tableName);
+        if (estimate == null || System.nanoTime() - estimate.timestampNanos() >= ttlNanos) {
+            long rows = fetchEstimate(table);
+            estimate = new Estimate(rows, System.nanoTime());
+            tables.put(tableName, estimate);
+        }
+        return estimate.rows();
+    }
+
+    /**
+     * Drops the cached estimates of the tables operating via the {@code connector}.
+     */
+    public void invalidate(@NotNull Connector connector) {
+        estimates.remove(connector);
+    }
+
+    /**
+     * Drops all cached estimates.
+     */
+    public void invalidateAll() {
+        estimates.clear();
+    }
+
+    private static long fetchEstimate(@NotNull BaseTable<?> table) {
+        HardcodedSelectQuery query = estimateQuery(table.engine(), table.meta().sqlTableName());
+        if (query != null) {
+            try {
+                Long rows = table.readRunner().runAndGet(query, resultSet -> parseEstimate(resultSet.getObject(1)));
+                if (rows != null) {
+                    return rows;
+                }
+            } catch (QueryException ignore) {
+                // The statistics are not accessible (e.g. `sqlite_stat1` doesn't exist before `ANALYZE`)
+            }
+        }
+        return table.count64();
+    }
+
+    /**
+     * Returns the query selecting the statistics of the {@code table} in the {@code engine}, or null
+     * if the engine isn't supported. The PostgreSQL query doesn't fail for the unknown tables,
+     * because a failure would abort the current transaction.
+     */
+    static @Nullable HardcodedSelectQuery estimateQuery(@NotNull Engine engine, @NotNull String table) {
+        return switch (engine) {
+            case PostgreSQL -> HardcodedSelectQuery.of(
+                "SELECT reltuples FROM pg_class WHERE oid = to_regclass(?)", Args.of(table));
+            case MySQL, MariaDB -> HardcodedSelectQuery.of(
+                "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?",
+                Args.of(table));
+            case SQLite -> HardcodedSelectQuery.of(
+                "SELECT stat FROM sqlite_stat1 WHERE tbl = ? LIMIT 1", Args.of(table));
+            case H2 -> HardcodedSelectQuery.of(
+                "SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES " +
+                "WHERE TABLE_SCHEMA = SCHEMA() AND UPPER(TABLE_NAME) = UPPER(?)", Args.of(table));
+            default -> null;
+        };
+    }
+
+    /**
+     * Parses the statistics {@code value}: the number of rows or the SQLite {@code stat} string
+     * starting with the number of rows. Returns null if there are no statistics (e.g. negative {@code reltuples}
+     * of the never analyzed table in PostgreSQL).
+     */
+    static @Nullable Long parseEstimate(@Nullable Object value) {
+        long rows = switch (value) {
+            case null -> -1;
+            case Long number -> number;
+            case Number number -> Math.round(number.doubleValue());
+            case String stat -> {
+                int space = stat.indexOf(' ');
+                try {
+                    yield Long.parseLong(space >= 0 ? stat.substring(0, space) : stat);
+                } catch (NumberFormatException e) {
+                    yield -1;
+                }
+            }
+            default -> -1;
+        };
+        return rows >= 0 ? rows : null;
+    }
+
+    private record Estimate(long rows, long timestampNanos) {}
+}
@@ -0,0 +1,143 @@
+package io.spbx.orm.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+
+/**
+ * Writes the single JDBC values into the binary stream and back, each value prefixed by its type tag.
+ * The shared value format of the {@link io.spbx.orm.api.query.KeysetCodec keyset tokens} and the serialized rows
+ * of the off-heap cache.
+ * <p>
+ * The supported value types are the boxed primitives, {@link String}, {@code byte[]}, {@link java.sql.Date}
+ * (also {@link java.util.Date}), {@link Time} and {@link Timestamp}. The strings are written in UTF-8,
+ * the strings and the byte arrays are prefixed by their length.
+ */
+public class ValueCodec {
+    private static final byte NULL = 0;
+    private static final byte BOOL = 1;
+    private static final byte BYTE = 2;
+    private static final byte SHORT = 3;
+    private static final byte INT = 4;
+    private static final byte LONG = 5;
+    private static final byte FLOAT = 6;
+    private static final byte DOUBLE = 7;
+    private static final byte STRING = 8;
+    private static final byte BYTES = 9;
+    private static final byte TIMESTAMP = 10;
+    private static final byte DATE = 11;
+    private static final byte TIME = 12;
+
+    /**
+     * Writes the {@code value} to the {@code output}, unless the value type is not supported.
+     *
+     * @return true if the value has been written, false if its type is not supported (nothing is written)
+     */
+    public static boolean writeValue(@NotNull DataOutputStream output, @Nullable Object value) throws IOException {
+        switch (value) {
+            case null -> output.writeByte(NULL);
+            case Boolean bool -> {
+                output.writeByte(BOOL);
+                output.writeBoolean(bool);
+            }
+            case Byte b -> {
+                output.writeByte(BYTE);
+                output.writeByte(b);
+            }
+            case Short s -> {
+                output.writeByte(SHORT);
+                output.writeShort(s);
+            }
+            case Integer i -> {
+                output.writeByte(INT);
+                output.writeInt(i);
+            }
+            case Long l -> {
+                output.writeByte(LONG);
+                output.writeLong(l);
+            }
+            case Float f -> {
+                output.writeByte(FLOAT);
+                output.writeFloat(f);
+            }
+            case Double d -> {
+                output.writeByte(DOUBLE);
+                output.writeDouble(d);
+            }
+            case String s -> {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                output.writeByte(STRING);
+                output.writeInt(bytes.length);
+                output.write(bytes);
+            }
+            case byte[] bytes -> {
+                output.writeByte(BYTES);
+                output.writeInt(bytes.length);
+                output.write(bytes);
+            }
+            case Timestamp timestamp -> {
+                output.writeByte(TIMESTAMP);
+                output.writeLong(timestamp.getTime());
+                output.writeInt(timestamp.getNanos());
+            }
+            case Time time -> {
+                output.writeByte(TIME);
+                output.writeLong(time.getTime());
+            }
+            case java.util.Date date -> {
+                output.writeByte(DATE);
+                output.writeLong(date.getTime());
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the next value from the {@code input}. The dates are read as {@link java.sql.Date}.
+     *
+     * @throws IOException if the input is truncated or corrupted
+     */
+    public static @Nullable Object readValue(@NotNull DataInputStream input) throws IOException {
+        byte tag = input.readByte();
+        return switch (tag) {
+            case NULL -> null;
+            case BOOL -> input.readBoolean();
+            case BYTE -> input.readByte();
+            case SHORT -> input.readShort();
+            case INT -> input.readInt();
+            case LONG -> input.readLong();
+            case FLOAT -> input.readFloat();
+            case DOUBLE -> input.readDouble();
+            case STRING -> new String(readBytes(input), StandardCharsets.UTF_8);
+            case BYTES -> readBytes(input);
+            case TIMESTAMP -> {
+                Timestamp timestamp = new Timestamp(input.readLong());
+                timestamp.setNanos(input.readInt());
+                yield timestamp;
+            }
+            case TIME -> new Time(input.readLong());
+            case DATE -> new java.sql.Date(input.readLong());
+            default -> throw new IOException("Unknown value tag: " + tag);
+        };
+    }
+
+    private static byte @NotNull[] readBytes(@NotNull DataInputStream input) throws IOException {
+        int length = input.readInt();
+        // The length is checked before the allocation, because the input may come from the client (e.g. a token)
+        if (length < 0 || length > input.available()) {
+            throw new IOException("Invalid value length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return bytes;
+    }
+}
@@ -38,4 +38,21 @@ public @interface Model {
      * @see io.spbx.orm.api.Foreign
      */
     Class<?> exposeAs() default Void.class;
+
+    /**
+     * Indicates the projections of this model, i.e. the records with a subset of the model fields (matching by name
+     * and type). The generated table can read the projections directly, selecting only their columns:
+     * <pre>
+     *     record UserName(int userId, String name) {}
+     *
+     *     &#64;Model(projections = UserName.class)
+     *     record User(int userId, String name, String email, byte[] avatar) {}
+     *
+     *     UserName name = userTable.project(UserName.class).getByPkOrNull(userId);
+     * </pre>
+     * The foreign keys in the projection are read without following, i.e. contain only the ids.
+     *
+     * @see io.spbx.orm.api.ProjectedTable
+     */
+    Class<?>[] projections() default {};
 }
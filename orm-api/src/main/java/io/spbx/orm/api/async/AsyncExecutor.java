@@ -0,0 +1,113 @@
+package io.spbx.orm.api.async;
+
+import io.spbx.orm.api.Connector;
+import io.spbx.orm.api.pool.PooledConnector;
+import io.spbx.util.base.error.Unchecked;
+import io.spbx.util.func.ThrowSupplier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Executes the blocking DB operations of a single {@link Connector} asynchronously.
+ * <p>
+ * Each task is started on a new virtual thread, and the number of tasks running concurrently is capped by
+ * {@code maxConcurrency} (the rest of the tasks are parked cheaply until the permit is available), so that
+ * the number of DB connections in use never exceeds the cap.
+ * <p>
+ * Some JDBC drivers pin the carrier thread when blocked inside {@code synchronized} blocks. For such drivers,
+ * an optional {@code offload} executor (usually a fixed pool of platform threads) can be provided:
+ * the virtual thread then only waits for the permit and the result, while the JDBC call itself runs on the
+ * offload executor.
+ * <p>
+ * If the connector is a {@link PooledConnector}, each task holds a lease for the duration of the call.
+ */
+public class AsyncExecutor implements AutoCloseable {
+    private final Connector connector;
+    private final Semaphore permits;
+    private final ExecutorService virtualThreads;
+    private final @Nullable Executor offload;
+
+    public AsyncExecutor(@NotNull Connector connector, int maxConcurrency, @Nullable Executor offload) {
+        assert maxConcurrency > 0 : "Invalid max concurrency: " + maxConcurrency;
+        this.connector = connector;
+        this.permits = new Semaphore(maxConcurrency);
+        this.virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+        this.offload = offload;
+    }
+
+    public static @NotNull AsyncExecutor of(@NotNull Connector connector, int maxConcurrency) {
+        return new AsyncExecutor(connector, maxConcurrency, null);
+    }
+
+    public static @NotNull AsyncExecutor of(@NotNull Connector connector, int maxConcurrency, @NotNull Executor offload) {
+        return new AsyncExecutor(connector, maxConcurrency, offload);
+    }
+
+    public @NotNull Connector connector() {
+        return connector;
+    }
+
+    /**
+     * Returns the asynchronous runner working on top of this executor.
+     */
+    public @NotNull AsyncQueryRunner runner() {
+        return new AsyncQueryRunner(this);
+    }
+
+    /**
+     * Runs the {@code task} asynchronously and returns the future of its result.
+     * The {@link SQLException} thrown by the {@code task} completes the future exceptionally.
+     */
+    public <T> @NotNull CompletableFuture<T> supply(@NotNull ThrowSupplier<T, SQLException> task) {
+        return CompletableFuture.supplyAsync(() -> runLimited(task), virtualThreads);
+    }
+
+    /**
+     * Returns the number of tasks that can start running immediately.
+     */
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    @Override
+    public void close() {
+        virtualThreads.close();
+    }
+
+    private <T> T runLimited(@NotNull ThrowSupplier<T, SQLException> task) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Unchecked.rethrow(e);
+        }
+        try {
+            if (offload != null) {
+                return CompletableFuture.supplyAsync(() -> runWithConnection(task), offload).join();
+            }
+            return runWithConnection(task);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private <T> T runWithConnection(@NotNull ThrowSupplier<T, SQLException> task) {
+        try {
+            if (connector instanceof PooledConnector pooled) {
+                try (PooledConnector.Lease ignored = pooled.lease()) {
+                    return task.get();
+                }
+            }
+            return task.get();
+        } catch (SQLException e) {
+            return Unchecked.rethrow(e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package io.spbx.orm.api.async;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.LongArrayList;
+import io.spbx.orm.api.QueryRunner;
+import io.spbx.orm.api.ResultSetIterator;
+import io.spbx.orm.api.query.SelectQuery;
+import io.spbx.util.func.ThrowFunction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An asynchronous counterpart of the {@link QueryRunner}. Each call obtains a {@link QueryRunner} from the connector
+ * on the executing thread and runs the query via {@link AsyncExecutor}.
+ *
+ * @see AsyncExecutor
+ */
+public class AsyncQueryRunner {
+    private final AsyncExecutor executor;
+
+    public AsyncQueryRunner(@NotNull AsyncExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Runs an arbitrary {@code action} with the {@link QueryRunner} asynchronously.
+     */
+    public <T> @NotNull CompletableFuture<T> call(@NotNull ThrowFunction<QueryRunner, T, SQLException> action) {
+        return executor.supply(() -> action.apply(executor.connector().runner()));
+    }
+
+    // Run SelectQuery
+
+    public @NotNull CompletableFuture<Object> runAndGet(@NotNull SelectQuery query) {
+        return call(runner -> runner.runAndGet(query));
+    }
+
+    public <E> @NotNull CompletableFuture<E> runAndGet(@NotNull SelectQuery query,
+                                                       @NotNull ThrowFunction<ResultSet, E, SQLException> converter) {
+        return call(runner -> runner.runAndGet(query, converter));
+    }
+
+    public @NotNull CompletableFuture<String> runAndGetString(@NotNull SelectQuery query) {
+        return call(runner -> runner.runAndGetString(query));
+    }
+
+    public @NotNull CompletableFuture<Integer> runAndGetInt(@NotNull SelectQuery query, int def) {
+        return call(runner -> runner.runAndGetInt(query, def));
+    }
+
+    public @NotNull CompletableFuture<Long> runAndGetLong(@NotNull SelectQuery query, long def) {
+        return call(runner -> runner.runAndGetLong(query, def));
+    }
+
+    public <E> @NotNull CompletableFuture<List<E>> fetchAll(@NotNull SelectQuery query,
+                                                           @NotNull ResultSetIterator.Converter<E> converter) {
+        return call(runner -> runner.fetchAll(query, converter));
+    }
+
+    public @NotNull CompletableFuture<IntArrayList> fetchIntColumn(@NotNull SelectQuery query) {
+        return call(runner -> runner.fetchIntColumn(query));
+    }
+
+    public @NotNull CompletableFuture<LongArrayList> fetchLongColumn(@NotNull SelectQuery query) {
+        return call(runner -> runner.fetchLongColumn(query));
+    }
+
+    // Run Updates
+
+    public @NotNull CompletableFuture<Integer> runUpdate(@NotNull String sql, @Nullable Object @NotNull ... params) {
+        return call(runner -> runner.runUpdate(sql, params));
+    }
+
+    public @NotNull CompletableFuture<Integer> runUpdate(@NotNull String sql, @NotNull Iterable<?> params) {
+        return call(runner -> runner.runUpdate(sql, params));
+    }
+
+    public @NotNull CompletableFuture<QueryRunner.AutoIncResult> runAutoIncUpdate(@NotNull String sql,
+                                                                                 @Nullable Object @NotNull ... params) {
+        return call(runner -> runner.runAutoIncUpdate(sql, params));
+    }
+
+    public @NotNull CompletableFuture<int[]> runUpdateBatch(@NotNull String sql,
+                                                            @NotNull Collection<Object[]> paramsBatch) {
+        return call(runner -> runner.runUpdateBatch(sql, paramsBatch));
+    }
+}
@@ -0,0 +1,112 @@
+package io.spbx.orm.api.async;
+
+import io.spbx.orm.api.TableObj;
+import io.spbx.orm.api.query.Filter;
+import io.spbx.orm.api.query.Where;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * An asynchronous facade of the {@link TableObj}. All operations run via the {@link AsyncExecutor}, which
+ * must operate over the same {@link io.spbx.orm.api.Connector} as the table.
+ *
+ * @param <K> the key type
+ * @param <E> the entity type
+ * @see AsyncTableInt
+ * @see AsyncTableLong
+ */
+public class AsyncTable<K, E> {
+    protected final TableObj<K, E> table;
+    protected final AsyncExecutor executor;
+
+    public AsyncTable(@NotNull TableObj<K, E> table, @NotNull AsyncExecutor executor) {
+        this.table = table;
+        this.executor = executor;
+    }
+
+    public static <K, E> @NotNull AsyncTable<K, E> of(@NotNull TableObj<K, E> table, @NotNull AsyncExecutor executor) {
+        return new AsyncTable<>(table, executor);
+    }
+
+    public @NotNull TableObj<K, E> table() {
+        return table;
+    }
+
+    /**
+     * Runs an arbitrary {@code action} with the table asynchronously.
+     */
+    public <R> @NotNull CompletableFuture<R> call(@NotNull Function<? super TableObj<K, E>, R> action) {
+        return executor.supply(() -> action.apply(table));
+    }
+
+    // Size
+
+    public @NotNull CompletableFuture<Integer> count() {
+        return executor.supply(table::count);
+    }
+
+    public @NotNull CompletableFuture<Integer> count(@NotNull Filter filter) {
+        return executor.supply(() -> table.count(filter));
+    }
+
+    public @NotNull CompletableFuture<Boolean> exists(@NotNull Where where) {
+        return executor.supply(() -> table.exists(where));
+    }
+
+    // Read
+
+    public @NotNull CompletableFuture<Boolean> exists(@NotNull K key) {
+        return executor.supply(() -> table.exists(key));
+    }
+
+    public @NotNull CompletableFuture<E> getByPkOrNull(@NotNull K key) {
+        return executor.supply(() -> table.getByPkOrNull(key));
+    }
+
+    public @NotNull CompletableFuture<Map<K, E>> getBatchByPk(@NotNull Collection<? extends K> keys) {
+        return executor.supply(() -> table.getBatchByPk(keys));
+    }
+
+    public @NotNull CompletableFuture<List<E>> fetchAll() {
+        return executor.supply(table::fetchAll);
+    }
+
+    public @NotNull CompletableFuture<List<E>> fetchAllMatching(@NotNull Filter filter) {
+        return executor.supply(() -> table.fetchAllMatching(filter));
+    }
+
+    public @NotNull CompletableFuture<E> getFirstMatchingOrNull(@NotNull Filter filter) {
+        return executor.supply(() -> table.getFirstMatchingOrNull(filter));
+    }
+
+    // Write
+
+    public @NotNull CompletableFuture<Integer> insert(@NotNull E entity) {
+        return executor.supply(() -> table.insert(entity));
+    }
+
+    public @NotNull CompletableFuture<int[]> insertBatch(@NotNull Collection<? extends E> batch) {
+        return executor.supply(() -> table.insertBatch(batch));
+    }
+
+    public @NotNull CompletableFuture<Integer> updateByPk(@NotNull E entity) {
+        return executor.supply(() -> table.updateByPk(entity));
+    }
+
+    public @NotNull CompletableFuture<Integer> updateWhere(@NotNull E entity, @NotNull Where where) {
+        return executor.supply(() -> table.updateWhere(entity, where));
+    }
+
+    public @NotNull CompletableFuture<Integer> deleteByPk(@NotNull K key) {
+        return executor.supply(() -> table.deleteByPk(key));
+    }
+
+    public @NotNull CompletableFuture<Integer> deleteWhere(@NotNull Where where) {
+        return executor.supply(() -> table.deleteWhere(where));
+    }
+}
@@ -0,0 +1,77 @@
+package io.spbx.orm.api.async;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.IntContainer;
+import com.carrotsearch.hppc.IntObjectHashMap;
+import com.carrotsearch.hppc.IntObjectMap;
+import io.spbx.orm.api.TableInt;
+import io.spbx.orm.api.batch.InListChunks;
+import io.spbx.orm.api.query.Filter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An asynchronous facade of the {@link TableInt}. Provides native {@code int} versions of the key-based methods.
+ *
+ * @param <E> the entity type
+ */
+public class AsyncTableInt<E> extends AsyncTable<Integer, E> {
+    private final TableInt<E> tableInt;
+
+    public AsyncTableInt(@NotNull TableInt<E> table, @NotNull AsyncExecutor executor) {
+        super(table, executor);
+        this.tableInt = table;
+    }
+
+    public static <E> @NotNull AsyncTableInt<E> of(@NotNull TableInt<E> table, @NotNull AsyncExecutor executor) {
+        return new AsyncTableInt<>(table, executor);
+    }
+
+    @Override
+    public @NotNull TableInt<E> table() {
+        return tableInt;
+    }
+
+    public @NotNull CompletableFuture<Boolean> exists(int key) {
+        return executor.supply(() -> tableInt.exists(key));
+    }
+
+    public @NotNull CompletableFuture<E> getByPkOrNull(int key) {
+        return executor.supply(() -> tableInt.getByPkOrNull(key));
+    }
+
+    public @NotNull CompletableFuture<IntObjectMap<E>> getBatchByPk(@NotNull IntContainer keys) {
+        return executor.supply(() -> tableInt.getBatchByPk(keys));
+    }
+
+    /**
+     * Fetches the entities by the {@code keys} split into the {@link InListChunks chunks} concurrently,
+     * each chunk via a separate task (and connection) of the executor.
+     */
+    public @NotNull CompletableFuture<IntObjectMap<E>> getBatchByPkParallel(@NotNull IntContainer keys) {
+        List<IntArrayList> chunks = InListChunks.split(keys, tableInt.engine());
+        if (chunks.size() <= 1) {
+            return getBatchByPk(keys);
+        }
+        List<CompletableFuture<IntObjectMap<E>>> futures = chunks.stream().map(chunk -> getBatchByPk(chunk)).toList();
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).thenApply(ignore -> {
+            IntObjectHashMap<E> result = new IntObjectHashMap<>(keys.size());
+            futures.forEach(future -> result.putAll(future.join()));
+            return result;
+        });
+    }
+
+    public @NotNull CompletableFuture<IntArrayList> fetchPks(@NotNull Filter filter) {
+        return executor.supply(() -> tableInt.fetchPks(filter));
+    }
+
+    public @NotNull CompletableFuture<Integer> insertAutoIncPk(@NotNull E entity) {
+        return executor.supply(() -> tableInt.insertAutoIncPk(entity));
+    }
+
+    public @NotNull CompletableFuture<Integer> deleteByPk(int key) {
+        return executor.supply(() -> tableInt.deleteByPk(key));
+    }
+}
@@ -0,0 +1,77 @@
+package io.spbx.orm.api.async;
+
+import com.carrotsearch.hppc.LongArrayList;
+import com.carrotsearch.hppc.LongContainer;
+import com.carrotsearch.hppc.LongObjectHashMap;
+import com.carrotsearch.hppc.LongObjectMap;
+import io.spbx.orm.api.TableLong;
+import io.spbx.orm.api.batch.InListChunks;
+import io.spbx.orm.api.query.Filter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An asynchronous facade of the {@link TableLong}. Provides native {@code long} versions of the key-based methods.
+ *
+ * @param <E> the entity type
+ */
+public class AsyncTableLong<E> extends AsyncTable<Long, E> {
+    private final TableLong<E> tableLong;
+
+    public AsyncTableLong(@NotNull TableLong<E> table, @NotNull AsyncExecutor executor) {
+        super(table, executor);
+        this.tableLong = table;
+    }
+
+    public static <E> @NotNull AsyncTableLong<E> of(@NotNull TableLong<E> table, @NotNull AsyncExecutor executor) {
+        return new AsyncTableLong<>(table, executor);
+    }
+
+    @Override
+    public @NotNull TableLong<E> table() {
+        return tableLong;
+    }
+
+    public @NotNull CompletableFuture<Boolean> exists(long key) {
+        return executor.supply(() -> tableLong.exists(key));
+    }
+
+    public @NotNull CompletableFuture<E> getByPkOrNull(long key) {
+        return executor.supply(() -> tableLong.getByPkOrNull(key));
+    }
+
+    public @NotNull CompletableFuture<LongObjectMap<E>> getBatchByPk(@NotNull LongContainer keys) {
+        return executor.supply(() -> tableLong.getBatchByPk(keys));
+    }
+
+    /**
+     * Fetches the entities by the {@code keys} split into the {@link InListChunks chunks} concurrently,
+     * each chunk via a separate task (and connection) of the executor.
+     */
+    public @NotNull CompletableFuture<LongObjectMap<E>> getBatchByPkParallel(@NotNull LongContainer keys) {
+        List<LongArrayList> chunks = InListChunks.split(keys, tableLong.engine());
+        if (chunks.size() <= 1) {
+            return getBatchByPk(keys);
+        }
+        List<CompletableFuture<LongObjectMap<E>>> futures = chunks.stream().map(chunk -> getBatchByPk(chunk)).toList();
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).thenApply(ignore -> {
+            LongObjectHashMap<E> result = new LongObjectHashMap<>(keys.size());
+            futures.forEach(future -> result.putAll(future.join()));
+            return result;
+        });
+    }
+
+    public @NotNull CompletableFuture<LongArrayList> fetchPks(@NotNull Filter filter) {
+        return executor.supply(() -> tableLong.fetchPks(filter));
+    }
+
+    public @NotNull CompletableFuture<Long> insertAutoIncPk(@NotNull E entity) {
+        return executor.supply(() -> tableLong.insertAutoIncPk(entity));
+    }
+
+    public @NotNull CompletableFuture<Integer> deleteByPk(long key) {
+        return executor.supply(() -> tableLong.deleteByPk(key));
+    }
+}
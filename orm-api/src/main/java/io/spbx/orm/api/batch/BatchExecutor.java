@@ -0,0 +1,267 @@
+package io.spbx.orm.api.batch;
+
+import io.spbx.orm.api.Engine;
+import io.spbx.orm.api.QueryRunner;
+import io.spbx.util.func.ThrowFunction;
+import io.spbx.util.logging.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Iterator;
+
+/**
+ * Executes the JDBC batch in chunks, pulling the params lazily from the source {@link Iterator}.
+ * Each chunk is limited by the number of rows and the estimated size of the params (see {@link BatchOptions}),
+ * so that neither the memory nor the packet size grow with the size of the source.
+ * <p>
+ * If the {@link BatchOptions#targetLatency()} is set, the chunk size is adapted after each chunk
+ * based on the measured execution time: it can at most double or halve at a time, and never exceeds
+ * {@link BatchOptions#maxRows()}.
+ * <p>
+ * The rows can be sent either one per statement or, for the inserts, via {@link MultiRowInsert} statements.
+ *
+ * @see QueryRunner#runUpdateBatch(String, Iterator, BatchOptions)
+ * @see QueryRunner#runInsertBatch(MultiRowInsert, Iterator, BatchOptions)
+ */
+public class BatchExecutor {
+    private static final Logger log = Logger.forEnclosingClass();
+
+    private final Connection connection;
+    private final BatchOptions options;
+
+    public BatchExecutor(@NotNull Connection connection, @NotNull BatchOptions options) {
+        this.connection = connection;
+        this.options = options;
+    }
+
+    public @NotNull BatchOptions options() {
+        return options;
+    }
+
+    /**
+     * Adds all params from the {@code source} to the {@code prepared} statement and executes it chunk by chunk.
+     */
+    public @NotNull BatchResult execute(@NotNull PreparedStatement prepared,
+                                        @NotNull Iterator<? extends @Nullable Object @NotNull[]> source) throws SQLException {
+        return execute(new SingleRowSink(prepared), source);
+    }
+
+    /**
+     * Inserts all params from the {@code source} chunk by chunk via multi-row statements of the {@code insert}.
+     * The statements are prepared by the {@code preparer} and closed in the end.
+     */
+    public @NotNull BatchResult execute(@NotNull MultiRowInsert insert,
+                                        @NotNull Engine engine,
+                                        @NotNull ThrowFunction<String, PreparedStatement, SQLException> preparer,
+                                        @NotNull Iterator<? extends @Nullable Object @NotNull[]> source) throws SQLException {
+        int maxBlockIndex = insert.maxBlockIndex(engine, Math.min(options.rowsPerStatement(), options.maxRows()));
+        try (MultiRowSink sink = new MultiRowSink(insert, maxBlockIndex, preparer)) {
+            return execute(sink, source);
+        }
+    }
+
+    private @NotNull BatchResult execute(@NotNull Sink sink,
+                                         @NotNull Iterator<? extends @Nullable Object @NotNull[]> source) throws SQLException {
+        if (!source.hasNext()) {
+            return BatchResult.EMPTY;
+        }
+
+        // Commit per chunk only in the transaction owned by the executor: if the caller has disabled the auto-commit,
+        // the chunks are part of the caller's transaction, and the caller is responsible for commit or rollback.
+        boolean restoreAutoCommit = options.commitPerChunk() && connection.getAutoCommit();
+        if (restoreAutoCommit) {
+            connection.setAutoCommit(false);
+        }
+        try {
+            long totalRows = 0;
+            long affectedRows = 0;
+            int chunks = 0;
+            int chunkSize = options.maxRows();
+
+            while (source.hasNext()) {
+                int rows = 0;
+                long bytes = 0;
+                while (rows < chunkSize && bytes < options.maxBytes() && source.hasNext()) {
+                    Object[] params = source.next();
+                    sink.add(params);
+                    bytes += estimateBytes(params);
+                    rows++;
+                }
+
+                long start = System.nanoTime();
+                affectedRows += sink.flush();
+                if (restoreAutoCommit) {
+                    connection.commit();
+                }
+                long elapsedNanos = System.nanoTime() - start;
+
+                totalRows += rows;
+                chunks++;
+                log.debug().log("Executed batch chunk #%d: rows=%d bytes=%d time=%dus",
+                                chunks, rows, bytes, elapsedNanos / 1000);
+
+                Duration targetLatency = options.targetLatency();
+                if (targetLatency != null) {
+                    chunkSize = adaptChunkSize(chunkSize, rows, elapsedNanos, targetLatency.toNanos(), options.maxRows());
+                }
+            }
+            return new BatchResult(totalRows, chunks, affectedRows);
+        } catch (SQLException | RuntimeException e) {
+            if (restoreAutoCommit) {
+                connection.rollback();  // only the last incomplete chunk
+            }
+            throw e;
+        } finally {
+            if (restoreAutoCommit) {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    /*package*/ static int adaptChunkSize(int chunkSize, int rows, long elapsedNanos, long targetNanos, int maxRows) {
+        if (rows == 0) {
+            return chunkSize;
+        }
+        double nanosPerRow = Math.max(elapsedNanos, 1) / (double) rows;
+        long ideal = (long) (targetNanos / nanosPerRow);
+        long bounded = Math.clamp(ideal, Math.max(chunkSize / 2, 1), (long) chunkSize * 2);
+        return (int) Math.min(bounded, maxRows);
+    }
+
+    // A rough estimate of the params size on the wire, only to keep the chunks reasonably sized.
+    /*package*/ static long estimateBytes(@Nullable Object @NotNull[] params) {
+        long bytes = 0;
+        for (Object param : params) {
+            bytes += switch (param) {
+                case null -> 1;
+                case CharSequence chars -> chars.length() + 4;
+                case byte[] array -> array.length + 4;
+                case Number ignore -> 8;
+                case Boolean ignore -> 1;
+                default -> 16;
+            };
+        }
+        return bytes;
+    }
+
+    private static long sumAffected(int @NotNull[] counts) {
+        long sum = 0;
+        for (int count : counts) {
+            if (count > 0) {
+                sum += count;
+            }
+        }
+        return sum;
+    }
+
+    private interface Sink {
+        void add(@Nullable Object @NotNull[] params) throws SQLException;
+
+        long flush() throws SQLException;
+    }
+
+    private record SingleRowSink(@NotNull PreparedStatement prepared) implements Sink {
+        @Override
+        public void add(@Nullable Object @NotNull[] params) throws SQLException {
+            QueryRunner.setPreparedParams(prepared, params);
+            prepared.addBatch();
+        }
+
+        @Override
+        public long flush() throws SQLException {
+            return sumAffected(prepared.executeBatch());
+        }
+    }
+
+    /**
+     * Buffers the rows until the largest block is full and adds it to the batch of the largest statement.
+     * On flush, the remainder is split greedily into the smaller blocks, and all pending batches are executed
+     * from the largest to the smallest block, i.e. in the order of the source rows.
+     */
+    private static class MultiRowSink implements Sink, AutoCloseable {
+        private final MultiRowInsert insert;
+        private final ThrowFunction<String, PreparedStatement, SQLException> preparer;
+        private final @Nullable PreparedStatement[] statements;
+        private final boolean[] pending;
+        private final Object[][] buffer;
+        private int buffered = 0;
+
+        private MultiRowSink(@NotNull MultiRowInsert insert,
+                             int maxBlockIndex,
+                             @NotNull ThrowFunction<String, PreparedStatement, SQLException> preparer) {
+            this.insert = insert;
+            this.preparer = preparer;
+            this.statements = new PreparedStatement[maxBlockIndex + 1];
+            this.pending = new boolean[maxBlockIndex + 1];
+            this.buffer = new Object[MultiRowInsert.blockSize(maxBlockIndex)][];
+        }
+
+        @Override
+        public void add(@Nullable Object @NotNull[] params) throws SQLException {
+            assert params.length == insert.columns() : "Unexpected number of params: " + params.length;
+            buffer[buffered++] = params;
+            if (buffered == buffer.length) {
+                addBlock(statements.length - 1, 0);
+                buffered = 0;
+            }
+        }
+
+        @Override
+        public long flush() throws SQLException {
+            int offset = 0;
+            for (int i = statements.length - 1; i >= 0; i--) {
+                int blockSize = MultiRowInsert.blockSize(i);
+                while (buffered - offset >= blockSize) {
+                    addBlock(i, offset);
+                    offset += blockSize;
+                }
+            }
+            buffered = 0;
+
+            long affected = 0;
+            for (int i = statements.length - 1; i >= 0; i--) {
+                if (pending[i]) {
+                    affected += sumAffected(statement(i).executeBatch());
+                    pending[i] = false;
+                }
+            }
+            return affected;
+        }
+
+        private void addBlock(int blockIndex, int offset) throws SQLException {
+            PreparedStatement statement = statement(blockIndex);
+            int blockSize = MultiRowInsert.blockSize(blockIndex);
+            int index = 0;
+            for (int i = offset; i < offset + blockSize; i++) {
+                Object[] params = buffer[i];
+                for (Object param : params) {
+                    statement.setObject(++index, param);
+                }
+                buffer[i] = null;
+            }
+            statement.addBatch();
+            pending[blockIndex] = true;
+        }
+
+        private @NotNull PreparedStatement statement(int blockIndex) throws SQLException {
+            PreparedStatement statement = statements[blockIndex];
+            if (statement == null) {
+                statement = statements[blockIndex] = preparer.apply(insert.sql(blockIndex));
+            }
+            return statement;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            for (PreparedStatement statement : statements) {
+                if (statement != null) {
+                    statement.close();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package io.spbx.orm.api.batch;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.concurrent.Immutable;
+import java.time.Duration;
+
+/**
+ * Holds the options of the chunked batch execution by {@link BatchExecutor}.
+ *
+ * @param maxRows the max number of rows in a single JDBC batch (chunk)
+ * @param maxBytes the max estimated size of the params in a single chunk, in bytes
+ * @param targetLatency if set, the chunk size is adapted (up to {@code maxRows}) so that each chunk executes
+ *                      in about this time, otherwise the chunk size is fixed
+ * @param commitPerChunk whether to commit after each chunk. Applies only if the connection is in auto-commit mode:
+ *                       the auto-commit is disabled for the time of the execution. Otherwise, the chunks are executed
+ *                       within the caller's transaction, which is never committed or rolled back by the batch.
+ * @param rowsPerStatement the max number of rows in a single multi-row {@code INSERT} statement (see
+ *                         {@link MultiRowInsert}). The default 1 means a single-row statement for each row.
+ *                         Ignored by the statements which can't be rewritten.
+ */
+@Immutable
+public record BatchOptions(int maxRows,
+                           long maxBytes,
+                           @Nullable Duration targetLatency,
+                           boolean commitPerChunk,
+                           int rowsPerStatement) {
+    public static final int DEFAULT_MAX_ROWS = 1000;
+    public static final long DEFAULT_MAX_BYTES = 4 << 20;
+
+    public static final BatchOptions DEFAULT = new BatchOptions(DEFAULT_MAX_ROWS, DEFAULT_MAX_BYTES, null, false, 1);
+
+    public BatchOptions {
+        assert maxRows > 0 : "Max rows must be positive: " + maxRows;
+        assert maxBytes > 0 : "Max bytes must be positive: " + maxBytes;
+        assert targetLatency == null || targetLatency.isPositive() : "Target latency must be positive: " + targetLatency;
+        assert rowsPerStatement > 0 : "Rows per statement must be positive: " + rowsPerStatement;
+    }
+
+    public static @NotNull BatchOptions ofRows(int maxRows) {
+        return DEFAULT.withMaxRows(maxRows);
+    }
+
+    public @NotNull BatchOptions withMaxRows(int maxRows) {
+        return new BatchOptions(maxRows, maxBytes, targetLatency, commitPerChunk, rowsPerStatement);
+    }
+
+    public @NotNull BatchOptions withMaxBytes(long maxBytes) {
+        return new BatchOptions(maxRows, maxBytes, targetLatency, commitPerChunk, rowsPerStatement);
+    }
+
+    public @NotNull BatchOptions withTargetLatency(@Nullable Duration targetLatency) {
+        return new BatchOptions(maxRows, maxBytes, targetLatency, commitPerChunk, rowsPerStatement);
+    }
+
+    public @NotNull BatchOptions withCommitPerChunk(boolean commitPerChunk) {
+        return new BatchOptions(maxRows, maxBytes, targetLatency, commitPerChunk, rowsPerStatement);
+    }
+
+    public @NotNull BatchOptions withRowsPerStatement(int rowsPerStatement) {
+        return new BatchOptions(maxRows, maxBytes, targetLatency, commitPerChunk, rowsPerStatement);
+    }
+
+    public boolean isAdaptive() {
+        return targetLatency != null;
+    }
+
+    public boolean isMultiRow() {
+        return rowsPerStatement > 1;
+    }
+}
@@ -0,0 +1,16 @@
+package io.spbx.orm.api.batch;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * The result of the chunked batch execution.
+ *
+ * @param rows the total number of rows (param sets) sent to the DB
+ * @param chunks the number of executed JDBC batches
+ * @param affectedRows the total number of affected rows as reported by the driver. The rows for which the driver
+ *                     returned {@link java.sql.Statement#SUCCESS_NO_INFO} are not counted.
+ */
+@Immutable
+public record BatchResult(long rows, int chunks, long affectedRows) {
+    public static final BatchResult EMPTY = new BatchResult(0, 0, 0);
+}
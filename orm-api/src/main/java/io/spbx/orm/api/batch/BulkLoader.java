@@ -0,0 +1,237 @@
+package io.spbx.orm.api.batch;
+
+import io.spbx.orm.api.Engine;
+import io.spbx.orm.api.entity.BatchEntityData;
+import io.spbx.orm.api.query.Column;
+import io.spbx.util.func.ThrowConsumer;
+import io.spbx.util.logging.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Streams the rows into the table via the engine-native bulk loader:
+ * <ul>
+ *     <li>PostgreSQL: {@code COPY ... FROM STDIN WITH (FORMAT csv)} via the driver {@code CopyManager}.</li>
+ *     <li>MySQL and MariaDB: {@code LOAD DATA LOCAL INFILE} from a temporary file.
+ *         Requires {@code allowLoadLocalInfile=true} in the connection properties.</li>
+ *     <li>H2: {@code INSERT ... SELECT * FROM CSVREAD(...)} from a temporary file.
+ *         The binary values aren't supported and fail the load.</li>
+ * </ul>
+ * The driver-specific API is accessed reflectively, so no driver is required at compile time.
+ * The other engines aren't {@link #isSupported(Engine) supported}, in which case the caller is expected to fall back
+ * to the chunked batches.
+ *
+ * @see io.spbx.orm.api.QueryRunner#runBulkLoad
+ */
+public class BulkLoader {
+    private static final Logger log = Logger.forEnclosingClass();
+    private static final int BUFFER_SIZE = 64 << 10;
+
+    private final Connection connection;
+    private final Engine engine;
+
+    public BulkLoader(@NotNull Connection connection, @NotNull Engine engine) {
+        this.connection = connection;
+        this.engine = engine;
+    }
+
+    public static boolean isSupported(@NotNull Engine engine) {
+        return engine.isOneOf(Engine.PostgreSQL, Engine.MySQL, Engine.MariaDB, Engine.H2);
+    }
+
+    /**
+     * Loads the {@code rows} (converted to the JDBC types) into the {@code columns} of the {@code table}.
+     *
+     * @return the number of loaded rows
+     */
+    public long load(@NotNull String table,
+                     @NotNull List<String> columns,
+                     @NotNull Iterator<? extends @Nullable Object @NotNull[]> rows) throws SQLException {
+        return load(table, columns, encoder -> {
+            while (rows.hasNext()) {
+                encoder.writeRow(rows.next());
+            }
+        });
+    }
+
+    /**
+     * Loads the {@code batchData} into the {@code table}. The batch values are captured from
+     * {@link BatchEntityData#provideBatchValues} and streamed into the loader row by row.
+     *
+     * @return the number of loaded rows
+     */
+    public long load(@NotNull String table, @NotNull BatchEntityData<?> batchData) throws SQLException {
+        List<String> columns = batchData.columns().stream().map(Column::name).toList();
+        return load(table, columns, encoder -> {
+            try {
+                batchData.provideBatchValues(capturingStatement(columns.size(), encoder), null);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    private long load(@NotNull String table,
+                      @NotNull List<String> columns,
+                      @NotNull ThrowConsumer<CsvEncoder, Exception> writer) throws SQLException {
+        assert !columns.isEmpty() : "No columns to load into " + table;
+        try {
+            return switch (engine) {
+                case PostgreSQL -> copyIn(table, columns, writer);
+                case MySQL, MariaDB -> viaTempFile(writer, CsvEncoder.Dialect.MYSQL, path -> """
+                    LOAD DATA LOCAL INFILE '%s' INTO TABLE %s CHARACTER SET utf8mb4
+                    FIELDS TERMINATED BY ',' ENCLOSED BY '"' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n'
+                    (%s)""".formatted(escape(path), table, String.join(", ", columns)));
+                case H2 -> viaTempFile(writer, CsvEncoder.Dialect.H2, path -> """
+                    INSERT INTO %s (%s)
+                    SELECT * FROM CSVREAD('%s', '%s', 'charset=UTF-8 fieldSeparator=,')""".formatted(
+                    table, String.join(", ", columns), escape(path), String.join(",", columns)));
+                default -> throw new SQLFeatureNotSupportedException("Bulk load is not supported for " + engine);
+            };
+        } catch (SQLException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SQLException("Failed to bulk load into %s: %s".formatted(table, e.getMessage()), e);
+        }
+    }
+
+    private long viaTempFile(@NotNull ThrowConsumer<CsvEncoder, Exception> writer,
+                             @NotNull CsvEncoder.Dialect dialect,
+                             @NotNull SqlForPath sqlForPath) throws Exception {
+        Path path = Files.createTempFile("bulk-load-", ".csv");
+        try {
+            try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE)) {
+                writer.accept(new CsvEncoder(dialect, output));
+            }
+            String sql = sqlForPath.sql(path.toAbsolutePath().toString());
+            log.debug().log("Bulk load from %s (%d bytes): %s", path, Files.size(path), sql);
+            try (Statement statement = connection.createStatement()) {
+                return statement.executeUpdate(sql);
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private long copyIn(@NotNull String table,
+                        @NotNull List<String> columns,
+                        @NotNull ThrowConsumer<CsvEncoder, Exception> writer) throws Exception {
+        String sql = "COPY %s (%s) FROM STDIN WITH (FORMAT csv)".formatted(table, String.join(", ", columns));
+        ClassLoader loader = connection.getClass().getClassLoader();
+        Class<?> pgConnectionClass = Class.forName("org.postgresql.PGConnection", true, loader);
+        Class<?> copyManagerClass = Class.forName("org.postgresql.copy.CopyManager", true, loader);
+        Class<?> copyInClass = Class.forName("org.postgresql.copy.CopyIn", true, loader);
+
+        Object copyManager = invoke(pgConnectionClass.getMethod("getCopyAPI"), connection.unwrap(pgConnectionClass));
+        Object copyIn = invoke(copyManagerClass.getMethod("copyIn", String.class), copyManager, sql);
+        Method writeToCopy = copyInClass.getMethod("writeToCopy", byte[].class, int.class, int.class);
+
+        boolean success = false;
+        try {
+            OutputStream copyStream = new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    write(new byte[] { (byte) b }, 0, 1);
+                }
+                @Override
+                public void write(byte @NotNull[] bytes, int off, int len) throws IOException {
+                    try {
+                        invoke(writeToCopy, copyIn, bytes, off, len);
+                    } catch (SQLException e) {
+                        throw new IOException(e);
+                    }
+                }
+            };
+            try (OutputStream output = new BufferedOutputStream(copyStream, BUFFER_SIZE)) {
+                writer.accept(new CsvEncoder(CsvEncoder.Dialect.POSTGRES, output));
+            }
+            long rows = (long) invoke(copyInClass.getMethod("endCopy"), copyIn);
+            success = true;
+            return rows;
+        } finally {
+            if (!success && (boolean) invoke(copyInClass.getMethod("isActive"), copyIn)) {
+                invoke(copyInClass.getMethod("cancelCopy"), copyIn);
+            }
+        }
+    }
+
+    private static @Nullable Object invoke(@NotNull Method method,
+                                           @NotNull Object target,
+                                           @Nullable Object @NotNull ... args) throws SQLException {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new SQLException("Failed to call %s: %s".formatted(method, e.getCause()), e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new SQLException("Failed to call %s".formatted(method), e);
+        }
+    }
+
+    private static @NotNull String escape(@NotNull String path) {
+        return path.replace("\\", "\\\\").replace("'", "''");
+    }
+
+    /**
+     * Returns the {@link PreparedStatement} which only records the params and writes each row on
+     * {@link PreparedStatement#addBatch()}. Supports the {@code set*} methods, {@code clearParameters} and
+     * {@code addBatch}, all other calls throw.
+     */
+    private static @NotNull PreparedStatement capturingStatement(int size, @NotNull CsvEncoder encoder) {
+        Object[] row = new Object[size];
+        return (PreparedStatement) Proxy.newProxyInstance(
+            BulkLoader.class.getClassLoader(),
+            new Class<?>[] { PreparedStatement.class },
+            (proxy, method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    row[index - 1] = name.equals("setNull") ? null : args[1];
+                    return null;
+                }
+                switch (name) {
+                    case "addBatch" -> {
+                        try {
+                            encoder.writeRow(row);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        return null;
+                    }
+                    case "clearParameters" -> {
+                        Arrays.fill(row, null);
+                        return null;
+                    }
+                    case "toString" -> {
+                        return "BulkLoader.CapturingStatement";
+                    }
+                    default -> throw new SQLFeatureNotSupportedException("Not supported by bulk load: " + name);
+                }
+            }
+        );
+    }
+
+    @FunctionalInterface
+    private interface SqlForPath {
+        @NotNull String sql(@NotNull String path);
+    }
+}
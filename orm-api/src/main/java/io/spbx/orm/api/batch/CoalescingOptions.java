@@ -0,0 +1,38 @@
+package io.spbx.orm.api.batch;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.concurrent.Immutable;
+import java.time.Duration;
+
+/**
+ * Holds the options of the point lookup coalescing by {@link CoalescingTableInt} and {@link CoalescingTableLong}.
+ *
+ * @param window the max time the first lookup of the batch waits for the other lookups to join.
+ *               This is the max latency added to a single lookup.
+ * @param maxBatch the max number of distinct keys in a single batch. The full batch is sent immediately.
+ */
+@Immutable
+public record CoalescingOptions(@NotNull Duration window, int maxBatch) {
+    public static final Duration DEFAULT_WINDOW = Duration.ofMillis(1);
+    public static final int DEFAULT_MAX_BATCH = 100;
+
+    public static final CoalescingOptions DEFAULT = new CoalescingOptions(DEFAULT_WINDOW, DEFAULT_MAX_BATCH);
+
+    public CoalescingOptions {
+        assert window.isPositive() : "Window must be positive: " + window;
+        assert maxBatch > 0 : "Max batch must be positive: " + maxBatch;
+    }
+
+    public static @NotNull CoalescingOptions of(@NotNull Duration window, int maxBatch) {
+        return new CoalescingOptions(window, maxBatch);
+    }
+
+    public @NotNull CoalescingOptions withWindow(@NotNull Duration window) {
+        return new CoalescingOptions(window, maxBatch);
+    }
+
+    public @NotNull CoalescingOptions withMaxBatch(int maxBatch) {
+        return new CoalescingOptions(window, maxBatch);
+    }
+}
@@ -0,0 +1,165 @@
+package io.spbx.orm.api.batch;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.IntObjectHashMap;
+import com.carrotsearch.hppc.IntObjectMap;
+import com.carrotsearch.hppc.cursors.IntObjectCursor;
+import io.spbx.orm.api.Connector;
+import io.spbx.orm.api.ForwardingTableInt;
+import io.spbx.orm.api.ReadFollow;
+import io.spbx.orm.api.ReadOptions;
+import io.spbx.orm.api.TableInt;
+import io.spbx.orm.api.cache.IdentityScope;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A {@link TableInt} which coalesces the concurrent {@link #getByPkOrNull(int)} lookups into
+ * {@link TableInt#getBatchByPk} calls of the delegate, trading a bounded latency for fewer round trips.
+ * <p>
+ * The first lookup opens a new batch and waits up to {@link CoalescingOptions#window()} for the other lookups
+ * to join, then sends the batch in its own thread. The batch is sent earlier once it reaches
+ * {@link CoalescingOptions#maxBatch()} keys, by the thread adding the last key. The lookups of the same key
+ * within the batch share a single result (single-flight). Once the batch is sent, the new lookups start
+ * the next batch, hence a lookup never observes the result of a query started before the lookup itself.
+ * <p>
+ * The batch query runs in the thread sending it, in its context. Hence, the lookups from a thread with its own
+ * context bypass the coalescing and go to the delegate directly: within an {@link IdentityScope}, or when
+ * the {@link Connector} is {@link Connector#isBoundToCurrentThread() bound to the thread}, e.g. holds
+ * a pooled connection (which may have an open transaction) or routes the reads to the primary.
+ * <p>
+ * If the batch query fails, all lookups of the batch fail with the same exception.
+ * All other methods are forwarded to the delegate as is.
+ *
+ * @param <E> the entity type
+ * @see CoalescingOptions
+ */
+@ThreadSafe
+public class CoalescingTableInt<E> extends ForwardingTableInt<E> {
+    private final TableInt<E> delegate;
+    private final CoalescingOptions options;
+    private final Connector connector;
+    private final Object lock = new Object();
+    private @Nullable IntObjectHashMap<CompletableFuture<E>> pending;
+
+    public CoalescingTableInt(@NotNull TableInt<E> delegate, @NotNull CoalescingOptions options) {
+        this.delegate = delegate;
+        this.options = options;
+        this.connector = delegate.admin().connector();
+    }
+
+    @Override
+    protected @NotNull TableInt<E> delegate() {
+        return delegate;
+    }
+
+    public @NotNull CoalescingOptions options() {
+        return options;
+    }
+
+    @Override
+    public @NotNull CoalescingTableInt<E> withReferenceFollowOnRead(@NotNull ReadFollow follow) {
+        return new CoalescingTableInt<>(delegate.withReferenceFollowOnRead(follow), options);
+    }
+
+    @Override
+    public @NotNull CoalescingTableInt<E> withReadOptions(@NotNull ReadOptions options) {
+        return new CoalescingTableInt<>(delegate.withReadOptions(options), this.options);
+    }
+
+    @Override
+    public @Nullable E getByPkOrNull(int key) {
+        if (IdentityScope.current() != null || connector.isBoundToCurrentThread()) {
+            return delegate.getByPkOrNull(key);
+        }
+        CompletableFuture<E> future;
+        IntObjectHashMap<CompletableFuture<E>> opened = null;
+        IntObjectHashMap<CompletableFuture<E>> full = null;
+        synchronized (lock) {
+            if (pending == null) {
+                pending = opened = new IntObjectHashMap<>();
+            }
+            future = pending.get(key);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                pending.put(key, future);
+                if (pending.size() >= options.maxBatch()) {
+                    full = pending;
+                    pending = null;
+                }
+            }
+        }
+
+        if (full != null) {
+            execute(full);
+        } else if (opened != null) {
+            awaitWindow(future);
+            if (takeIfPending(opened)) {
+                execute(opened);
+            }
+        }
+        return join(future);
+    }
+
+    int pendingSize() {
+        synchronized (lock) {
+            return pending != null ? pending.size() : 0;
+        }
+    }
+
+    private void awaitWindow(@NotNull CompletableFuture<E> future) {
+        try {
+            future.get(options.window().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException ignore) {
+            // The batch is either still pending or completed
+        } catch (InterruptedException e) {
+            // The batch must be sent anyway, the other lookups wait for it
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean takeIfPending(@NotNull IntObjectHashMap<CompletableFuture<E>> batch) {
+        synchronized (lock) {
+            if (pending == batch) {
+                pending = null;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private void execute(@NotNull IntObjectHashMap<CompletableFuture<E>> batch) {
+        IntArrayList keys = new IntArrayList(batch.size());
+        keys.addAll(batch.keys());
+        IntObjectMap<E> result;
+        try {
+            result = delegate.getBatchByPk(keys);
+        } catch (Throwable e) {
+            for (IntObjectCursor<CompletableFuture<E>> cursor : batch) {
+                cursor.value.completeExceptionally(e);
+            }
+            return;
+        }
+        for (IntObjectCursor<CompletableFuture<E>> cursor : batch) {
+            cursor.value.complete(result.get(cursor.key));
+        }
+    }
+
+    private static <E> @Nullable E join(@NotNull CompletableFuture<E> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
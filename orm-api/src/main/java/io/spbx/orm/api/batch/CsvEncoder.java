@@ -0,0 +1,114 @@
+package io.spbx.orm.api.batch;
+
+import com.google.common.io.BaseEncoding;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLFeatureNotSupportedException;
+
+/**
+ * Encodes the JDBC param rows into the CSV text understood by the engine bulk loaders.
+ * The values are expected to be already converted to JDBC types (e.g. by the generated {@code valuesForInsert}).
+ */
+class CsvEncoder {
+    private final Dialect dialect;
+    private final OutputStream output;
+    private final StringBuilder line = new StringBuilder(256);
+
+    CsvEncoder(@NotNull Dialect dialect, @NotNull OutputStream output) {
+        this.dialect = dialect;
+        this.output = output;
+    }
+
+    public void writeRow(@Nullable Object @NotNull[] row) throws IOException, SQLFeatureNotSupportedException {
+        line.setLength(0);
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            Object value = row[i];
+            if (value instanceof byte[] && dialect == Dialect.H2) {
+                throw new SQLFeatureNotSupportedException("Binary values can't be bulk loaded into H2 via CSVREAD");
+            }
+            if (value instanceof byte[] bytes && dialect == Dialect.MYSQL) {
+                writeLine();
+                writeMySqlBinary(bytes);
+            } else {
+                appendValue(value);
+            }
+        }
+        line.append('\n');
+        writeLine();
+    }
+
+    private void writeLine() throws IOException {
+        output.write(line.toString().getBytes(StandardCharsets.UTF_8));
+        line.setLength(0);
+    }
+
+    private void appendValue(@Nullable Object value) {
+        switch (value) {
+            case null -> line.append(dialect == Dialect.MYSQL ? "\\N" : "");
+            case Boolean bool -> line.append(dialect == Dialect.MYSQL ? (bool ? "1" : "0") : bool.toString());
+            case Number number when !(number instanceof BigDecimal) -> line.append(number);
+            case BigDecimal decimal -> line.append(decimal.toPlainString());
+            case byte[] bytes -> line.append("\\x").append(BaseEncoding.base16().lowerCase().encode(bytes));
+            default -> appendQuoted(value.toString());
+        }
+    }
+
+    // Always quote the text values: in CSV an empty unquoted value is NULL.
+    private void appendQuoted(@NotNull String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (dialect == Dialect.MYSQL) {
+                switch (ch) {
+                    case '\\' -> line.append("\\\\");
+                    case '"' -> line.append("\\\"");
+                    case '\n' -> line.append("\\n");
+                    case '\r' -> line.append("\\r");
+                    case '\0' -> line.append("\\0");
+                    default -> line.append(ch);
+                }
+            } else {
+                if (ch == '"') {
+                    line.append('"');
+                }
+                line.append(ch);
+            }
+        }
+        line.append('"');
+    }
+
+    // MySQL stores the bytes from the file as-is into the binary columns, only the escape sequences are decoded.
+    private void writeMySqlBinary(byte @NotNull[] bytes) throws IOException {
+        output.write('"');
+        for (byte b : bytes) {
+            switch (b) {
+                case '\\', '"' -> { output.write('\\'); output.write(b); }
+                case '\n' -> { output.write('\\'); output.write('n'); }
+                case '\r' -> { output.write('\\'); output.write('r'); }
+                case 0 -> { output.write('\\'); output.write('0'); }
+                default -> output.write(b);
+            }
+        }
+        output.write('"');
+    }
+
+    enum Dialect {
+        /** {@code COPY ... WITH (FORMAT csv)}: NULL is an empty unquoted value, quotes are doubled. */
+        POSTGRES,
+        /** {@code LOAD DATA ... ENCLOSED BY '"' ESCAPED BY '\\'}: NULL is {@code \N}, escapes by backslash. */
+        MYSQL,
+        /**
+         * {@code CSVREAD}: same as PostgreSQL, except the binary values, which aren't supported:
+         * H2 converts the text columns to binary as UTF-8 bytes and has no function to decode the hex.
+         */
+        H2,
+    }
+}
@@ -0,0 +1,141 @@
+package io.spbx.orm.api.batch;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.IntContainer;
+import com.carrotsearch.hppc.LongArrayList;
+import com.carrotsearch.hppc.LongContainer;
+import io.spbx.orm.api.Engine;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Splits the keys of the {@code WHERE key IN (?, ...)} lookups into the chunks, so that:
+ * <ul>
+ *     <li>each chunk fits into the max number of query params and the max {@code IN} list size of the engine
+ *     (and is at most {@link #MAX_CHUNK_SIZE} keys);</li>
+ *     <li>the size of each chunk is a power of two: the last chunk is padded by repeating its last key,
+ *     which doesn't change the result of the {@code IN} predicate.</li>
+ * </ul>
+ * Hence, the lookups of any number of keys produce only a small set of distinct statements, each of which can be
+ * cached by the driver, the DB and the {@code StatementCache}.
+ *
+ * @see MultiRowInsert
+ */
+@ThreadSafe
+public class InListChunks {
+    public static final int MAX_CHUNK_SIZE = 1024;
+
+    private static final String[] PLACEHOLDERS = new String[Integer.numberOfTrailingZeros(MAX_CHUNK_SIZE) + 1];
+
+    /**
+     * Returns the max size of the chunk in the {@code engine}: the largest power of two not exceeding
+     * the {@link #MAX_CHUNK_SIZE}, the max number of query params and the max {@code IN} list size.
+     */
+    public static int maxChunkSize(@NotNull Engine engine) {
+        return maxChunkSize(engine, 1);
+    }
+
+    /**
+     * Returns the max size of the chunk of the keys consisting of the {@code columns} values each.
+     */
+    public static int maxChunkSize(@NotNull Engine engine, int columns) {
+        assert columns > 0 : "Invalid columns number: " + columns;
+        int limit = Math.min(MAX_CHUNK_SIZE, Math.min(engine.maxQueryParams() / columns, engine.maxInListSize()));
+        return Integer.highestOneBit(Math.max(limit, 1));
+    }
+
+    /**
+     * Returns the padded size of the chunk of {@code size} keys: the smallest power of two not less than {@code size}.
+     */
+    public static int bucketSize(int size) {
+        assert size > 0 && size <= MAX_CHUNK_SIZE : "Invalid chunk size: " + size;
+        return size == 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+    }
+
+    /**
+     * Returns the placeholders of the {@code IN} list of the chunk: {@code "?,?,...,?"}.
+     */
+    public static @NotNull String placeholders(int chunkSize) {
+        assert chunkSize == bucketSize(chunkSize) : "Chunk size is not padded: " + chunkSize;
+        int index = Integer.numberOfTrailingZeros(chunkSize);
+        String placeholders = PLACEHOLDERS[index];
+        if (placeholders == null) {
+            placeholders = PLACEHOLDERS[index] = "?,".repeat(chunkSize - 1) + "?";  // benign race
+        }
+        return placeholders;
+    }
+
+    public static <K> @NotNull List<List<K>> split(@NotNull Collection<? extends K> keys, @NotNull Engine engine) {
+        return split(keys, engine, 1);
+    }
+
+    /**
+     * Splits the {@code keys} consisting of the {@code columns} values each (e.g. the composite keys).
+     */
+    public static <K> @NotNull List<List<K>> split(@NotNull Collection<? extends K> keys,
+                                                   @NotNull Engine engine,
+                                                   int columns) {
+        return split(keys, maxChunkSize(engine, columns));
+    }
+
+    /**
+     * Splits the {@code keys} into the chunks of at most {@code maxChunkSize} keys, which must be a power of two
+     * (e.g. {@link RowInList#maxChunkSize}).
+     */
+    @SuppressWarnings("unchecked")
+    public static <K> @NotNull List<List<K>> split(@NotNull Collection<? extends K> keys, int maxChunkSize) {
+        assert maxChunkSize == bucketSize(maxChunkSize) : "Max chunk size is not a power of two: " + maxChunkSize;
+        Object[] array = keys.toArray();
+        List<List<K>> chunks = new ArrayList<>(chunksNumber(array.length, maxChunkSize));
+        for (int from = 0; from < array.length; from += maxChunkSize) {
+            int size = Math.min(maxChunkSize, array.length - from);
+            Object[] chunk = Arrays.copyOfRange(array, from, from + bucketSize(size));
+            Arrays.fill(chunk, size, chunk.length, array[from + size - 1]);
+            chunks.add((List<K>) Arrays.asList(chunk));
+        }
+        return chunks;
+    }
+
+    public static @NotNull List<IntArrayList> split(@NotNull IntContainer keys, @NotNull Engine engine) {
+        int[] array = keys.toArray();
+        int maxChunkSize = maxChunkSize(engine);
+        List<IntArrayList> chunks = new ArrayList<>(chunksNumber(array.length, maxChunkSize));
+        for (int from = 0; from < array.length; from += maxChunkSize) {
+            int size = Math.min(maxChunkSize, array.length - from);
+            int bucketSize = bucketSize(size);
+            IntArrayList chunk = new IntArrayList(bucketSize);
+            chunk.add(array, from, size);
+            for (int i = size; i < bucketSize; i++) {
+                chunk.add(array[from + size - 1]);
+            }
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    public static @NotNull List<LongArrayList> split(@NotNull LongContainer keys, @NotNull Engine engine) {
+        long[] array = keys.toArray();
+        int maxChunkSize = maxChunkSize(engine);
+        List<LongArrayList> chunks = new ArrayList<>(chunksNumber(array.length, maxChunkSize));
+        for (int from = 0; from < array.length; from += maxChunkSize) {
+            int size = Math.min(maxChunkSize, array.length - from);
+            int bucketSize = bucketSize(size);
+            LongArrayList chunk = new LongArrayList(bucketSize);
+            chunk.add(array, from, size);
+            for (int i = size; i < bucketSize; i++) {
+                chunk.add(array[from + size - 1]);
+            }
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    private static int chunksNumber(int size, int maxChunkSize) {
+        return (size + maxChunkSize - 1) / maxChunkSize;
+    }
+}
@@ -0,0 +1,75 @@
+package io.spbx.orm.api.batch;
+
+import io.spbx.orm.api.Engine;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Represents the multi-row {@code INSERT ... VALUES (?, ...), (?, ...), ...} statement family for a single table.
+ * The number of rows per statement is always one of the fixed {@link #BLOCK_SIZES}, so that there is only a small
+ * set of distinct statements, each of which can be cached by the driver, the DB and the {@code StatementCache}.
+ * <p>
+ * The {@code header} is expected to end with {@code VALUES}, e.g. {@code "INSERT INTO user (id, name)\nVALUES\n"}.
+ *
+ * @see BatchExecutor
+ * @see BatchOptions#rowsPerStatement()
+ */
+@ThreadSafe
+public class MultiRowInsert {
+    /*package*/ static final int[] BLOCK_SIZES = { 1, 4, 16, 64, 256, 1024 };
+
+    private final String header;
+    private final int columns;
+    private final String[] sqls = new String[BLOCK_SIZES.length];  // computed lazily, benign race
+
+    public MultiRowInsert(@NotNull String header, int columns) {
+        assert columns > 0 : "Columns must be positive: " + columns;
+        this.header = header;
+        this.columns = columns;
+    }
+
+    public static @NotNull MultiRowInsert of(@NotNull String header, int columns) {
+        return new MultiRowInsert(header, columns);
+    }
+
+    public int columns() {
+        return columns;
+    }
+
+    /**
+     * Returns the SQL inserting {@code BLOCK_SIZES[blockIndex]} rows.
+     */
+    public @NotNull String sql(int blockIndex) {
+        String sql = sqls[blockIndex];
+        if (sql == null) {
+            String row = "(" + "?, ".repeat(columns - 1) + "?)";
+            int blockSize = BLOCK_SIZES[blockIndex];
+            StringBuilder builder = new StringBuilder(header.length() + blockSize * (row.length() + 2));
+            builder.append(header).append(row);
+            for (int i = 1; i < blockSize; i++) {
+                builder.append(", ").append(row);
+            }
+            sql = sqls[blockIndex] = builder.toString();
+        }
+        return sql;
+    }
+
+    /**
+     * Returns the index of the largest block which contains at most {@code maxRows} rows and fits into the max
+     * number of query params of the {@code engine}.
+     */
+    public int maxBlockIndex(@NotNull Engine engine, int maxRows) {
+        int maxParams = engine.maxQueryParams();
+        for (int i = BLOCK_SIZES.length - 1; i > 0; i--) {
+            if (BLOCK_SIZES[i] <= maxRows && (long) BLOCK_SIZES[i] * columns <= maxParams) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    public static int blockSize(int blockIndex) {
+        return BLOCK_SIZES[blockIndex];
+    }
+}
@@ -0,0 +1,88 @@
+package io.spbx.orm.api.batch;
+
+import com.google.common.collect.ImmutableList;
+import io.spbx.orm.api.Engine;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+/**
+ * Represents the {@code IN} predicate family of the batch lookups by the multi-column keys
+ * (e.g. the composite primary keys): {@code (a, b) IN ((?,?),(?,?),...)} in the engines supporting the row values,
+ * or the equivalent {@code (a = ? AND b = ?) OR (a = ? AND b = ?) OR ...} otherwise.
+ * The single column predicate is the plain {@code a IN (?,?,...)}.
+ * <p>
+ * The number of rows is expected to be one of the padded chunk sizes (see {@link InListChunks}), hence there is only
+ * a small set of distinct predicates, which are built lazily and cached.
+ */
+@ThreadSafe
+public class RowInList {
+    /**
+     * The max number of rows in the expanded predicate. The {@code OR} chain is parsed into an expression tree as deep
+     * as the number of rows, which is limited in some engines (e.g. {@code SQLITE_MAX_EXPR_DEPTH} is 1000 by default).
+     */
+    public static final int MAX_EXPANDED_ROWS = 256;
+
+    private final ImmutableList<String> columns;
+    private final String[] rowValues = new String[Integer.numberOfTrailingZeros(InListChunks.MAX_CHUNK_SIZE) + 1];
+    private final String[] expanded = new String[Integer.numberOfTrailingZeros(InListChunks.MAX_CHUNK_SIZE) + 1];
+
+    public RowInList(@NotNull ImmutableList<String> columns) {
+        assert !columns.isEmpty() : "No columns provided";
+        this.columns = columns;
+    }
+
+    public static @NotNull RowInList of(@NotNull String @NotNull ... columns) {
+        return new RowInList(ImmutableList.copyOf(columns));
+    }
+
+    public int columns() {
+        return columns.size();
+    }
+
+    /**
+     * Returns the max number of rows in the predicate in the {@code engine}: the {@link InListChunks#maxChunkSize}
+     * of the keys, additionally limited by the {@link #MAX_EXPANDED_ROWS} for the expanded predicate.
+     */
+    public int maxChunkSize(@NotNull Engine engine) {
+        int maxChunkSize = InListChunks.maxChunkSize(engine, columns.size());
+        boolean expanded = columns.size() > 1 && !supportsRowValues(engine);
+        return expanded ? Math.min(maxChunkSize, MAX_EXPANDED_ROWS) : maxChunkSize;
+    }
+
+    /**
+     * Returns the predicate matching the {@code rows} keys in the {@code engine}.
+     * The number of the params is {@code rows * columns()}.
+     */
+    public @NotNull String predicate(int rows, @NotNull Engine engine) {
+        int index = Integer.numberOfTrailingZeros(rows);
+        assert rows == InListChunks.bucketSize(rows) : "Rows number is not padded: " + rows;
+        if (columns.size() == 1) {
+            return columns.getFirst() + " IN (" + InListChunks.placeholders(rows) + ")";
+        }
+        if (supportsRowValues(engine)) {
+            String predicate = rowValues[index];
+            if (predicate == null) {
+                String row = "(" + "?,".repeat(columns.size() - 1) + "?)";
+                predicate = rowValues[index] = "(%s) IN (%s)".formatted(
+                    String.join(", ", columns),
+                    String.join(",", Collections.nCopies(rows, row))
+                );  // benign race
+            }
+            return predicate;
+        }
+        assert rows <= MAX_EXPANDED_ROWS : "Too many rows in the expanded predicate: " + rows;
+        String predicate = expanded[index];
+        if (predicate == null) {
+            String row = columns.stream().map("%s = ?"::formatted).collect(Collectors.joining(" AND ", "(", ")"));
+            predicate = expanded[index] = String.join(" OR ", Collections.nCopies(rows, row));  // benign race
+        }
+        return predicate;
+    }
+
+    private static boolean supportsRowValues(@NotNull Engine engine) {
+        return engine.isOneOf(Engine.PostgreSQL, Engine.MySQL, Engine.MariaDB, Engine.H2, Engine.HyperSQL);
+    }
+}
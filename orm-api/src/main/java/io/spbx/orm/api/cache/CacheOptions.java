@@ -0,0 +1,52 @@
+package io.spbx.orm.api.cache;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.concurrent.Immutable;
+import java.time.Duration;
+
+/**
+ * Holds the options of the entity cache of the {@link CachingTableInt} and {@link CachingTableLong} tables.
+ *
+ * @param maxSize the max number of cached entries (including the cached misses)
+ * @param expireAfterWrite if set, the entries are dropped after this time since they were loaded
+ * @param refreshAfterWrite if set, the entries are reloaded on access after this time since they were loaded.
+ *                          Until reloaded, the other readers get the stale entry.
+ * @param cacheMisses whether to cache the keys not found in the table (the negative entries)
+ */
+@Immutable
+public record CacheOptions(int maxSize,
+                           @Nullable Duration expireAfterWrite,
+                           @Nullable Duration refreshAfterWrite,
+                           boolean cacheMisses) {
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+
+    public static final CacheOptions DEFAULT = new CacheOptions(DEFAULT_MAX_SIZE, null, null, false);
+
+    public CacheOptions {
+        assert maxSize > 0 : "Max size must be positive: " + maxSize;
+        assert expireAfterWrite == null || expireAfterWrite.isPositive() : "Invalid expiration: " + expireAfterWrite;
+        assert refreshAfterWrite == null || refreshAfterWrite.isPositive() : "Invalid refresh: " + refreshAfterWrite;
+    }
+
+    public static @NotNull CacheOptions ofMaxSize(int maxSize) {
+        return DEFAULT.withMaxSize(maxSize);
+    }
+
+    public @NotNull CacheOptions withMaxSize(int maxSize) {
+        return new CacheOptions(maxSize, expireAfterWrite, refreshAfterWrite, cacheMisses);
+    }
+
+    public @NotNull CacheOptions withExpireAfterWrite(@Nullable Duration expireAfterWrite) {
+        return new CacheOptions(maxSize, expireAfterWrite, refreshAfterWrite, cacheMisses);
+    }
+
+    public @NotNull CacheOptions withRefreshAfterWrite(@Nullable Duration refreshAfterWrite) {
+        return new CacheOptions(maxSize, expireAfterWrite, refreshAfterWrite, cacheMisses);
+    }
+
+    public @NotNull CacheOptions withCacheMisses(boolean cacheMisses) {
+        return new CacheOptions(maxSize, expireAfterWrite, refreshAfterWrite, cacheMisses);
+    }
+}
@@ -0,0 +1,28 @@
+package io.spbx.orm.api.cache;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * The snapshot of the entity cache counters.
+ *
+ * @param hits the number of lookups served from the cache (including the cached misses)
+ * @param misses the number of lookups not found in the cache
+ * @param loads the number of entries loaded from the table (including the refreshes)
+ * @param evictions the number of entries evicted due to the size limit
+ * @param expirations the number of entries dropped due to the expiration
+ * @param invalidations the number of explicit invalidations (per key or the whole cache)
+ */
+@Immutable
+public record CacheStats(long hits, long misses, long loads, long evictions, long expirations, long invalidations) {
+    public long requests() {
+        return hits + misses;
+    }
+
+    /**
+     * Returns the ratio of the lookups served from the cache or {@code 1.0} if there were no lookups.
+     */
+    public double hitRatio() {
+        long requests = requests();
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,315 @@
+package io.spbx.orm.api.cache;
+
+import com.carrotsearch.hppc.LongArrayList;
+import com.carrotsearch.hppc.LongContainer;
+import com.carrotsearch.hppc.LongObjectHashMap;
+import com.carrotsearch.hppc.LongObjectMap;
+import com.carrotsearch.hppc.cursors.LongCursor;
+import com.carrotsearch.hppc.cursors.LongObjectCursor;
+import io.spbx.orm.api.ForwardingTableLong;
+import io.spbx.orm.api.ReadOptions;
+import io.spbx.orm.api.TableLong;
+import io.spbx.orm.api.batch.BatchOptions;
+import io.spbx.orm.api.batch.BatchResult;
+import io.spbx.orm.api.entity.BatchEntityData;
+import io.spbx.orm.api.entity.EntityData;
+import io.spbx.orm.api.query.Contextual;
+import io.spbx.orm.api.query.InvalidQueryException;
+import io.spbx.orm.api.query.Where;
+import io.spbx.util.base.annotate.CanIgnoreReturnValue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * A {@link TableLong} which caches the entities looked up by the primary key: {@link #getByPkOrNull(long)},
+ * {@link #exists(long)} and {@link #getBatchByPk(LongContainer)} (which fetches only the keys missing in the cache).
+ * <p>
+ * The cache is invalidated on the writes through this table: per key for the writes by the primary key,
+ * and completely for the writes by the arbitrary {@link Where} clause or data. The writes bypassing this table
+ * (e.g. via a different instance or the raw queries) are not visible until the entries expire,
+ * see {@link CacheOptions#expireAfterWrite()}.
+ * <p>
+ * The entities are cached on-heap (see {@link TinyLfuCache}) or off-heap (see {@link #offHeap}).
+ * Both stores are keyed by the primitive {@code long}, so the tables with an object primary key
+ * ({@link io.spbx.orm.api.TableObj}) don't have a caching counterpart.
+ * <p>
+ * The queries by a filter (e.g. {@link #iterator()}) are not cached. The copy with a different {@code follow}
+ * level is not cached either, because the entities differ by the followed references.
+ *
+ * @param <E> the entity type
+ * @see CacheOptions
+ */
+@ThreadSafe
+public class CachingTableLong<E> extends ForwardingTableLong<E> {
+    private final TableLong<E> delegate;
+    private final EntityCache<E> cache;
+
+    public CachingTableLong(@NotNull TableLong<E> delegate, @NotNull CacheOptions options) {
+        this(delegate, new TinyLfuCache<>(options));
+    }
+
+    /**
+     * Returns the table caching the entities off-heap, in up to {@code maxBytes} of the direct memory.
+     * The {@code codec} is usually the {@code ROW_CODEC} of the generated table, which stores only the ids of
+     * the foreign references, hence the {@code delegate} must not follow the references on read.
+     *
+     * @throws InvalidQueryException if the {@code delegate} follows the references on read
+     * @see OffHeapCache
+     */
+    public static <E> @NotNull CachingTableLong<E> offHeap(@NotNull TableLong<E> delegate,
+                                                           @NotNull RowCodec<E> codec,
+                                                           @NotNull CacheOptions options,
+                                                           long maxBytes) {
+        InvalidQueryException.assure(!delegate.followsReferencesOnRead(),
+                                     "Off-heap cache doesn't support the tables following the references on read:",
+                                     delegate.meta().sqlTableName());
+        return new CachingTableLong<>(delegate, new OffHeapCache<>(codec, options, maxBytes));
+    }
+
+    private CachingTableLong(@NotNull TableLong<E> delegate, @NotNull EntityCache<E> cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    protected @NotNull TableLong<E> delegate() {
+        return delegate;
+    }
+
+    public @NotNull CacheStats stats() {
+        return cache.stats();
+    }
+
+    public void invalidate(long key) {
+        cache.invalidate(key);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public @NotNull CachingTableLong<E> withReadOptions(@NotNull ReadOptions options) {
+        return new CachingTableLong<>(delegate.withReadOptions(options), cache);
+    }
+
+    @Override
+    public boolean exists(long key) {
+        Object cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached != EntityCache.MISS;
+        }
+        return delegate.exists(key);
+    }
+
+    @Override
+    public @Nullable E getByPkOrNull(long key) {
+        return cache.get(key, k -> delegate.getByPkOrNull(k));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @NotNull LongObjectMap<E> getBatchByPk(@NotNull LongContainer keys) {
+        LongObjectHashMap<E> result = new LongObjectHashMap<>(keys.size());
+        LongArrayList missing = new LongArrayList();
+        for (LongCursor cursor : keys) {
+            Object cached = cache.getIfPresent(cursor.value);
+            if (cached == null) {
+                missing.add(cursor.value);
+            } else if (cached != EntityCache.MISS) {
+                result.put(cursor.value, (E) cached);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long epoch = cache.epoch();
+        LongObjectMap<E> loaded = delegate.getBatchByPk(missing);
+        for (LongCursor cursor : missing) {
+            E entity = loaded.get(cursor.value);
+            cache.put(cursor.value, entity, epoch);
+            if (entity != null) {
+                result.put(cursor.value, entity);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public @NotNull Map<Long, E> getBatchByPk(@NotNull Collection<? extends Long> keys) {
+        LongArrayList longKeys = new LongArrayList(keys.size());
+        for (Long key : keys) {
+            longKeys.add(key);
+        }
+        LongObjectMap<E> entities = getBatchByPk(longKeys);
+        HashMap<Long, E> result = new HashMap<>(entities.size());
+        for (LongObjectCursor<E> cursor : entities) {
+            result.put(cursor.key, cursor.value);
+        }
+        return result;
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public int insert(@NotNull E entity) {
+        try {
+            return delegate.insert(entity);
+        } finally {
+            cache.invalidate(delegate.longKeyOf(entity));
+        }
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public int insertIgnore(@NotNull E entity) {
+        try {
+            return delegate.insertIgnore(entity);
+        } finally {
+            cache.invalidate(delegate.longKeyOf(entity));
+        }
+    }
+
+    @Override
+    public long insertAutoIncPk(@NotNull E entity) {
+        long key = delegate.insertAutoIncPk(entity);
+        cache.invalidate(key);
+        return key;
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public int[] insertBatch(@NotNull Collection<? extends E> batch) {
+        try {
+            return delegate.insertBatch(batch);
+        } finally {
+            batch.forEach(entity -> cache.invalidate(delegate.longKeyOf(entity)));
+        }
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public @NotNull BatchResult insertBatch(@NotNull Stream<? extends E> batch, @NotNull BatchOptions options) {
+        try {
+            return delegate.insertBatch(batch, options);
+        } finally {
+            cache.invalidateAll();
+        }
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public int insertData(@NotNull EntityData<?> data) {
+        try {
+            return delegate.insertData(data);
+        } finally {
+            cache.invalidateAll();
+        }
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public int[] insertDataBatch(@NotNull BatchEntityData<?> batchData) {
+        try {
+            return delegate.insertDataBatch(batchData);
+        } finally {
+            cache.invalidateAll();
+        }
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public long bulkLoad(@NotNull Stream<? extends E> batch) {
+        try {
+            return delegate.bulkLoad(batch);
+        } finally {
+            cache.invalidateAll();
+        }
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public long bulkLoadData(@NotNull BatchEntityData<?> batchData) {
+        try {
+            return delegate.bulkLoadData(batchData);
+        } finally {
+            cache.invalidateAll();
+        }
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public int updateByPk(@NotNull E entity) {
+        try {
+            return delegate.updateByPk(entity);
+        } finally {
+            cache.invalidate(delegate.longKeyOf(entity));
+        }
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public int updateWhere(@NotNull E entity, @NotNull Where where) {
+        try {
+            return delegate.updateWhere(entity, where);
+        } finally {
+            cache.invalidateAll();
+        }
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public int updateDataWhere(@NotNull EntityData<?> data, @NotNull Where where) {
+        try {
+            return delegate.updateDataWhere(data, where);
+        } finally {
+            cache.invalidateAll();
+        }
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public int[] updateWhereBatch(@NotNull Collection<? extends E> batch, @NotNull Contextual<Where, E> where) {
+        try {
+            return delegate.updateWhereBatch(batch, where);
+        } finally {
+            cache.invalidateAll();
+        }
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public <B> int[] updateDataWhereBatch(@NotNull BatchEntityData<B> batchData, @NotNull Contextual<Where, B> where) {
+        try {
+            return delegate.updateDataWhereBatch(batchData, where);
+        } finally {
+            cache.invalidateAll();
+        }
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public int deleteWhere(@NotNull Where where) {
+        try {
+            return delegate.deleteWhere(where);
+        } finally {
+            cache.invalidateAll();
+        }
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public int deleteByPk(long key) {
+        try {
+            return delegate.deleteByPk(key);
+        } finally {
+            cache.invalidate(key);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package io.spbx.orm.api.cache;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+/**
+ * The base class of the size-bounded caches of the entities keyed by the primitive ({@code int} or {@code long})
+ * primary keys. The implementations differ by the storage and the eviction policy.
+ * <p>
+ * The loads racing with an invalidation are not cached: each load captures the {@link #epoch()} and
+ * the result is dropped if any invalidation has happened since.
+ *
+ * @see TinyLfuCache
+ * @see OffHeapCache
+ */
+@ThreadSafe
+abstract class EntityCache<E> {
+    /** The marker of a cached miss returned by {@link #getIfPresent(long)}. */
+    static final Object MISS = new Object();
+
+    protected final boolean cacheMisses;
+    private final AtomicLong epoch = new AtomicLong();
+
+    protected final LongAdder hits = new LongAdder();
+    protected final LongAdder misses = new LongAdder();
+    protected final LongAdder loads = new LongAdder();
+    protected final LongAdder evictions = new LongAdder();
+    protected final LongAdder expirations = new LongAdder();
+    protected final LongAdder invalidations = new LongAdder();
+
+    protected EntityCache(@NotNull CacheOptions options) {
+        this.cacheMisses = options.cacheMisses();
+    }
+
+    /**
+     * Returns the cached entity, the {@link #MISS} marker if the key is cached as missing,
+     * or null if the key is not cached. Doesn't load or refresh the entries.
+     */
+    abstract @Nullable Object getIfPresent(long key);
+
+    /**
+     * Returns the cached entity (possibly null for a cached miss) or loads it via the {@code loader} and caches it.
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable E get(long key, @NotNull LongFunction<? extends E> loader) {
+        Object cached = getIfPresent(key);
+        if (cached != null) {
+            return cached != MISS ? (E) cached : null;
+        }
+        return load(key, loader);
+    }
+
+    /**
+     * Caches the loaded {@code value} (null for a miss) unless an invalidation has happened since
+     * the {@code epoch} was captured (before the load).
+     */
+    final void put(long key, @Nullable E value, long epoch) {
+        if (value == null && !cacheMisses) {
+            return;
+        }
+        store(key, value, epoch);
+    }
+
+    /**
+     * Returns the current epoch, to be captured before the load and passed to {@link #put(long, Object, long)}.
+     */
+    final long epoch() {
+        return epoch.get();
+    }
+
+    final void invalidate(long key) {
+        epoch.incrementAndGet();
+        invalidations.increment();
+        remove(key);
+    }
+
+    final void invalidateAll() {
+        epoch.incrementAndGet();
+        invalidations.increment();
+        clear();
+    }
+
+    abstract long size();
+
+    final @NotNull CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), loads.sum(),
+                              evictions.sum(), expirations.sum(), invalidations.sum());
+    }
+
+    protected final @Nullable E load(long key, @NotNull LongFunction<? extends E> loader) {
+        long epoch = epoch();
+        E value = loader.apply(key);
+        loads.increment();
+        put(key, value, epoch);
+        return value;
+    }
+
+    /**
+     * Returns whether no invalidation has happened since the {@code epoch}.
+     * Must be checked by {@link #store} under the same lock as {@link #remove} and {@link #clear}.
+     */
+    protected final boolean isCurrent(long epoch) {
+        return this.epoch.get() == epoch;
+    }
+
+    protected abstract void store(long key, @Nullable E value, long epoch);
+
+    protected abstract void remove(long key);
+
+    protected abstract void clear();
+
+    protected static long toNanos(@Nullable Duration duration) {
+        return duration != null ? duration.toNanos() : 0;
+    }
+}
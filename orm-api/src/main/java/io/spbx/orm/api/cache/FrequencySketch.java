@@ -0,0 +1,74 @@
+package io.spbx.orm.api.cache;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * The approximate access frequency of the keys: the count-min sketch of the 4-bit counters
+ * (stored in bytes, 4x the capacity per row).
+ * <p>
+ * The counters are halved once the number of recorded accesses reaches the sample size (10x the capacity),
+ * so the frequency reflects the recent history.
+ */
+@NotThreadSafe
+class FrequencySketch {
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final long[] SEEDS = {
+        0x97CB3127B8D54AA1L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L
+    };
+
+    private final byte[][] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int capacity) {
+        int width = Integer.highestOneBit(Math.clamp(4L * capacity, 64, 1 << 24) - 1) << 1;
+        this.table = new byte[DEPTH][width];
+        this.mask = width - 1;
+        this.sampleSize = Math.max(10 * capacity, 10);
+    }
+
+    int frequency(long key) {
+        long hash = spread(key);
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < DEPTH; i++) {
+            frequency = Math.min(frequency, table[i][indexOf(hash, i)]);
+        }
+        return frequency;
+    }
+
+    void increment(long key) {
+        long hash = spread(key);
+        boolean added = false;
+        for (int i = 0; i < DEPTH; i++) {
+            int index = indexOf(hash, i);
+            if (table[i][index] < MAX_COUNT) {
+                table[i][index]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (byte[] row : table) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] >>= 1;
+            }
+        }
+        additions >>= 1;
+    }
+
+    private int indexOf(long hash, int row) {
+        long mixed = (hash ^ SEEDS[row]) * SEEDS[(row + 1) % DEPTH];
+        return (int) (mixed >>> 40) & mask;
+    }
+
+    static long spread(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 29);
+    }
+}
@@ -0,0 +1,325 @@
+package io.spbx.orm.api.cache;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.IntContainer;
+import com.carrotsearch.hppc.IntObjectHashMap;
+import com.carrotsearch.hppc.IntObjectMap;
+import com.carrotsearch.hppc.LongArrayList;
+import com.carrotsearch.hppc.LongContainer;
+import com.carrotsearch.hppc.LongObjectHashMap;
+import com.carrotsearch.hppc.LongObjectMap;
+import com.carrotsearch.hppc.cursors.IntCursor;
+import com.carrotsearch.hppc.cursors.LongCursor;
+import io.spbx.orm.api.ReadFollow;
+import io.spbx.util.base.annotate.MustBeClosed;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The first-level identity cache of the entities looked up by the primary key within a unit of work
+ * (e.g. a single web request). While the scope is open in the current thread, the generated tables serve
+ * {@code getByPkOrNull()}, {@code getBatchByPk()} and {@code exists()} from this scope and query only
+ * the keys not seen before in the scope. The misses are remembered as well.
+ * <p>
+ * The writes of the generated tables in the same thread evict the affected entries: by key for the writes
+ * by the primary key, and the whole table otherwise. Any write also evicts the entries of all tables read with
+ * following the references, because they may embed the written rows. The scope is discarded on {@link #close()},
+ * hence there's no invalidation across the scopes. The writes bypassing the generated tables (e.g. the raw queries,
+ * other threads or processes) are not visible within the scope.
+ * <p>
+ * The entities are cached per table and per {@link ReadFollow} level. The entity returned from the scope
+ * is the same instance on each call, which is safe for the immutable models.
+ * <p>
+ * Usage:
+ * <pre>
+ *     try (IdentityScope scope = IdentityScope.open()) {
+ *         // handle the request
+ *     }
+ * </pre>
+ * The scopes can be nested: the inner scope starts empty and the outer one is restored on close.
+ * When no scope is open in the process, the tables pay only for a single volatile read.
+ */
+@NotThreadSafe
+public final class IdentityScope implements AutoCloseable {
+    static final Object MISS = new Object();
+
+    private static final ThreadLocal<IdentityScope> CURRENT = new ThreadLocal<>();
+    private static final AtomicInteger OPEN_SCOPES = new AtomicInteger();
+
+    private final @Nullable IdentityScope outer;
+    private final Thread thread;
+    private final HashMap<String, TableEntries> tables = new HashMap<>();
+    private boolean closed;
+
+    private IdentityScope(@Nullable IdentityScope outer) {
+        this.outer = outer;
+        this.thread = Thread.currentThread();
+    }
+
+    /**
+     * Opens a new scope bound to the current thread. The scope must be closed in the same thread.
+     */
+    @MustBeClosed
+    public static @NotNull IdentityScope open() {
+        IdentityScope scope = new IdentityScope(CURRENT.get());
+        CURRENT.set(scope);
+        OPEN_SCOPES.incrementAndGet();
+        return scope;
+    }
+
+    /**
+     * Returns the scope open in the current thread, or null if none.
+     */
+    public static @Nullable IdentityScope current() {
+        return OPEN_SCOPES.get() == 0 ? null : CURRENT.get();
+    }
+
+    /**
+     * Evicts the entity with the {@code key} of the {@code table} from the current scope, if any.
+     */
+    public static void onWrite(@NotNull String table, int key) {
+        IdentityScope scope = current();
+        if (scope != null) {
+            scope.evict(table, key);
+        }
+    }
+
+    /**
+     * Evicts the entity with the {@code key} of the {@code table} from the current scope, if any.
+     */
+    public static void onWrite(@NotNull String table, long key) {
+        IdentityScope scope = current();
+        if (scope != null) {
+            scope.evict(table, key);
+        }
+    }
+
+    /**
+     * Evicts the entity with the {@code key} of the {@code table} from the current scope, if any.
+     */
+    public static void onWrite(@NotNull String table, @NotNull Object key) {
+        IdentityScope scope = current();
+        if (scope != null) {
+            scope.evict(table, key);
+        }
+    }
+
+    /**
+     * Evicts all entities of the {@code table} from the current scope, if any.
+     */
+    public static void onWrite(@NotNull String table) {
+        IdentityScope scope = current();
+        if (scope != null) {
+            scope.evictAll(table);
+        }
+    }
+
+    /**
+     * Returns the entity by the {@code key} from this scope, or loads it via the {@code loader} and remembers it
+     * (possibly null for a missing entity).
+     */
+    @SuppressWarnings("unchecked")
+    public <E> @Nullable E getByPk(@NotNull String table, @NotNull ReadFollow follow,
+                                   @NotNull Object key, @NotNull Supplier<E> loader) {
+        HashMap<Object, Object> entries = entriesOf(table, follow);
+        Object cached = entries.get(key);
+        if (cached != null) {
+            return cached != MISS ? (E) cached : null;
+        }
+        E entity = loader.get();
+        entries.put(key, entity != null ? entity : MISS);
+        return entity;
+    }
+
+    /**
+     * Returns the entities by the {@code keys} from this scope, loading the keys not seen before via
+     * the {@code loader} in one call.
+     */
+    @SuppressWarnings("unchecked")
+    public <K, E> @NotNull Map<K, E> getBatchByPk(@NotNull String table, @NotNull ReadFollow follow,
+                                                 @NotNull Collection<? extends K> keys,
+                                                 @NotNull Function<List<K>, Map<K, E>> loader) {
+        HashMap<Object, Object> entries = entriesOf(table, follow);
+        HashMap<K, E> result = new HashMap<>(keys.size());
+        ArrayList<K> missing = new ArrayList<>();
+        for (K key : keys) {
+            Object cached = entries.get(key);
+            if (cached == null) {
+                missing.add(key);
+            } else if (cached != MISS) {
+                result.put(key, (E) cached);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<K, E> loaded = loader.apply(missing);
+            for (K key : missing) {
+                E entity = loaded.get(key);
+                entries.put(key, entity != null ? entity : MISS);
+                if (entity != null) {
+                    result.put(key, entity);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the entities by the {@code int} {@code keys} from this scope, loading the keys not seen before via
+     * the {@code loader} in one call.
+     */
+    @SuppressWarnings("unchecked")
+    public <E> @NotNull IntObjectMap<E> getBatchByPk(@NotNull String table, @NotNull ReadFollow follow,
+                                                     @NotNull IntContainer keys,
+                                                     @NotNull Function<IntArrayList, IntObjectMap<E>> loader) {
+        HashMap<Object, Object> entries = entriesOf(table, follow);
+        IntObjectHashMap<E> result = new IntObjectHashMap<>(keys.size());
+        IntArrayList missing = new IntArrayList();
+        for (IntCursor cursor : keys) {
+            Object cached = entries.get(cursor.value);
+            if (cached == null) {
+                missing.add(cursor.value);
+            } else if (cached != MISS) {
+                result.put(cursor.value, (E) cached);
+            }
+        }
+        if (!missing.isEmpty()) {
+            IntObjectMap<E> loaded = loader.apply(missing);
+            for (IntCursor cursor : missing) {
+                E entity = loaded.get(cursor.value);
+                entries.put(cursor.value, entity != null ? entity : MISS);
+                if (entity != null) {
+                    result.put(cursor.value, entity);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the entities by the {@code long} {@code keys} from this scope, loading the keys not seen before via
+     * the {@code loader} in one call.
+     */
+    @SuppressWarnings("unchecked")
+    public <E> @NotNull LongObjectMap<E> getBatchByPk(@NotNull String table, @NotNull ReadFollow follow,
+                                                      @NotNull LongContainer keys,
+                                                      @NotNull Function<LongArrayList, LongObjectMap<E>> loader) {
+        HashMap<Object, Object> entries = entriesOf(table, follow);
+        LongObjectHashMap<E> result = new LongObjectHashMap<>(keys.size());
+        LongArrayList missing = new LongArrayList();
+        for (LongCursor cursor : keys) {
+            Object cached = entries.get(cursor.value);
+            if (cached == null) {
+                missing.add(cursor.value);
+            } else if (cached != MISS) {
+                result.put(cursor.value, (E) cached);
+            }
+        }
+        if (!missing.isEmpty()) {
+            LongObjectMap<E> loaded = loader.apply(missing);
+            for (LongCursor cursor : missing) {
+                E entity = loaded.get(cursor.value);
+                entries.put(cursor.value, entity != null ? entity : MISS);
+                if (entity != null) {
+                    result.put(cursor.value, entity);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether the entity with the {@code key} exists according to this scope (on any follow level),
+     * or null if the key hasn't been seen in this scope.
+     */
+    public @Nullable Boolean exists(@NotNull String table, @NotNull Object key) {
+        TableEntries entries = tables.get(table);
+        if (entries != null) {
+            for (HashMap<Object, Object> byFollow : entries.byFollow) {
+                Object cached = byFollow != null ? byFollow.get(key) : null;
+                if (cached != null) {
+                    return cached != MISS;
+                }
+            }
+        }
+        return null;
+    }
+
+    public void evict(@NotNull String table, @NotNull Object key) {
+        TableEntries entries = tables.get(table);
+        if (entries != null) {
+            for (HashMap<Object, Object> byFollow : entries.byFollow) {
+                if (byFollow != null) {
+                    byFollow.remove(key);
+                }
+            }
+        }
+        evictFollowing();
+    }
+
+    public void evictAll(@NotNull String table) {
+        tables.remove(table);
+        evictFollowing();
+    }
+
+    // The entities read with following the references may embed the rows of any table, hence any write evicts them
+    private void evictFollowing() {
+        for (TableEntries entries : tables.values()) {
+            for (ReadFollow follow : ReadFollow.values()) {
+                if (follow != ReadFollow.NO_FOLLOW) {
+                    entries.byFollow[follow.ordinal()] = null;
+                }
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (TableEntries entries : tables.values()) {
+            for (HashMap<Object, Object> byFollow : entries.byFollow) {
+                size += byFollow != null ? byFollow.size() : 0;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        assert Thread.currentThread() == thread : "The scope must be closed in the thread it was opened in: " + thread;
+        assert CURRENT.get() == this : "The nested scope must be closed first";
+        closed = true;
+        tables.clear();
+        if (outer != null) {
+            CURRENT.set(outer);
+        } else {
+            CURRENT.remove();
+        }
+        OPEN_SCOPES.decrementAndGet();
+    }
+
+    private @NotNull HashMap<Object, Object> entriesOf(@NotNull String table, @NotNull ReadFollow follow) {
+        TableEntries entries = tables.computeIfAbsent(table, t -> new TableEntries());
+        HashMap<Object, Object> byFollow = entries.byFollow[follow.ordinal()];
+        if (byFollow == null) {
+            byFollow = entries.byFollow[follow.ordinal()] = new HashMap<>();
+        }
+        return byFollow;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static class TableEntries {
+        private final HashMap<Object, Object>[] byFollow = new HashMap[ReadFollow.values().length];
+    }
+}
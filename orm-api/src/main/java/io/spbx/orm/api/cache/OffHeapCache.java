@@ -0,0 +1,306 @@
+package io.spbx.orm.api.cache;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * The off-heap {@link EntityCache}: the entities are stored as the serialized rows (see {@link RowCodec} and
+ * {@link RowSerializer}) in the direct memory, hence the cached data doesn't add to the GC work.
+ * Each hit deserializes a new entity instance.
+ * <p>
+ * The cache is split into the stripes by the key hash, each stripe is guarded by its own lock and consists of:
+ * <ul>
+ *     <li>the slab: the direct buffer of the fixed-size slots, the row occupies a chain of slots;</li>
+ *     <li>the index: the open-addressing hash table of primitive arrays, mapping the key to the first slot.</li>
+ * </ul>
+ * The eviction follows the CLOCK policy: the hand sweeps the index and evicts the first entry not accessed
+ * since the previous sweep. The entity is not cached if its row is larger than the stripe slab,
+ * or if the row contains the values of unsupported types.
+ * <p>
+ * The {@link CacheOptions#refreshAfterWrite()} is not supported.
+ */
+@ThreadSafe
+class OffHeapCache<E> extends EntityCache<E> {
+    static final int SLOT_SIZE = 64;
+
+    private static final int MAX_STRIPES = 16;
+    private static final int MIN_STRIPE_BYTES = 1 << 20;
+    private static final int MAX_STRIPE_SLOTS = Integer.MAX_VALUE / SLOT_SIZE;
+
+    private static final int EMPTY = -1;
+    private static final int NO_SLOTS = -2;
+
+    private final RowCodec<E> codec;
+    private final Stripe[] stripes;
+    private final long expireNanos;
+    private final LongSupplier ticker;
+
+    OffHeapCache(@NotNull RowCodec<E> codec, @NotNull CacheOptions options, long maxBytes) {
+        this(codec, options, maxBytes, System::nanoTime);
+    }
+
+    OffHeapCache(@NotNull RowCodec<E> codec, @NotNull CacheOptions options, long maxBytes,
+                 @NotNull LongSupplier ticker) {
+        super(options);
+        assert options.refreshAfterWrite() == null : "Refresh is not supported by the off-heap cache";
+        assert maxBytes >= SLOT_SIZE : "Max bytes is too small: " + maxBytes;
+        int stripesNum = (int) Math.clamp(Long.highestOneBit(maxBytes / MIN_STRIPE_BYTES), 1, MAX_STRIPES);
+        int stripeSlots = (int) Math.min(maxBytes / stripesNum / SLOT_SIZE, MAX_STRIPE_SLOTS);
+        int stripeEntries = Math.max(options.maxSize() / stripesNum, 1);
+        this.codec = codec;
+        this.stripes = new Stripe[stripesNum];
+        for (int i = 0; i < stripesNum; i++) {
+            stripes[i] = new Stripe(stripeSlots, stripeEntries);
+        }
+        this.expireNanos = toNanos(options.expireAfterWrite());
+        this.ticker = ticker;
+    }
+
+    @Override
+    @Nullable Object getIfPresent(long key) {
+        Stripe stripe = stripeFor(key);
+        byte[] bytes;
+        synchronized (stripe) {
+            int index = stripe.find(key);
+            if (index >= 0 && expireNanos > 0 && ticker.getAsLong() - stripe.writeNanos[index] >= expireNanos) {
+                stripe.removeAt(index);
+                expirations.increment();
+                index = -1;
+            }
+            if (index < 0) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            stripe.referenced[index] = true;
+            if (stripe.heads[index] == NO_SLOTS) {
+                return MISS;
+            }
+            bytes = stripe.read(index);
+        }
+        return codec.fromValues(RowSerializer.deserialize(bytes));
+    }
+
+    @Override
+    long size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    protected void store(long key, @Nullable E value, long epoch) {
+        byte[] bytes = null;
+        if (value != null) {
+            bytes = RowSerializer.serialize(codec.toValues(value));
+            if (bytes == null) {
+                return;
+            }
+        }
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            if (!isCurrent(epoch)) {
+                return;
+            }
+            int index = stripe.find(key);
+            if (index >= 0) {
+                stripe.removeAt(index);
+            }
+            evictions.add(stripe.insert(key, bytes, ticker.getAsLong()));
+        }
+    }
+
+    @Override
+    protected void remove(long key) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            int index = stripe.find(key);
+            if (index >= 0) {
+                stripe.removeAt(index);
+            }
+        }
+    }
+
+    @Override
+    protected void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    private @NotNull Stripe stripeFor(long key) {
+        return stripes[(int) (FrequencySketch.spread(key) >>> 32) & (stripes.length - 1)];
+    }
+
+    private static class Stripe {
+        // The slab
+        private final ByteBuffer slab;
+        private final int[] nextSlot;
+        private int freeHead;
+        private int freeSlots;
+
+        // The index
+        private final int maxEntries;
+        private final int mask;
+        private final long[] keys;
+        private final int[] heads;
+        private final int[] lengths;
+        private final long[] writeNanos;
+        private final boolean[] referenced;
+        private int size;
+        private int hand;
+
+        private Stripe(int slots, int maxEntries) {
+            this.slab = ByteBuffer.allocateDirect(slots * SLOT_SIZE);
+            this.nextSlot = new int[slots];
+            this.maxEntries = maxEntries;
+            int capacity = Integer.highestOneBit(Math.max(maxEntries, 2) - 1) << 2;  // load factor <= 0.5
+            this.mask = capacity - 1;
+            this.keys = new long[capacity];
+            this.heads = new int[capacity];
+            this.lengths = new int[capacity];
+            this.writeNanos = new long[capacity];
+            this.referenced = new boolean[capacity];
+            clear();
+        }
+
+        private int find(long key) {
+            for (int index = homeOf(key); heads[index] != EMPTY; index = (index + 1) & mask) {
+                if (keys[index] == key) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+
+        private byte @NotNull[] read(int index) {
+            byte[] bytes = new byte[lengths[index]];
+            int slot = heads[index];
+            for (int offset = 0; offset < bytes.length; offset += SLOT_SIZE) {
+                slab.get(slot * SLOT_SIZE, bytes, offset, Math.min(SLOT_SIZE, bytes.length - offset));
+                slot = nextSlot[slot];
+            }
+            return bytes;
+        }
+
+        /**
+         * Inserts the new entry (the key must be absent) and returns the number of evicted entries.
+         * The {@code bytes} is null for a cached miss.
+         */
+        private int insert(long key, byte @Nullable[] bytes, long nanos) {
+            int needSlots = bytes != null ? (bytes.length + SLOT_SIZE - 1) / SLOT_SIZE : 0;
+            if (needSlots > nextSlot.length) {
+                return 0;
+            }
+            int evicted = 0;
+            while (size >= maxEntries || freeSlots < needSlots) {
+                evictOne();
+                evicted++;
+            }
+
+            int head = bytes != null ? write(bytes, needSlots) : NO_SLOTS;
+            int index = homeOf(key);
+            while (heads[index] != EMPTY) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+            heads[index] = head;
+            lengths[index] = bytes != null ? bytes.length : 0;
+            writeNanos[index] = nanos;
+            referenced[index] = false;
+            size++;
+            return evicted;
+        }
+
+        private int write(byte @NotNull[] bytes, int needSlots) {
+            int head = freeHead;
+            int slot = head;
+            for (int i = 0, offset = 0; i < needSlots; i++, offset += SLOT_SIZE) {
+                slab.put(slot * SLOT_SIZE, bytes, offset, Math.min(SLOT_SIZE, bytes.length - offset));
+                if (i < needSlots - 1) {
+                    slot = nextSlot[slot];
+                }
+            }
+            freeHead = nextSlot[slot];
+            nextSlot[slot] = EMPTY;
+            freeSlots -= needSlots;
+            return head;
+        }
+
+        private void evictOne() {
+            assert size > 0 : "Nothing to evict";
+            while (true) {
+                int index = hand;
+                hand = (hand + 1) & mask;
+                if (heads[index] == EMPTY) {
+                    continue;
+                }
+                if (referenced[index]) {
+                    referenced[index] = false;
+                    continue;
+                }
+                removeAt(index);
+                return;
+            }
+        }
+
+        /**
+         * Removes the entry at the {@code index} and shifts back the following entries of the probe sequence.
+         */
+        private void removeAt(int index) {
+            int slot = heads[index];
+            if (slot >= 0) {
+                int last = slot;
+                int slotsNum = 1;
+                while (nextSlot[last] != EMPTY) {
+                    last = nextSlot[last];
+                    slotsNum++;
+                }
+                nextSlot[last] = freeHead;
+                freeHead = slot;
+                freeSlots += slotsNum;
+            }
+
+            int hole = index;
+            for (int next = (index + 1) & mask; heads[next] != EMPTY; next = (next + 1) & mask) {
+                int home = homeOf(keys[next]);
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    heads[hole] = heads[next];
+                    lengths[hole] = lengths[next];
+                    writeNanos[hole] = writeNanos[next];
+                    referenced[hole] = referenced[next];
+                    hole = next;
+                }
+            }
+            heads[hole] = EMPTY;
+            size--;
+        }
+
+        private void clear() {
+            for (int slot = 0; slot < nextSlot.length; slot++) {
+                nextSlot[slot] = slot + 1 < nextSlot.length ? slot + 1 : EMPTY;
+            }
+            freeHead = nextSlot.length > 0 ? 0 : EMPTY;
+            freeSlots = nextSlot.length;
+            Arrays.fill(heads, EMPTY);
+            size = 0;
+            hand = 0;
+        }
+
+        private int homeOf(long key) {
+            return (int) FrequencySketch.spread(key) & mask;
+        }
+    }
+}
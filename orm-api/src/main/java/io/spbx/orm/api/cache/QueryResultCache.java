@@ -0,0 +1,273 @@
+package io.spbx.orm.api.cache;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.LongArrayList;
+import io.spbx.orm.api.QueryRunner;
+import io.spbx.orm.api.ResultSetIterator;
+import io.spbx.orm.api.metrics.QueryEvent;
+import io.spbx.orm.api.metrics.QueryListener;
+import io.spbx.orm.api.query.Args;
+import io.spbx.orm.api.query.SelectQuery;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * A bounded LRU cache of the converted results of the {@link SelectQuery}s, keyed by the SQL, the args and
+ * the result shape (e.g. the converter). Each result is kept for the TTL of its {@link ResultCachePolicy}
+ * and is invalidated on a write to any of the policy tables.
+ * <p>
+ * The {@link #shared()} cache is invalidated by the writes of all generated tables in the process, regardless
+ * of the connector (see {@link #onWrite(String)}). Any other instance observes the writes as the
+ * {@link QueryListener}: it must be installed on the connector used by the tables
+ * (see {@link io.spbx.orm.api.Connector#withListener}), so that the updates, batches and bulk loads of the generated
+ * tables invalidate the dependent results. The writes of an unknown table (e.g. via a raw runner) invalidate
+ * all results of the listening cache, but aren't visible to the shared cache. The writes of other processes
+ * aren't visible to any cache and are picked up after the TTL.
+ * <p>
+ * The concurrent misses of the same query are loaded once: the other callers wait for the result in flight.
+ * The results loaded concurrently with a write to the dependent table are returned, but not cached.
+ * The cached lists are unmodifiable, the primitive columns are copied on each hit.
+ */
+@ThreadSafe
+public class QueryResultCache implements QueryListener {
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    private static final QueryResultCache SHARED = new QueryResultCache(DEFAULT_CAPACITY);
+
+    private static final Object SCALAR = "scalar";
+    private static final Object INT_COLUMN = "int-column";
+    private static final Object LONG_COLUMN = "long-column";
+
+    private final int capacity;
+    private final LongSupplier ticker;
+    private final LinkedHashMap<Key, Entry> entries;
+    private final ConcurrentMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final AtomicLong globalVersion = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public QueryResultCache(int capacity) {
+        this(capacity, System::nanoTime);
+    }
+
+    QueryResultCache(int capacity, @NotNull LongSupplier ticker) {
+        assert capacity > 0 : "Invalid result cache capacity: " + capacity;
+        this.capacity = capacity;
+        this.ticker = ticker;
+        this.entries = new LinkedHashMap<>(capacity, 0.75f, true);
+    }
+
+    /**
+     * Returns the process-wide cache instance.
+     */
+    public static @NotNull QueryResultCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Invalidates the results depending on the {@code table} in the {@link #shared()} cache.
+     * Called by the generated tables after each write (successful or not).
+     * Costs a single map lookup if no shared result depends on the {@code table}.
+     */
+    public static void onWrite(@NotNull String table) {
+        // The versions of the policy tables are created before the load, so the missing version means
+        // there are no results to invalidate, neither cached nor in flight
+        if (SHARED.versions.containsKey(table)) {
+            SHARED.invalidateTable(table);
+        }
+    }
+
+    public @Nullable Object runAndGet(@NotNull QueryRunner runner,
+                                      @NotNull SelectQuery query,
+                                      @NotNull ResultCachePolicy policy) {
+        return get(query, SCALAR, policy, () -> runner.runAndGet(query));
+    }
+
+    /**
+     * Fetches the rows converted by the {@code converter}, keyed by the converter instance. The same lambda
+     * or method reference is a shared instance only if it doesn't capture any variables: the capturing converters
+     * (or the ones created on each call) never hit the cache, use the explicit {@code shape} instead.
+     */
+    public <E> @NotNull List<E> fetchAll(@NotNull QueryRunner runner,
+                                         @NotNull SelectQuery query,
+                                         @NotNull ResultSetIterator.Converter<E> converter,
+                                         @NotNull ResultCachePolicy policy) {
+        return fetchAll(runner, query, converter, converter, policy);
+    }
+
+    /**
+     * Fetches the rows converted by the {@code converter}, keyed by the {@code shape} provided by the caller.
+     * The {@code shape} must be equal for the converters producing the equal results, and only for them.
+     */
+    public <E> @NotNull List<E> fetchAll(@NotNull QueryRunner runner,
+                                         @NotNull SelectQuery query,
+                                         @NotNull Object shape,
+                                         @NotNull ResultSetIterator.Converter<E> converter,
+                                         @NotNull ResultCachePolicy policy) {
+        return get(query, shape, policy, () -> Collections.unmodifiableList(runner.fetchAll(query, converter)));
+    }
+
+    public @NotNull IntArrayList fetchIntColumn(@NotNull QueryRunner runner,
+                                                @NotNull SelectQuery query,
+                                                @NotNull ResultCachePolicy policy) {
+        return get(query, INT_COLUMN, policy, () -> runner.fetchIntColumn(query)).clone();
+    }
+
+    public @NotNull LongArrayList fetchLongColumn(@NotNull QueryRunner runner,
+                                                  @NotNull SelectQuery query,
+                                                  @NotNull ResultCachePolicy policy) {
+        return get(query, LONG_COLUMN, policy, () -> runner.fetchLongColumn(query)).clone();
+    }
+
+    /**
+     * Invalidates the results depending on the {@code table}.
+     */
+    public void invalidateTable(@NotNull String table) {
+        versionOf(table).incrementAndGet();
+        invalidations.increment();
+        synchronized (this) {
+            entries.values().removeIf(entry -> entry.policy.tables().contains(table));
+        }
+    }
+
+    public void invalidateAll() {
+        globalVersion.incrementAndGet();
+        invalidations.increment();
+        synchronized (this) {
+            entries.clear();
+        }
+    }
+
+    @Override
+    public void onEvent(@NotNull QueryEvent event) {
+        switch (event.kind()) {
+            case UPDATE, BATCH, BULK -> {
+                if (event.table() != null) {
+                    invalidateTable(event.table());
+                } else {
+                    invalidateAll();
+                }
+            }
+            default -> {}
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public @NotNull CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), loads.sum(),
+                              evictions.sum(), expirations.sum(), invalidations.sum());
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T get(@NotNull SelectQuery query,
+              @NotNull Object shape,
+              @NotNull ResultCachePolicy policy,
+              @NotNull Supplier<T> loader) {
+        Key key = new Key(query.repr(), query.args(), shape);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (ticker.getAsLong() < entry.expiresAt) {
+                    hits.increment();
+                    return (T) entry.value;
+                }
+                entries.remove(key);
+                expirations.increment();
+            }
+        }
+        misses.increment();
+
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return (T) join(existing);
+        }
+        try {
+            long[] snapshot = versionsOf(policy);
+            T value = loader.get();
+            loads.increment();
+            store(key, new Entry(value, policy, ticker.getAsLong() + policy.ttl().toNanos()), snapshot);
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private synchronized void store(@NotNull Key key, @NotNull Entry entry, long @NotNull[] snapshot) {
+        if (!isCurrent(entry.policy, snapshot)) {
+            return;
+        }
+        entries.put(key, entry);
+        if (entries.size() > capacity) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    private long @NotNull[] versionsOf(@NotNull ResultCachePolicy policy) {
+        long[] snapshot = new long[policy.tables().size() + 1];
+        snapshot[0] = globalVersion.get();
+        int i = 1;
+        for (String table : policy.tables()) {
+            snapshot[i++] = versionOf(table).get();
+        }
+        return snapshot;
+    }
+
+    private boolean isCurrent(@NotNull ResultCachePolicy policy, long @NotNull[] snapshot) {
+        return Arrays.equals(snapshot, versionsOf(policy));
+    }
+
+    private @NotNull AtomicLong versionOf(@NotNull String table) {
+        AtomicLong version = versions.get(table);
+        if (version == null) {
+            version = versions.computeIfAbsent(table, t -> new AtomicLong());
+        }
+        return version;
+    }
+
+    private static @Nullable Object join(@NotNull CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Key(@NotNull String sql, @NotNull Args args, @NotNull Object shape) {}
+
+    private record Entry(@Nullable Object value, @NotNull ResultCachePolicy policy, long expiresAt) {}
+}
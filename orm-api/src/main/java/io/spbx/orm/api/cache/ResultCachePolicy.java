@@ -0,0 +1,37 @@
+package io.spbx.orm.api.cache;
+
+import com.google.common.collect.ImmutableSet;
+import io.spbx.orm.api.BaseTable;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.concurrent.Immutable;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Holds the caching options of a query in the {@link QueryResultCache}.
+ *
+ * @param ttl the time to keep the result since it was loaded
+ * @param tables the SQL names of the tables the query reads from: the result is invalidated on any write
+ *               to these tables
+ */
+@Immutable
+public record ResultCachePolicy(@NotNull Duration ttl, @NotNull ImmutableSet<String> tables) {
+    public ResultCachePolicy {
+        assert ttl.isPositive() : "TTL must be positive: " + ttl;
+    }
+
+    public static @NotNull ResultCachePolicy of(@NotNull Duration ttl, @NotNull String @NotNull ... tables) {
+        return new ResultCachePolicy(ttl, ImmutableSet.copyOf(tables));
+    }
+
+    public static @NotNull ResultCachePolicy of(@NotNull Duration ttl, @NotNull BaseTable<?> @NotNull ... tables) {
+        return new ResultCachePolicy(ttl, Arrays.stream(tables)
+            .map(table -> table.meta().sqlTableName())
+            .collect(ImmutableSet.toImmutableSet()));
+    }
+
+    public @NotNull ResultCachePolicy withTtl(@NotNull Duration ttl) {
+        return new ResultCachePolicy(ttl, tables);
+    }
+}
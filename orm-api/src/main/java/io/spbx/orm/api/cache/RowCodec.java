@@ -0,0 +1,41 @@
+package io.spbx.orm.api.cache;
+
+import io.spbx.util.func.ThrowFunction;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Function;
+
+/**
+ * Converts the entities to the JDBC values of the table row (in the order of {@code TableMeta.sqlColumns()})
+ * and back, without the follow. The generated tables provide the codec as the {@code ROW_CODEC} constant,
+ * based on the generated {@code valuesForInsert} and {@code fromRow}.
+ *
+ * @param <E> the entity type
+ * @see OffHeapCache
+ */
+public interface RowCodec<E> {
+    @NotNull Object[] toValues(@NotNull E entity);
+
+    @NotNull E fromValues(@NotNull Object[] values);
+
+    static <E> @NotNull RowCodec<E> of(@NotNull Function<E, Object[]> toValues,
+                                       @NotNull ThrowFunction<ResultSet, E, SQLException> fromRow) {
+        return new RowCodec<>() {
+            @Override
+            public @NotNull Object[] toValues(@NotNull E entity) {
+                return toValues.apply(entity);
+            }
+
+            @Override
+            public @NotNull E fromValues(@NotNull Object[] values) {
+                try (ValuesResultSet resultSet = new ValuesResultSet(values)) {
+                    return fromRow.apply(resultSet);
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Failed to convert the row values", e);
+                }
+            }
+        };
+    }
+}
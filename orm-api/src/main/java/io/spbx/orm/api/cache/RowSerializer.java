@@ -0,0 +1,49 @@
+package io.spbx.orm.api.cache;
+
+import io.spbx.orm.api.ValueCodec;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Serializes the JDBC values of the row into the compact byte array and back.
+ * <p>
+ * The format is: the number of values and each value in the {@link ValueCodec} format. The supported value types
+ * cover the native types of the generated {@code fromRow}.
+ */
+class RowSerializer {
+    /**
+     * Returns the serialized {@code values} or null if some value type is not supported.
+     */
+    static byte @Nullable [] serialize(@Nullable Object @NotNull[] values) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8 * values.length + 4);
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(values.length);
+            for (Object value : values) {
+                if (!ValueCodec.writeValue(output, value)) {
+                    return null;
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("In-memory stream failed", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static @Nullable Object @NotNull[] deserialize(byte @NotNull[] bytes) {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            Object[] values = new Object[input.readInt()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = ValueCodec.readValue(input);
+            }
+            return values;
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupted serialized row", e);
+        }
+    }
+}
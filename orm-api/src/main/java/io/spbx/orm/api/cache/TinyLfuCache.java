@@ -0,0 +1,294 @@
+package io.spbx.orm.api.cache;
+
+import com.carrotsearch.hppc.LongObjectHashMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * The on-heap {@link EntityCache}.
+ * <p>
+ * The cache is split into the segments by the key hash, each segment is guarded by its own lock.
+ * The eviction follows the W-TinyLFU policy (simplified): the new entries enter a small LRU window,
+ * and the entries falling out of the window compete with the LRU victim of the main space
+ * by the estimated access frequency (see {@link FrequencySketch}). Hence, the one-off lookups (e.g. the scans)
+ * don't evict the frequently used entries.
+ */
+@ThreadSafe
+class TinyLfuCache<E> extends EntityCache<E> {
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 64;
+
+    private final Segment<E>[] segments;
+    private final long expireNanos;
+    private final long refreshNanos;
+    private final LongSupplier ticker;
+
+    TinyLfuCache(@NotNull CacheOptions options) {
+        this(options, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    TinyLfuCache(@NotNull CacheOptions options, @NotNull LongSupplier ticker) {
+        super(options);
+        int segmentsNum = Math.clamp(Integer.highestOneBit(options.maxSize() / MIN_SEGMENT_SIZE), 1, MAX_SEGMENTS);
+        int segmentSize = Math.max(options.maxSize() / segmentsNum, 1);
+        this.segments = new Segment[segmentsNum];
+        for (int i = 0; i < segmentsNum; i++) {
+            segments[i] = new Segment<>(segmentSize);
+        }
+        this.expireNanos = toNanos(options.expireAfterWrite());
+        this.refreshNanos = toNanos(options.refreshAfterWrite());
+        this.ticker = ticker;
+    }
+
+    @Override
+    @Nullable Object getIfPresent(long key) {
+        Segment<E> segment = segmentFor(key);
+        synchronized (segment) {
+            Node<E> node = lookup(segment, key);
+            if (node == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return node.value != null ? node.value : MISS;
+        }
+    }
+
+    /**
+     * Returns the cached entity (possibly null for a cached miss) or loads it via the {@code loader} and caches it.
+     * The entry due to refresh is reloaded by the first reader, the concurrent readers get the stale entry.
+     */
+    @Override
+    @Nullable E get(long key, @NotNull LongFunction<? extends E> loader) {
+        Segment<E> segment = segmentFor(key);
+        Node<E> node;
+        synchronized (segment) {
+            node = lookup(segment, key);
+            if (node != null) {
+                hits.increment();
+                if (refreshNanos == 0 || node.refreshing || ticker.getAsLong() - node.writeNanos < refreshNanos) {
+                    return node.value;
+                }
+                node.refreshing = true;
+            } else {
+                misses.increment();
+            }
+        }
+        if (node == null) {
+            return load(key, loader);
+        }
+
+        // The refreshed value may be dropped by `put()` or `store()`, hence the flag is cleared on any outcome:
+        // otherwise the node would serve the stale value and never refresh again.
+        try {
+            E value = load(key, loader);
+            if (value == null && !cacheMisses) {
+                synchronized (segment) {
+                    if (segment.index.get(key) == node) {
+                        segment.remove(node);
+                    }
+                }
+            }
+            return value;
+        } finally {
+            synchronized (segment) {
+                node.refreshing = false;
+            }
+        }
+    }
+
+    @Override
+    long size() {
+        long size = 0;
+        for (Segment<E> segment : segments) {
+            synchronized (segment) {
+                size += segment.index.size();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    protected void store(long key, @Nullable E value, long epoch) {
+        Segment<E> segment = segmentFor(key);
+        synchronized (segment) {
+            if (!isCurrent(epoch)) {
+                return;
+            }
+            Node<E> node = segment.index.get(key);
+            if (node != null) {
+                node.value = value;
+                node.writeNanos = ticker.getAsLong();
+                node.refreshing = false;
+                segment.onAccess(node);
+            } else {
+                evictions.add(segment.add(new Node<>(key, value, ticker.getAsLong())));
+            }
+        }
+    }
+
+    @Override
+    protected void remove(long key) {
+        Segment<E> segment = segmentFor(key);
+        synchronized (segment) {
+            Node<E> node = segment.index.get(key);
+            if (node != null) {
+                segment.remove(node);
+            }
+        }
+    }
+
+    @Override
+    protected void clear() {
+        for (Segment<E> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    private @Nullable Node<E> lookup(@NotNull Segment<E> segment, long key) {
+        Node<E> node = segment.index.get(key);
+        if (node == null) {
+            segment.sketch.increment(key);
+            return null;
+        }
+        if (expireNanos > 0 && ticker.getAsLong() - node.writeNanos >= expireNanos) {
+            segment.remove(node);
+            expirations.increment();
+            segment.sketch.increment(key);
+            return null;
+        }
+        segment.onAccess(node);
+        return node;
+    }
+
+    private @NotNull Segment<E> segmentFor(long key) {
+        return segments[(int) (FrequencySketch.spread(key) >>> 32) & (segments.length - 1)];
+    }
+
+    private static class Node<E> {
+        private final long key;
+        private @Nullable E value;
+        private long writeNanos;
+        private boolean refreshing;
+        private boolean inWindow;
+        private Node<E> prev;
+        private Node<E> next;
+
+        private Node(long key, @Nullable E value, long writeNanos) {
+            this.key = key;
+            this.value = value;
+            this.writeNanos = writeNanos;
+        }
+    }
+
+    /**
+     * The doubly-linked LRU list of the nodes: the most recent first.
+     */
+    private static class LruList<E> {
+        private final Node<E> head = new Node<>(0, null, 0);
+        private int size;
+
+        private LruList() {
+            head.prev = head.next = head;
+        }
+
+        private void addFirst(@NotNull Node<E> node) {
+            node.prev = head;
+            node.next = head.next;
+            head.next.prev = node;
+            head.next = node;
+            size++;
+        }
+
+        private void remove(@NotNull Node<E> node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = node.next = null;
+            size--;
+        }
+
+        private void moveToFirst(@NotNull Node<E> node) {
+            remove(node);
+            addFirst(node);
+        }
+
+        private @Nullable Node<E> last() {
+            return head.prev != head ? head.prev : null;
+        }
+
+        private void clear() {
+            head.prev = head.next = head;
+            size = 0;
+        }
+    }
+
+    private static class Segment<E> {
+        private final int windowCapacity;
+        private final int mainCapacity;
+        private final LongObjectHashMap<Node<E>> index = new LongObjectHashMap<>();
+        private final LruList<E> window = new LruList<>();
+        private final LruList<E> main = new LruList<>();
+        private final FrequencySketch sketch;
+
+        private Segment(int capacity) {
+            this.windowCapacity = Math.max(capacity / 100, 1);
+            this.mainCapacity = Math.max(capacity - windowCapacity, 1);
+            this.sketch = new FrequencySketch(capacity);
+        }
+
+        private void onAccess(@NotNull Node<E> node) {
+            sketch.increment(node.key);
+            (node.inWindow ? window : main).moveToFirst(node);
+        }
+
+        /**
+         * Adds the new node to the window and returns the number of evicted nodes.
+         */
+        private int add(@NotNull Node<E> node) {
+            index.put(node.key, node);
+            node.inWindow = true;
+            window.addFirst(node);
+            if (window.size <= windowCapacity) {
+                return 0;
+            }
+
+            Node<E> candidate = window.last();
+            assert candidate != null : "Window can't be empty";
+            window.remove(candidate);
+            candidate.inWindow = false;
+            if (main.size < mainCapacity) {
+                main.addFirst(candidate);
+                return 0;
+            }
+
+            Node<E> victim = main.last();
+            assert victim != null : "Main space can't be empty";
+            if (sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                main.remove(victim);
+                index.remove(victim.key);
+                main.addFirst(candidate);
+            } else {
+                index.remove(candidate.key);
+            }
+            return 1;
+        }
+
+        private void remove(@NotNull Node<E> node) {
+            index.remove(node.key);
+            (node.inWindow ? window : main).remove(node);
+        }
+
+        private void clear() {
+            index.clear();
+            window.clear();
+            main.clear();
+        }
+    }
+}
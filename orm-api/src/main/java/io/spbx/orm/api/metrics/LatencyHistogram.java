@@ -0,0 +1,131 @@
+package io.spbx.orm.api.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of non-negative values (e.g. the latencies in nanos) with log-linear buckets,
+ * similar to HDR histogram with 3 significant bits: each power of two range is split into 8 linear sub-buckets,
+ * so the relative error of the reported percentiles is at most 12.5%. The whole range of {@code long} takes
+ * a fixed array of 488 counters, recording a value is a couple of shifts and an atomic increment.
+ * <p>
+ * The snapshots and percentiles are computed without blocking the writers, hence can be slightly inconsistent
+ * under concurrent updates.
+ */
+@ThreadSafe
+public class LatencyHistogram {
+    private static final int SUB_BITS = 3;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int LINEAR_LIMIT = SUB_COUNT << 1;
+    /*package*/ static final int BUCKETS = bucketIndex(Long.MAX_VALUE) + 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long value) {
+        assert value >= 0 : "Negative value: " + value;
+        buckets.incrementAndGet(bucketIndex(value));
+        count.increment();
+        total.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long total() {
+        return total.sum();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Returns the value at the {@code quantile} (from {@code 0.0} to {@code 1.0}), i.e. the highest value
+     * equivalent to the bucket containing the quantile. Returns zero if the histogram is empty.
+     */
+    public long valueAt(double quantile) {
+        assert 0 <= quantile && quantile <= 1 : "Invalid quantile: " + quantile;
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max((long) Math.ceil(quantile * total), 1);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), max());
+            }
+        }
+        return max();
+    }
+
+    public @NotNull Snapshot snapshot() {
+        long count = count();
+        return new Snapshot(count, total(), max(), valueAt(0.5), valueAt(0.9), valueAt(0.99));
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        total.reset();
+        max.set(0);
+    }
+
+    /*package*/ static int bucketIndex(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BITS;
+        return (shift << SUB_BITS) + (int) (value >>> shift);
+    }
+
+    /*package*/ static long bucketLowerBound(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int shift = (index >>> SUB_BITS) - 1;
+        long mantissa = (index & (SUB_COUNT - 1)) + SUB_COUNT;
+        return mantissa << shift;
+    }
+
+    /*package*/ static long bucketUpperBound(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int shift = (index >>> SUB_BITS) - 1;
+        return bucketLowerBound(index) + (1L << shift) - 1;
+    }
+
+    /**
+     * The point-in-time summary of the histogram.
+     */
+    @Immutable
+    public record Snapshot(long count, long total, long max, long p50, long p90, long p99) {
+        public static final Snapshot EMPTY = new Snapshot(0, 0, 0, 0, 0, 0);
+
+        public double mean() {
+            return count == 0 ? 0 : (double) total / count;
+        }
+    }
+}
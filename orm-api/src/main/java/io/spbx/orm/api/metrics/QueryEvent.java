@@ -0,0 +1,54 @@
+package io.spbx.orm.api.metrics;
+
+import io.spbx.orm.api.Engine;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * A single observed operation of the {@link io.spbx.orm.api.QueryRunner}.
+ *
+ * @param kind the operation kind
+ * @param sql the SQL of the statement (with {@code ?} params, never with the values)
+ * @param engine the engine of the connection
+ * @param table the SQL name of the table which issued the query, if known
+ * @param nanos the duration of the operation
+ * @param rows the number of affected rows for updates, the number of fetched rows for {@link Kind#FETCH},
+ *             or {@code -1} if not applicable
+ * @param batchSize the number of statements in the batch for {@link Kind#BATCH}, otherwise zero
+ * @param error the error thrown by the operation, if any
+ */
+@Immutable
+public record QueryEvent(@NotNull Kind kind,
+                         @NotNull String sql,
+                         @NotNull Engine engine,
+                         @Nullable String table,
+                         long nanos,
+                         long rows,
+                         int batchSize,
+                         @Nullable Throwable error) {
+    public QueryEvent {
+        assert nanos >= 0 : "Invalid duration: " + nanos;
+        assert batchSize >= 0 : "Invalid batch size: " + batchSize;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    public enum Kind {
+        /** The statement is prepared (or taken from the statement cache). */
+        PREPARE,
+        /** The select query is executed, not including the fetch of the results. */
+        QUERY,
+        /** The update is executed. */
+        UPDATE,
+        /** The batch is executed. */
+        BATCH,
+        /** The result set is consumed and closed: measured from the query execution till the close. */
+        FETCH,
+        /** The rows are loaded via the engine-native bulk loader. */
+        BULK,
+    }
+}
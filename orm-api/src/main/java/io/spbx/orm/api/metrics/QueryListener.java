@@ -0,0 +1,32 @@
+package io.spbx.orm.api.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Observes the queries run by the {@link io.spbx.orm.api.QueryRunner}: statement preparation, execution and
+ * the result set fetch. The listener is invoked synchronously in the thread running the query, hence must be
+ * fast, thread-safe and must not throw.
+ * <p>
+ * The listener is opt-in: see {@link io.spbx.orm.api.Connector#withListener(QueryListener)} and
+ * {@link io.spbx.orm.api.QueryRunner#withListener(QueryListener)}. Without a listener, the runner
+ * doesn't instrument the statements at all.
+ *
+ * @see QueryMetrics
+ */
+@FunctionalInterface
+public interface QueryListener {
+    /**
+     * Called after each observed operation, successful or not.
+     */
+    void onEvent(@NotNull QueryEvent event);
+
+    /**
+     * Returns the listener which passes each event to this and then to the {@code other} listener.
+     */
+    default @NotNull QueryListener andThen(@NotNull QueryListener other) {
+        return event -> {
+            onEvent(event);
+            other.onEvent(event);
+        };
+    }
+}
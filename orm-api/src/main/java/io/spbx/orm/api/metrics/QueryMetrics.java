@@ -0,0 +1,112 @@
+package io.spbx.orm.api.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The in-memory {@link QueryListener} which aggregates the latency histograms and the row counters
+ * per table, operation kind and {@link QueryShape SQL shape}.
+ * <p>
+ * Recording is lock-free. The shapes of the recently seen SQL strings are memoized (up to a limit),
+ * so the constant queries of the generated tables are normalized only once.
+ */
+@ThreadSafe
+public class QueryMetrics implements QueryListener {
+    private static final int MAX_MEMOIZED_SHAPES = 4096;
+
+    private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, String> shapes = new ConcurrentHashMap<>();
+
+    @Override
+    public void onEvent(@NotNull QueryEvent event) {
+        Key key = new Key(event.table(), event.kind(), shapeOf(event.sql()));
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = entries.computeIfAbsent(key, k -> new Entry());
+        }
+        entry.histogram.record(event.nanos());
+        if (event.rows() > 0) {
+            entry.rows.add(event.rows());
+        }
+        if (event.batchSize() > 0) {
+            entry.batched.add(event.batchSize());
+        }
+        if (!event.isSuccess()) {
+            entry.errors.increment();
+        }
+    }
+
+    /**
+     * Returns the stats of all observed keys, the most time-consuming first.
+     */
+    public @NotNull List<Stats> snapshot() {
+        return entries.entrySet().stream()
+            .map(entry -> entry.getValue().toStats(entry.getKey()))
+            .sorted(Comparator.comparingLong((Stats stats) -> stats.latency().total()).reversed())
+            .toList();
+    }
+
+    /**
+     * Returns the stats of the specific key or null if it hasn't been observed.
+     */
+    public @Nullable Stats stats(@Nullable String table, @NotNull QueryEvent.Kind kind, @NotNull String sql) {
+        Key key = new Key(table, kind, QueryShape.of(sql));
+        Entry entry = entries.get(key);
+        return entry != null ? entry.toStats(key) : null;
+    }
+
+    public void reset() {
+        entries.clear();
+    }
+
+    private @NotNull String shapeOf(@NotNull String sql) {
+        String shape = shapes.get(sql);
+        if (shape == null) {
+            shape = QueryShape.of(sql);
+            if (shapes.size() < MAX_MEMOIZED_SHAPES) {
+                shapes.put(sql, shape);
+            }
+        }
+        return shape;
+    }
+
+    /**
+     * The key of the aggregated stats.
+     */
+    @Immutable
+    public record Key(@Nullable String table, @NotNull QueryEvent.Kind kind, @NotNull String shape) {}
+
+    /**
+     * The aggregated stats of a single {@link Key}.
+     *
+     * @param latency the latency histogram snapshot (in nanos)
+     * @param rows the total number of affected or fetched rows
+     * @param batched the total number of batched statements
+     * @param errors the number of failed operations
+     */
+    @Immutable
+    public record Stats(@NotNull Key key,
+                        @NotNull LatencyHistogram.Snapshot latency,
+                        long rows,
+                        long batched,
+                        long errors) {}
+
+    private static class Entry {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder batched = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        private @NotNull Stats toStats(@NotNull Key key) {
+            return new Stats(key, histogram.snapshot(), rows.sum(), batched.sum(), errors.sum());
+        }
+    }
+}
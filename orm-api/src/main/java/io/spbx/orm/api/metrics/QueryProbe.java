@@ -0,0 +1,248 @@
+package io.spbx.orm.api.metrics;
+
+import io.spbx.orm.api.Engine;
+import io.spbx.orm.api.ForwardingPreparedStatement;
+import io.spbx.orm.api.ForwardingResultSet;
+import io.spbx.util.base.annotate.MustBeClosed;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.concurrent.Immutable;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Reports the {@link QueryEvent}s of a single runner to the {@link QueryListener}.
+ * <p>
+ * The prepared statements are {@link #instrument instrumented} via a wrapper which times the {@code execute*} calls
+ * and wraps the returned {@link ResultSet} to count the fetched rows. The wrapper is only created when the listener
+ * is installed, so the runners without a listener pay nothing.
+ */
+@Immutable
+public final class QueryProbe {
+    private final QueryListener listener;
+    private final Engine engine;
+    private final @Nullable String table;
+
+    public QueryProbe(@NotNull QueryListener listener, @NotNull Engine engine, @Nullable String table) {
+        this.listener = listener;
+        this.engine = engine;
+        this.table = table;
+    }
+
+    public @NotNull QueryListener listener() {
+        return listener;
+    }
+
+    public @NotNull Engine engine() {
+        return engine;
+    }
+
+    public @Nullable String table() {
+        return table;
+    }
+
+    /**
+     * Returns the probe reporting the events on behalf of the {@code table}.
+     */
+    public @NotNull QueryProbe forTable(@Nullable String table) {
+        return new QueryProbe(listener, engine, table);
+    }
+
+    /**
+     * Reports the operation which started at {@code startNanos} (as per {@link System#nanoTime()}) and is complete now.
+     */
+    public void report(@NotNull QueryEvent.Kind kind,
+                       @NotNull String sql,
+                       long startNanos,
+                       long rows,
+                       int batchSize,
+                       @Nullable Throwable error) {
+        long nanos = Math.max(System.nanoTime() - startNanos, 0);
+        listener.onEvent(new QueryEvent(kind, sql, engine, table, nanos, rows, batchSize, error));
+    }
+
+    /**
+     * Returns the instrumented {@code statement} reporting the executions of the {@code sql}.
+     * The instrumented statement closes the original one.
+     */
+    @MustBeClosed
+    public @NotNull PreparedStatement instrument(@NotNull PreparedStatement statement, @NotNull String sql) {
+        return new InstrumentedStatement(statement, sql);
+    }
+
+    private class InstrumentedStatement extends ForwardingPreparedStatement {
+        private final PreparedStatement statement;
+        private final String sql;
+        private int batchSize = 0;
+
+        private InstrumentedStatement(@NotNull PreparedStatement statement, @NotNull String sql) {
+            this.statement = statement;
+            this.sql = sql;
+        }
+
+        @Override
+        protected @NotNull PreparedStatement delegate() {
+            return statement;
+        }
+
+        @Override
+        public ResultSet executeQuery() throws SQLException {
+            long start = System.nanoTime();
+            ResultSet resultSet;
+            try {
+                resultSet = statement.executeQuery();
+            } catch (Throwable e) {
+                report(QueryEvent.Kind.QUERY, sql, start, -1, 0, e);
+                throw e;
+            }
+            report(QueryEvent.Kind.QUERY, sql, start, -1, 0, null);
+            return new InstrumentedResultSet(resultSet, sql);
+        }
+
+        @Override
+        public int executeUpdate() throws SQLException {
+            long start = System.nanoTime();
+            try {
+                int rows = statement.executeUpdate();
+                report(QueryEvent.Kind.UPDATE, sql, start, rows, 0, null);
+                return rows;
+            } catch (Throwable e) {
+                report(QueryEvent.Kind.UPDATE, sql, start, -1, 0, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public long executeLargeUpdate() throws SQLException {
+            long start = System.nanoTime();
+            try {
+                long rows = statement.executeLargeUpdate();
+                report(QueryEvent.Kind.UPDATE, sql, start, rows, 0, null);
+                return rows;
+            } catch (Throwable e) {
+                report(QueryEvent.Kind.UPDATE, sql, start, -1, 0, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean execute() throws SQLException {
+            long start = System.nanoTime();
+            try {
+                boolean result = statement.execute();
+                report(QueryEvent.Kind.UPDATE, sql, start, -1, 0, null);
+                return result;
+            } catch (Throwable e) {
+                report(QueryEvent.Kind.UPDATE, sql, start, -1, 0, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public int[] executeBatch() throws SQLException {
+            int size = batchSize;
+            batchSize = 0;
+            long start = System.nanoTime();
+            try {
+                int[] counts = statement.executeBatch();
+                long sum = 0;
+                for (int count : counts) {
+                    sum += Math.max(count, 0);
+                }
+                report(QueryEvent.Kind.BATCH, sql, start, sum, size, null);
+                return counts;
+            } catch (Throwable e) {
+                report(QueryEvent.Kind.BATCH, sql, start, -1, size, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public long[] executeLargeBatch() throws SQLException {
+            int size = batchSize;
+            batchSize = 0;
+            long start = System.nanoTime();
+            try {
+                long[] counts = statement.executeLargeBatch();
+                long sum = 0;
+                for (long count : counts) {
+                    sum += Math.max(count, 0);
+                }
+                report(QueryEvent.Kind.BATCH, sql, start, sum, size, null);
+                return counts;
+            } catch (Throwable e) {
+                report(QueryEvent.Kind.BATCH, sql, start, -1, size, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public void addBatch() throws SQLException {
+            statement.addBatch();
+            batchSize++;
+        }
+
+        @Override
+        public void addBatch(String query) throws SQLException {
+            statement.addBatch(query);
+            batchSize++;
+        }
+
+        @Override
+        public void clearBatch() throws SQLException {
+            statement.clearBatch();
+            batchSize = 0;
+        }
+
+        @Override
+        public String toString() {
+            return "Instrumented[%s]".formatted(statement);
+        }
+    }
+
+    private class InstrumentedResultSet extends ForwardingResultSet {
+        private final ResultSet resultSet;
+        private final String sql;
+        private final long start = System.nanoTime();
+        private long rows = 0;
+        private boolean reported = false;
+
+        private InstrumentedResultSet(@NotNull ResultSet resultSet, @NotNull String sql) {
+            this.resultSet = resultSet;
+            this.sql = sql;
+        }
+
+        @Override
+        protected @NotNull ResultSet delegate() {
+            return resultSet;
+        }
+
+        @Override
+        public boolean next() throws SQLException {
+            boolean hasNext = resultSet.next();
+            if (hasNext) {
+                rows++;
+            }
+            return hasNext;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                resultSet.close();
+            } finally {
+                if (!reported) {
+                    reported = true;
+                    report(QueryEvent.Kind.FETCH, sql, start, rows, 0, null);
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Instrumented[%s]".formatted(resultSet);
+        }
+    }
+}
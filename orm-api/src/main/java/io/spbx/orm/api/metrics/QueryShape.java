@@ -0,0 +1,32 @@
+package io.spbx.orm.api.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.regex.Pattern;
+
+/**
+ * Normalizes the SQL into its shape, so that the queries differing only in the number of params are grouped
+ * together: the whitespace is collapsed, the lists of params {@code ?, ?, ?} become {@code ?...} and the repeated
+ * row groups {@code (?...), (?...)} become {@code (?...)...}.
+ * <p>
+ * Examples:
+ * <ul>
+ *     <li>{@code SELECT * FROM user WHERE id IN (?, ?, ?)} -> {@code SELECT * FROM user WHERE id IN (?...)}</li>
+ *     <li>{@code INSERT INTO user (id, name) VALUES (?, ?), (?, ?)} ->
+ *         {@code INSERT INTO user (id, name) VALUES (?...)...}</li>
+ * </ul>
+ */
+public class QueryShape {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PARAM_LIST = Pattern.compile("\\?(?: ?, ?\\?)+");
+    private static final Pattern ROW_LIST = Pattern.compile("\\(\\?(?:\\.\\.\\.)?\\)(?: ?, ?\\(\\?(?:\\.\\.\\.)?\\))+");
+
+    public static @NotNull String of(@NotNull String sql) {
+        String collapsed = WHITESPACE.matcher(sql.strip()).replaceAll(" ");
+        if (collapsed.indexOf('?') < 0) {
+            return collapsed;
+        }
+        String params = PARAM_LIST.matcher(collapsed).replaceAll("?...");
+        return ROW_LIST.matcher(params).replaceAll("(?...)...");
+    }
+}
@@ -0,0 +1,572 @@
+package io.spbx.orm.api.pool;
+
+import io.spbx.orm.api.Connector;
+import io.spbx.orm.api.Engine;
+import io.spbx.orm.api.QueryRunner;
+import io.spbx.orm.api.StatementCache;
+import io.spbx.util.base.annotate.CanIgnoreReturnValue;
+import io.spbx.util.base.annotate.MustBeClosed;
+import io.spbx.util.base.error.Unchecked;
+import io.spbx.util.func.ThrowSupplier;
+import io.spbx.util.logging.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.concurrent.Immutable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link Connector} backed by a bounded pool of JDBC connections.
+ * <p>
+ * The pooled connection is bound to the calling thread on the first {@link #connection()} call and is kept
+ * by the thread until {@link #release()} is called (or the {@link Lease} is closed). While bound, every
+ * {@link #connection()}, {@link #runner()} call from the same thread returns the same connection without
+ * touching the pool, which is why generated tables (that call {@code connector.runner()} per operation) work
+ * as is. The recommended usage is:
+ * {@snippet lang="java" :
+ *     try (PooledConnector.Lease lease = pool.lease()) {
+ *         table.getByPkOrNull(id);
+ *         ...
+ *     }
+ * }
+ * <p>
+ * The checkout path does not allocate and does not lock: the free connections are found via CAS on the slots
+ * starting at a thread-affine index, and the pool bound is enforced by a {@link Semaphore} which is only blocked on
+ * when the pool is exhausted. The connections are validated via {@link Connection#isValid(int)} only when idle for
+ * longer than the validation interval, and are re-opened when exceed the max lifetime.
+ * <p>
+ * The connection returned to the pool is reset to the state it had when opened: the open transaction is rolled back
+ * and the auto-commit, read-only and isolation settings are restored. The connection which fails to reset is closed.
+ * <p>
+ * <b>Important</b>: every thread which calls {@link #connection()} or {@link #runner()} outside of a {@link Lease}
+ * must call {@link #release()} when done. The pool can't tell a live thread which is still using the connection
+ * from the one which forgot to release it, hence such a connection stays out of the pool until the thread
+ * releases it. The connections bound to the threads which have terminated without releasing are reclaimed
+ * (closed and returned to the pool) when the pool is exhausted.
+ */
+public class PooledConnector implements Connector, AutoCloseable {
+    private static final Logger log = Logger.forEnclosingClass();
+
+    private final ThrowSupplier<Connection, SQLException> factory;
+    private final Slot[] slots;
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final long maxLifetimeNanos;
+    private final long validationIntervalNanos;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    private final ThreadLocal<Slot> bound = new ThreadLocal<>();
+    private final Lease ownerLease = new Lease(true);
+    private final Lease nestedLease = new Lease(false);
+    private final Metrics metrics = new Metrics();
+    private volatile Engine engine;
+    private volatile boolean closed;
+
+    protected PooledConnector(@NotNull Builder builder) {
+        this.factory = builder.factory;
+        this.slots = new Slot[builder.maxSize];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Slot();
+        }
+        this.permits = new Semaphore(builder.maxSize);
+        this.acquireTimeoutNanos = builder.acquireTimeout.toNanos();
+        this.maxLifetimeNanos = builder.maxLifetime.toNanos();
+        this.validationIntervalNanos = builder.validationInterval.toNanos();
+        this.validationTimeoutSeconds = builder.validationTimeoutSeconds;
+        this.statementCacheSize = builder.statementCacheSize;
+    }
+
+    public static @NotNull Builder builder(@NotNull ThrowSupplier<Connection, SQLException> factory) {
+        return new Builder(factory);
+    }
+
+    /**
+     * Returns the connection bound to the current thread. Checks out a connection from the pool if necessary
+     * and binds it to the thread until {@link #release()}.
+     *
+     * @throws SQLTransientConnectionException if the pool is exhausted for longer than the acquire timeout
+     */
+    @Override
+    public @NotNull Connection connection() {
+        return bindSlot().connection;
+    }
+
+    /**
+     * Returns the runner over the connection bound to the current thread.
+     */
+    @Override
+    public @NotNull QueryRunner runner() {
+        Slot slot = bindSlot();
+        return new QueryRunner(slot.connection, slot.cache);
+    }
+
+    /**
+     * Returns the engine of the pooled connections. Computed once, via a temporary lease: the connection
+     * is not kept bound to the calling thread (unless it was bound before the call).
+     */
+    @Override
+    public @NotNull Engine engine() {
+        Engine result = engine;
+        if (result == null) {
+            try (Lease lease = lease()) {
+                engine = result = Engine.fromConnectionSafe(lease.connection());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether a connection is bound to the current thread (by a {@link Lease} or a call that
+     * has not been {@link #release() released} yet): the connection may have an open transaction or session state.
+     */
+    @Override
+    public boolean isBoundToCurrentThread() {
+        return boundSlot() != null;
+    }
+
+    /**
+     * Binds a connection to the current thread for the duration of the returned {@link Lease}.
+     * The leases are reentrant: only the outermost lease returns the connection to the pool.
+     */
+    @MustBeClosed
+    public @NotNull Lease lease() {
+        if (boundSlot() != null) {
+            return nestedLease;
+        }
+        bindSlot();
+        return ownerLease;
+    }
+
+    /**
+     * Returns the connection bound to the current thread back to the pool (if any).
+     *
+     * @return true if the connection has been returned
+     */
+    @CanIgnoreReturnValue
+    public boolean release() {
+        Slot slot = boundSlot();
+        if (slot == null) {
+            return false;
+        }
+        bound.remove();
+        return returnSlot(slot, Thread.currentThread());
+    }
+
+    /**
+     * Returns the connection bound to the {@code thread} back to the pool (if any). Unlike {@link #release()},
+     * can be called from any thread, but only when the {@code thread} is known not to use the connection anymore,
+     * e.g. after the task it was running has completed. The {@code thread} checks out a new connection next time.
+     *
+     * @return true if the connection has been returned
+     */
+    @CanIgnoreReturnValue
+    public boolean release(@NotNull Thread thread) {
+        if (thread == Thread.currentThread()) {
+            return release();
+        }
+        for (Slot slot : slots) {
+            if (slot.owner.get() == thread) {
+                return returnSlot(slot, thread);
+            }
+        }
+        return false;
+    }
+
+    private boolean returnSlot(@NotNull Slot slot, @NotNull Thread owner) {
+        if (!slot.owner.compareAndSet(owner, null)) {
+            return false;
+        }
+        if (!resetSession(slot)) {
+            closeQuietly(slot);
+            slot.state.set(Slot.EMPTY);
+            metrics.active.decrementAndGet();
+            permits.release();
+            return true;
+        }
+        slot.lastUsedNanos = System.nanoTime();
+        slot.state.set(Slot.IDLE);
+        // Re-check after publishing the idle slot: either this or the concurrent `close()` observes the other one
+        // and closes the connection (the CAS guarantees that only one of them does).
+        if (closed && slot.state.compareAndSet(Slot.IDLE, Slot.IN_USE)) {
+            closeQuietly(slot);
+            slot.state.set(Slot.EMPTY);
+        }
+        metrics.active.decrementAndGet();
+        permits.release();
+        return true;
+    }
+
+    // Rolls back the transaction left open by the previous owner and restores the session state recorded at open.
+    // Returns false if the connection can't be reset, in which case it must not be reused.
+    private boolean resetSession(@NotNull Slot slot) {
+        Connection connection = slot.connection;
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+            }
+            if (connection.getAutoCommit() != slot.autoCommit) {
+                connection.setAutoCommit(slot.autoCommit);
+            }
+            if (connection.isReadOnly() != slot.readOnly) {
+                connection.setReadOnly(slot.readOnly);
+            }
+            if (connection.getTransactionIsolation() != slot.isolation) {
+                connection.setTransactionIsolation(slot.isolation);
+            }
+            return true;
+        } catch (SQLException | RuntimeException e) {
+            log.warn().withCause(e).log("Failed to reset pooled connection, closing it: %s", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Returns the snapshot of the pool usage metrics.
+     */
+    public @NotNull Stats stats() {
+        int idle = 0;
+        for (Slot slot : slots) {
+            if (slot.state.get() == Slot.IDLE) {
+                idle++;
+            }
+        }
+        return new Stats(
+            slots.length,
+            metrics.active.get(),
+            idle,
+            metrics.acquired.sum(),
+            metrics.waited.sum(),
+            metrics.totalWaitNanos.sum(),
+            metrics.maxWaitNanos.get(),
+            metrics.opened.sum(),
+            metrics.closed.sum(),
+            metrics.invalid.sum()
+        );
+    }
+
+    /**
+     * Closes all idle connections. The connections currently in use are closed when released.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Slot slot : slots) {
+            if (slot.state.compareAndSet(Slot.IDLE, Slot.IN_USE)) {
+                closeQuietly(slot);
+                slot.state.set(Slot.EMPTY);
+            }
+        }
+    }
+
+    // Returns the slot bound to the current thread, unless it has been released or reclaimed by another thread.
+    private @Nullable Slot boundSlot() {
+        Slot slot = bound.get();
+        if (slot != null && slot.owner.get() != Thread.currentThread()) {
+            bound.remove();
+            return null;
+        }
+        return slot;
+    }
+
+    private @NotNull Slot bindSlot() {
+        Slot slot = boundSlot();
+        if (slot == null) {
+            slot = acquire();
+            slot.owner.set(Thread.currentThread());
+            bound.set(slot);
+        }
+        return slot;
+    }
+
+    private @NotNull Slot acquire() {
+        if (closed) {
+            return Unchecked.rethrow(new SQLTransientConnectionException("The connection pool is closed"));
+        }
+
+        if (!permits.tryAcquire() && !(reclaimAbandoned() > 0 && permits.tryAcquire())) {
+            long start = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Unchecked.rethrow(new SQLTransientConnectionException("Interrupted while waiting for connection", e));
+            }
+            long waitNanos = System.nanoTime() - start;
+            metrics.onWait(waitNanos);
+            if (!acquired) {
+                return Unchecked.rethrow(new SQLTransientConnectionException(
+                    "Connection pool exhausted: size=%d, waited=%dms".formatted(slots.length, waitNanos / 1_000_000)
+                ));
+            }
+        }
+
+        try {
+            Slot slot = checkoutSlot();
+            metrics.acquired.increment();
+            metrics.active.incrementAndGet();
+            return slot;
+        } catch (Throwable e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // Returns the slots bound to the terminated threads back to the pool. The connections are closed, because
+    // their state (e.g. an open transaction) is unknown.
+    private int reclaimAbandoned() {
+        int reclaimed = 0;
+        for (Slot slot : slots) {
+            Thread owner = slot.owner.get();
+            if (owner != null && !owner.isAlive() && slot.owner.compareAndSet(owner, null)) {
+                log.warn().log("Reclaiming the pooled connection not released by terminated thread: %s", owner);
+                closeQuietly(slot);
+                slot.state.set(Slot.EMPTY);
+                metrics.active.decrementAndGet();
+                permits.release();
+                reclaimed++;
+            }
+        }
+        return reclaimed;
+    }
+
+    private @NotNull Slot checkoutSlot() {
+        // The permit guarantees that at least one slot is either idle or empty. Start from a thread-affine slot
+        // so that the threads tend to pick up the same connections and don't compete for the same CAS.
+        int start = (int) (Thread.currentThread().threadId() % slots.length);
+        while (true) {
+            for (int i = 0; i < slots.length; i++) {
+                Slot slot = slots[(start + i) % slots.length];
+                if (slot.state.get() == Slot.IDLE && slot.state.compareAndSet(Slot.IDLE, Slot.IN_USE)) {
+                    return prepareIdle(slot);
+                }
+            }
+            for (int i = 0; i < slots.length; i++) {
+                Slot slot = slots[(start + i) % slots.length];
+                if (slot.state.get() == Slot.EMPTY && slot.state.compareAndSet(Slot.EMPTY, Slot.IN_USE)) {
+                    return open(slot);
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private @NotNull Slot prepareIdle(@NotNull Slot slot) {
+        long now = System.nanoTime();
+        if (now - slot.createdNanos > maxLifetimeNanos) {
+            log.debug().log("Rotating the connection after max lifetime");
+            closeQuietly(slot);
+            return open(slot);
+        }
+        if (now - slot.lastUsedNanos > validationIntervalNanos && !isValid(slot.connection)) {
+            log.info().log("Pooled connection is no longer valid, re-opening");
+            metrics.invalid.increment();
+            closeQuietly(slot);
+            return open(slot);
+        }
+        return slot;
+    }
+
+    private @NotNull Slot open(@NotNull Slot slot) {
+        try {
+            Connection connection = factory.get();
+            slot.connection = connection;
+            metrics.opened.increment();
+            slot.autoCommit = connection.getAutoCommit();
+            slot.readOnly = connection.isReadOnly();
+            slot.isolation = connection.getTransactionIsolation();
+            slot.cache = statementCacheSize > 0 ? new StatementCache(connection, statementCacheSize) : null;
+            slot.createdNanos = slot.lastUsedNanos = System.nanoTime();
+            return slot;
+        } catch (SQLException e) {
+            closeQuietly(slot);
+            slot.state.set(Slot.EMPTY);
+            return Unchecked.rethrow(e);
+        } catch (Throwable e) {
+            closeQuietly(slot);
+            slot.state.set(Slot.EMPTY);
+            throw e;
+        }
+    }
+
+    private boolean isValid(@NotNull Connection connection) {
+        try {
+            return connection.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void closeQuietly(@NotNull Slot slot) {
+        Connection connection = slot.connection;
+        if (connection == null) {
+            return;
+        }
+        try {
+            if (slot.cache != null) {
+                slot.cache.close();
+            }
+            connection.close();
+        } catch (SQLException e) {
+            log.warn().withCause(e).log("Failed to close pooled connection: %s", e.getMessage());
+        } finally {
+            slot.connection = null;
+            slot.cache = null;
+            metrics.closed.increment();
+        }
+    }
+
+    /**
+     * A scope holding the connection bound to the current thread. See {@link #lease()}.
+     */
+    public class Lease implements AutoCloseable {
+        private final boolean owner;
+
+        private Lease(boolean owner) {
+            this.owner = owner;
+        }
+
+        public @NotNull Connection connection() {
+            return PooledConnector.this.connection();
+        }
+
+        /**
+         * Returns whether this is the outermost lease, i.e. it has bound the connection and returns it on close.
+         */
+        public boolean ownsConnection() {
+            return owner;
+        }
+
+        @Override
+        public void close() {
+            if (owner) {
+                release();
+            }
+        }
+    }
+
+    /**
+     * The snapshot of the pool usage metrics.
+     *
+     * @param maxSize the max number of connections in the pool
+     * @param active the number of connections currently in use
+     * @param idle the number of opened connections currently not in use
+     * @param acquired the total number of checkouts
+     * @param waited the number of checkouts which had to wait for a free connection
+     * @param totalWaitNanos the total time spent waiting for a free connection
+     * @param maxWaitNanos the max time spent waiting for a free connection
+     * @param opened the total number of opened connections
+     * @param closed the total number of closed connections
+     * @param invalid the number of connections which failed validation
+     */
+    @Immutable
+    public record Stats(int maxSize, int active, int idle,
+                        long acquired, long waited, long totalWaitNanos, long maxWaitNanos,
+                        long opened, long closed, long invalid) {
+        public double usage() {
+            return (double) active / maxSize;
+        }
+
+        public double avgWaitNanos() {
+            return waited == 0 ? 0 : (double) totalWaitNanos / waited;
+        }
+    }
+
+    public static class Builder {
+        private final ThrowSupplier<Connection, SQLException> factory;
+        private int maxSize = 10;
+        private Duration acquireTimeout = Duration.ofSeconds(30);
+        private Duration maxLifetime = Duration.ofMinutes(30);
+        private Duration validationInterval = Duration.ofSeconds(5);
+        private int validationTimeoutSeconds = 1;
+        private int statementCacheSize = 0;
+
+        Builder(@NotNull ThrowSupplier<Connection, SQLException> factory) {
+            this.factory = factory;
+        }
+
+        public @NotNull Builder maxSize(int maxSize) {
+            assert maxSize > 0 : "Invalid pool size: " + maxSize;
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        public @NotNull Builder acquireTimeout(@NotNull Duration acquireTimeout) {
+            this.acquireTimeout = acquireTimeout;
+            return this;
+        }
+
+        public @NotNull Builder maxLifetime(@NotNull Duration maxLifetime) {
+            this.maxLifetime = maxLifetime;
+            return this;
+        }
+
+        public @NotNull Builder validationInterval(@NotNull Duration validationInterval) {
+            this.validationInterval = validationInterval;
+            return this;
+        }
+
+        public @NotNull Builder validationTimeoutSeconds(int validationTimeoutSeconds) {
+            this.validationTimeoutSeconds = validationTimeoutSeconds;
+            return this;
+        }
+
+        /**
+         * Sets the capacity of the {@link StatementCache} attached to each pooled connection. Zero disables the cache.
+         */
+        public @NotNull Builder statementCacheSize(int statementCacheSize) {
+            this.statementCacheSize = statementCacheSize;
+            return this;
+        }
+
+        public @NotNull PooledConnector build() {
+            return new PooledConnector(this);
+        }
+    }
+
+    private static final class Slot {
+        private static final int EMPTY = 0;
+        private static final int IDLE = 1;
+        private static final int IN_USE = 2;
+
+        private final AtomicInteger state = new AtomicInteger(EMPTY);
+        // The thread the IN_USE slot is bound to, to reclaim the slot if the thread terminates without releasing.
+        private final AtomicReference<Thread> owner = new AtomicReference<>();
+        // The fields below are guarded by the `state`: only the thread which moved the slot to IN_USE writes them.
+        private Connection connection;
+        private @Nullable StatementCache cache;
+        // The session state at open, restored when the slot is returned to the pool.
+        private boolean autoCommit;
+        private boolean readOnly;
+        private int isolation;
+        private long createdNanos;
+        private long lastUsedNanos;
+    }
+
+    private static final class Metrics {
+        private final AtomicInteger active = new AtomicInteger();
+        private final LongAdder acquired = new LongAdder();
+        private final LongAdder waited = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+        private final LongAdder opened = new LongAdder();
+        private final LongAdder closed = new LongAdder();
+        private final LongAdder invalid = new LongAdder();
+
+        private void onWait(long nanos) {
+            waited.increment();
+            totalWaitNanos.add(nanos);
+            maxWaitNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package io.spbx.orm.api.pool;
+
+import io.spbx.orm.api.Connector;
+import io.spbx.orm.api.Engine;
+import io.spbx.orm.api.QueryRunner;
+import io.spbx.util.base.annotate.CanIgnoreReturnValue;
+import io.spbx.util.base.annotate.MustBeClosed;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link Connector} which splits the reads and the writes: the {@link #runner()} (used by the generated tables for
+ * the writes) is always connected to the primary, the {@link #readRunner()} (used for the reads) is connected to
+ * one of the replicas.
+ * <p>
+ * The replica is bound to the calling thread on the first {@link #readRunner()} call and is kept by the thread until
+ * {@link #release()}, same as in {@link PooledConnector}. A new binding picks the replica with the least number of
+ * bound threads (in-flight sessions), the ties are broken round-robin.
+ * <p>
+ * Read-your-writes: after any {@link #runner()} call, the reads from the same thread go to the primary for the
+ * {@code stickyWindow}, so that the thread observes its own writes despite the replication lag. The reads can also be
+ * pinned to the primary explicitly for the duration of a {@link #pinPrimary() scope}, e.g. a transaction:
+ * {@snippet lang="java" :
+ *     try (RoutingConnector.Pin pin = routing.pinPrimary()) {
+ *         routing.runner().tx().run(runner -> { ... });
+ *     }
+ * }
+ */
+public class RoutingConnector implements Connector {
+    private final Connector primary;
+    private final Replica[] replicas;
+    private final long stickyNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ThreadLocal<Session> sessions = ThreadLocal.withInitial(Session::new);
+
+    protected RoutingConnector(@NotNull Builder builder) {
+        assert !builder.replicas.isEmpty() : "No replicas";
+        this.primary = builder.primary;
+        this.replicas = builder.replicas.stream().map(Replica::new).toArray(Replica[]::new);
+        this.stickyNanos = builder.stickyWindow.toNanos();
+    }
+
+    public static @NotNull Builder builder(@NotNull Connector primary) {
+        return new Builder(primary);
+    }
+
+    public @NotNull Connector primary() {
+        return primary;
+    }
+
+    /**
+     * Returns the connection to the primary.
+     */
+    @Override
+    public @NotNull Connection connection() {
+        return primary.connection();
+    }
+
+    /**
+     * Returns the runner connected to the primary. Marks the write in the current thread, i.e. the subsequent reads
+     * go to the primary for the sticky window.
+     */
+    @Override
+    public @NotNull QueryRunner runner() {
+        Session session = sessions.get();
+        session.written = true;
+        session.lastWriteNanos = System.nanoTime();
+        return primary.runner();
+    }
+
+    /**
+     * Returns the runner connected to the replica bound to the current thread, or to the primary if the thread
+     * has written recently or is {@link #pinPrimary() pinned}.
+     */
+    @Override
+    public @NotNull QueryRunner readRunner() {
+        Session session = sessions.get();
+        if (session.pins > 0 || session.isSticky(stickyNanos)) {
+            return primary.runner();
+        }
+        Replica replica = session.replica;
+        if (replica == null) {
+            session.replica = replica = pickReplica();
+            replica.inFlight.incrementAndGet();
+        }
+        return replica.connector.readRunner();
+    }
+
+    /**
+     * Returns the engine of the primary.
+     */
+    @Override
+    public @NotNull Engine engine() {
+        return primary.engine();
+    }
+
+    /**
+     * Returns whether the reads of the current thread are routed by its session: {@link #pinPrimary() pinned}
+     * or sticky to the primary, or bound to a replica. Also true if the primary is bound to the current thread.
+     */
+    @Override
+    public boolean isBoundToCurrentThread() {
+        Session session = sessions.get();
+        return session.pins > 0 || session.isSticky(stickyNanos) || session.replica != null ||
+               primary.isBoundToCurrentThread();
+    }
+
+    /**
+     * Routes all reads from the current thread to the primary until the returned {@link Pin} is closed.
+     * The pins are reentrant.
+     */
+    @MustBeClosed
+    public @NotNull Pin pinPrimary() {
+        sessions.get().pins++;
+        return new Pin();
+    }
+
+    /**
+     * Unbinds the replica from the current thread (if any) and resets the write stickiness.
+     * If the replica or the primary is a {@link PooledConnector}, also returns its connection to the pool.
+     *
+     * @return true if a replica has been unbound
+     */
+    @CanIgnoreReturnValue
+    public boolean release() {
+        Session session = sessions.get();
+        Replica replica = session.replica;
+        session.replica = null;
+        session.written = false;
+        if (primary instanceof PooledConnector pooled) {
+            pooled.release();
+        }
+        if (replica == null) {
+            return false;
+        }
+        replica.inFlight.decrementAndGet();
+        if (replica.connector instanceof PooledConnector pooled) {
+            pooled.release();
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of threads currently bound to each replica, in the order of the replicas.
+     */
+    public int @NotNull[] inFlight() {
+        int[] result = new int[replicas.length];
+        for (int i = 0; i < replicas.length; i++) {
+            result[i] = replicas[i].inFlight.get();
+        }
+        return result;
+    }
+
+    private @NotNull Replica pickReplica() {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.length);
+        Replica best = replicas[start];
+        for (int i = 1; i < replicas.length; i++) {
+            Replica replica = replicas[(start + i) % replicas.length];
+            if (replica.inFlight.get() < best.inFlight.get()) {
+                best = replica;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * A scope which routes the reads of the current thread to the primary. See {@link #pinPrimary()}.
+     */
+    public class Pin implements AutoCloseable {
+        private boolean closed = false;
+
+        private Pin() {}
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                sessions.get().pins--;
+            }
+        }
+    }
+
+    public static class Builder {
+        private final Connector primary;
+        private final List<Connector> replicas = new ArrayList<>();
+        private Duration stickyWindow = Duration.ofSeconds(1);
+
+        Builder(@NotNull Connector primary) {
+            this.primary = primary;
+        }
+
+        public @NotNull Builder addReplica(@NotNull Connector replica) {
+            replicas.add(replica);
+            return this;
+        }
+
+        /**
+         * Sets the duration after a write during which the reads of the same thread go to the primary.
+         * Should exceed the typical replication lag. Zero disables the stickiness.
+         */
+        public @NotNull Builder stickyWindow(@NotNull Duration stickyWindow) {
+            assert !stickyWindow.isNegative() : "Invalid sticky window: " + stickyWindow;
+            this.stickyWindow = stickyWindow;
+            return this;
+        }
+
+        public @NotNull RoutingConnector build() {
+            return new RoutingConnector(this);
+        }
+    }
+
+    private record Replica(@NotNull Connector connector, @NotNull AtomicInteger inFlight) {
+        private Replica(@NotNull Connector connector) {
+            this(connector, new AtomicInteger());
+        }
+    }
+
+    private static final class Session {
+        private @Nullable Replica replica;
+        private boolean written;
+        private long lastWriteNanos;
+        private int pins;
+
+        private boolean isSticky(long stickyNanos) {
+            return written && System.nanoTime() - lastWriteNanos < stickyNanos;
+        }
+    }
+}
@@ -53,6 +53,32 @@ public class CompositeFilter extends Unit implements Filter {
         return offset;
     }
 
+    /**
+     * Returns the {@link CompositeFilter} of the single or composite {@code filter}.
+     */
+    public static @NotNull CompositeFilter of(@NotNull Filter filter) {
+        return switch (filter) {
+            case CompositeFilter composite -> composite;
+            case Where where -> new CompositeFilter(where, null, null, null);
+            case OrderBy orderBy -> new CompositeFilter(null, orderBy, null, null);
+            case LimitClause limit -> new CompositeFilter(null, null, limit, null);
+            case Offset offset -> new CompositeFilter(null, null, null, offset);
+            default -> throw InvalidQueryException.newInvalidQueryException("Unsupported filter:", filter);
+        };
+    }
+
+    /**
+     * Returns the filter selecting at most {@code limit} rows: keeps the current limit if it's not greater,
+     * otherwise replaces it by the {@code limit} clause of the {@code engine}.
+     */
+    public @NotNull CompositeFilter withLimitAtMost(int limit, @NotNull Engine engine) {
+        if (this.limit != null && this.limit.limitValue() <= limit) {
+            return this;
+        }
+        LimitClause clause = engine.isOneOf(Engine.MsSqlServer, Engine.Oracle) ? FetchOnly.of(limit) : Limit.of(limit);
+        return new CompositeFilter(where, orderBy, clause, offset);
+    }
+
     public @NotNull Builder toBuilder() {
         return new Builder(where, orderBy, limit, offset);
     }
@@ -0,0 +1,144 @@
+package io.spbx.orm.api.query;
+
+import com.google.common.collect.ImmutableList;
+import io.spbx.orm.api.Engine;
+import io.spbx.orm.api.PageToken;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static io.spbx.orm.api.query.Representables.joinWithCommas;
+
+/**
+ * Represents the sort key of the keyset (seek) pagination: the list of the sort columns with their order, the last
+ * one being a unique tie-breaker (usually the primary key), so that the sort key identifies a row.
+ * <p>
+ * The next page is selected by the {@link #seekAfter seek predicate} "the sort key is after the last row", e.g.
+ * {@code (a, b, id) > (?, ?, ?)} when all the columns are sorted in the same direction and the engine supports
+ * the row values, or an equivalent expanded predicate
+ * {@code a > ? OR (a = ? AND b > ?) OR (a = ? AND b = ? AND id > ?)} otherwise. Unlike the {@code OFFSET},
+ * the predicate can be served by an index, hence the cost of any page doesn't depend on its depth, and the pages
+ * don't skip or duplicate the rows when the table is modified in between.
+ * <p>
+ * The sort columns are expected to be non-null.
+ *
+ * @see KeysetCodec
+ */
+@Immutable
+public record Keyset(@NotNull ImmutableList<OrderTerm> terms) {
+    public Keyset {
+        assert !terms.isEmpty() : "Keyset requires at least one column";
+        assert terms.stream().allMatch(term -> term.term() instanceof Column) : "Keyset must be columns: " + terms;
+    }
+
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the number of the columns in the sort key.
+     */
+    public int size() {
+        return terms.size();
+    }
+
+    /**
+     * Returns the {@code ORDER BY} clause of the sort key.
+     */
+    public @NotNull OrderBy orderBy() {
+        return OrderBy.of(terms);
+    }
+
+    /**
+     * Returns the predicate selecting the rows after the row with the {@code lastKey} in the sort order.
+     */
+    public @NotNull BoolTerm seekAfter(@Nullable Object @NotNull[] lastKey, @NotNull Engine engine) {
+        InvalidQueryException.assure(lastKey.length == terms.size(),
+                                     "The last key doesn't match the keyset: %s vs %s", lastKey.length, terms.size());
+        if (terms.size() > 1 && isUniformOrder() && supportsRowValues(engine)) {
+            String repr = "(%s) %s (%s)".formatted(joinWithCommas(terms.stream().map(OrderTerm::term).toList()),
+                                                   compareAfter(terms.getFirst().order()).repr(),
+                                                   String.join(", ", Collections.nCopies(terms.size(), "?")));
+            return new HardcodedBoolTerm(repr, Args.of(lastKey));
+        }
+
+        List<BoolTerm> disjuncts = new ArrayList<>(terms.size());
+        for (int i = 0; i < terms.size(); i++) {
+            List<BoolTerm> conjuncts = new ArrayList<>(i + 1);
+            for (int j = 0; j < i; j++) {
+                conjuncts.add(CompareType.EQ.compare(terms.get(j).term(), valueOf(lastKey[j])));
+            }
+            OrderTerm term = terms.get(i);
+            conjuncts.add(compareAfter(term.order()).compare(term.term(), valueOf(lastKey[i])));
+            disjuncts.add(conjuncts.size() == 1 ? conjuncts.getFirst() : new BoolOp(conjuncts, BoolOpType.AND));
+        }
+        return disjuncts.size() == 1 ? disjuncts.getFirst() : new BoolOp(disjuncts, BoolOpType.OR);
+    }
+
+    /**
+     * Encodes the {@code lastKey} into the opaque token of the next page.
+     */
+    public @NotNull PageToken toPageToken(@Nullable Object @NotNull[] lastKey) {
+        assert lastKey.length == terms.size() : "The last key doesn't match the keyset: " + lastKey.length;
+        return PageToken.ofLastItem(KeysetCodec.encode(lastKey));
+    }
+
+    /**
+     * Decodes the last key from the page {@code token}, or returns null if the token isn't a valid keyset token
+     * for this sort key.
+     */
+    public @Nullable Object @Nullable[] fromPageToken(@NotNull PageToken token) {
+        if (!token.hasLastItem()) {
+            return null;
+        }
+        Object[] lastKey = KeysetCodec.decodeOrNull(token.lastItem());
+        return lastKey != null && lastKey.length == terms.size() ? lastKey : null;
+    }
+
+    private boolean isUniformOrder() {
+        return terms.stream().map(OrderTerm::order).distinct().count() == 1;
+    }
+
+    private static boolean supportsRowValues(@NotNull Engine engine) {
+        return engine.isOneOf(Engine.PostgreSQL, Engine.MySQL, Engine.MariaDB,
+                              Engine.H2, Engine.SQLite, Engine.HyperSQL);
+    }
+
+    private static @NotNull CompareType compareAfter(@NotNull Order order) {
+        return order == Order.ASC ? CompareType.GT : CompareType.LT;
+    }
+
+    private static @NotNull Variable valueOf(@Nullable Object value) {
+        return new Variable(value, TermType.WILDCARD);
+    }
+
+    public static class Builder {
+        private final ImmutableList.Builder<OrderTerm> terms = ImmutableList.builder();
+
+        Builder() {
+        }
+
+        public @NotNull Builder asc(@NotNull Column column) {
+            terms.add(OrderTerm.ofAsc(column));
+            return this;
+        }
+
+        public @NotNull Builder desc(@NotNull Column column) {
+            terms.add(OrderTerm.ofDesc(column));
+            return this;
+        }
+
+        public @NotNull Builder with(@NotNull Column column, @NotNull Order order) {
+            terms.add(new OrderTerm(column, order));
+            return this;
+        }
+
+        public @NotNull Keyset build() {
+            return new Keyset(terms.build());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package io.spbx.orm.api.query;
+
+import io.spbx.orm.api.ValueCodec;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+
+/**
+ * Encodes the last key of the {@link Keyset} page into a compact opaque URL-safe string and back.
+ * <p>
+ * The format is: the version byte, the number of values, and each value in the {@link ValueCodec} format.
+ * The tokens of other versions are rejected.
+ */
+public class KeysetCodec {
+    private static final int VERSION = 2;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public static @NotNull String encode(@Nullable Object @NotNull[] values) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8 * values.length + 2);
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeByte(VERSION);
+            output.writeByte(values.length);
+            for (Object value : values) {
+                if (!ValueCodec.writeValue(output, value)) {
+                    throw new IllegalArgumentException("Unsupported keyset value type: " + value.getClass());
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("In-memory stream failed", e);
+        }
+        return ENCODER.encodeToString(bytes.toByteArray());
+    }
+
+    public static @Nullable Object @Nullable[] decodeOrNull(@NotNull String token) {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(DECODER.decode(token)))) {
+            if (input.readUnsignedByte() != VERSION) {
+                return null;
+            }
+            Object[] values = new Object[input.readUnsignedByte()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = ValueCodec.readValue(input);
+            }
+            return input.available() == 0 ? values : null;
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
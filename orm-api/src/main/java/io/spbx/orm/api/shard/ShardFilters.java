@@ -0,0 +1,59 @@
+package io.spbx.orm.api.shard;
+
+import io.spbx.orm.api.query.CompositeFilter;
+import io.spbx.orm.api.query.FetchOnly;
+import io.spbx.orm.api.query.Filter;
+import io.spbx.orm.api.query.Limit;
+import io.spbx.orm.api.query.LimitClause;
+import io.spbx.orm.api.query.Offset;
+import io.spbx.orm.api.query.OrderBy;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Adapts the {@link Filter}s for the scatter-gather across the shards.
+ * <p>
+ * The window ({@code LIMIT} and {@code OFFSET}) can't be applied per shard: each shard is queried for the first
+ * {@code offset + limit} rows instead, and the window is applied to the gathered rows.
+ */
+class ShardFilters {
+    static final int NO_LIMIT = Integer.MAX_VALUE;
+
+    static boolean isOrdered(@NotNull Filter filter) {
+        return filter instanceof OrderBy || filter instanceof CompositeFilter composite && composite.orderBy() != null;
+    }
+
+    static int offsetOf(@NotNull Filter filter) {
+        return switch (filter) {
+            case Offset offset -> offset.offsetValue();
+            case CompositeFilter composite when composite.offset() != null -> composite.offset().offsetValue();
+            default -> 0;
+        };
+    }
+
+    static int limitOf(@NotNull Filter filter) {
+        return switch (filter) {
+            case LimitClause limit -> limit.limitValue();
+            case CompositeFilter composite when composite.limit() != null -> composite.limit().limitValue();
+            default -> NO_LIMIT;
+        };
+    }
+
+    static @NotNull Filter shardFilter(@NotNull Filter filter) {
+        return switch (filter) {
+            case Offset ignore -> Offset.of(0);
+            case CompositeFilter composite when composite.offset() != null -> {
+                int offset = composite.offset().offsetValue();
+                LimitClause limit = composite.limit();
+                LimitClause shardLimit = limit == null ? null : resize(limit, (int) Math.min(
+                    (long) offset + limit.limitValue(), Integer.MAX_VALUE
+                ));
+                yield new CompositeFilter(composite.where(), composite.orderBy(), shardLimit, Offset.of(0));
+            }
+            default -> filter;
+        };
+    }
+
+    private static @NotNull LimitClause resize(@NotNull LimitClause limit, int value) {
+        return limit instanceof FetchOnly ? FetchOnly.of(value) : Limit.of(value);
+    }
+}
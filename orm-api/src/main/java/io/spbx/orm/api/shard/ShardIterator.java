@@ -0,0 +1,141 @@
+package io.spbx.orm.api.shard;
+
+import com.google.common.collect.ImmutableList;
+import io.spbx.orm.api.ResultSetIterator;
+import io.spbx.util.base.annotate.MustBeClosed;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates over the rows gathered from several shards, each provided by a {@link ResultSetIterator}.
+ * <p>
+ * Without the {@code order}, the shards are iterated one after another. With the {@code order}, each shard is
+ * expected to be sorted already, and the rows are merged lazily (k-way merge), holding just one row per shard
+ * in memory. The ties are resolved in the shard order.
+ * <p>
+ * The iterator also applies the window ({@code offset} and {@code limit}) to the gathered rows.
+ * Closing the iterator closes all shard iterators.
+ */
+public class ShardIterator<E> implements Iterator<E>, Closeable {
+    private final ImmutableList<ResultSetIterator<E>> iterators;
+    private final @Nullable PriorityQueue<Head<E>> heads;
+    private int toSkip;
+    private int remaining;
+    private int current = 0;
+    private boolean initialized = false;
+
+    ShardIterator(@NotNull List<ResultSetIterator<E>> iterators,
+                  @Nullable Comparator<? super E> order,
+                  int offset,
+                  int limit) {
+        this.iterators = ImmutableList.copyOf(iterators);
+        this.heads = order != null ? new PriorityQueue<>(Math.max(iterators.size(), 1), headOrder(order)) : null;
+        this.toSkip = offset;
+        this.remaining = limit;
+    }
+
+    /**
+     * Returns a sequential lazy {@link Stream} over the remaining rows. Closing the stream closes this iterator.
+     */
+    @MustBeClosed
+    public @NotNull Stream<E> stream() {
+        int characteristics = Spliterator.ORDERED | Spliterator.NONNULL;
+        Spliterator<E> spliterator = Spliterators.spliteratorUnknownSize(this, characteristics);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (toSkip > 0 && hasNextUnbounded()) {
+            nextUnbounded();
+            toSkip--;
+        }
+        return remaining > 0 && hasNextUnbounded();
+    }
+
+    @Override
+    public E next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        remaining--;
+        return nextUnbounded();
+    }
+
+    @Override
+    public void close() {
+        RuntimeException failure = null;
+        for (ResultSetIterator<E> iterator : iterators) {
+            try {
+                iterator.close();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private boolean hasNextUnbounded() {
+        if (heads != null) {
+            initHeads();
+            return !heads.isEmpty();
+        }
+        while (current < iterators.size()) {
+            if (iterators.get(current).hasNext()) {
+                return true;
+            }
+            current++;
+        }
+        return false;
+    }
+
+    private E nextUnbounded() {
+        if (heads != null) {
+            Head<E> head = heads.remove();
+            ResultSetIterator<E> iterator = iterators.get(head.shard);
+            if (iterator.hasNext()) {
+                heads.add(new Head<>(iterator.next(), head.shard));
+            }
+            return head.value;
+        }
+        return iterators.get(current).next();
+    }
+
+    private void initHeads() {
+        if (!initialized) {
+            initialized = true;
+            for (int i = 0; i < iterators.size(); i++) {
+                ResultSetIterator<E> iterator = iterators.get(i);
+                if (iterator.hasNext()) {
+                    heads.add(new Head<>(iterator.next(), i));
+                }
+            }
+        }
+    }
+
+    private static <E> @NotNull Comparator<Head<E>> headOrder(@NotNull Comparator<? super E> order) {
+        return (left, right) -> {
+            int cmp = order.compare(left.value, right.value);
+            return cmp != 0 ? cmp : Integer.compare(left.shard, right.shard);
+        };
+    }
+
+    private record Head<E>(@NotNull E value, int shard) {}
+}
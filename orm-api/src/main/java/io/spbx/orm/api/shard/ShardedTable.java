@@ -0,0 +1,266 @@
+package io.spbx.orm.api.shard;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+import io.spbx.orm.api.ResultSetIterator;
+import io.spbx.orm.api.async.AsyncTable;
+import io.spbx.orm.api.query.Filter;
+import io.spbx.orm.api.query.InvalidQueryException;
+import io.spbx.orm.api.query.Where;
+import io.spbx.util.base.annotate.CanIgnoreReturnValue;
+import io.spbx.util.base.annotate.MustBeClosed;
+import io.spbx.util.base.error.Unchecked;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import static io.spbx.orm.api.shard.ShardFilters.limitOf;
+import static io.spbx.orm.api.shard.ShardFilters.offsetOf;
+import static io.spbx.orm.api.shard.ShardFilters.shardFilter;
+
+/**
+ * A facade of the table partitioned horizontally across several databases (shards). Each shard is an
+ * {@link AsyncTable} working with its own {@link io.spbx.orm.api.Connector}, all shards have the same schema.
+ * <p>
+ * The rows are distributed by the hash of the primary key (see {@link #shardIndexOf(long, int)}): the single-row
+ * operations are routed to one shard and run in the calling thread, the multi-row operations are scattered to the
+ * shards in parallel via the {@link io.spbx.orm.api.async.AsyncExecutor} of each shard, and the results are gathered.
+ * <p>
+ * The ordered queries (with {@code ORDER BY}) require the comparator of the entities consistent with the SQL order:
+ * the rows are sorted by each shard and merged by the comparator.
+ *
+ * @param <K> the key type
+ * @param <E> the entity type
+ * @see ShardedTableInt
+ * @see ShardedTableLong
+ */
+public abstract class ShardedTable<K, E> {
+    protected final ImmutableList<AsyncTable<K, E>> shards;
+
+    protected ShardedTable(@NotNull List<? extends AsyncTable<K, E>> shards) {
+        assert !shards.isEmpty() : "No shards provided";
+        this.shards = ImmutableList.copyOf(shards);
+    }
+
+    /**
+     * Returns the shard index of the {@code key} among {@code shards}. Uses consistent hashing: when a shard is added,
+     * only {@code 1/shards} of the keys move to the new shard.
+     */
+    public static int shardIndexOf(long key, int shards) {
+        return Hashing.consistentHash(key, shards);
+    }
+
+    public int shardsNumber() {
+        return shards.size();
+    }
+
+    public @NotNull AsyncTable<K, E> shard(int index) {
+        return shards.get(index);
+    }
+
+    /**
+     * Returns the index of the shard which stores the {@code entity}.
+     */
+    public abstract int shardIndexOf(@NotNull E entity);
+
+    // Size
+
+    public int count() {
+        return gather(AsyncTable::count).stream().mapToInt(Integer::intValue).sum();
+    }
+
+    public long count64() {
+        return gather(shard -> shard.call(table -> table.count64())).stream().mapToLong(Long::longValue).sum();
+    }
+
+    public int count(@NotNull Filter filter) {
+        return gather(shard -> shard.count(filter)).stream().mapToInt(Integer::intValue).sum();
+    }
+
+    public long count64(@NotNull Filter filter) {
+        return gather(shard -> shard.call(table -> table.count64(filter))).stream().mapToLong(Long::longValue).sum();
+    }
+
+    // Read
+
+    /**
+     * Iterates over all entities of all shards, one shard after another.
+     * <b>Important</b>: the caller is responsible for closing the iterator.
+     */
+    @MustBeClosed
+    public @NotNull ShardIterator<E> iterator() {
+        List<ResultSetIterator<E>> iterators = openAll(shard -> shard.table().iterator());
+        return new ShardIterator<>(iterators, null, 0, ShardFilters.NO_LIMIT);
+    }
+
+    /**
+     * Iterates over the entities matching the unordered {@code filter} from all shards, one shard after another.
+     * <b>Important</b>: the caller is responsible for closing the iterator.
+     *
+     * @throws InvalidQueryException if the filter is ordered
+     * @see #iterator(Filter, Comparator)
+     */
+    @MustBeClosed
+    public @NotNull ShardIterator<E> iterator(@NotNull Filter filter) {
+        InvalidQueryException.failIf(ShardFilters.isOrdered(filter), "Ordered filter requires a comparator:", filter);
+        return iterator(filter, null);
+    }
+
+    /**
+     * Iterates over the entities matching the {@code filter} from all shards, merged by the {@code order}.
+     * The {@code order} must be consistent with the {@code ORDER BY} clause of the {@code filter}.
+     * <b>Important</b>: the caller is responsible for closing the iterator.
+     */
+    @MustBeClosed
+    public @NotNull ShardIterator<E> iterator(@NotNull Filter filter, @Nullable Comparator<? super E> order) {
+        Filter shardFilter = shardFilter(filter);
+        List<ResultSetIterator<E>> iterators = openAll(shard -> shard.table().iterator(shardFilter));
+        return new ShardIterator<>(iterators, order, offsetOf(filter), limitOf(filter));
+    }
+
+    /**
+     * Fetches the entities matching the unordered {@code filter} from all shards in parallel.
+     *
+     * @throws InvalidQueryException if the filter is ordered
+     * @see #fetchAllMatching(Filter, Comparator)
+     */
+    public @NotNull List<E> fetchAllMatching(@NotNull Filter filter) {
+        InvalidQueryException.failIf(ShardFilters.isOrdered(filter), "Ordered filter requires a comparator:", filter);
+        return fetchAllMatching(filter, null);
+    }
+
+    /**
+     * Fetches the entities matching the {@code filter} from all shards in parallel and merges them by the
+     * {@code order}. The {@code order} must be consistent with the {@code ORDER BY} clause of the {@code filter}.
+     */
+    public @NotNull List<E> fetchAllMatching(@NotNull Filter filter, @Nullable Comparator<? super E> order) {
+        Filter shardFilter = shardFilter(filter);
+        List<List<E>> lists = gather(shard -> shard.fetchAllMatching(shardFilter));
+        List<E> result = new ArrayList<>(lists.stream().mapToInt(List::size).sum());
+        lists.forEach(result::addAll);
+        if (order != null) {
+            result.sort(order);  // the stable merge sort detects the sorted runs of each shard
+        }
+        int offset = Math.min(offsetOf(filter), result.size());
+        int limit = (int) Math.min((long) offset + limitOf(filter), result.size());
+        return offset == 0 && limit == result.size() ? result : new ArrayList<>(result.subList(offset, limit));
+    }
+
+    // Write
+
+    /**
+     * Inserts the {@code entity} into its shard.
+     */
+    @CanIgnoreReturnValue
+    public int insert(@NotNull E entity) {
+        return shards.get(shardIndexOf(entity)).table().insert(entity);
+    }
+
+    /**
+     * Inserts the {@code batch} of entities, each into its shard. The shards are written in parallel,
+     * independently of each other, i.e. the batch isn't atomic across the shards.
+     *
+     * @return the results of the JDBC batch per entity, in the order of the {@code batch}
+     */
+    @CanIgnoreReturnValue
+    public int[] insertBatch(@NotNull Collection<? extends E> batch) {
+        List<List<E>> groups = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            groups.add(new ArrayList<>());
+        }
+        int[] shardOf = new int[batch.size()];
+        int index = 0;
+        for (E entity : batch) {
+            int shard = shardIndexOf(entity);
+            shardOf[index++] = shard;
+            groups.get(shard).add(entity);
+        }
+
+        List<int[]> results = gatherByIndex(shard -> {
+            List<E> group = groups.get(shard);
+            return group.isEmpty() ?
+                CompletableFuture.completedFuture(new int[0]) :
+                shards.get(shard).insertBatch(group);
+        });
+
+        int[] result = new int[batch.size()];
+        int[] cursors = new int[shards.size()];
+        for (int i = 0; i < shardOf.length; i++) {
+            int shard = shardOf[i];
+            result[i] = results.get(shard)[cursors[shard]++];
+        }
+        return result;
+    }
+
+    /**
+     * Updates the {@code entity} in its shard.
+     */
+    @CanIgnoreReturnValue
+    public int updateByPk(@NotNull E entity) {
+        return shards.get(shardIndexOf(entity)).table().updateByPk(entity);
+    }
+
+    /**
+     * Deletes the rows matching the {@code where} in all shards in parallel.
+     *
+     * @return the total number of affected rows
+     */
+    @CanIgnoreReturnValue
+    public int deleteWhere(@NotNull Where where) {
+        return gather(shard -> shard.deleteWhere(where)).stream().mapToInt(Integer::intValue).sum();
+    }
+
+    // Scatter-gather
+
+    /**
+     * Runs the asynchronous {@code action} on each shard and waits for all results, in the order of the shards.
+     * The first failure is rethrown unwrapped.
+     */
+    protected <R> @NotNull List<R> gather(@NotNull Function<AsyncTable<K, E>, CompletableFuture<R>> action) {
+        return gatherByIndex(index -> action.apply(shards.get(index)));
+    }
+
+    /**
+     * Same as {@link #gather(Function)}, but the {@code action} accepts the shard index.
+     */
+    protected <R> @NotNull List<R> gatherByIndex(@NotNull IntFunction<CompletableFuture<R>> action) {
+        List<CompletableFuture<R>> futures = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            futures.add(action.apply(i));
+        }
+        List<R> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<R> future : futures) {
+            results.add(join(future));
+        }
+        return results;
+    }
+
+    protected static <R> R join(@NotNull CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            return Unchecked.rethrow(e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    private @NotNull List<ResultSetIterator<E>> openAll(@NotNull Function<AsyncTable<K, E>, ResultSetIterator<E>> f) {
+        List<ResultSetIterator<E>> iterators = new ArrayList<>(shards.size());
+        try {
+            for (AsyncTable<K, E> shard : shards) {
+                iterators.add(f.apply(shard));
+            }
+            return iterators;
+        } catch (RuntimeException e) {
+            iterators.forEach(ResultSetIterator::close);
+            throw e;
+        }
+    }
+}
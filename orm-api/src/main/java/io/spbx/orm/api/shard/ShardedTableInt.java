@@ -0,0 +1,141 @@
+package io.spbx.orm.api.shard;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.IntContainer;
+import com.carrotsearch.hppc.IntObjectHashMap;
+import com.carrotsearch.hppc.IntObjectMap;
+import com.carrotsearch.hppc.cursors.IntCursor;
+import com.google.common.collect.ImmutableList;
+import io.spbx.orm.api.async.AsyncTableInt;
+import io.spbx.orm.api.query.Filter;
+import io.spbx.orm.api.query.InvalidQueryException;
+import io.spbx.util.base.annotate.CanIgnoreReturnValue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A facade of the {@link io.spbx.orm.api.TableInt} sharded by the {@code int} key.
+ * Provides native {@code int} versions of the key-based methods.
+ *
+ * @param <E> the entity type
+ */
+public class ShardedTableInt<E> extends ShardedTable<Integer, E> {
+    private final ImmutableList<AsyncTableInt<E>> intShards;
+
+    public ShardedTableInt(@NotNull List<AsyncTableInt<E>> shards) {
+        super(shards);
+        this.intShards = ImmutableList.copyOf(shards);
+    }
+
+    public static <E> @NotNull ShardedTableInt<E> of(@NotNull List<AsyncTableInt<E>> shards) {
+        return new ShardedTableInt<>(shards);
+    }
+
+    @Override
+    public @NotNull AsyncTableInt<E> shard(int index) {
+        return intShards.get(index);
+    }
+
+    public int shardIndexOf(int key) {
+        return shardIndexOf(key, intShards.size());
+    }
+
+    @Override
+    public int shardIndexOf(@NotNull E entity) {
+        return shardIndexOf(intShards.getFirst().table().intKeyOf(entity));
+    }
+
+    // Read
+
+    public boolean exists(int key) {
+        return intShards.get(shardIndexOf(key)).table().exists(key);
+    }
+
+    public @Nullable E getByPkOrNull(int key) {
+        return intShards.get(shardIndexOf(key)).table().getByPkOrNull(key);
+    }
+
+    /**
+     * Fetches the entities for the {@code keys}: the keys are grouped by shard, and the shards are queried in parallel.
+     */
+    public @NotNull IntObjectMap<E> getBatchByPk(@NotNull IntContainer keys) {
+        IntArrayList[] groups = new IntArrayList[intShards.size()];
+        int nonEmpty = -1;
+        for (IntCursor cursor : keys) {
+            int shard = shardIndexOf(cursor.value);
+            if (groups[shard] == null) {
+                groups[shard] = new IntArrayList();
+                nonEmpty = nonEmpty == -1 ? shard : -2;
+            }
+            groups[shard].add(cursor.value);
+        }
+        if (nonEmpty == -1) {
+            return new IntObjectHashMap<>();
+        }
+        if (nonEmpty >= 0) {
+            return intShards.get(nonEmpty).table().getBatchByPk(keys);  // a single shard: no need for a thread hop
+        }
+
+        List<IntObjectMap<E>> results = gatherByIndex(shard -> {
+            IntArrayList group = groups[shard];
+            return group != null ?
+                intShards.get(shard).getBatchByPk(group) :
+                CompletableFuture.<IntObjectMap<E>>completedFuture(null);
+        });
+        IntObjectHashMap<E> result = new IntObjectHashMap<>(keys.size());
+        for (IntObjectMap<E> map : results) {
+            if (map != null) {
+                result.putAll(map);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Fetches the keys of the entities matching the unordered {@code filter} from all shards in parallel.
+     *
+     * @throws InvalidQueryException if the filter is ordered
+     * @see #fetchPks(Filter, Comparator)
+     */
+    public @NotNull IntArrayList fetchPks(@NotNull Filter filter) {
+        InvalidQueryException.failIf(ShardFilters.isOrdered(filter), "Ordered filter requires a comparator:", filter);
+        Filter shardFilter = ShardFilters.shardFilter(filter);
+        List<IntArrayList> lists = gatherByIndex(shard -> intShards.get(shard).fetchPks(shardFilter));
+        IntArrayList result = new IntArrayList(lists.stream().mapToInt(IntArrayList::size).sum());
+        for (IntArrayList list : lists) {
+            result.add(list.buffer, 0, list.size());
+        }
+        int offset = Math.min(ShardFilters.offsetOf(filter), result.size());
+        int limit = (int) Math.min((long) offset + ShardFilters.limitOf(filter), result.size());
+        if (offset == 0 && limit == result.size()) {
+            return result;
+        }
+        IntArrayList window = new IntArrayList(limit - offset);
+        window.add(result.buffer, offset, limit - offset);
+        return window;
+    }
+
+    /**
+     * Fetches the keys of the entities matching the {@code filter} from all shards, merged by the {@code order}.
+     * The order of the keys can only be established from the entities, hence the whole entities are fetched.
+     */
+    public @NotNull IntArrayList fetchPks(@NotNull Filter filter, @NotNull Comparator<? super E> order) {
+        List<E> entities = fetchAllMatching(filter, order);
+        IntArrayList result = new IntArrayList(entities.size());
+        for (E entity : entities) {
+            result.add(intShards.getFirst().table().intKeyOf(entity));
+        }
+        return result;
+    }
+
+    // Write
+
+    @CanIgnoreReturnValue
+    public int deleteByPk(int key) {
+        return intShards.get(shardIndexOf(key)).table().deleteByPk(key);
+    }
+}
@@ -0,0 +1,141 @@
+package io.spbx.orm.api.shard;
+
+import com.carrotsearch.hppc.LongArrayList;
+import com.carrotsearch.hppc.LongContainer;
+import com.carrotsearch.hppc.LongObjectHashMap;
+import com.carrotsearch.hppc.LongObjectMap;
+import com.carrotsearch.hppc.cursors.LongCursor;
+import com.google.common.collect.ImmutableList;
+import io.spbx.orm.api.async.AsyncTableLong;
+import io.spbx.orm.api.query.Filter;
+import io.spbx.orm.api.query.InvalidQueryException;
+import io.spbx.util.base.annotate.CanIgnoreReturnValue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A facade of the {@link io.spbx.orm.api.TableLong} sharded by the {@code long} key.
+ * Provides native {@code long} versions of the key-based methods.
+ *
+ * @param <E> the entity type
+ */
+public class ShardedTableLong<E> extends ShardedTable<Long, E> {
+    private final ImmutableList<AsyncTableLong<E>> longShards;
+
+    public ShardedTableLong(@NotNull List<AsyncTableLong<E>> shards) {
+        super(shards);
+        this.longShards = ImmutableList.copyOf(shards);
+    }
+
+    public static <E> @NotNull ShardedTableLong<E> of(@NotNull List<AsyncTableLong<E>> shards) {
+        return new ShardedTableLong<>(shards);
+    }
+
+    @Override
+    public @NotNull AsyncTableLong<E> shard(int index) {
+        return longShards.get(index);
+    }
+
+    public int shardIndexOf(long key) {
+        return shardIndexOf(key, longShards.size());
+    }
+
+    @Override
+    public int shardIndexOf(@NotNull E entity) {
+        return shardIndexOf(longShards.getFirst().table().longKeyOf(entity));
+    }
+
+    // Read
+
+    public boolean exists(long key) {
+        return longShards.get(shardIndexOf(key)).table().exists(key);
+    }
+
+    public @Nullable E getByPkOrNull(long key) {
+        return longShards.get(shardIndexOf(key)).table().getByPkOrNull(key);
+    }
+
+    /**
+     * Fetches the entities for the {@code keys}: the keys are grouped by shard, and the shards are queried in parallel.
+     */
+    public @NotNull LongObjectMap<E> getBatchByPk(@NotNull LongContainer keys) {
+        LongArrayList[] groups = new LongArrayList[longShards.size()];
+        int nonEmpty = -1;
+        for (LongCursor cursor : keys) {
+            int shard = shardIndexOf(cursor.value);
+            if (groups[shard] == null) {
+                groups[shard] = new LongArrayList();
+                nonEmpty = nonEmpty == -1 ? shard : -2;
+            }
+            groups[shard].add(cursor.value);
+        }
+        if (nonEmpty == -1) {
+            return new LongObjectHashMap<>();
+        }
+        if (nonEmpty >= 0) {
+            return longShards.get(nonEmpty).table().getBatchByPk(keys);  // a single shard: no need for a thread hop
+        }
+
+        List<LongObjectMap<E>> results = gatherByIndex(shard -> {
+            LongArrayList group = groups[shard];
+            return group != null ?
+                longShards.get(shard).getBatchByPk(group) :
+                CompletableFuture.<LongObjectMap<E>>completedFuture(null);
+        });
+        LongObjectHashMap<E> result = new LongObjectHashMap<>(keys.size());
+        for (LongObjectMap<E> map : results) {
+            if (map != null) {
+                result.putAll(map);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Fetches the keys of the entities matching the unordered {@code filter} from all shards in parallel.
+     *
+     * @throws InvalidQueryException if the filter is ordered
+     * @see #fetchPks(Filter, Comparator)
+     */
+    public @NotNull LongArrayList fetchPks(@NotNull Filter filter) {
+        InvalidQueryException.failIf(ShardFilters.isOrdered(filter), "Ordered filter requires a comparator:", filter);
+        Filter shardFilter = ShardFilters.shardFilter(filter);
+        List<LongArrayList> lists = gatherByIndex(shard -> longShards.get(shard).fetchPks(shardFilter));
+        LongArrayList result = new LongArrayList(lists.stream().mapToInt(LongArrayList::size).sum());
+        for (LongArrayList list : lists) {
+            result.add(list.buffer, 0, list.size());
+        }
+        int offset = Math.min(ShardFilters.offsetOf(filter), result.size());
+        int limit = (int) Math.min((long) offset + ShardFilters.limitOf(filter), result.size());
+        if (offset == 0 && limit == result.size()) {
+            return result;
+        }
+        LongArrayList window = new LongArrayList(limit - offset);
+        window.add(result.buffer, offset, limit - offset);
+        return window;
+    }
+
+    /**
+     * Fetches the keys of the entities matching the {@code filter} from all shards, merged by the {@code order}.
+     * The order of the keys can only be established from the entities, hence the whole entities are fetched.
+     */
+    public @NotNull LongArrayList fetchPks(@NotNull Filter filter, @NotNull Comparator<? super E> order) {
+        List<E> entities = fetchAllMatching(filter, order);
+        LongArrayList result = new LongArrayList(entities.size());
+        for (E entity : entities) {
+            result.add(longShards.getFirst().table().longKeyOf(entity));
+        }
+        return result;
+    }
+
+    // Write
+
+    @CanIgnoreReturnValue
+    public int deleteByPk(long key) {
+        return longShards.get(shardIndexOf(key)).table().deleteByPk(key);
+    }
+}
@@ -1,5 +1,6 @@
 package io.spbx.orm.api.tx;
 
+import io.spbx.orm.api.Engine;
 import io.spbx.util.base.error.Unchecked;
 import io.spbx.util.func.ThrowConsumer;
 import io.spbx.util.func.ThrowFunction;
@@ -7,23 +8,75 @@ import io.spbx.util.func.ThrowIntSupplier;
 import io.spbx.util.func.ThrowLongSupplier;
 import io.spbx.util.func.ThrowRunnable;
 import io.spbx.util.func.ThrowSupplier;
+import io.spbx.util.logging.Logger;
 import org.jetbrains.annotations.NotNull;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Savepoint;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Represents a runner within a DB transaction.
+ * <p>
+ * The transaction can be configured with the {@link TxIsolation isolation level}, the read-only hint and the
+ * {@link RetryPolicy retry policy}. These settings apply only to the top-level transactions, i.e. when the connection
+ * is in auto-commit mode upon start. The original settings of the connection are restored upon completion.
+ * A transaction failed with a {@link TransientErrors transient error} (e.g. a deadlock) is rolled back and
+ * re-run from scratch after a jittered backoff, hence the action must be safe to re-run.
+ * <p>
+ * Nested units of work can be run via {@link #runInSavepoint}.
  *
  * @param <P> the parameter type to be used by the working lambdas
  */
 public class InTransaction<P> {
+    private static final Logger log = Logger.forEnclosingClass();
+
     private final Connection connection;
     private final P param;
+    private final TxIsolation isolation;
+    private final boolean readOnly;
+    private final RetryPolicy retry;
 
     public InTransaction(@NotNull Connection connection, @NotNull P param) {
+        this(connection, param, TxIsolation.DEFAULT, false, RetryPolicy.NONE);
+    }
+
+    public InTransaction(@NotNull Connection connection,
+                         @NotNull P param,
+                         @NotNull TxIsolation isolation,
+                         boolean readOnly,
+                         @NotNull RetryPolicy retry) {
         this.connection = connection;
         this.param = param;
+        this.isolation = isolation;
+        this.readOnly = readOnly;
+        this.retry = retry;
+    }
+
+    public @NotNull InTransaction<P> withIsolation(@NotNull TxIsolation isolation) {
+        return new InTransaction<>(connection, param, isolation, readOnly, retry);
+    }
+
+    public @NotNull InTransaction<P> withReadOnly(boolean readOnly) {
+        return new InTransaction<>(connection, param, isolation, readOnly, retry);
+    }
+
+    public @NotNull InTransaction<P> withRetry(@NotNull RetryPolicy retry) {
+        return new InTransaction<>(connection, param, isolation, readOnly, retry);
+    }
+
+    public @NotNull TxIsolation isolation() {
+        return isolation;
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    public @NotNull RetryPolicy retry() {
+        return retry;
     }
 
     public void run(@NotNull ThrowConsumer<P, SQLException> action) {
@@ -60,7 +113,7 @@ public class InTransaction<P> {
 
     public int run(@NotNull ThrowIntSupplier<SQLException> action) {
         try {
-            return runChecked(action::getAsInt);    // FIX[perf]: int -> Integer -> int conversion here
+            return runChecked(action);
         } catch (SQLException e) {
             return Unchecked.rethrow("Transaction failed", e);
         }
@@ -68,27 +121,54 @@ public class InTransaction<P> {
 
     public long run(@NotNull ThrowLongSupplier<SQLException> action) {
         try {
-            return runChecked(action::getAsLong);   // FIX[perf]: long -> Long -> long conversion here
+            return runChecked(action);
         } catch (SQLException e) {
             return Unchecked.rethrow("Transaction failed", e);
         }
     }
 
     public <T> T runChecked(@NotNull ThrowFunction<P, T, SQLException> action) throws SQLException {
-        boolean autoCommit = connection.getAutoCommit();
-        connection.setAutoCommit(false);
-        try {
-            T t = action.apply(param);
-            connection.commit();
-            return t;
-        } catch (SQLException | RuntimeException | Error exception) {
-            connection.rollback();
-            throw exception;
-        } catch (Throwable throwable) {
-            connection.rollback();
-            return Unchecked.rethrow(throwable);
-        } finally {
-            connection.setAutoCommit(autoCommit);
+        for (int attempt = 1; ; attempt++) {
+            State state = begin();
+            try {
+                T t = action.apply(param);
+                connection.commit();
+                return t;
+            } catch (Throwable failure) {
+                rollbackAndRetryOrThrow(state, failure, attempt);
+            } finally {
+                end(state);
+            }
+        }
+    }
+
+    public int runChecked(@NotNull ThrowIntSupplier<SQLException> action) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            State state = begin();
+            try {
+                int result = action.getAsInt();
+                connection.commit();
+                return result;
+            } catch (Throwable failure) {
+                rollbackAndRetryOrThrow(state, failure, attempt);
+            } finally {
+                end(state);
+            }
+        }
+    }
+
+    public long runChecked(@NotNull ThrowLongSupplier<SQLException> action) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            State state = begin();
+            try {
+                long result = action.getAsLong();
+                connection.commit();
+                return result;
+            } catch (Throwable failure) {
+                rollbackAndRetryOrThrow(state, failure, attempt);
+            } finally {
+                end(state);
+            }
         }
     }
 
@@ -111,4 +191,102 @@ public class InTransaction<P> {
             return action.get();
         });
     }
+
+    /**
+     * Runs the {@code action} within a savepoint of the current transaction: if the action fails, only its changes
+     * are rolled back and the error is rethrown, the outer transaction can proceed.
+     * Must be called within an active transaction, e.g. from the action of {@link #run}.
+     */
+    public <T> T runInSavepoint(@NotNull ThrowFunction<P, T, SQLException> action) throws SQLException {
+        assert !connection.getAutoCommit() : "Savepoint requires an active transaction";
+        Savepoint savepoint = connection.setSavepoint();
+        try {
+            T t = action.apply(param);
+            releaseSavepoint(savepoint);
+            return t;
+        } catch (SQLException | RuntimeException | Error exception) {
+            connection.rollback(savepoint);
+            throw exception;
+        } catch (Throwable throwable) {
+            connection.rollback(savepoint);
+            return Unchecked.rethrow(throwable);
+        }
+    }
+
+    public void runInSavepoint(@NotNull ThrowConsumer<P, SQLException> action) throws SQLException {
+        runInSavepoint(runner -> {
+            action.accept(runner);
+            return null;
+        });
+    }
+
+    private void releaseSavepoint(@NotNull Savepoint savepoint) throws SQLException {
+        try {
+            connection.releaseSavepoint(savepoint);
+        } catch (SQLFeatureNotSupportedException ignore) {
+            // Some engines (e.g. Oracle) release the savepoints only at the end of the transaction
+        }
+    }
+
+    private @NotNull State begin() throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        int restoreIsolation = -1;
+        boolean restoreReadOnly = false;
+        if (autoCommit) {
+            if (!isolation.isDefault()) {
+                int current = connection.getTransactionIsolation();
+                if (current != isolation.jdbcLevel()) {
+                    connection.setTransactionIsolation(isolation.jdbcLevel());
+                    restoreIsolation = current;
+                }
+            }
+            if (readOnly && !connection.isReadOnly()) {
+                connection.setReadOnly(true);
+                restoreReadOnly = true;
+            }
+        }
+        connection.setAutoCommit(false);
+        return new State(autoCommit, restoreIsolation, restoreReadOnly);
+    }
+
+    private void end(@NotNull State state) throws SQLException {
+        connection.setAutoCommit(state.autoCommit);
+        if (state.restoreReadOnly) {
+            connection.setReadOnly(false);
+        }
+        if (state.restoreIsolation >= 0) {
+            connection.setTransactionIsolation(state.restoreIsolation);
+        }
+    }
+
+    // Returns normally only if the transaction should be re-run.
+    private void rollbackAndRetryOrThrow(@NotNull State state,
+                                         @NotNull Throwable failure,
+                                         int attempt) throws SQLException {
+        connection.rollback();
+        if (attempt >= retry.maxAttempts() || !state.autoCommit ||
+            !TransientErrors.isTransient(failure, Engine.fromConnectionSafe(connection))) {
+            rethrow(failure);
+        }
+        long backoffNanos = retry.backoffNanos(attempt);
+        log.debug().log("Transaction attempt %d failed with a transient error, retrying in %dus: %s",
+                        attempt, backoffNanos / 1000, failure.getMessage());
+        try {
+            TimeUnit.NANOSECONDS.sleep(backoffNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rethrow(failure);
+        }
+    }
+
+    private static void rethrow(@NotNull Throwable failure) throws SQLException {
+        switch (failure) {
+            case SQLException exception -> throw exception;
+            case RuntimeException exception -> throw exception;
+            case Error error -> throw error;
+            default -> Unchecked.rethrow(failure);
+        }
+    }
+
+    private record State(boolean autoCommit, int restoreIsolation, boolean restoreReadOnly) {}
 }
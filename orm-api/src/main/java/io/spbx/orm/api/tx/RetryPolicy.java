@@ -0,0 +1,59 @@
+package io.spbx.orm.api.tx;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.concurrent.Immutable;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The policy of retrying the transactions failed with a {@link TransientErrors transient error},
+ * such as a deadlock or a serialization failure.
+ * <p>
+ * The backoff before the attempt {@code n + 1} is a random duration from zero to
+ * {@code min(maxBackoff, initialBackoff * 2^(n - 1))} ("full jitter"), so that the contending transactions
+ * spread out instead of colliding again.
+ *
+ * @param maxAttempts the max total number of attempts, {@code 1} means no retries
+ * @param initialBackoff the upper bound of the backoff after the first attempt
+ * @param maxBackoff the cap of the backoff upper bound
+ */
+@Immutable
+public record RetryPolicy(int maxAttempts, @NotNull Duration initialBackoff, @NotNull Duration maxBackoff) {
+    public static final RetryPolicy NONE = new RetryPolicy(1, Duration.ZERO, Duration.ZERO);
+    public static final RetryPolicy DEFAULT = new RetryPolicy(3, Duration.ofMillis(10), Duration.ofSeconds(1));
+
+    public RetryPolicy {
+        assert maxAttempts > 0 : "Invalid max attempts: " + maxAttempts;
+        assert !initialBackoff.isNegative() : "Invalid initial backoff: " + initialBackoff;
+        assert initialBackoff.compareTo(maxBackoff) <= 0 : "Initial backoff exceeds the max: " + initialBackoff;
+    }
+
+    public static @NotNull RetryPolicy ofAttempts(int maxAttempts) {
+        return new RetryPolicy(maxAttempts, DEFAULT.initialBackoff, DEFAULT.maxBackoff);
+    }
+
+    public @NotNull RetryPolicy withMaxAttempts(int maxAttempts) {
+        return new RetryPolicy(maxAttempts, initialBackoff, maxBackoff);
+    }
+
+    public @NotNull RetryPolicy withBackoff(@NotNull Duration initialBackoff, @NotNull Duration maxBackoff) {
+        return new RetryPolicy(maxAttempts, initialBackoff, maxBackoff);
+    }
+
+    public boolean isRetrying() {
+        return maxAttempts > 1;
+    }
+
+    /**
+     * Returns the jittered backoff in nanos after the failed {@code attempt} (starting from 1).
+     */
+    public long backoffNanos(int attempt) {
+        assert attempt > 0 : "Invalid attempt: " + attempt;
+        long cap = maxBackoff.toNanos();
+        long initial = initialBackoff.toNanos();
+        int shift = Math.min(attempt - 1, 62);
+        long bound = initial <= (cap >> shift) ? initial << shift : cap;
+        return bound > 0 ? ThreadLocalRandom.current().nextLong(bound + 1) : 0;
+    }
+}
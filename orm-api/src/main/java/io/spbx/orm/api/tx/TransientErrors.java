@@ -0,0 +1,58 @@
+package io.spbx.orm.api.tx;
+
+import io.spbx.orm.api.Engine;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+
+/**
+ * Classifies the {@link SQLException}s into transient, i.e. the ones after which the whole transaction
+ * can be safely retried: deadlocks, serialization failures and lock wait timeouts.
+ * <p>
+ * The classification is based on the standard SQLState class {@code 40} (transaction rollback),
+ * the JDBC {@link SQLTransactionRollbackException} and the vendor error codes of the specific {@link Engine}.
+ * The whole chain of the causes and the next exceptions is inspected.
+ */
+public class TransientErrors {
+    private static final int MAX_DEPTH = 16;
+
+    public static boolean isTransient(@NotNull Throwable error, @NotNull Engine engine) {
+        return isTransient(error, engine, 0);
+    }
+
+    private static boolean isTransient(@Nullable Throwable error, @NotNull Engine engine, int depth) {
+        if (error == null || depth > MAX_DEPTH) {
+            return false;
+        }
+        if (error instanceof SQLException sqlException) {
+            if (isTransientState(sqlException, engine) ||
+                isTransient(sqlException.getNextException(), engine, depth + 1)) {
+                return true;
+            }
+        }
+        return error.getCause() != error && isTransient(error.getCause(), engine, depth + 1);
+    }
+
+    private static boolean isTransientState(@NotNull SQLException exception, @NotNull Engine engine) {
+        if (exception instanceof SQLTransactionRollbackException) {
+            return true;
+        }
+        String state = exception.getSQLState();
+        if (state != null && state.startsWith("40")) {
+            return true;  // 40001 serialization failure, 40P01 deadlock in PostgreSQL, 40XL1 lock timeout in Derby
+        }
+        int code = exception.getErrorCode();
+        return switch (engine) {
+            case MySQL, MariaDB -> code == 1213 || code == 1205;    // ER_LOCK_DEADLOCK, ER_LOCK_WAIT_TIMEOUT
+            case PostgreSQL -> "55P03".equals(state);               // lock_not_available
+            case Oracle -> code == 60 || code == 8177;              // ORA-00060 deadlock, ORA-08177 can't serialize
+            case MsSqlServer, Sybase -> code == 1205;               // deadlock victim
+            case H2 -> code == 40001 || code == 50200;              // DEADLOCK_1, LOCK_TIMEOUT_1
+            case SQLite -> code == 5 || code == 6;                  // SQLITE_BUSY, SQLITE_LOCKED
+            case HyperSQL -> code == -4861;                         // TRANSACTION_LOCK_TIMEOUT
+            default -> false;
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package io.spbx.orm.api.tx;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+
+/**
+ * The transaction isolation level. {@link #DEFAULT} keeps the isolation level of the connection.
+ *
+ * @see Connection#setTransactionIsolation(int)
+ */
+public enum TxIsolation {
+    DEFAULT(-1),
+    READ_UNCOMMITTED(Connection.TRANSACTION_READ_UNCOMMITTED),
+    READ_COMMITTED(Connection.TRANSACTION_READ_COMMITTED),
+    REPEATABLE_READ(Connection.TRANSACTION_REPEATABLE_READ),
+    SERIALIZABLE(Connection.TRANSACTION_SERIALIZABLE);
+
+    private final int jdbcLevel;
+
+    TxIsolation(int jdbcLevel) {
+        this.jdbcLevel = jdbcLevel;
+    }
+
+    /**
+     * Returns the JDBC constant of the level or {@code -1} for the {@link #DEFAULT}.
+     */
+    public int jdbcLevel() {
+        return jdbcLevel;
+    }
+
+    public boolean isDefault() {
+        return this == DEFAULT;
+    }
+
+    public static @NotNull TxIsolation fromJdbcLevel(int jdbcLevel) {
+        for (TxIsolation isolation : values()) {
+            if (isolation.jdbcLevel == jdbcLevel) {
+                return isolation;
+            }
+        }
+        return DEFAULT;
+    }
+}
@@ -0,0 +1,119 @@
+package io.spbx.orm.api;
+
+import io.spbx.orm.api.query.InvalidQueryException;
+import io.spbx.orm.testing.FakeColumn;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("fast")
+public class FollowSelectTest {
+    private static final FakeColumn AUTHOR_ID = FakeColumn.of("author_id");
+    private static final FakeColumn SPONSOR_ID = FakeColumn.of("sponsor_id");
+    private static final FakeColumn COMPANY_ID = FakeColumn.of("company_id");
+    private static final FakeColumn PARENT_ID = FakeColumn.of("parent_id");
+
+    @Test
+    public void no_follow() {
+        assertThat(FollowSelect.make(Follow.NONE, FollowSelectTest::selectPost)).isEqualTo("""
+            SELECT post.id, post.author_id, post.sponsor_id
+            FROM post
+            """);
+    }
+
+    @Test
+    public void nested_follow() {
+        Follow graph = Follow.of(AUTHOR_ID, Follow.of(COMPANY_ID));
+        assertThat(FollowSelect.make(graph, FollowSelectTest::selectPost)).isEqualTo("""
+            SELECT post.id, post.author_id, t1.id, t1.name, t1.company_id, t2.id, t2.name, post.sponsor_id
+            FROM post
+            LEFT JOIN user AS t1 ON post.author_id = t1.id
+            LEFT JOIN company AS t2 ON t1.company_id = t2.id
+            """);
+    }
+
+    @Test
+    public void same_table_joined_twice() {
+        Follow graph = Follow.of(AUTHOR_ID, Follow.of(COMPANY_ID)).and(SPONSOR_ID);
+        assertThat(FollowSelect.make(graph, FollowSelectTest::selectPost)).isEqualTo("""
+            SELECT post.id, post.author_id, t1.id, t1.name, t1.company_id, t2.id, t2.name, post.sponsor_id, \
+            t3.id, t3.name
+            FROM post
+            LEFT JOIN user AS t1 ON post.author_id = t1.id
+            LEFT JOIN company AS t2 ON t1.company_id = t2.id
+            LEFT JOIN company AS t3 ON post.sponsor_id = t3.id
+            """);
+    }
+
+    @Test
+    public void not_foreign_key() {
+        assertThrows(InvalidQueryException.class,
+                     () -> FollowSelect.make(Follow.of(COMPANY_ID), FollowSelectTest::selectPost));
+        assertThrows(InvalidQueryException.class,
+                     () -> FollowSelect.make(Follow.of(AUTHOR_ID, Follow.of(AUTHOR_ID)), FollowSelectTest::selectPost));
+    }
+
+    @Test
+    public void self_reference() {
+        Follow graph = Follow.of(PARENT_ID, Follow.of(PARENT_ID));
+        assertThat(FollowSelect.make(graph, FollowSelectTest::selectNode)).isEqualTo("""
+            SELECT node.id, node.parent_id, t1.id, t1.parent_id, t2.id, t2.parent_id
+            FROM node
+            LEFT JOIN node AS t1 ON node.parent_id = t1.id
+            LEFT JOIN node AS t2 ON t1.parent_id = t2.id
+            """);
+    }
+
+    // post(id, author_id -> user, sponsor_id -> company)
+    private static void selectPost(@NotNull FollowSelect select, @NotNull Follow graph) {
+        select.enter("post", graph, AUTHOR_ID, SPONSOR_ID);
+        select.column("id");
+        select.column("author_id");
+        if (graph.nested(AUTHOR_ID) instanceof Follow nested) {
+            select.join("author_id", "user", "id");
+            selectUser(select, nested);
+        }
+        select.column("sponsor_id");
+        if (graph.nested(SPONSOR_ID) instanceof Follow nested) {
+            select.join("sponsor_id", "company", "id");
+            selectCompany(select, nested);
+        }
+        select.exit();
+    }
+
+    // user(id, name, company_id -> company)
+    private static void selectUser(@NotNull FollowSelect select, @NotNull Follow graph) {
+        select.enter("user", graph, COMPANY_ID);
+        select.column("id");
+        select.column("name");
+        select.column("company_id");
+        if (graph.nested(COMPANY_ID) instanceof Follow nested) {
+            select.join("company_id", "company", "id");
+            selectCompany(select, nested);
+        }
+        select.exit();
+    }
+
+    // company(id, name)
+    private static void selectCompany(@NotNull FollowSelect select, @NotNull Follow graph) {
+        select.enter("company", graph);
+        select.column("id");
+        select.column("name");
+        select.exit();
+    }
+
+    // node(id, parent_id -> node)
+    private static void selectNode(@NotNull FollowSelect select, @NotNull Follow graph) {
+        select.enter("node", graph, PARENT_ID);
+        select.column("id");
+        select.column("parent_id");
+        if (graph.nested(PARENT_ID) instanceof Follow nested) {
+            select.join("parent_id", "node", "id");
+            selectNode(select, nested);
+        }
+        select.exit();
+    }
+}
@@ -0,0 +1,72 @@
+package io.spbx.orm.api;
+
+import io.spbx.orm.api.query.InvalidQueryException;
+import io.spbx.orm.testing.FakeColumn;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("fast")
+public class FollowTest {
+    private static final FakeColumn A = FakeColumn.of("a");
+    private static final FakeColumn B = FakeColumn.of("b");
+    private static final FakeColumn C = FakeColumn.of("c");
+
+    @Test
+    public void none() {
+        assertThat(Follow.NONE.isEmpty()).isTrue();
+        assertThat(Follow.NONE.columns()).isEmpty();
+        assertThat(Follow.NONE.depth()).isEqualTo(0);
+        assertThat(Follow.NONE.nested(A)).isNull();
+        assertThat(Follow.NONE.toString()).isEqualTo("{}");
+    }
+
+    @Test
+    public void of_and() {
+        Follow follow = Follow.of(A, Follow.of(B)).and(C);
+        assertThat(follow.columns()).containsExactly(A, C).inOrder();
+        assertThat(follow.nested(A)).isEqualTo(Follow.of(B));
+        assertThat(follow.nested(B)).isNull();
+        assertThat(follow.nested(C)).isEqualTo(Follow.NONE);
+        assertThat(follow.depth()).isEqualTo(2);
+        assertThat(follow.toString()).isEqualTo("{a -> {b}, c}");
+    }
+
+    @Test
+    public void and_same_column_merges() {
+        Follow follow = Follow.of(A, Follow.of(B)).and(A, Follow.of(C));
+        assertThat(follow.columns()).containsExactly(A);
+        assertThat(follow.nested(A)).isEqualTo(Follow.of(B).and(C));
+        assertThat(follow.toString()).isEqualTo("{a -> {b, c}}");
+    }
+
+    @Test
+    public void merge() {
+        Follow follow = Follow.of(A).merge(Follow.of(A, Follow.of(B)).and(C));
+        assertThat(follow).isEqualTo(Follow.of(A, Follow.of(B)).and(C));
+        assertThat(follow.merge(Follow.NONE)).isEqualTo(follow);
+        assertThat(Follow.NONE.merge(follow)).isEqualTo(follow);
+    }
+
+    @Test
+    public void equals_hashCode() {
+        assertThat(Follow.of(A).and(B)).isEqualTo(Follow.of(A).and(B));
+        assertThat(Follow.of(A).and(B).hashCode()).isEqualTo(Follow.of(A).and(B).hashCode());
+        assertThat(Follow.of(A)).isNotEqualTo(Follow.of(A, Follow.of(B)));
+        assertThat(Follow.of(A)).isNotEqualTo(Follow.NONE);
+    }
+
+    @Test
+    public void max_depth() {
+        Follow follow = Follow.NONE;
+        for (int i = 0; i < Follow.MAX_DEPTH; i++) {
+            follow = Follow.of(A, follow);
+        }
+        assertThat(follow.depth()).isEqualTo(Follow.MAX_DEPTH);
+
+        Follow deepest = follow;
+        assertThrows(InvalidQueryException.class, () -> Follow.of(B, deepest));
+    }
+}
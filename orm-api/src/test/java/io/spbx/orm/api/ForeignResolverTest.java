@@ -0,0 +1,118 @@
+package io.spbx.orm.api;
+
+import com.carrotsearch.hppc.IntContainer;
+import com.carrotsearch.hppc.IntObjectHashMap;
+import com.carrotsearch.hppc.cursors.IntCursor;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@Tag("fast")
+public class ForeignResolverTest {
+    record Company(int id) {}
+    record User(int id, ForeignInt<Company> company) {}
+    record Post(int id, ForeignInt<User> author) {}
+
+    private final List<List<Integer>> companyCalls = new ArrayList<>();
+    private final List<List<Integer>> userCalls = new ArrayList<>();
+
+    private final TableInt<Company> companies = fakeTable(Map.of(1, new Company(1), 2, new Company(2)),
+                                                          companyCalls, (entities, depth) -> {});
+    private final TableInt<User> users = fakeTable(
+        Map.of(1, new User(1, ForeignInt.ofId(1)),
+               2, new User(2, ForeignInt.ofId(2)),
+               3, new User(3, ForeignInt.ofId(1))),
+        userCalls,
+        (entities, depth) -> ForeignResolver.resolveInt(entities, User::company, companies, depth)
+    );
+
+    @Test
+    public void resolveInt_one_batch_per_table() {
+        List<Post> posts = List.of(post(1, 1), post(2, 2), post(3, 1), post(4, 1), post(5, 2));
+        ForeignResolver.resolveInt(posts, Post::author, users, 1);
+
+        assertThat(userCalls).containsExactly(List.of(1, 2));
+        assertThat(companyCalls).isEmpty();
+        assertThat(posts.get(0).author().getEntity()).isSameInstanceAs(posts.get(2).author().getEntity());
+        assertThat(posts.get(1).author().getEntity()).isSameInstanceAs(posts.get(4).author().getEntity());
+        assertThat(posts.get(0).author().getEntity().id()).isEqualTo(1);
+        assertThat(posts.get(1).author().getEntity().id()).isEqualTo(2);
+        assertThat(posts.get(0).author().getEntity().company().hasEntity()).isFalse();
+    }
+
+    @Test
+    public void resolveInt_recursive() {
+        List<Post> posts = List.of(post(1, 1), post(2, 2), post(3, 3));
+        ForeignResolver.resolveInt(posts, Post::author, users, 2);
+
+        assertThat(userCalls).containsExactly(List.of(1, 2, 3));
+        assertThat(companyCalls).containsExactly(List.of(1, 2));
+        assertThat(posts.get(0).author().getEntity().company().getEntity()).isEqualTo(new Company(1));
+        assertThat(posts.get(1).author().getEntity().company().getEntity()).isEqualTo(new Company(2));
+        assertThat(posts.get(2).author().getEntity().company().getEntity()).isEqualTo(new Company(1));
+    }
+
+    @Test
+    public void resolveInt_skips_empty_and_resolved() {
+        User resolved = new User(7, ForeignInt.ofId(1));
+        List<Post> posts = List.of(new Post(1, ForeignInt.empty()), new Post(2, ForeignInt.ofEntity(7, resolved)));
+        ForeignResolver.resolveInt(posts, Post::author, users, 2);
+
+        assertThat(userCalls).isEmpty();
+        assertThat(posts.get(0).author().hasEntity()).isFalse();
+        assertThat(posts.get(1).author().getEntity()).isSameInstanceAs(resolved);
+    }
+
+    @Test
+    public void resolveInt_missing_entity() {
+        List<Post> posts = List.of(post(1, 1), post(2, 100));
+        ForeignResolver.resolveInt(posts, Post::author, users, 1);
+
+        assertThat(userCalls).containsExactly(List.of(1, 100));
+        assertThat(posts.get(0).author().hasEntity()).isTrue();
+        assertThat(posts.get(1).author().hasEntity()).isFalse();
+    }
+
+    private static @NotNull Post post(int id, int authorId) {
+        return new Post(id, ForeignInt.ofId(authorId));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> @NotNull TableInt<E> fakeTable(@NotNull Map<Integer, E> rows,
+                                                      @NotNull List<List<Integer>> calls,
+                                                      @NotNull BiConsumer<Collection<E>, Integer> resolver) {
+        return (TableInt<E>) Proxy.newProxyInstance(
+            TableInt.class.getClassLoader(),
+            new Class<?>[] { TableInt.class },
+            (proxy, method, args) -> switch (method.getName()) {
+                case "getBatchByPk" -> {
+                    ArrayList<Integer> keys = new ArrayList<>();
+                    IntObjectHashMap<E> result = new IntObjectHashMap<>();
+                    for (IntCursor cursor : (IntContainer) args[0]) {
+                        keys.add(cursor.value);
+                        if (rows.containsKey(cursor.value)) {
+                            result.put(cursor.value, rows.get(cursor.value));
+                        }
+                    }
+                    keys.sort(Integer::compare);
+                    calls.add(keys);
+                    yield result;
+                }
+                case "resolveForeign" -> {
+                    resolver.accept((Collection<E>) args[0], (Integer) args[1]);
+                    yield null;
+                }
+                default -> throw new UnsupportedOperationException(method.getName());
+            }
+        );
+    }
+}
@@ -0,0 +1,112 @@
+package io.spbx.orm.api;
+
+import com.mockrunner.mock.jdbc.MockConnection;
+import io.spbx.orm.api.pool.PooledConnector;
+import io.spbx.orm.api.query.Filter;
+import io.spbx.orm.api.query.InvalidQueryException;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spbx.orm.testing.MockingJdbc.mockConnection;
+import static io.spbx.orm.testing.MockingJdbc.mockResultSet;
+import static io.spbx.orm.testing.PersonTableData.PERSON_META;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("fast")
+public class PkRangeScanTest {
+    private static final int ROWS_PER_SPLIT = 100;
+
+    private final MockConnection rangeConnection = mockConnection();
+    private final PooledConnector pool = PooledConnector.builder(MockConnection::new)
+        .maxSize(64)
+        .acquireTimeout(Duration.ofSeconds(5))
+        .build();
+    private final Set<ResultSetIterator<?>> openIterators = Collections.synchronizedSet(new HashSet<>());
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    public void parallel_requires_pool() {
+        PkRangeScan<Integer> scan = PkRangeScan.of(fakeTable(1, 4096));
+        assertThrows(InvalidQueryException.class, () -> scan.stream(true));
+    }
+
+    @Test
+    public void sequential_without_pool() {
+        try (Stream<Integer> stream = PkRangeScan.of(fakeTable(1, 4096)).withMinSplitSize(256).stream(false)) {
+            assertThat(stream.count()).isEqualTo(ROWS_PER_SPLIT);
+        }
+        assertThat(openIterators).isEmpty();
+    }
+
+    @Test
+    public void parallel_reads_all_splits() {
+        TableInt<Integer> table = fakeTable(1, 4096);
+        try (Stream<Integer> stream = PkRangeScan.of(table).withMinSplitSize(256).withPool(pool).stream(true)) {
+            assertThat(stream.count()).isEqualTo(16 * ROWS_PER_SPLIT);
+        }
+        assertThat(openIterators).isEmpty();
+        assertThat(pool.stats().active()).isEqualTo(0);
+    }
+
+    @Test
+    public void parallel_early_termination_releases_leases() {
+        TableInt<Integer> table = fakeTable(1, 4096);
+        try (Stream<Integer> stream = PkRangeScan.of(table).withMinSplitSize(256).withPool(pool).stream(true)) {
+            assertThat(stream.anyMatch(value -> value >= 0)).isTrue();
+        }
+        assertThat(openIterators).isEmpty();
+        assertThat(pool.stats().active()).isEqualTo(0);
+    }
+
+    @Test
+    public void empty_table() {
+        try (Stream<Integer> stream = PkRangeScan.of(fakeTable(null, null)).withPool(pool).stream(true)) {
+            assertThat(stream.count()).isEqualTo(0);
+        }
+    }
+
+    // Each split reads `ROWS_PER_SPLIT` rows, regardless of the key range
+    @SuppressWarnings("unchecked")
+    private @NotNull TableInt<Integer> fakeTable(Integer min, Integer max) {
+        rangeConnection.getPreparedStatementResultSetHandler().prepareResultSet("SELECT MIN", mockResultSet(min, max));
+        return (TableInt<Integer>) Proxy.newProxyInstance(
+            TableInt.class.getClassLoader(),
+            new Class<?>[] { TableInt.class },
+            (proxy, method, args) -> switch (method.getName()) {
+                case "meta" -> PERSON_META;
+                case "readRunner" -> new QueryRunner(rangeConnection);
+                case "iterator" -> {
+                    assertThat(args[0]).isInstanceOf(Filter.class);
+                    List<Object[]> rows = IntStream.range(0, ROWS_PER_SPLIT).mapToObj(i -> new Object[] { i }).toList();
+                    ResultSetIterator<Integer> iterator = new ResultSetIterator<>(mockResultSet(rows), false,
+                                                                                   row -> row.getInt(1)) {
+                        @Override
+                        public void close() {
+                            openIterators.remove(this);
+                            super.close();
+                        }
+                    };
+                    openIterators.add(iterator);
+                    yield iterator;
+                }
+                default -> throw new UnsupportedOperationException(method.getName());
+            }
+        );
+    }
+}
@@ -3,8 +3,10 @@ package io.spbx.orm.api;
 import com.carrotsearch.hppc.IntArrayList;
 import com.carrotsearch.hppc.LongArrayList;
 import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
 import com.mockrunner.jdbc.PreparedStatementResultSetHandler;
 import com.mockrunner.mock.jdbc.MockConnection;
+import com.mockrunner.mock.jdbc.MockDatabaseMetaData;
 import com.mockrunner.mock.jdbc.MockPreparedStatement;
 import com.mockrunner.mock.jdbc.MockResultSet;
 import io.spbx.orm.api.query.Args;
@@ -69,6 +71,21 @@ public class QueryRunnerTest {
         });
     }
 
+    /** {@link QueryRunner#engine()} **/
+
+    @Test
+    public void engine_resolved_once_per_runner() throws SQLException {
+        MockDatabaseMetaData metaData = new MockDatabaseMetaData();
+        metaData.setDatabaseProductName("PostgreSQL");
+        mockedConnection.setMetaData(metaData);
+        assertThat(runner.engine()).isEqualTo(Engine.PostgreSQL);
+
+        metaData.setDatabaseProductName("MySQL");
+        assertThat(runner.engine()).isEqualTo(Engine.PostgreSQL);
+        assertThat(runner.withListener(event -> {}).engine()).isEqualTo(Engine.PostgreSQL);
+        assertThat(new QueryRunner(mockedConnection).engine()).isEqualTo(Engine.MySQL);
+    }
+
     /** {@link QueryRunner#runAndGet(SelectQuery)} **/
 
     @Test
@@ -322,6 +339,28 @@ public class QueryRunnerTest {
         assertThat(mockedConnection).executedQueries().containsExactly("select it");
     }
 
+    /** {@link QueryRunner#iterate(SelectQuery, ReadOptions, ResultSetIterator.Converter)} **/
+
+    @Test
+    public void iterate_streaming_in_transaction() throws SQLException {
+        MockDatabaseMetaData metaData = new MockDatabaseMetaData();
+        metaData.setDatabaseProductName("PostgreSQL");
+        mockedConnection.setMetaData(metaData);
+        mockedConnection.setAutoCommit(true);
+        resultSetHandler.prepareResultSet("select stream", mockResultSet("foo"));
+
+        try (ResultSetIterator<String> iterator = runner.iterate(HardcodedSelectQuery.of("select stream"),
+                                                                 ReadOptions.streaming(100),
+                                                                 set -> set.getString(1))) {
+            assertThat(mockedConnection.getAutoCommit()).isFalse();
+            assertThat(Lists.newArrayList(iterator)).containsExactly("foo");
+        }
+
+        assertThat(mockedConnection.getAutoCommit()).isTrue();
+        assertThat(resultSetHandler.getPreparedStatements().getFirst().getFetchSize()).isEqualTo(100);
+        assertThat(mockedConnection).executedQueries().containsExactly("select stream");
+    }
+
     /** {@link QueryRunner#fetchAll(SelectQuery, ResultSetIterator.Converter)} **/
 
     @Test
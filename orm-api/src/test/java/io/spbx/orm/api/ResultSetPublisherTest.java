@@ -0,0 +1,106 @@
+package io.spbx.orm.api;
+
+import com.mockrunner.mock.jdbc.MockResultSet;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spbx.orm.testing.MockingJdbc.mockResultSet;
+import static io.spbx.util.testing.TestingBasics.arrayOf;
+
+@Tag("fast")
+public class ResultSetPublisherTest {
+    private final MockResultSet resultSet = mockResultSet(List.<Object[]>of(arrayOf(1), arrayOf(2), arrayOf(3)));
+    private final AtomicInteger converted = new AtomicInteger();
+    private final ResultSetIterator.Converter<Integer> converter = row -> {
+        converted.incrementAndGet();
+        return row.getInt(1);
+    };
+
+    @Test
+    public void publisher_honors_demand() throws SQLException {
+        ResultSetPublisher<Integer> publisher = ResultSetPublisher.of(() -> ResultSetIterator.of(resultSet, converter));
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        assertThat(converted.get()).isEqualTo(0);
+
+        subscriber.subscription.request(2);
+        assertThat(subscriber.items).containsExactly(1, 2);
+        assertThat(converted.get()).isEqualTo(2);
+        assertThat(subscriber.completed).isFalse();
+        assertThat(resultSet.isClosed()).isFalse();
+
+        subscriber.subscription.request(2);
+        assertThat(subscriber.items).containsExactly(1, 2, 3);
+        assertThat(subscriber.completed).isTrue();
+        assertThat(resultSet.isClosed()).isTrue();
+    }
+
+    @Test
+    public void publisher_cancel_closes_result_set() throws SQLException {
+        ResultSetPublisher<Integer> publisher = ResultSetPublisher.of(() -> ResultSetIterator.of(resultSet, converter));
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(1);
+        subscriber.subscription.cancel();
+        assertThat(subscriber.items).containsExactly(1);
+        assertThat(subscriber.completed).isFalse();
+        assertThat(resultSet.isClosed()).isTrue();
+    }
+
+    @Test
+    public void publisher_invalid_request() {
+        ResultSetPublisher<Integer> publisher = ResultSetPublisher.of(() -> ResultSetIterator.of(resultSet, converter));
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(0);
+        assertThat(subscriber.error).isInstanceOf(IllegalArgumentException.class);
+        assertThat(converted.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void stream_is_lazy_and_closes() throws SQLException {
+        try (Stream<Integer> stream = ResultSetIterator.of(resultSet, converter).stream()) {
+            assertThat(stream.limit(1).toList()).containsExactly(1);
+            assertThat(converted.get()).isEqualTo(1);
+        }
+        assertThat(resultSet.isClosed()).isTrue();
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<Integer> {
+        private final List<Integer> items = new ArrayList<>();
+        private Flow.Subscription subscription;
+        private boolean completed;
+        private Throwable error;
+
+        @Override
+        public void onSubscribe(@NotNull Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(@NotNull Integer item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(@NotNull Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
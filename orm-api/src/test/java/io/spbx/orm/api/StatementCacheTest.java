@@ -0,0 +1,117 @@
+package io.spbx.orm.api;
+
+import com.mockrunner.jdbc.PreparedStatementResultSetHandler;
+import com.mockrunner.mock.jdbc.MockConnection;
+import io.spbx.orm.api.query.HardcodedSelectQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spbx.orm.testing.MockingJdbc.mockConnection;
+import static io.spbx.orm.testing.MockingJdbc.mockResultSet;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("fast")
+public class StatementCacheTest {
+    private MockConnection mockedConnection;
+    private PreparedStatementResultSetHandler resultSetHandler;
+
+    @BeforeEach
+    void setUp() {
+        mockedConnection = mockConnection();
+        resultSetHandler = mockedConnection.getPreparedStatementResultSetHandler();
+    }
+
+    @Test
+    public void prepare_reuses_released_statement() throws SQLException {
+        StatementCache cache = new StatementCache(mockedConnection, 2);
+
+        PreparedStatement first = cache.prepare("select 1");
+        first.close();
+        PreparedStatement second = cache.prepare("select 1");
+        second.close();
+
+        assertThat(resultSetHandler.getPreparedStatements()).hasSize(1);
+        assertThat(resultSetHandler.getPreparedStatements().getFirst().isClosed()).isFalse();
+        assertThat(first.isClosed()).isTrue();
+        assertThat(cache.stats()).isEqualTo(new StatementCache.Stats(1, 1, 0, 1));
+    }
+
+    @Test
+    public void prepare_concurrent_use_creates_new_statement() throws SQLException {
+        StatementCache cache = new StatementCache(mockedConnection, 2);
+
+        try (PreparedStatement first = cache.prepare("select 1");
+             PreparedStatement second = cache.prepare("select 1")) {
+            assertThat(first).isNotSameInstanceAs(second);
+        }
+
+        assertThat(resultSetHandler.getPreparedStatements()).hasSize(2);
+        assertThat(cache.stats()).isEqualTo(new StatementCache.Stats(0, 2, 0, 1));
+    }
+
+    @Test
+    public void prepare_evicts_least_recently_used() throws SQLException {
+        StatementCache cache = new StatementCache(mockedConnection, 2);
+
+        cache.prepare("select 1").close();
+        cache.prepare("select 2").close();
+        cache.prepare("select 1").close();
+        cache.prepare("select 3").close();
+
+        assertThat(resultSetHandler.getPreparedStatements().get(0).isClosed()).isFalse();  // select 1
+        assertThat(resultSetHandler.getPreparedStatements().get(1).isClosed()).isTrue();   // select 2
+        assertThat(resultSetHandler.getPreparedStatements().get(2).isClosed()).isFalse();  // select 3
+        assertThat(cache.stats()).isEqualTo(new StatementCache.Stats(1, 3, 1, 2));
+
+        cache.close();
+        assertThat(resultSetHandler.getPreparedStatements().get(0).isClosed()).isTrue();
+        assertThat(resultSetHandler.getPreparedStatements().get(2).isClosed()).isTrue();
+    }
+
+    @Test
+    public void released_statement_cannot_be_used() throws SQLException {
+        StatementCache cache = new StatementCache(mockedConnection, 2);
+
+        PreparedStatement statement = cache.prepare("select 1");
+        statement.close();
+
+        assertThrows(SQLException.class, statement::executeQuery);
+    }
+
+    @Test
+    public void runner_with_cache_reuses_statements() throws SQLException {
+        StatementCache cache = new StatementCache(mockedConnection, 4);
+        QueryRunner runner = new QueryRunner(mockedConnection, cache);
+        resultSetHandler.prepareResultSet("select str", mockResultSet("foo"));
+
+        assertThat(runner.runAndGetString(HardcodedSelectQuery.of("select str"))).isEqualTo("foo");
+        assertThat(runner.runAndGetString(HardcodedSelectQuery.of("select str"))).isEqualTo("foo");
+        assertThat(runner.fetchAll(HardcodedSelectQuery.of("select str"), result -> result.getString(1)))
+            .containsExactly("foo");
+
+        assertThat(resultSetHandler.getPreparedStatements()).hasSize(1);
+        assertThat(cache.stats()).isEqualTo(new StatementCache.Stats(2, 1, 0, 1));
+        cache.close();
+    }
+
+    @Test
+    public void per_connection_caches_owned_by_owner() throws SQLException {
+        StatementCache.PerConnection small = new StatementCache.PerConnection(1);
+        StatementCache.PerConnection large = new StatementCache.PerConnection(4);
+
+        assertThat(small.attachedTo(mockedConnection)).isSameInstanceAs(small.attachedTo(mockedConnection));
+        assertThat(small.attachedTo(mockedConnection).capacity()).isEqualTo(1);
+        assertThat(large.attachedTo(mockedConnection).capacity()).isEqualTo(4);
+
+        MockConnection closed = mockConnection();
+        small.attachedTo(closed);
+        closed.close();
+        small.attachedTo(mockConnection());
+        assertThat(small.size()).isEqualTo(2);
+    }
+}
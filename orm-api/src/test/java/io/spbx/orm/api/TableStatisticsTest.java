@@ -0,0 +1,55 @@
+package io.spbx.orm.api;
+
+import io.spbx.orm.api.query.Unit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spbx.orm.testing.AssertSql.assertThat;
+
+@Tag("fast")
+public class TableStatisticsTest {
+    @Test
+    public void estimate_query_supported_engines() {
+        assertThat((Unit) TableStatistics.estimateQuery(Engine.PostgreSQL, "users"))
+            .matches("SELECT reltuples FROM pg_class WHERE oid = to_regclass(?)")
+            .containsArgsExactly("users");
+        assertThat((Unit) TableStatistics.estimateQuery(Engine.MySQL, "users"))
+            .matches("SELECT TABLE_ROWS FROM information_schema.TABLES " +
+                     "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?")
+            .containsArgsExactly("users");
+        assertThat((Unit) TableStatistics.estimateQuery(Engine.SQLite, "users"))
+            .matches("SELECT stat FROM sqlite_stat1 WHERE tbl = ? LIMIT 1")
+            .containsArgsExactly("users");
+    }
+
+    @Test
+    public void estimate_query_unsupported_engines() {
+        assertThat(TableStatistics.estimateQuery(Engine.Oracle, "users")).isNull();
+        assertThat(TableStatistics.estimateQuery(Engine.Unknown, "users")).isNull();
+    }
+
+    @Test
+    public void parse_estimate_numbers() {
+        assertThat(TableStatistics.parseEstimate(123L)).isEqualTo(123L);
+        assertThat(TableStatistics.parseEstimate(0)).isEqualTo(0L);
+        assertThat(TableStatistics.parseEstimate(99.6f)).isEqualTo(100L);
+        assertThat(TableStatistics.parseEstimate(BigInteger.TEN)).isEqualTo(10L);
+    }
+
+    @Test
+    public void parse_estimate_sqlite_stat() {
+        assertThat(TableStatistics.parseEstimate("5000 25 1")).isEqualTo(5000L);
+        assertThat(TableStatistics.parseEstimate("42")).isEqualTo(42L);
+    }
+
+    @Test
+    public void parse_estimate_no_statistics() {
+        assertThat(TableStatistics.parseEstimate(null)).isNull();
+        assertThat(TableStatistics.parseEstimate(-1.0f)).isNull();
+        assertThat(TableStatistics.parseEstimate("")).isNull();
+        assertThat(TableStatistics.parseEstimate("foo")).isNull();
+    }
+}
@@ -0,0 +1,68 @@
+package io.spbx.orm.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("fast")
+public class ValueCodecTest {
+    @Test
+    public void roundtrip_all_types() throws IOException {
+        Timestamp timestamp = new Timestamp(1_700_000_000_123L);
+        timestamp.setNanos(123_456_789);
+        Object[] values = {
+            null, true, (byte) 1, (short) 2, 3, 4L, 5.5f, 6.5, "foo", new byte[] { 7, 8 },
+            timestamp, new Time(12345), new Date(1_700_000_000_000L), "", "\u043f\u0440\u0438\u0432\u0435\u0442 \uD83D\uDE00",
+        };
+        DataInputStream input = input(write(values));
+        for (Object value : values) {
+            assertThat(ValueCodec.readValue(input)).isEqualTo(value);
+        }
+        assertThat(input.available()).isEqualTo(0);
+    }
+
+    @Test
+    public void unsupported_type_not_written() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            assertThat(ValueCodec.writeValue(output, new Object())).isFalse();
+            assertThat(ValueCodec.writeValue(output, java.math.BigDecimal.ONE)).isFalse();
+        }
+        assertThat(bytes.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void corrupted_length_rejected() throws IOException {
+        byte[] bytes = write("foo");
+        bytes[1] = 0x7f;  // the length prefix
+        assertThrows(IOException.class, () -> ValueCodec.readValue(input(bytes)));
+        assertThrows(IOException.class, () -> ValueCodec.readValue(input(new byte[] { 42 })));
+    }
+
+    private static byte @NotNull[] write(@Nullable Object @NotNull ... values) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            for (Object value : values) {
+                assertThat(ValueCodec.writeValue(output, value)).isTrue();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static @NotNull DataInputStream input(byte @NotNull[] bytes) {
+        return new DataInputStream(new ByteArrayInputStream(bytes));
+    }
+}
@@ -0,0 +1,77 @@
+package io.spbx.orm.api.async;
+
+import com.mockrunner.jdbc.PreparedStatementResultSetHandler;
+import com.mockrunner.mock.jdbc.MockConnection;
+import io.spbx.orm.api.Connector;
+import io.spbx.orm.api.query.HardcodedSelectQuery;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spbx.orm.testing.MockingJdbc.mockConnection;
+import static io.spbx.orm.testing.MockingJdbc.mockResultSet;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("fast")
+public class AsyncExecutorTest {
+    private final MockConnection mockedConnection = mockConnection();
+    private final Connector connector = () -> mockedConnection;
+
+    @Test
+    public void supply_respects_max_concurrency() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        try (AsyncExecutor executor = AsyncExecutor.of(connector, 3)) {
+            List<CompletableFuture<Integer>> futures = IntStream.range(0, 100).mapToObj(i -> executor.supply(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                LockSupport.parkNanos(1_000_000);
+                running.decrementAndGet();
+                return i;
+            })).toList();
+
+            assertThat(futures.stream().mapToInt(CompletableFuture::join).sum()).isEqualTo(4950);
+        }
+
+        assertThat(maxRunning.get()).isAtMost(3);
+    }
+
+    @Test
+    public void supply_with_offload_executor() {
+        try (AsyncExecutor executor = AsyncExecutor.of(connector, 2, Executors.newFixedThreadPool(2))) {
+            CompletableFuture<Boolean> future = executor.supply(() -> Thread.currentThread().isVirtual());
+            assertThat(future.join()).isFalse();
+        }
+    }
+
+    @Test
+    public void supply_fails_with_sql_exception() {
+        try (AsyncExecutor executor = AsyncExecutor.of(connector, 2)) {
+            CompletableFuture<Object> future = executor.supply(() -> {
+                throw new SQLException("Fail");
+            });
+            ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+            assertThat(exception).hasCauseThat().isInstanceOf(SQLException.class);
+        }
+    }
+
+    @Test
+    public void runner_runs_query() {
+        PreparedStatementResultSetHandler resultSetHandler = mockedConnection.getPreparedStatementResultSetHandler();
+        resultSetHandler.prepareResultSet("select str", mockResultSet("foo"));
+
+        try (AsyncExecutor executor = AsyncExecutor.of(connector, 2)) {
+            CompletableFuture<String> future = executor.runner().runAndGetString(HardcodedSelectQuery.of("select str"));
+            assertThat(future.join()).isEqualTo("foo");
+        }
+    }
+}
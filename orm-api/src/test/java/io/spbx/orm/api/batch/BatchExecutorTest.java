@@ -0,0 +1,136 @@
+package io.spbx.orm.api.batch;
+
+import com.mockrunner.jdbc.PreparedStatementResultSetHandler;
+import com.mockrunner.mock.jdbc.MockConnection;
+import com.mockrunner.mock.jdbc.MockDatabaseMetaData;
+import com.mockrunner.mock.jdbc.MockPreparedStatement;
+import io.spbx.orm.api.QueryRunner;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spbx.orm.testing.MockingJdbc.assertThat;
+import static io.spbx.orm.testing.MockingJdbc.mockConnection;
+
+@Tag("fast")
+public class BatchExecutorTest {
+    private final MockConnection mockedConnection = mockConnection();
+    private final PreparedStatementResultSetHandler resultSetHandler = mockedConnection.getPreparedStatementResultSetHandler();
+    private final QueryRunner runner = new QueryRunner(mockedConnection);
+
+    @Test
+    public void runUpdateBatch_chunks_by_rows() throws SQLException {
+        Stream<Object[]> rows = IntStream.range(0, 5).mapToObj(i -> new Object[] { i, "foo" });
+        BatchResult result = runner.runUpdateBatch("insert", rows, BatchOptions.ofRows(2));
+        assertThat(result.rows()).isEqualTo(5);
+        assertThat(result.chunks()).isEqualTo(3);
+        assertThat(mockedConnection.getNumberCommits()).isEqualTo(0);
+    }
+
+    @Test
+    public void runUpdateBatch_chunks_by_bytes() throws SQLException {
+        Stream<Object[]> rows = IntStream.range(0, 5).mapToObj(i -> new Object[] { "x".repeat(100) });
+        BatchResult result = runner.runUpdateBatch("insert", rows, BatchOptions.DEFAULT.withMaxBytes(200));
+        assertThat(result.rows()).isEqualTo(5);
+        assertThat(result.chunks()).isEqualTo(3);
+    }
+
+    @Test
+    public void runUpdateBatch_commit_per_chunk() throws SQLException {
+        mockedConnection.setAutoCommit(true);
+        Stream<Object[]> rows = IntStream.range(0, 5).mapToObj(i -> new Object[] { i });
+        BatchResult result = runner.runUpdateBatch("insert", rows, BatchOptions.ofRows(2).withCommitPerChunk(true));
+        assertThat(result.chunks()).isEqualTo(3);
+        assertThat(mockedConnection.getNumberCommits()).isEqualTo(3);
+        assertThat(mockedConnection.getAutoCommit()).isTrue();
+    }
+
+    @Test
+    public void runUpdateBatch_commit_per_chunk_within_caller_transaction() throws SQLException {
+        mockedConnection.setAutoCommit(false);
+        Stream<Object[]> rows = IntStream.range(0, 5).mapToObj(i -> new Object[] { i });
+        BatchResult result = runner.runUpdateBatch("insert", rows, BatchOptions.ofRows(2).withCommitPerChunk(true));
+        assertThat(result.chunks()).isEqualTo(3);
+        assertThat(mockedConnection.getNumberCommits()).isEqualTo(0);
+        assertThat(mockedConnection.getAutoCommit()).isFalse();
+    }
+
+    @Test
+    public void runInsertBatch_multi_row() throws SQLException {
+        MockDatabaseMetaData metaData = new MockDatabaseMetaData();
+        metaData.setDatabaseProductName("SQLite");
+        mockedConnection.setMetaData(metaData);
+
+        MultiRowInsert insert = MultiRowInsert.of("INSERT INTO user (id, name)\nVALUES\n", 2);
+        Stream<Object[]> rows = IntStream.range(0, 22).mapToObj(i -> new Object[] { i, "foo" });
+        BatchResult result = runner.runInsertBatch(insert, rows, BatchOptions.DEFAULT.withRowsPerStatement(20));
+        assertThat(result.rows()).isEqualTo(22);
+        assertThat(result.chunks()).isEqualTo(1);
+
+        List<MockPreparedStatement> statements = resultSetHandler.getPreparedStatements();
+        assertThat(statements.stream().map(statement -> countRows(statement.getSQL()))).containsExactly(16, 4, 1);
+        assertThat(statements.stream().allMatch(MockPreparedStatement::isClosed)).isTrue();
+    }
+
+    @Test
+    public void runInsertBatch_multi_row_source_order() throws SQLException {
+        MockDatabaseMetaData metaData = new MockDatabaseMetaData();
+        metaData.setDatabaseProductName("SQLite");
+        mockedConnection.setMetaData(metaData);
+
+        MultiRowInsert insert = MultiRowInsert.of("INSERT INTO user (id, name)\nVALUES\n", 2);
+        Stream<Object[]> rows = IntStream.range(0, 22).mapToObj(i -> new Object[] { i, "foo" });
+        runner.runInsertBatch(insert, rows, BatchOptions.DEFAULT.withRowsPerStatement(20));
+
+        List<String> executed = resultSetHandler.getExecutedStatements();
+        assertThat(executed.stream().map(BatchExecutorTest::countRows).distinct()).containsExactly(16, 4, 1).inOrder();
+
+        List<MockPreparedStatement> statements = resultSetHandler.getPreparedStatements();
+        assertThat(statements.get(1)).withParamsBatchAt(0).equalExactly(16, "foo", 17, "foo", 18, "foo", 19, "foo");
+        assertThat(statements.get(2)).withParamsBatchAt(0).equalExactly(20, "foo");
+        assertThat(statements.get(2)).withParamsBatchAt(1).equalExactly(21, "foo");
+    }
+
+    @Test
+    public void runInsertBatch_single_row() throws SQLException {
+        MultiRowInsert insert = MultiRowInsert.of("INSERT INTO user (id, name)\nVALUES\n", 2);
+        Stream<Object[]> rows = IntStream.range(0, 3).mapToObj(i -> new Object[] { i, "foo" });
+        BatchResult result = runner.runInsertBatch(insert, rows, BatchOptions.DEFAULT);
+        assertThat(result.rows()).isEqualTo(3);
+
+        List<MockPreparedStatement> statements = resultSetHandler.getPreparedStatements();
+        assertThat(statements.stream().map(MockPreparedStatement::getSQL)).containsExactly(insert.sql(0));
+    }
+
+    @Test
+    public void runUpdateBatch_empty() throws SQLException {
+        BatchResult result = runner.runUpdateBatch("insert", Stream.empty(), BatchOptions.DEFAULT);
+        assertThat(result).isEqualTo(BatchResult.EMPTY);
+    }
+
+    @Test
+    public void adaptChunkSize_simple() {
+        assertThat(BatchExecutor.adaptChunkSize(100, 100, 1_000, 1_000, 1000)).isEqualTo(100);
+        assertThat(BatchExecutor.adaptChunkSize(100, 100, 1_000, 1_500, 1000)).isEqualTo(150);
+        assertThat(BatchExecutor.adaptChunkSize(100, 100, 1_000, 10_000, 1000)).isEqualTo(200);
+        assertThat(BatchExecutor.adaptChunkSize(100, 100, 1_000, 10_000, 120)).isEqualTo(120);
+        assertThat(BatchExecutor.adaptChunkSize(100, 100, 1_000, 100, 1000)).isEqualTo(50);
+        assertThat(BatchExecutor.adaptChunkSize(1, 1, 1_000, 100, 1000)).isEqualTo(1);
+    }
+
+    @Test
+    public void estimateBytes_simple() {
+        assertThat(BatchExecutor.estimateBytes(new Object[0])).isEqualTo(0);
+        assertThat(BatchExecutor.estimateBytes(new Object[] { null, 1, "foo", new byte[10] })).isEqualTo(1 + 8 + 7 + 14);
+    }
+
+    private static int countRows(@NotNull String sql) {
+        return sql.split("\\(\\?", -1).length - 1;
+    }
+}
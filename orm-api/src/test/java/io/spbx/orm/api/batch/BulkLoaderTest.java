@@ -0,0 +1,116 @@
+package io.spbx.orm.api.batch;
+
+import com.mockrunner.mock.jdbc.MockDatabaseMetaData;
+import io.spbx.orm.api.QueryRunner;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("fast")
+public class BulkLoaderTest {
+    private static final List<String> COLUMNS = List.of("id", "name", "score", "active");
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                CREATE TABLE person (id INT PRIMARY KEY, name VARCHAR, score DOUBLE, active BOOLEAN, photo VARBINARY)
+                """);
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    public void runBulkLoad_h2_csvread() throws SQLException {
+        List<Object[]> rows = List.of(
+            new Object[] { 1, "foo", 1.5, true },
+            new Object[] { 2, "with \"quotes\", commas\nand lines", null, false },
+            new Object[] { 3, "", 0.0, null },
+            new Object[] { 4, null, -2.0, true }
+        );
+        long loaded = new QueryRunner(connection).runBulkLoad("person", COLUMNS, rows.iterator(), BatchOptions.DEFAULT);
+        assertThat(loaded).isEqualTo(4);
+        assertThat(selectAll()).containsExactlyElementsIn(rows.stream().map(Arrays::asList).toList()).inOrder();
+    }
+
+    @Test
+    public void runBulkLoad_h2_binary_not_supported() {
+        List<Object[]> rows = List.<Object[]>of(new Object[] { 1, new byte[] { 1, (byte) 0xff } });
+        assertThrows(SQLFeatureNotSupportedException.class,
+                     () -> new QueryRunner(connection).runBulkLoad("person", List.of("id", "photo"), rows.iterator(),
+                                                                   BatchOptions.DEFAULT));
+    }
+
+    @Test
+    public void runBulkLoad_fallback_chunked_batch() throws SQLException {
+        List<Object[]> rows = IntStream.range(0, 25)
+            .mapToObj(i -> new Object[] { i, "name-" + i, i / 2.0, i % 2 == 0 })
+            .toList();
+        BatchOptions options = BatchOptions.ofRows(10).withRowsPerStatement(4);
+        QueryRunner runner = new QueryRunner(unknownEngine(connection));
+        long loaded = runner.runBulkLoad("person", COLUMNS, rows.iterator(), options);
+        assertThat(loaded).isEqualTo(25);
+        assertThat(selectAll()).containsExactlyElementsIn(rows.stream().map(Arrays::asList).toList()).inOrder();
+    }
+
+    private @NotNull List<List<@Nullable Object>> selectAll() throws SQLException {
+        List<List<@Nullable Object>> result = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT id, name, score, active FROM person ORDER BY id")) {
+            while (resultSet.next()) {
+                Object[] row = new Object[COLUMNS.size()];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = resultSet.getObject(i + 1);
+                }
+                result.add(Arrays.asList(row));
+            }
+        }
+        return result;
+    }
+
+    // Reports the engine which has no bulk loader, so that the runner falls back to the multi-row inserts
+    private static @NotNull Connection unknownEngine(@NotNull Connection connection) {
+        MockDatabaseMetaData metaData = new MockDatabaseMetaData();
+        metaData.setDatabaseProductName("HSQL Database Engine");
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            (proxy, method, args) -> {
+                if (method.getName().equals("getMetaData")) {
+                    return metaData;
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        );
+    }
+}
@@ -0,0 +1,182 @@
+package io.spbx.orm.api.batch;
+
+import com.carrotsearch.hppc.IntContainer;
+import com.carrotsearch.hppc.IntObjectHashMap;
+import com.carrotsearch.hppc.cursors.IntCursor;
+import io.spbx.orm.api.Connector;
+import io.spbx.orm.api.DbAdmin;
+import io.spbx.orm.api.TableInt;
+import io.spbx.orm.api.cache.IdentityScope;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("fast")
+public class CoalescingTableIntTest {
+    private static final Duration LONG_WINDOW = Duration.ofSeconds(30);
+
+    private final List<List<Integer>> calls = Collections.synchronizedList(new ArrayList<>());
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private volatile Thread boundThread;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void single_lookup_after_window() {
+        CoalescingTableInt<String> table = new CoalescingTableInt<>(fakeTable(), CoalescingOptions.DEFAULT);
+        assertThat(table.getByPkOrNull(1)).isEqualTo("e1");
+        assertThat(table.getByPkOrNull(-1)).isNull();
+        assertThat(calls).containsExactly(List.of(1), List.of(-1));
+    }
+
+    @Test
+    public void max_batch_one() {
+        CoalescingTableInt<String> table = new CoalescingTableInt<>(fakeTable(), CoalescingOptions.of(LONG_WINDOW, 1));
+        assertThat(table.getByPkOrNull(1)).isEqualTo("e1");
+        assertThat(table.getByPkOrNull(2)).isEqualTo("e2");
+        assertThat(calls).containsExactly(List.of(1), List.of(2));
+    }
+
+    @Test
+    public void full_batch_sent_immediately() throws Exception {
+        CoalescingTableInt<String> table = new CoalescingTableInt<>(fakeTable(), CoalescingOptions.of(LONG_WINDOW, 3));
+        Future<String> first = executor.submit(() -> table.getByPkOrNull(1));
+        awaitUntil(() -> table.pendingSize() == 1);
+        Future<String> second = executor.submit(() -> table.getByPkOrNull(-2));
+        awaitUntil(() -> table.pendingSize() == 2);
+
+        assertThat(table.getByPkOrNull(3)).isEqualTo("e3");
+        assertThat(first.get()).isEqualTo("e1");
+        assertThat(second.get()).isNull();
+        assertThat(calls).containsExactly(List.of(-2, 1, 3));
+        assertThat(table.pendingSize()).isEqualTo(0);
+    }
+
+    @Test
+    public void same_key_single_flight() throws Exception {
+        CoalescingTableInt<String> table = new CoalescingTableInt<>(fakeTable(),
+                                                                    CoalescingOptions.of(Duration.ofMillis(500), 100));
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            int key = i % 2 + 1;
+            futures.add(executor.submit(() -> {
+                start.await();
+                return table.getByPkOrNull(key);
+            }));
+        }
+        start.countDown();
+
+        assertThat(futures.get(0).get()).isEqualTo("e1");
+        assertThat(futures.get(1).get()).isEqualTo("e2");
+        assertThat(futures.get(2).get()).isEqualTo("e1");
+        assertThat(futures.get(3).get()).isEqualTo("e2");
+        assertThat(calls).containsExactly(List.of(1, 2));
+    }
+
+    @Test
+    public void failure_propagates_to_batch() throws Exception {
+        CoalescingTableInt<String> table = new CoalescingTableInt<>(fakeTable(), CoalescingOptions.of(LONG_WINDOW, 2));
+        Future<String> failing = executor.submit(() -> table.getByPkOrNull(0));
+        awaitUntil(() -> table.pendingSize() == 1);
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> table.getByPkOrNull(1));
+        Exception cause = assertThrows(Exception.class, failing::get);
+        assertThat(cause).hasCauseThat().isSameInstanceAs(exception);
+        assertThat(calls).containsExactly(List.of(0, 1));
+        assertThat(table.pendingSize()).isEqualTo(0);
+    }
+
+    @Test
+    public void thread_bound_lookup_bypasses_coalescing() throws Exception {
+        CoalescingTableInt<String> table = new CoalescingTableInt<>(fakeTable(), CoalescingOptions.of(LONG_WINDOW, 2));
+        Future<String> first = executor.submit(() -> table.getByPkOrNull(1));
+        awaitUntil(() -> table.pendingSize() == 1);
+
+        boundThread = Thread.currentThread();
+        assertThat(table.getByPkOrNull(2)).isEqualTo("e2");
+        try (IdentityScope ignored = IdentityScope.open()) {
+            boundThread = null;
+            assertThat(table.getByPkOrNull(-3)).isNull();
+        }
+        assertThat(table.pendingSize()).isEqualTo(1);
+
+        assertThat(table.getByPkOrNull(4)).isEqualTo("e4");
+        assertThat(first.get()).isEqualTo("e1");
+        assertThat(calls).containsExactly(List.of(2), List.of(-3), List.of(1, 4));
+    }
+
+    @SuppressWarnings("unchecked")
+    private @NotNull TableInt<String> fakeTable() {
+        return (TableInt<String>) Proxy.newProxyInstance(
+            TableInt.class.getClassLoader(),
+            new Class<?>[] { TableInt.class },
+            (proxy, method, args) -> {
+                if (method.getName().equals("admin")) {
+                    return new DbAdmin(fakeConnector());
+                }
+                if (method.getName().equals("getByPkOrNull")) {
+                    int key = (int) args[0];
+                    calls.add(List.of(key));
+                    return key > 0 ? "e" + key : null;
+                }
+                if (!method.getName().equals("getBatchByPk")) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                ArrayList<Integer> keys = new ArrayList<>();
+                IntObjectHashMap<String> result = new IntObjectHashMap<>();
+                for (IntCursor cursor : (IntContainer) args[0]) {
+                    keys.add(cursor.value);
+                    if (cursor.value > 0) {
+                        result.put(cursor.value, "e" + cursor.value);
+                    }
+                }
+                keys.sort(Integer::compare);
+                calls.add(keys);
+                if (keys.contains(0)) {
+                    throw new IllegalStateException("Failed: " + keys);
+                }
+                return result;
+            }
+        );
+    }
+
+    private @NotNull Connector fakeConnector() {
+        return new Connector() {
+            @Override
+            public @NotNull Connection connection() {
+                throw new UnsupportedOperationException("connection");
+            }
+
+            @Override
+            public boolean isBoundToCurrentThread() {
+                return boundThread == Thread.currentThread();
+            }
+        };
+    }
+
+    private static void awaitUntil(@NotNull BooleanSupplier condition) throws InterruptedException {
+        while (!condition.getAsBoolean()) {
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package io.spbx.orm.api.batch;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLFeatureNotSupportedException;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("fast")
+public class CsvEncoderTest {
+    @Test
+    public void writeRow_postgres() throws Exception {
+        assertThat(encode(CsvEncoder.Dialect.POSTGRES, 1, null, "foo", true)).isEqualTo("1,,\"foo\",true\n");
+        assertThat(encode(CsvEncoder.Dialect.POSTGRES, "a\"b", "")).isEqualTo("\"a\"\"b\",\"\"\n");
+        assertThat(encode(CsvEncoder.Dialect.POSTGRES, new byte[] { 1, (byte) 0xff })).isEqualTo("\\x01ff\n");
+        assertThat(encode(CsvEncoder.Dialect.POSTGRES, new BigDecimal("1E+3"))).isEqualTo("1000\n");
+    }
+
+    @Test
+    public void writeRow_mysql() throws Exception {
+        assertThat(encode(CsvEncoder.Dialect.MYSQL, 1, null, "foo", true)).isEqualTo("1,\\N,\"foo\",1\n");
+        assertThat(encode(CsvEncoder.Dialect.MYSQL, "a\"b\\c\nd")).isEqualTo("\"a\\\"b\\\\c\\nd\"\n");
+        assertThat(encode(CsvEncoder.Dialect.MYSQL, 1, new byte[] { 'x', '"' })).isEqualTo("1,\"x\\\"\"\n");
+    }
+
+    @Test
+    public void writeRow_h2() throws Exception {
+        assertThat(encode(CsvEncoder.Dialect.H2, 1, null, "foo")).isEqualTo("1,,\"foo\"\n");
+        assertThat(encode(CsvEncoder.Dialect.H2, "a\"b", "")).isEqualTo("\"a\"\"b\",\"\"\n");
+        assertThrows(SQLFeatureNotSupportedException.class,
+                     () -> encode(CsvEncoder.Dialect.H2, 1, new byte[] { 1, (byte) 0xff }));
+    }
+
+    private static @NotNull String encode(@NotNull CsvEncoder.Dialect dialect,
+                                          @Nullable Object @NotNull ... row) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new CsvEncoder(dialect, output).writeRow(row);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,88 @@
+package io.spbx.orm.api.batch;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.LongArrayList;
+import io.spbx.orm.api.Engine;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@Tag("fast")
+public class InListChunksTest {
+    @Test
+    public void maxChunkSize_engine_limits() {
+        assertThat(InListChunks.maxChunkSize(Engine.PostgreSQL)).isEqualTo(1024);
+        assertThat(InListChunks.maxChunkSize(Engine.MsSqlServer)).isEqualTo(1024);
+        assertThat(InListChunks.maxChunkSize(Engine.Unknown)).isEqualTo(512);  // 999
+    }
+
+    @Test
+    public void maxChunkSize_oracle_in_list_limit() {
+        assertThat(Engine.Oracle.maxInListSize()).isEqualTo(1000);
+        assertThat(InListChunks.maxChunkSize(Engine.Oracle)).isEqualTo(512);
+        assertThat(InListChunks.maxChunkSize(Engine.Oracle, 2)).isEqualTo(512);
+
+        List<IntArrayList> chunks = InListChunks.split(IntArrayList.from(IntStream.range(0, 600).toArray()), Engine.Oracle);
+        assertThat(chunks).hasSize(2);
+        assertThat(chunks.get(0).size()).isEqualTo(512);
+        assertThat(chunks.get(1).size()).isEqualTo(128);
+    }
+
+    @Test
+    public void bucketSize_powers_of_two() {
+        assertThat(InListChunks.bucketSize(1)).isEqualTo(1);
+        assertThat(InListChunks.bucketSize(2)).isEqualTo(2);
+        assertThat(InListChunks.bucketSize(3)).isEqualTo(4);
+        assertThat(InListChunks.bucketSize(64)).isEqualTo(64);
+        assertThat(InListChunks.bucketSize(65)).isEqualTo(128);
+        assertThat(InListChunks.bucketSize(1024)).isEqualTo(1024);
+    }
+
+    @Test
+    public void placeholders_simple() {
+        assertThat(InListChunks.placeholders(1)).isEqualTo("?");
+        assertThat(InListChunks.placeholders(4)).isEqualTo("?,?,?,?");
+        assertThat(InListChunks.placeholders(4)).isSameInstanceAs(InListChunks.placeholders(4));
+    }
+
+    @Test
+    public void split_collection_padded() {
+        List<List<String>> chunks = InListChunks.split(List.of("a", "b", "c"), Engine.PostgreSQL);
+        assertThat(chunks).containsExactly(List.of("a", "b", "c", "c"));
+    }
+
+    @Test
+    public void split_ints_padded() {
+        List<IntArrayList> chunks = InListChunks.split(IntArrayList.from(1, 2, 3, 4, 5), Engine.PostgreSQL);
+        assertThat(chunks).containsExactly(IntArrayList.from(1, 2, 3, 4, 5, 5, 5, 5));
+    }
+
+    @Test
+    public void split_longs_single_key() {
+        List<LongArrayList> chunks = InListChunks.split(LongArrayList.from(7), Engine.PostgreSQL);
+        assertThat(chunks).containsExactly(LongArrayList.from(7));
+    }
+
+    @Test
+    public void split_ints_many_chunks() {
+        IntArrayList keys = IntArrayList.from(IntStream.range(0, 1100).toArray());
+        List<IntArrayList> chunks = InListChunks.split(keys, Engine.PostgreSQL);
+        assertThat(chunks).hasSize(2);
+        assertThat(chunks.get(0).size()).isEqualTo(1024);
+        assertThat(chunks.get(0).get(1023)).isEqualTo(1023);
+        assertThat(chunks.get(1).size()).isEqualTo(128);
+        assertThat(chunks.get(1).get(0)).isEqualTo(1024);
+        assertThat(chunks.get(1).get(75)).isEqualTo(1099);
+        assertThat(chunks.get(1).get(127)).isEqualTo(1099);
+    }
+
+    @Test
+    public void split_empty() {
+        assertThat(InListChunks.split(List.of(), Engine.PostgreSQL)).isEmpty();
+        assertThat(InListChunks.split(new IntArrayList(), Engine.PostgreSQL)).isEmpty();
+    }
+}
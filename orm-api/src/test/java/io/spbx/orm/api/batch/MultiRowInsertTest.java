@@ -0,0 +1,36 @@
+package io.spbx.orm.api.batch;
+
+import io.spbx.orm.api.Engine;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@Tag("fast")
+public class MultiRowInsertTest {
+    private static final MultiRowInsert INSERT = MultiRowInsert.of("INSERT INTO user (id, name)\nVALUES\n", 2);
+
+    @Test
+    public void sql_simple() {
+        assertThat(INSERT.sql(0)).isEqualTo("INSERT INTO user (id, name)\nVALUES\n(?, ?)");
+        assertThat(INSERT.sql(1)).isEqualTo("INSERT INTO user (id, name)\nVALUES\n(?, ?), (?, ?), (?, ?), (?, ?)");
+        assertThat(INSERT.sql(1)).isSameInstanceAs(INSERT.sql(1));
+    }
+
+    @Test
+    public void maxBlockIndex_max_rows() {
+        assertThat(INSERT.maxBlockIndex(Engine.PostgreSQL, 1)).isEqualTo(0);
+        assertThat(INSERT.maxBlockIndex(Engine.PostgreSQL, 3)).isEqualTo(0);
+        assertThat(INSERT.maxBlockIndex(Engine.PostgreSQL, 4)).isEqualTo(1);
+        assertThat(INSERT.maxBlockIndex(Engine.PostgreSQL, 100)).isEqualTo(3);
+        assertThat(INSERT.maxBlockIndex(Engine.PostgreSQL, 100_000)).isEqualTo(5);
+    }
+
+    @Test
+    public void maxBlockIndex_engine_limits() {
+        MultiRowInsert wide = MultiRowInsert.of("INSERT INTO wide (...)\nVALUES\n", 10);
+        assertThat(wide.maxBlockIndex(Engine.MsSqlServer, 100_000)).isEqualTo(3);  // 256 * 10 > 2098
+        assertThat(wide.maxBlockIndex(Engine.SQLite, 100_000)).isEqualTo(5);
+        assertThat(wide.maxBlockIndex(Engine.Unknown, 100_000)).isEqualTo(3);      // 64 * 10 <= 999
+    }
+}
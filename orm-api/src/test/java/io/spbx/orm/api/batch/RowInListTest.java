@@ -0,0 +1,62 @@
+package io.spbx.orm.api.batch;
+
+import io.spbx.orm.api.Engine;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@Tag("fast")
+public class RowInListTest {
+    private static final RowInList SINGLE = RowInList.of("id");
+    private static final RowInList COMPOSITE = RowInList.of("a", "b");
+
+    @Test
+    public void predicate_single_column() {
+        assertThat(SINGLE.columns()).isEqualTo(1);
+        assertThat(SINGLE.predicate(1, Engine.PostgreSQL)).isEqualTo("id IN (?)");
+        assertThat(SINGLE.predicate(4, Engine.SQLite)).isEqualTo("id IN (?,?,?,?)");
+    }
+
+    @Test
+    public void predicate_row_values() {
+        assertThat(COMPOSITE.columns()).isEqualTo(2);
+        assertThat(COMPOSITE.predicate(1, Engine.PostgreSQL)).isEqualTo("(a, b) IN ((?,?))");
+        assertThat(COMPOSITE.predicate(2, Engine.MySQL)).isEqualTo("(a, b) IN ((?,?),(?,?))");
+        assertThat(COMPOSITE.predicate(2, Engine.MySQL)).isSameInstanceAs(COMPOSITE.predicate(2, Engine.H2));
+    }
+
+    @Test
+    public void predicate_expanded() {
+        assertThat(COMPOSITE.predicate(1, Engine.SQLite)).isEqualTo("(a = ? AND b = ?)");
+        assertThat(COMPOSITE.predicate(2, Engine.MsSqlServer)).isEqualTo("(a = ? AND b = ?) OR (a = ? AND b = ?)");
+    }
+
+    @Test
+    public void predicate_expanded_max_chunk_size() {
+        int maxChunkSize = COMPOSITE.maxChunkSize(Engine.SQLite);
+        assertThat(maxChunkSize).isEqualTo(RowInList.MAX_EXPANDED_ROWS);
+        String predicate = COMPOSITE.predicate(maxChunkSize, Engine.SQLite);
+        assertThat(predicate.split(" OR ")).hasLength(maxChunkSize);
+        assertThat(predicate.split("\\?")).hasLength(2 * maxChunkSize);
+
+        List<List<Integer>> chunks = InListChunks.split(IntStream.range(0, 600).boxed().toList(), maxChunkSize);
+        assertThat(chunks.stream().map(List::size)).containsExactly(256, 256, 128).inOrder();
+    }
+
+    @Test
+    public void max_chunk_size_not_limited_for_row_values() {
+        assertThat(COMPOSITE.maxChunkSize(Engine.PostgreSQL)).isEqualTo(InListChunks.MAX_CHUNK_SIZE);
+        assertThat(SINGLE.maxChunkSize(Engine.SQLite)).isEqualTo(InListChunks.MAX_CHUNK_SIZE);
+    }
+
+    @Test
+    public void chunks_fit_engine_params() {
+        assertThat(InListChunks.maxChunkSize(Engine.MsSqlServer, 2)).isEqualTo(1024);  // 2098 / 2
+        assertThat(InListChunks.maxChunkSize(Engine.MsSqlServer, 3)).isEqualTo(512);   // 2098 / 3
+        assertThat(InListChunks.maxChunkSize(Engine.Unknown, 4)).isEqualTo(128);       // 999 / 4
+    }
+}
@@ -0,0 +1,184 @@
+package io.spbx.orm.api.cache;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.IntContainer;
+import com.carrotsearch.hppc.IntObjectHashMap;
+import com.carrotsearch.hppc.IntObjectMap;
+import com.carrotsearch.hppc.cursors.IntCursor;
+import io.spbx.orm.api.ReadFollow;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@Tag("fast")
+public class IdentityScopeTest {
+    private final List<Object> loaded = new ArrayList<>();
+
+    @Test
+    public void no_scope() {
+        assertThat(IdentityScope.current()).isNull();
+        IdentityScope.onWrite("user", 1);
+        IdentityScope.onWrite("user");
+    }
+
+    @Test
+    public void current_nested() {
+        try (IdentityScope outer = IdentityScope.open()) {
+            assertThat(IdentityScope.current()).isSameInstanceAs(outer);
+            try (IdentityScope inner = IdentityScope.open()) {
+                assertThat(IdentityScope.current()).isSameInstanceAs(inner);
+            }
+            assertThat(IdentityScope.current()).isSameInstanceAs(outer);
+        }
+        assertThat(IdentityScope.current()).isNull();
+    }
+
+    @Test
+    public void getByPk_loads_once() {
+        try (IdentityScope scope = IdentityScope.open()) {
+            assertThat(scope.getByPk("user", ReadFollow.NO_FOLLOW, 1, () -> load(1))).isEqualTo("u1");
+            assertThat(scope.getByPk("user", ReadFollow.NO_FOLLOW, 1, () -> load(1))).isEqualTo("u1");
+            assertThat(scope.getByPk("user", ReadFollow.NO_FOLLOW, -1, () -> load(-1))).isNull();
+            assertThat(scope.getByPk("user", ReadFollow.NO_FOLLOW, -1, () -> load(-1))).isNull();
+            assertThat(loaded).containsExactly(1, -1);
+        }
+    }
+
+    @Test
+    public void getByPk_per_table_and_follow() {
+        try (IdentityScope scope = IdentityScope.open()) {
+            scope.getByPk("user", ReadFollow.NO_FOLLOW, 1, () -> load(1));
+            scope.getByPk("user", ReadFollow.FOLLOW_ONE_LEVEL, 1, () -> load(1));
+            scope.getByPk("post", ReadFollow.NO_FOLLOW, 1, () -> load(1));
+            assertThat(loaded).containsExactly(1, 1, 1);
+            assertThat(scope.size()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    public void exists() {
+        try (IdentityScope scope = IdentityScope.open()) {
+            scope.getByPk("user", ReadFollow.FOLLOW_ALL, 1, () -> load(1));
+            scope.getByPk("user", ReadFollow.NO_FOLLOW, -1, () -> load(-1));
+            assertThat(scope.exists("user", 1)).isTrue();
+            assertThat(scope.exists("user", -1)).isFalse();
+            assertThat(scope.exists("user", 2)).isNull();
+            assertThat(scope.exists("post", 1)).isNull();
+        }
+    }
+
+    @Test
+    public void getBatchByPk_loads_only_missing() {
+        try (IdentityScope scope = IdentityScope.open()) {
+            scope.getByPk("user", ReadFollow.NO_FOLLOW, 1, () -> load(1));
+            scope.getByPk("user", ReadFollow.NO_FOLLOW, -1, () -> load(-1));
+            Map<Integer, String> batch = scope.getBatchByPk("user", ReadFollow.NO_FOLLOW, List.of(1, -1, 2, -2),
+                                                            this::loadBatch);
+            assertThat(batch).containsExactly(1, "u1", 2, "u2");
+            assertThat(loaded).containsExactly(1, -1, 2, -2);
+            assertThat(scope.exists("user", -2)).isFalse();
+        }
+    }
+
+    @Test
+    public void getBatchByPk_int_keys() {
+        try (IdentityScope scope = IdentityScope.open()) {
+            scope.getByPk("user", ReadFollow.NO_FOLLOW, 1, () -> load(1));
+            IntObjectMap<String> batch = scope.getBatchByPk("user", ReadFollow.NO_FOLLOW,
+                                                            IntArrayList.from(1, 2, -2), this::loadBatch);
+            assertThat(batch.size()).isEqualTo(2);
+            assertThat(batch.get(1)).isEqualTo("u1");
+            assertThat(batch.get(2)).isEqualTo("u2");
+            assertThat(loaded).containsExactly(1, 2, -2);
+            assertThat(scope.getByPk("user", ReadFollow.NO_FOLLOW, 2, () -> load(2))).isEqualTo("u2");
+            assertThat(loaded).containsExactly(1, 2, -2);
+        }
+    }
+
+    @Test
+    public void onWrite_evicts_key() {
+        try (IdentityScope scope = IdentityScope.open()) {
+            scope.getByPk("user", ReadFollow.NO_FOLLOW, 1, () -> load(1));
+            scope.getByPk("user", ReadFollow.FOLLOW_ALL, 1, () -> load(1));
+            scope.getByPk("user", ReadFollow.NO_FOLLOW, 2, () -> load(2));
+            IdentityScope.onWrite("user", 1);
+            assertThat(scope.exists("user", 1)).isNull();
+            assertThat(scope.exists("user", 2)).isTrue();
+        }
+    }
+
+    @Test
+    public void onWrite_evicts_table() {
+        try (IdentityScope scope = IdentityScope.open()) {
+            scope.getByPk("user", ReadFollow.NO_FOLLOW, 1, () -> load(1));
+            scope.getByPk("post", ReadFollow.NO_FOLLOW, 1, () -> load(1));
+            IdentityScope.onWrite("user");
+            assertThat(scope.exists("user", 1)).isNull();
+            assertThat(scope.exists("post", 1)).isTrue();
+        }
+    }
+
+    @Test
+    public void onWrite_evicts_following_entries_of_other_tables() {
+        try (IdentityScope scope = IdentityScope.open()) {
+            scope.getByPk("post", ReadFollow.NO_FOLLOW, 1, () -> load(1));
+            scope.getByPk("post", ReadFollow.FOLLOW_ONE_LEVEL, 2, () -> load(2));
+            scope.getByPk("post", ReadFollow.FOLLOW_ALL, 3, () -> load(3));
+            IdentityScope.onWrite("user", 1);
+            assertThat(scope.exists("post", 1)).isTrue();
+            assertThat(scope.exists("post", 2)).isNull();
+            assertThat(scope.exists("post", 3)).isNull();
+
+            scope.getByPk("post", ReadFollow.FOLLOW_ONE_LEVEL, 2, () -> load(2));
+            IdentityScope.onWrite("user");
+            assertThat(scope.exists("post", 1)).isTrue();
+            assertThat(scope.exists("post", 2)).isNull();
+            assertThat(loaded).containsExactly(1, 2, 3, 2);
+        }
+    }
+
+    @Test
+    public void close_discards_entries() {
+        IdentityScope scope = IdentityScope.open();
+        scope.getByPk("user", ReadFollow.NO_FOLLOW, 1, () -> load(1));
+        scope.close();
+        assertThat(scope.size()).isEqualTo(0);
+        assertThat(IdentityScope.current()).isNull();
+    }
+
+    private @Nullable String load(int key) {
+        loaded.add(key);
+        return key > 0 ? "u" + key : null;
+    }
+
+    private @NotNull Map<Integer, String> loadBatch(@NotNull Collection<? extends Integer> keys) {
+        HashMap<Integer, String> result = new HashMap<>();
+        for (Integer key : keys) {
+            String value = load(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    private @NotNull IntObjectMap<String> loadBatch(@NotNull IntContainer keys) {
+        IntObjectHashMap<String> result = new IntObjectHashMap<>();
+        for (IntCursor cursor : keys) {
+            String value = load(cursor.value);
+            if (value != null) {
+                result.put(cursor.value, value);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,156 @@
+package io.spbx.orm.api.cache;
+
+import io.spbx.orm.api.TableInt;
+import io.spbx.orm.api.query.InvalidQueryException;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spbx.orm.testing.PersonTableData.PERSON_META;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("fast")
+public class OffHeapCacheTest {
+    private static final RowCodec<User> CODEC = RowCodec.of(
+        user -> new Object[] { user.id(), user.name(), user.data() },
+        row -> new User(row.getInt(1), row.getString(2), row.getObject(3))
+    );
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    public void get_deserializes_new_instance() {
+        EntityCache<User> cache = new OffHeapCache<>(CODEC, CacheOptions.DEFAULT, 1 << 16, now::get);
+        User user = new User(1, "foo", null);
+        assertThat(cache.get(1, key -> user)).isSameInstanceAs(user);
+
+        Object cached = cache.getIfPresent(1);
+        assertThat(cached).isEqualTo(user);
+        assertThat(cached).isNotSameInstanceAs(user);
+        assertThat(cache.stats()).isEqualTo(new CacheStats(1, 1, 1, 0, 0, 0));
+    }
+
+    @Test
+    public void table_following_references_rejected() {
+        assertThat(CachingTableInt.offHeap(fakeTable(false), CODEC, CacheOptions.DEFAULT, 1 << 16)).isNotNull();
+        assertThrows(InvalidQueryException.class,
+                     () -> CachingTableInt.offHeap(fakeTable(true), CODEC, CacheOptions.DEFAULT, 1 << 16));
+    }
+
+    @Test
+    public void get_multi_slot_row() {
+        EntityCache<User> cache = new OffHeapCache<>(CODEC, CacheOptions.DEFAULT, 1 << 16, now::get);
+        User user = new User(1, "foo".repeat(100), "bar".repeat(50));
+        cache.put(1, user, cache.epoch());
+        assertThat(cache.getIfPresent(1)).isEqualTo(user);
+    }
+
+    @Test
+    public void misses_cached() {
+        EntityCache<User> cache = new OffHeapCache<>(CODEC, CacheOptions.DEFAULT.withCacheMisses(true), 1 << 16);
+        cache.put(1, null, cache.epoch());
+        assertThat(cache.getIfPresent(1)).isSameInstanceAs(EntityCache.MISS);
+    }
+
+    @Test
+    public void unsupported_values_not_cached() {
+        EntityCache<User> cache = new OffHeapCache<>(CODEC, CacheOptions.DEFAULT, 1 << 16);
+        cache.put(1, new User(1, "foo", new Object()), cache.epoch());
+        assertThat(cache.getIfPresent(1)).isNull();
+    }
+
+    @Test
+    public void too_large_row_not_cached() {
+        EntityCache<User> cache = new OffHeapCache<>(CODEC, CacheOptions.DEFAULT, 1024);
+        cache.put(1, new User(1, "foo".repeat(1000), null), cache.epoch());
+        assertThat(cache.getIfPresent(1)).isNull();
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void invalidate_key() {
+        EntityCache<User> cache = new OffHeapCache<>(CODEC, CacheOptions.DEFAULT, 1 << 16);
+        cache.put(1, new User(1, "foo", null), cache.epoch());
+        cache.put(2, new User(2, "bar", null), cache.epoch());
+        cache.invalidate(1);
+        assertThat(cache.getIfPresent(1)).isNull();
+        assertThat(cache.getIfPresent(2)).isEqualTo(new User(2, "bar", null));
+    }
+
+    @Test
+    public void invalidate_all() {
+        EntityCache<User> cache = new OffHeapCache<>(CODEC, CacheOptions.DEFAULT, 1 << 16);
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, new User(i, "foo", null), cache.epoch());
+        }
+        cache.invalidateAll();
+        assertThat(cache.size()).isEqualTo(0);
+        cache.put(1, new User(1, "foo", null), cache.epoch());
+        assertThat(cache.getIfPresent(1)).isEqualTo(new User(1, "foo", null));
+    }
+
+    @Test
+    public void expire_after_write() {
+        CacheOptions options = CacheOptions.DEFAULT.withExpireAfterWrite(Duration.ofNanos(100));
+        EntityCache<User> cache = new OffHeapCache<>(CODEC, options, 1 << 16, now::get);
+        cache.put(1, new User(1, "foo", null), cache.epoch());
+        now.set(99);
+        assertThat(cache.getIfPresent(1)).isNotNull();
+        now.set(100);
+        assertThat(cache.getIfPresent(1)).isNull();
+        assertThat(cache.stats().expirations()).isEqualTo(1);
+    }
+
+    @Test
+    public void evicted_by_entries() {
+        EntityCache<User> cache = new OffHeapCache<>(CODEC, CacheOptions.ofMaxSize(100), 1 << 16);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, new User(i, "foo", null), cache.epoch());
+        }
+        assertThat(cache.size()).isEqualTo(100);
+        assertThat(cache.stats().evictions()).isEqualTo(900);
+    }
+
+    @Test
+    public void evicted_by_bytes() {
+        EntityCache<User> cache = new OffHeapCache<>(CODEC, CacheOptions.DEFAULT, 64 * OffHeapCache.SLOT_SIZE);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, new User(i, "foo", null), cache.epoch());
+        }
+        assertThat(cache.size()).isEqualTo(64);  // one slot per row
+        assertThat(cache.stats().evictions()).isEqualTo(1000 - 64);
+    }
+
+    @Test
+    public void clock_keeps_referenced_entries() {
+        EntityCache<User> cache = new OffHeapCache<>(CODEC, CacheOptions.ofMaxSize(10), 1 << 16);
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, new User(i, "foo", null), cache.epoch());
+        }
+        assertThat(cache.getIfPresent(0)).isNotNull();
+        cache.put(10, new User(10, "foo", null), cache.epoch());
+        assertThat(cache.getIfPresent(0)).isNotNull();
+        assertThat(cache.getIfPresent(10)).isNotNull();
+        assertThat(cache.size()).isEqualTo(10);
+    }
+
+    private record User(int id, String name, Object data) {}
+
+    @SuppressWarnings("unchecked")
+    private static @NotNull TableInt<User> fakeTable(boolean followsReferences) {
+        return (TableInt<User>) Proxy.newProxyInstance(
+            TableInt.class.getClassLoader(),
+            new Class<?>[] { TableInt.class },
+            (proxy, method, args) -> switch (method.getName()) {
+                case "followsReferencesOnRead" -> followsReferences;
+                case "meta" -> PERSON_META;
+                default -> throw new UnsupportedOperationException(method.getName());
+            }
+        );
+    }
+}
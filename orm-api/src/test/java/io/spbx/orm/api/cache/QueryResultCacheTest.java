@@ -0,0 +1,209 @@
+package io.spbx.orm.api.cache;
+
+import com.mockrunner.mock.jdbc.MockConnection;
+import io.spbx.orm.api.Engine;
+import io.spbx.orm.api.QueryRunner;
+import io.spbx.orm.api.ResultSetIterator;
+import io.spbx.orm.api.metrics.QueryEvent;
+import io.spbx.orm.api.query.Args;
+import io.spbx.orm.api.query.HardcodedSelectQuery;
+import io.spbx.orm.api.query.SelectQuery;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spbx.orm.testing.MockingJdbc.mockConnection;
+import static io.spbx.orm.testing.MockingJdbc.mockResultSet;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("fast")
+public class QueryResultCacheTest {
+    private static final SelectQuery QUERY = HardcodedSelectQuery.of("SELECT name FROM user WHERE id = ?", Args.of(1));
+    private static final SelectQuery OTHER = HardcodedSelectQuery.of("SELECT name FROM user WHERE id = ?", Args.of(2));
+    private static final ResultCachePolicy POLICY = ResultCachePolicy.of(Duration.ofSeconds(10), "user");
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Supplier<String> loader = () -> "v" + loads.incrementAndGet();
+
+    @Test
+    public void get_loads_once() {
+        QueryResultCache cache = new QueryResultCache(10, now::get);
+        assertThat(cache.get(QUERY, "shape", POLICY, loader)).isEqualTo("v1");
+        assertThat(cache.get(QUERY, "shape", POLICY, loader)).isEqualTo("v1");
+        assertThat(cache.get(OTHER, "shape", POLICY, loader)).isEqualTo("v2");
+        assertThat(cache.get(QUERY, "other-shape", POLICY, loader)).isEqualTo("v3");
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.stats()).isEqualTo(new CacheStats(1, 3, 3, 0, 0, 0));
+    }
+
+    @Test
+    public void get_expires() {
+        QueryResultCache cache = new QueryResultCache(10, now::get);
+        assertThat(cache.get(QUERY, "shape", POLICY, loader)).isEqualTo("v1");
+        now.addAndGet(Duration.ofSeconds(9).toNanos());
+        assertThat(cache.get(QUERY, "shape", POLICY, loader)).isEqualTo("v1");
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(cache.get(QUERY, "shape", POLICY, loader)).isEqualTo("v2");
+        assertThat(cache.stats().expirations()).isEqualTo(1);
+    }
+
+    @Test
+    public void get_evicts_least_recently_used() {
+        QueryResultCache cache = new QueryResultCache(2, now::get);
+        SelectQuery third = HardcodedSelectQuery.of("SELECT 3");
+        cache.get(QUERY, "shape", POLICY, loader);
+        cache.get(OTHER, "shape", POLICY, loader);
+        cache.get(QUERY, "shape", POLICY, loader);
+        cache.get(third, "shape", POLICY, loader);
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(QUERY, "shape", POLICY, loader)).isEqualTo("v1");
+        assertThat(cache.get(OTHER, "shape", POLICY, loader)).isEqualTo("v4");
+        assertThat(cache.stats().evictions()).isEqualTo(2);
+    }
+
+    @Test
+    public void get_loader_throws() {
+        QueryResultCache cache = new QueryResultCache(10, now::get);
+        assertThrows(IllegalStateException.class, () -> cache.get(QUERY, "shape", POLICY, () -> {
+            throw new IllegalStateException("Fail");
+        }));
+        assertThat(cache.size()).isEqualTo(0);
+        assertThat(cache.get(QUERY, "shape", POLICY, loader)).isEqualTo("v1");
+    }
+
+    @Test
+    public void onEvent_update_invalidates_dependent_results() {
+        QueryResultCache cache = new QueryResultCache(10, now::get);
+        ResultCachePolicy postPolicy = ResultCachePolicy.of(Duration.ofSeconds(10), "post");
+        cache.get(QUERY, "shape", POLICY, loader);
+        cache.get(OTHER, "shape", postPolicy, loader);
+
+        cache.onEvent(event(QueryEvent.Kind.UPDATE, "user"));
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get(QUERY, "shape", POLICY, loader)).isEqualTo("v3");
+        assertThat(cache.get(OTHER, "shape", postPolicy, loader)).isEqualTo("v2");
+    }
+
+    @Test
+    public void onEvent_select_does_not_invalidate() {
+        QueryResultCache cache = new QueryResultCache(10, now::get);
+        cache.get(QUERY, "shape", POLICY, loader);
+        cache.onEvent(event(QueryEvent.Kind.QUERY, "user"));
+        cache.onEvent(event(QueryEvent.Kind.FETCH, "user"));
+        assertThat(cache.get(QUERY, "shape", POLICY, loader)).isEqualTo("v1");
+    }
+
+    @Test
+    public void onEvent_unknown_table_invalidates_all() {
+        QueryResultCache cache = new QueryResultCache(10, now::get);
+        cache.get(QUERY, "shape", POLICY, loader);
+        cache.onEvent(event(QueryEvent.Kind.BULK, null));
+        assertThat(cache.size()).isEqualTo(0);
+        assertThat(cache.stats().invalidations()).isEqualTo(1);
+    }
+
+    @Test
+    public void onWrite_invalidates_shared_results() {
+        QueryResultCache cache = QueryResultCache.shared();
+        ResultCachePolicy policy = ResultCachePolicy.of(Duration.ofSeconds(10), "shared_user");
+        QueryResultCache.onWrite("shared_untouched");
+        assertThat(cache.get(QUERY, "shared-shape", policy, loader)).isEqualTo("v1");
+        assertThat(cache.get(QUERY, "shared-shape", policy, loader)).isEqualTo("v1");
+
+        QueryResultCache.onWrite("shared_user");
+        assertThat(cache.get(QUERY, "shared-shape", policy, loader)).isEqualTo("v2");
+    }
+
+    @Test
+    public void fetchAll_keyed_by_converter_instance_or_shape() {
+        MockConnection connection = mockConnection();
+        connection.getPreparedStatementResultSetHandler().prepareGlobalResultSet(mockResultSet("foo"));
+        QueryRunner runner = new QueryRunner(connection);
+        QueryResultCache cache = new QueryResultCache(10, now::get);
+        ResultSetIterator.Converter<String> lower = row -> row.getString(1);
+        ResultSetIterator.Converter<String> upper = row -> row.getString(1).toUpperCase();
+
+        assertThat(cache.fetchAll(runner, QUERY, lower, POLICY)).containsExactly("foo");
+        assertThat(cache.fetchAll(runner, QUERY, upper, POLICY)).containsExactly("FOO");
+        assertThat(cache.fetchAll(runner, QUERY, lower, POLICY)).containsExactly("foo");
+        assertThat(cache.fetchAll(runner, QUERY, "upper", row -> row.getString(1).toUpperCase(), POLICY))
+            .containsExactly("FOO");
+        assertThat(cache.fetchAll(runner, QUERY, "upper", row -> row.getString(1).toUpperCase(), POLICY))
+            .containsExactly("FOO");
+        assertThat(cache.stats().loads()).isEqualTo(3);
+    }
+
+    @Test
+    public void get_racing_with_invalidation_not_cached() {
+        QueryResultCache cache = new QueryResultCache(10, now::get);
+        String value = cache.get(QUERY, "shape", POLICY, () -> {
+            cache.invalidateTable("user");
+            return "stale";
+        });
+        assertThat(value).isEqualTo("stale");
+        assertThat(cache.size()).isEqualTo(0);
+        assertThat(cache.get(QUERY, "shape", POLICY, loader)).isEqualTo("v1");
+    }
+
+    @Test
+    public void get_racing_with_other_table_invalidation_cached() {
+        QueryResultCache cache = new QueryResultCache(10, now::get);
+        cache.get(QUERY, "shape", POLICY, () -> {
+            cache.invalidateTable("post");
+            return "v0";
+        });
+        assertThat(cache.get(QUERY, "shape", POLICY, loader)).isEqualTo("v0");
+    }
+
+    @Test
+    public void get_concurrent_misses_load_once() throws Exception {
+        QueryResultCache cache = new QueryResultCache(10, now::get);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> first = executor.submit(() -> cache.get(QUERY, "shape", POLICY, () -> {
+                loading.countDown();
+                await(release);
+                return loader.get();
+            }));
+            await(loading);
+            Future<String> second = executor.submit(() -> cache.get(QUERY, "shape", POLICY, loader));
+            Future<String> third = executor.submit(() -> cache.get(QUERY, "shape", POLICY, loader));
+            Thread.sleep(50);
+            release.countDown();
+
+            assertThat(first.get()).isEqualTo("v1");
+            assertThat(second.get()).isEqualTo("v1");
+            assertThat(third.get()).isEqualTo("v1");
+            assertThat(loads.get()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static @NotNull QueryEvent event(@NotNull QueryEvent.Kind kind, @Nullable String table) {
+        return new QueryEvent(kind, "SQL", Engine.H2, table, 0, 1, 0, null);
+    }
+
+    private static void await(@NotNull CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
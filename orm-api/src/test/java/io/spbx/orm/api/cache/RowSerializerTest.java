@@ -0,0 +1,43 @@
+package io.spbx.orm.api.cache;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@Tag("fast")
+public class RowSerializerTest {
+    @Test
+    public void roundtrip_all_types() {
+        Timestamp timestamp = new Timestamp(1_700_000_000_123L);
+        timestamp.setNanos(123_456_789);
+        Object[] values = {
+            null, true, (byte) 1, (short) 2, 3, 4L, 5.5f, 6.5, "foo", new byte[] { 7, 8 },
+            timestamp, new Time(12345), new Date(1_700_000_000_000L), "",
+        };
+        assertThat(RowSerializer.deserialize(RowSerializer.serialize(values))).isEqualTo(values);
+    }
+
+    @Test
+    public void roundtrip_util_date() {
+        Object[] values = { new java.util.Date(1_700_000_000_000L) };
+        assertThat(RowSerializer.deserialize(RowSerializer.serialize(values)))
+            .isEqualTo(new Object[] { new Date(1_700_000_000_000L) });
+    }
+
+    @Test
+    public void roundtrip_unicode() {
+        Object[] values = { "\u043f\u0440\u0438\u0432\u0435\u0442 \uD83D\uDE00" };
+        assertThat(RowSerializer.deserialize(RowSerializer.serialize(values))).isEqualTo(values);
+    }
+
+    @Test
+    public void unsupported_type() {
+        assertThat(RowSerializer.serialize(new Object[] { 1, new Object() })).isNull();
+        assertThat(RowSerializer.serialize(new Object[] { java.math.BigDecimal.ONE })).isNull();
+    }
+}
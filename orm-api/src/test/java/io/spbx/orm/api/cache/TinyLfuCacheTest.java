@@ -0,0 +1,172 @@
+package io.spbx.orm.api.cache;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@Tag("fast")
+public class TinyLfuCacheTest {
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final LongFunction<String> loader = key -> {
+        loads.incrementAndGet();
+        return key < 0 ? null : "v" + key + ":" + loads.get();
+    };
+
+    @Test
+    public void get_loads_once() {
+        EntityCache<String> cache = new TinyLfuCache<>(CacheOptions.DEFAULT, now::get);
+        assertThat(cache.get(1, loader)).isEqualTo("v1:1");
+        assertThat(cache.get(1, loader)).isEqualTo("v1:1");
+        assertThat(cache.getIfPresent(1)).isEqualTo("v1:1");
+        assertThat(cache.getIfPresent(2)).isNull();
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.stats()).isEqualTo(new CacheStats(2, 2, 1, 0, 0, 0));
+    }
+
+    @Test
+    public void misses_not_cached_by_default() {
+        EntityCache<String> cache = new TinyLfuCache<>(CacheOptions.DEFAULT, now::get);
+        assertThat(cache.get(-1, loader)).isNull();
+        assertThat(cache.get(-1, loader)).isNull();
+        assertThat(cache.getIfPresent(-1)).isNull();
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void misses_cached() {
+        EntityCache<String> cache = new TinyLfuCache<>(CacheOptions.DEFAULT.withCacheMisses(true), now::get);
+        assertThat(cache.get(-1, loader)).isNull();
+        assertThat(cache.get(-1, loader)).isNull();
+        assertThat(cache.getIfPresent(-1)).isSameInstanceAs(EntityCache.MISS);
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void invalidate_key() {
+        EntityCache<String> cache = new TinyLfuCache<>(CacheOptions.DEFAULT, now::get);
+        cache.get(1, loader);
+        cache.get(2, loader);
+        cache.invalidate(1);
+        assertThat(cache.getIfPresent(1)).isNull();
+        assertThat(cache.getIfPresent(2)).isEqualTo("v2:2");
+        assertThat(cache.get(1, loader)).isEqualTo("v1:3");
+    }
+
+    @Test
+    public void invalidate_all() {
+        EntityCache<String> cache = new TinyLfuCache<>(CacheOptions.DEFAULT, now::get);
+        cache.get(1, loader);
+        cache.get(2, loader);
+        cache.invalidateAll();
+        assertThat(cache.size()).isEqualTo(0);
+        assertThat(cache.stats().invalidations()).isEqualTo(1);
+    }
+
+    @Test
+    public void put_racing_with_invalidation_dropped() {
+        EntityCache<String> cache = new TinyLfuCache<>(CacheOptions.DEFAULT, now::get);
+        long epoch = cache.epoch();
+        cache.invalidate(1);
+        cache.put(1, "stale", epoch);
+        assertThat(cache.getIfPresent(1)).isNull();
+
+        cache.put(1, "fresh", cache.epoch());
+        assertThat(cache.getIfPresent(1)).isEqualTo("fresh");
+    }
+
+    @Test
+    public void expire_after_write() {
+        CacheOptions options = CacheOptions.DEFAULT.withExpireAfterWrite(Duration.ofNanos(100));
+        EntityCache<String> cache = new TinyLfuCache<>(options, now::get);
+        cache.get(1, loader);
+        now.set(99);
+        assertThat(cache.getIfPresent(1)).isEqualTo("v1:1");
+        now.set(100);
+        assertThat(cache.getIfPresent(1)).isNull();
+        assertThat(cache.get(1, loader)).isEqualTo("v1:2");
+        assertThat(cache.stats().expirations()).isEqualTo(1);
+    }
+
+    @Test
+    public void refresh_after_write() {
+        CacheOptions options = CacheOptions.DEFAULT.withRefreshAfterWrite(Duration.ofNanos(100));
+        EntityCache<String> cache = new TinyLfuCache<>(options, now::get);
+        cache.get(1, loader);
+        now.set(50);
+        assertThat(cache.get(1, loader)).isEqualTo("v1:1");
+        now.set(150);
+        assertThat(cache.get(1, loader)).isEqualTo("v1:2");
+        now.set(200);
+        assertThat(cache.get(1, loader)).isEqualTo("v1:2");
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void refresh_to_miss_removes_entry() {
+        CacheOptions options = CacheOptions.DEFAULT.withRefreshAfterWrite(Duration.ofNanos(100));
+        EntityCache<String> cache = new TinyLfuCache<>(options, now::get);
+        AtomicBoolean deleted = new AtomicBoolean();
+        LongFunction<String> loader = key -> deleted.get() ? null : this.loader.apply(key);
+        cache.get(1, loader);
+        deleted.set(true);
+        now.set(150);
+        assertThat(cache.get(1, loader)).isNull();
+        assertThat(cache.getIfPresent(1)).isNull();
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void refresh_racing_with_invalidation_retried() {
+        CacheOptions options = CacheOptions.DEFAULT.withRefreshAfterWrite(Duration.ofNanos(100));
+        EntityCache<String> cache = new TinyLfuCache<>(options, now::get);
+        cache.get(1, loader);
+        now.set(150);
+        assertThat(cache.get(1, key -> {
+            cache.invalidate(2);
+            return loader.apply(key);
+        })).isEqualTo("v1:2");
+        assertThat(cache.get(1, loader)).isEqualTo("v1:3");
+        assertThat(cache.get(1, loader)).isEqualTo("v1:3");
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void size_bounded() {
+        EntityCache<String> cache = new TinyLfuCache<>(CacheOptions.ofMaxSize(100), now::get);
+        for (int i = 0; i < 1000; i++) {
+            cache.get(i, loader);
+        }
+        assertThat(cache.size()).isAtMost(100);
+        assertThat(cache.stats().evictions()).isEqualTo(1000 - cache.size());
+    }
+
+    @Test
+    public void frequent_entries_survive_scan() {
+        EntityCache<String> cache = new TinyLfuCache<>(CacheOptions.ofMaxSize(100), now::get);
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 20; i++) {
+                cache.get(i, loader);
+            }
+        }
+        for (int i = 1000; i < 1300; i++) {
+            cache.get(i, loader);
+        }
+        for (int i = 0; i < 20; i++) {
+            assertThat(cache.getIfPresent(i)).isNotNull();
+        }
+    }
+
+    @Test
+    public void stats_hit_ratio() {
+        assertThat(new CacheStats(0, 0, 0, 0, 0, 0).hitRatio()).isEqualTo(1.0);
+        assertThat(new CacheStats(3, 1, 1, 0, 0, 0).hitRatio()).isEqualTo(0.75);
+    }
+}
@@ -0,0 +1,63 @@
+package io.spbx.orm.api.metrics;
+
+import com.google.common.collect.Range;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@Tag("fast")
+public class LatencyHistogramTest {
+    @Test
+    public void bucketIndex_bounds() {
+        assertThat(LatencyHistogram.bucketIndex(0)).isEqualTo(0);
+        assertThat(LatencyHistogram.bucketIndex(15)).isEqualTo(15);
+        assertThat(LatencyHistogram.bucketIndex(16)).isEqualTo(16);
+        assertThat(LatencyHistogram.bucketIndex(17)).isEqualTo(16);
+        assertThat(LatencyHistogram.bucketIndex(31)).isEqualTo(23);
+        assertThat(LatencyHistogram.bucketIndex(32)).isEqualTo(24);
+        assertThat(LatencyHistogram.bucketIndex(Long.MAX_VALUE)).isEqualTo(LatencyHistogram.BUCKETS - 1);
+    }
+
+    @Test
+    public void bucketIndex_consistent_with_bounds() {
+        for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+            long lower = LatencyHistogram.bucketLowerBound(i);
+            long upper = LatencyHistogram.bucketUpperBound(i);
+            assertThat(LatencyHistogram.bucketIndex(lower)).isEqualTo(i);
+            assertThat(LatencyHistogram.bucketIndex(upper)).isEqualTo(i);
+            assertThat(upper - lower).isAtMost(lower / 8);
+        }
+    }
+
+    @Test
+    public void valueAt_empty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.valueAt(0.5)).isEqualTo(0);
+        assertThat(histogram.snapshot()).isEqualTo(LatencyHistogram.Snapshot.EMPTY);
+    }
+
+    @Test
+    public void valueAt_uniform() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        IntStream.rangeClosed(1, 1000).forEach(histogram::record);
+
+        assertThat(histogram.count()).isEqualTo(1000);
+        assertThat(histogram.total()).isEqualTo(500500);
+        assertThat(histogram.max()).isEqualTo(1000);
+        assertThat(histogram.valueAt(0.5)).isIn(Range.closed(500L, 563L));
+        assertThat(histogram.valueAt(0.99)).isIn(Range.closed(990L, 1000L));
+        assertThat(histogram.valueAt(1.0)).isEqualTo(1000);
+        assertThat(histogram.snapshot().mean()).isEqualTo(500.5);
+    }
+
+    @Test
+    public void reset_simple() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(123);
+        histogram.reset();
+        assertThat(histogram.snapshot()).isEqualTo(LatencyHistogram.Snapshot.EMPTY);
+    }
+}
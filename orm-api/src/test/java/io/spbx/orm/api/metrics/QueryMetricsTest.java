@@ -0,0 +1,99 @@
+package io.spbx.orm.api.metrics;
+
+import com.mockrunner.jdbc.PreparedStatementResultSetHandler;
+import com.mockrunner.mock.jdbc.MockConnection;
+import com.mockrunner.mock.jdbc.MockDatabaseMetaData;
+import io.spbx.orm.api.Engine;
+import io.spbx.orm.api.QueryRunner;
+import io.spbx.orm.api.query.HardcodedSelectQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spbx.orm.testing.MockingJdbc.mockConnection;
+import static io.spbx.orm.testing.MockingJdbc.mockResultSet;
+import static io.spbx.util.testing.TestingBasics.arrayOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("fast")
+public class QueryMetricsTest {
+    private final MockConnection mockedConnection = mockConnection();
+    private final PreparedStatementResultSetHandler resultSetHandler = mockedConnection.getPreparedStatementResultSetHandler();
+    private final List<QueryEvent> events = new ArrayList<>();
+    private final QueryMetrics metrics = new QueryMetrics();
+    private QueryRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        MockDatabaseMetaData metaData = new MockDatabaseMetaData();
+        metaData.setDatabaseProductName("H2");
+        mockedConnection.setMetaData(metaData);
+        runner = new QueryRunner(mockedConnection).withListener(metrics.andThen(events::add)).forTable("user");
+    }
+
+    @Test
+    public void no_listener_not_instrumented() {
+        QueryRunner plain = new QueryRunner(mockedConnection);
+        assertThat(plain.probe()).isNull();
+        assertThat(plain.forTable("user")).isSameInstanceAs(plain);
+    }
+
+    @Test
+    public void select_query_events() {
+        resultSetHandler.prepareGlobalResultSet(mockResultSet(List.<Object[]>of(arrayOf(1), arrayOf(2), arrayOf(3))));
+        List<Integer> result = runner.fetchAll(HardcodedSelectQuery.of("SELECT id FROM user"), row -> row.getInt(1));
+        assertThat(result).containsExactly(1, 2, 3);
+
+        assertThat(events.stream().map(QueryEvent::kind))
+            .containsExactly(QueryEvent.Kind.PREPARE, QueryEvent.Kind.QUERY, QueryEvent.Kind.FETCH).inOrder();
+        assertThat(events.stream().map(QueryEvent::table)).containsExactly("user", "user", "user");
+        assertThat(events.stream().map(QueryEvent::engine)).containsExactly(Engine.H2, Engine.H2, Engine.H2);
+        assertThat(events.getLast().rows()).isEqualTo(3);
+
+        QueryMetrics.Stats stats = metrics.stats("user", QueryEvent.Kind.FETCH, "SELECT id FROM user");
+        assertThat(stats).isNotNull();
+        assertThat(stats.latency().count()).isEqualTo(1);
+        assertThat(stats.rows()).isEqualTo(3);
+    }
+
+    @Test
+    public void update_events_grouped_by_shape() throws SQLException {
+        resultSetHandler.prepareGlobalUpdateCount(2);
+        runner.runUpdate("UPDATE user SET name = ? WHERE id IN (?, ?)", "foo", 1, 2);
+        runner.runUpdate("UPDATE user SET name = ? WHERE id IN (?, ?, ?)", "foo", 1, 2, 3);
+
+        assertThat(metrics.stats("user", QueryEvent.Kind.UPDATE, "UPDATE user SET name = ? WHERE id = ?")).isNull();
+        String shape = "UPDATE user SET name = ? WHERE id IN (?...)";
+        QueryMetrics.Stats stats = metrics.stats("user", QueryEvent.Kind.UPDATE, shape);
+        assertThat(stats).isNotNull();
+        assertThat(stats.latency().count()).isEqualTo(2);
+        assertThat(stats.rows()).isEqualTo(4);
+        assertThat(stats.errors()).isEqualTo(0);
+    }
+
+    @Test
+    public void batch_events() throws SQLException {
+        runner.runUpdateBatch("INSERT INTO user (id) VALUES (?)", List.<Object[]>of(arrayOf(1), arrayOf(2)));
+
+        QueryEvent batch = events.getLast();
+        assertThat(batch.kind()).isEqualTo(QueryEvent.Kind.BATCH);
+        assertThat(batch.batchSize()).isEqualTo(2);
+        assertThat(batch.isSuccess()).isTrue();
+    }
+
+    @Test
+    public void error_events() {
+        resultSetHandler.prepareThrowsSQLException("UPDATE user");
+        assertThrows(SQLException.class, () -> runner.runUpdate("UPDATE user SET name = ?", "foo"));
+
+        QueryEvent update = events.getLast();
+        assertThat(update.kind()).isEqualTo(QueryEvent.Kind.UPDATE);
+        assertThat(update.isSuccess()).isFalse();
+        assertThat(metrics.snapshot().stream().mapToLong(QueryMetrics.Stats::errors).sum()).isEqualTo(1);
+    }
+}
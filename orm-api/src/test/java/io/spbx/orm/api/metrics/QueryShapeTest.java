@@ -0,0 +1,41 @@
+package io.spbx.orm.api.metrics;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@Tag("fast")
+public class QueryShapeTest {
+    @Test
+    public void of_no_params() {
+        assertThat(QueryShape.of("SELECT COUNT(*) FROM user")).isEqualTo("SELECT COUNT(*) FROM user");
+        assertThat(QueryShape.of(" SELECT *\n  FROM user\n")).isEqualTo("SELECT * FROM user");
+    }
+
+    @Test
+    public void of_single_params() {
+        assertThat(QueryShape.of("SELECT * FROM user WHERE id = ? AND name = ?"))
+            .isEqualTo("SELECT * FROM user WHERE id = ? AND name = ?");
+    }
+
+    @Test
+    public void of_param_lists() {
+        assertThat(QueryShape.of("SELECT * FROM user WHERE id IN (?)"))
+            .isEqualTo("SELECT * FROM user WHERE id IN (?)");
+        assertThat(QueryShape.of("SELECT * FROM user WHERE id IN (?, ?, ?)"))
+            .isEqualTo("SELECT * FROM user WHERE id IN (?...)");
+        assertThat(QueryShape.of("SELECT * FROM user WHERE id IN (?,?)"))
+            .isEqualTo("SELECT * FROM user WHERE id IN (?...)");
+    }
+
+    @Test
+    public void of_multi_row_insert() {
+        assertThat(QueryShape.of("INSERT INTO user (id, name)\nVALUES (?, ?)"))
+            .isEqualTo("INSERT INTO user (id, name) VALUES (?...)");
+        assertThat(QueryShape.of("INSERT INTO user (id, name)\nVALUES\n(?, ?), (?, ?), (?, ?)"))
+            .isEqualTo("INSERT INTO user (id, name) VALUES (?...)...");
+        assertThat(QueryShape.of("INSERT INTO user (id)\nVALUES\n(?), (?)"))
+            .isEqualTo("INSERT INTO user (id) VALUES (?...)...");
+    }
+}
@@ -0,0 +1,200 @@
+package io.spbx.orm.api.pool;
+
+import com.mockrunner.mock.jdbc.MockConnection;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spbx.orm.testing.MockingJdbc.mockConnection;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("fast")
+public class PooledConnectorTest {
+    private final List<MockConnection> opened = new ArrayList<>();
+
+    @Test
+    public void connection_bound_to_thread_until_released() {
+        try (PooledConnector pool = newPool(2, Duration.ofMinutes(1))) {
+            Connection first = pool.connection();
+            assertThat(pool.connection()).isSameInstanceAs(first);
+            assertThat(pool.stats().active()).isEqualTo(1);
+
+            assertThat(pool.release()).isTrue();
+            assertThat(pool.release()).isFalse();
+            assertThat(pool.stats().active()).isEqualTo(0);
+            assertThat(pool.stats().idle()).isEqualTo(1);
+
+            assertThat(pool.connection()).isSameInstanceAs(first);
+            assertThat(opened).hasSize(1);
+        }
+    }
+
+    @Test
+    public void lease_is_reentrant() {
+        try (PooledConnector pool = newPool(1, Duration.ofMinutes(1))) {
+            try (PooledConnector.Lease outer = pool.lease()) {
+                try (PooledConnector.Lease inner = pool.lease()) {
+                    assertThat(inner.connection()).isSameInstanceAs(outer.connection());
+                }
+                assertThat(pool.stats().active()).isEqualTo(1);
+            }
+            assertThat(pool.stats().active()).isEqualTo(0);
+            assertThat(pool.stats().acquired()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void exhausted_pool_times_out() throws Exception {
+        try (PooledConnector pool = newPool(1, Duration.ofMinutes(1))) {
+            pool.connection();
+
+            CompletableFuture<Connection> future = CompletableFuture.supplyAsync(pool::connection);
+            ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+            assertThat(exception).hasCauseThat().isInstanceOf(SQLTransientConnectionException.class);
+            assertThat(pool.stats().waited()).isEqualTo(1);
+            pool.release();
+        }
+    }
+
+    @Test
+    public void connection_rotated_after_max_lifetime() throws Exception {
+        try (PooledConnector pool = newPool(1, Duration.ZERO)) {
+            Connection first = pool.connection();
+            pool.release();
+            Connection second = pool.connection();
+            pool.release();
+
+            assertThat(second).isNotSameInstanceAs(first);
+            assertThat(opened.getFirst().isClosed()).isTrue();
+            assertThat(pool.stats().opened()).isEqualTo(2);
+            assertThat(pool.stats().closed()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void close_closes_idle_connections() throws Exception {
+        PooledConnector pool = newPool(2, Duration.ofMinutes(1));
+        pool.connection();
+        pool.release();
+        pool.close();
+
+        assertThat(opened.getFirst().isClosed()).isTrue();
+        assertThrows(SQLTransientConnectionException.class, pool::connection);
+    }
+
+    @Test
+    public void release_after_close_closes_connection() throws Exception {
+        PooledConnector pool = newPool(1, Duration.ofMinutes(1));
+        pool.connection();
+        pool.close();
+        assertThat(opened.getFirst().isClosed()).isFalse();
+
+        assertThat(pool.release()).isTrue();
+        assertThat(opened.getFirst().isClosed()).isTrue();
+        assertThat(pool.stats().idle()).isEqualTo(0);
+    }
+
+    @Test
+    public void engine_does_not_keep_connection_bound() {
+        try (PooledConnector pool = newPool(1, Duration.ofMinutes(1))) {
+            pool.engine();
+            assertThat(pool.stats().active()).isEqualTo(0);
+            assertThat(pool.release()).isFalse();
+        }
+    }
+
+    @Test
+    public void connection_of_terminated_thread_reclaimed() throws Exception {
+        try (PooledConnector pool = newPool(1, Duration.ofMinutes(1))) {
+            Thread thread = new Thread(pool::connection);
+            thread.start();
+            thread.join();
+            assertThat(pool.stats().active()).isEqualTo(1);
+
+            Connection connection = pool.connection();
+            assertThat(connection).isNotSameInstanceAs(opened.getFirst());
+            assertThat(opened.getFirst().isClosed()).isTrue();
+            assertThat(pool.stats().active()).isEqualTo(1);
+            pool.release();
+        }
+    }
+
+    @Test
+    public void released_mid_transaction_connection_reset() throws Exception {
+        try (PooledConnector pool = newPool(1, Duration.ofMinutes(1))) {
+            MockConnection connection = (MockConnection) pool.connection();
+            int isolation = connection.getTransactionIsolation();
+            pool.release();
+
+            Thread thread = new Thread(() -> {
+                try {
+                    Connection borrowed = pool.connection();
+                    borrowed.setAutoCommit(false);
+                    borrowed.setReadOnly(true);
+                    borrowed.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+                } catch (SQLException e) {
+                    throw new AssertionError(e);
+                }
+            });
+            thread.start();
+            thread.join();
+            connection.resetNumberRollbacks();
+            assertThat(pool.release(thread)).isTrue();
+
+            assertThat(pool.connection()).isSameInstanceAs(connection);
+            assertThat(connection.getNumberRollbacks()).isEqualTo(1);
+            assertThat(connection.getAutoCommit()).isTrue();
+            assertThat(connection.isReadOnly()).isFalse();
+            assertThat(connection.getTransactionIsolation()).isEqualTo(isolation);
+            pool.release();
+        }
+    }
+
+    @Test
+    public void connection_failing_reset_closed() throws Exception {
+        PooledConnector pool = PooledConnector.builder(() -> {
+            MockConnection connection = new MockConnection() {
+                @Override
+                public void rollback() throws SQLException {
+                    throw new SQLException("Connection is broken");
+                }
+            };
+            opened.add(connection);
+            return connection;
+        }).maxSize(1).build();
+        try (pool) {
+            Connection connection = pool.connection();
+            connection.setAutoCommit(false);
+            assertThat(pool.release()).isTrue();
+
+            assertThat(opened.getFirst().isClosed()).isTrue();
+            assertThat(pool.stats().idle()).isEqualTo(0);
+            assertThat(pool.stats().active()).isEqualTo(0);
+            assertThat(pool.connection()).isNotSameInstanceAs(connection);
+            pool.release();
+        }
+    }
+
+    private PooledConnector newPool(int size, Duration maxLifetime) {
+        return PooledConnector.builder(() -> {
+                MockConnection connection = mockConnection();
+                connection.setAutoCommit(true);
+                opened.add(connection);
+                return connection;
+            })
+            .maxSize(size)
+            .acquireTimeout(Duration.ofMillis(50))
+            .maxLifetime(maxLifetime)
+            .validationInterval(Duration.ofMinutes(1))
+            .build();
+    }
+}
@@ -0,0 +1,123 @@
+package io.spbx.orm.api.pool;
+
+import com.mockrunner.mock.jdbc.MockConnection;
+import io.spbx.orm.api.Connector;
+import io.spbx.orm.api.QueryRunner;
+import io.spbx.util.base.error.Unchecked;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spbx.orm.testing.MockingJdbc.mockConnection;
+
+@Tag("fast")
+public class RoutingConnectorTest {
+    private final MockConnection primary = mockConnection();
+    private final MockConnection replica1 = mockConnection();
+    private final MockConnection replica2 = mockConnection();
+
+    @Test
+    public void reads_go_to_replica_writes_to_primary() {
+        RoutingConnector routing = newRouting(Duration.ZERO);
+
+        assertThat(readConnection(routing)).isAnyOf(replica1, replica2);
+        assertThat(writeConnection(routing)).isSameInstanceAs(primary);
+        assertThat(routing.connection()).isSameInstanceAs(primary);
+    }
+
+    @Test
+    public void replica_bound_to_thread_until_released() throws Exception {
+        RoutingConnector routing = newRouting(Duration.ZERO);
+
+        Connection first = readConnection(routing);
+        assertThat(readConnection(routing)).isSameInstanceAs(first);
+        assertThat(routing.inFlight()).asList().containsExactly(1, 0).inOrder();
+
+        runInNewThread(() -> assertThat(readConnection(routing)).isNotSameInstanceAs(first));
+        assertThat(routing.inFlight()).asList().containsExactly(1, 1);
+
+        assertThat(routing.release()).isTrue();
+        assertThat(routing.release()).isFalse();
+        assertThat(routing.inFlight()).asList().containsExactly(0, 1).inOrder();
+    }
+
+    @Test
+    public void least_in_flight_replica_is_picked() throws Exception {
+        RoutingConnector routing = newRouting(Duration.ZERO);
+
+        runInNewThread(() -> assertThat(readConnection(routing)).isSameInstanceAs(replica1));
+        runInNewThread(() -> {
+            assertThat(readConnection(routing)).isSameInstanceAs(replica2);
+            routing.release();
+        });
+        assertThat(routing.inFlight()).asList().containsExactly(1, 0).inOrder();
+
+        // The round-robin points to the first replica, but it has more sessions in-flight
+        runInNewThread(() -> assertThat(readConnection(routing)).isSameInstanceAs(replica2));
+        assertThat(routing.inFlight()).asList().containsExactly(1, 1).inOrder();
+    }
+
+    @Test
+    public void reads_sticky_to_primary_after_write() {
+        RoutingConnector routing = newRouting(Duration.ofMinutes(1));
+
+        assertThat(readConnection(routing)).isAnyOf(replica1, replica2);
+        assertThat(writeConnection(routing)).isSameInstanceAs(primary);
+        assertThat(readConnection(routing)).isSameInstanceAs(primary);
+
+        routing.release();
+        assertThat(readConnection(routing)).isAnyOf(replica1, replica2);
+    }
+
+    @Test
+    public void reads_pinned_to_primary() {
+        RoutingConnector routing = newRouting(Duration.ZERO);
+
+        try (RoutingConnector.Pin outer = routing.pinPrimary()) {
+            try (RoutingConnector.Pin inner = routing.pinPrimary()) {
+                assertThat(readConnection(routing)).isSameInstanceAs(primary);
+            }
+            assertThat(readConnection(routing)).isSameInstanceAs(primary);
+        }
+        assertThat(readConnection(routing)).isAnyOf(replica1, replica2);
+    }
+
+    private RoutingConnector newRouting(Duration stickyWindow) {
+        return RoutingConnector.builder(connectorOf(primary))
+            .addReplica(connectorOf(replica1))
+            .addReplica(connectorOf(replica2))
+            .stickyWindow(stickyWindow)
+            .build();
+    }
+
+    // Each call runs in a fresh thread, so that the thread-local sessions aren't shared
+    private static void runInNewThread(Runnable runnable) throws Exception {
+        CompletableFuture.runAsync(runnable, command -> new Thread(command).start()).get();
+    }
+
+    private static Connector connectorOf(Connection connection) {
+        return () -> connection;
+    }
+
+    private static Connection readConnection(RoutingConnector routing) {
+        return connectionOf(routing.readRunner());
+    }
+
+    private static Connection writeConnection(RoutingConnector routing) {
+        return connectionOf(routing.runner());
+    }
+
+    private static Connection connectionOf(QueryRunner runner) {
+        try (PreparedStatement statement = runner.prepareQuery("select 1")) {
+            return statement.getConnection();
+        } catch (SQLException e) {
+            return Unchecked.rethrow(e);
+        }
+    }
+}
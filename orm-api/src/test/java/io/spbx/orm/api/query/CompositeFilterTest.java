@@ -93,4 +93,44 @@ public class CompositeFilterTest {
             .build();
         assertThat(filter).matches("LIMIT ?").containsArgsExactly(777);
     }
+
+    @Test
+    public void of_single_clause() {
+        assertThat(CompositeFilter.of(Where.of(FakeColumn.FOO.bool()))).matches("WHERE foo").containsNoArgs();
+        assertThat(CompositeFilter.of(Limit.of(5))).matches("LIMIT ?").containsArgsExactly(5);
+    }
+
+    @Test
+    public void with_limit_at_most_no_limit() {
+        CompositeFilter filter = CompositeFilter.builder().with(Where.of(FakeColumn.FOO.bool())).build();
+        assertThat(filter.withLimitAtMost(10, Engine.SQLite))
+            .matches("""
+                WHERE foo
+                LIMIT ?
+                """)
+            .containsArgsExactly(10);
+        assertThat(filter.withLimitAtMost(10, Engine.Oracle))
+            .matches("""
+                WHERE foo
+                FETCH NEXT ? ROWS ONLY
+                """)
+            .containsArgsExactly(10);
+    }
+
+    @Test
+    public void with_limit_at_most_existing_limit() {
+        CompositeFilter filter = CompositeFilter.builder().with(Limit.of(5)).with(Offset.of(20)).build();
+        assertThat(filter.withLimitAtMost(10, Engine.SQLite))
+            .matches("""
+                LIMIT ?
+                OFFSET ?
+                """)
+            .containsArgsExactly(5, 20);
+        assertThat(filter.withLimitAtMost(3, Engine.SQLite))
+            .matches("""
+                LIMIT ?
+                OFFSET ?
+                """)
+            .containsArgsExactly(3, 20);
+    }
 }
@@ -0,0 +1,78 @@
+package io.spbx.orm.api.query;
+
+import io.spbx.orm.api.Engine;
+import io.spbx.orm.api.PageToken;
+import io.spbx.orm.testing.FakeColumn;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spbx.orm.testing.AssertSql.assertThat;
+import static io.spbx.util.testing.TestingBasics.arrayOf;
+
+@Tag("fast")
+public class KeysetTest {
+    private static final Keyset SINGLE = Keyset.builder().asc(FakeColumn.INT).build();
+    private static final Keyset UNIFORM = Keyset.builder().desc(FakeColumn.STR).desc(FakeColumn.INT).build();
+    private static final Keyset MIXED =
+        Keyset.builder().desc(FakeColumn.STR).asc(FakeColumn.FOO).asc(FakeColumn.INT).build();
+
+    @Test
+    public void order_by() {
+        assertThat(MIXED.orderBy()).matches("ORDER BY s DESC, foo ASC, i ASC").containsNoArgs();
+    }
+
+    @Test
+    public void seek_single_column() {
+        assertThat(Where.of(SINGLE.seekAfter(arrayOf(5), Engine.PostgreSQL)))
+            .matches("WHERE i > ?")
+            .containsArgsExactly(5);
+    }
+
+    @Test
+    public void seek_row_values() {
+        assertThat(Where.of(UNIFORM.seekAfter(arrayOf("x", 5), Engine.PostgreSQL)))
+            .matches("WHERE (s, i) < (?, ?)")
+            .containsArgsExactly("x", 5);
+    }
+
+    @Test
+    public void seek_expanded_no_row_values() {
+        assertThat(Where.of(UNIFORM.seekAfter(arrayOf("x", 5), Engine.MsSqlServer)))
+            .matches("WHERE s < ? OR (s = ? AND i < ?)")
+            .containsArgsExactly("x", "x", 5);
+    }
+
+    @Test
+    public void seek_expanded_mixed_order() {
+        assertThat(Where.of(MIXED.seekAfter(arrayOf("x", "y", 5), Engine.PostgreSQL)))
+            .matches("WHERE s < ? OR (s = ? AND foo > ?) OR (s = ? AND foo = ? AND i > ?)")
+            .containsArgsExactly("x", "x", "y", "x", "y", 5);
+    }
+
+    @Test
+    public void page_token_roundtrip() {
+        Timestamp timestamp = Timestamp.valueOf("2024-01-02 03:04:05.123456789");
+        Object[] lastKey = new Object[] { "foo", 1, 2L, 3.5, true, null, new byte[] { 1, 2 }, timestamp };
+        Keyset keyset = Keyset.builder()
+            .asc(FakeColumn.STR).asc(FakeColumn.INT).asc(FakeColumn.INT).asc(FakeColumn.INT)
+            .asc(FakeColumn.FOO).asc(FakeColumn.FOO).asc(FakeColumn.FOO).asc(FakeColumn.FOO)
+            .build();
+        PageToken token = keyset.toPageToken(lastKey);
+        assertThat(token.hasLastItem()).isTrue();
+        assertThat(token.lastItem()).matches("[A-Za-z0-9_-]+");
+        assertThat(keyset.fromPageToken(token)).isEqualTo(lastKey);
+        String humanToken = token.serializeHumanToken(PageToken.Preference.PREFER_LAST_ITEM);
+        assertThat(keyset.fromPageToken(PageToken.ofLastItem(humanToken))).isEqualTo(lastKey);
+    }
+
+    @Test
+    public void page_token_invalid() {
+        assertThat(SINGLE.fromPageToken(PageToken.ofOffset(10))).isNull();
+        assertThat(SINGLE.fromPageToken(PageToken.ofLastItem("foo"))).isNull();
+        assertThat(SINGLE.fromPageToken(PageToken.ofLastItem("!!!"))).isNull();
+        assertThat(SINGLE.fromPageToken(UNIFORM.toPageToken(arrayOf("x", 5)))).isNull();
+    }
+}
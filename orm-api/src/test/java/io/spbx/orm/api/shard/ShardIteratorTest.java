@@ -0,0 +1,122 @@
+package io.spbx.orm.api.shard;
+
+import com.google.common.collect.Lists;
+import com.mockrunner.mock.jdbc.MockResultSet;
+import io.spbx.orm.api.ResultSetIterator;
+import io.spbx.orm.api.query.CompositeFilter;
+import io.spbx.orm.api.query.Limit;
+import io.spbx.orm.api.query.Offset;
+import io.spbx.orm.api.query.Order;
+import io.spbx.orm.api.query.OrderBy;
+import io.spbx.orm.api.query.Unit;
+import io.spbx.orm.testing.FakeColumn;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spbx.orm.testing.AssertSql.assertThat;
+import static io.spbx.orm.testing.MockingJdbc.mockResultSet;
+import static io.spbx.util.testing.TestingBasics.arrayOf;
+
+@Tag("fast")
+public class ShardIteratorTest {
+    private final MockResultSet shard1 = resultSetOf(1, 4, 7);
+    private final MockResultSet shard2 = resultSetOf(2, 3, 8, 9);
+    private final MockResultSet shard3 = resultSetOf();
+
+    @Test
+    public void concat_shards() {
+        try (ShardIterator<Integer> iterator = newIterator(null, 0, ShardFilters.NO_LIMIT)) {
+            assertThat(Lists.newArrayList(iterator)).containsExactly(1, 4, 7, 2, 3, 8, 9).inOrder();
+        }
+    }
+
+    @Test
+    public void merge_shards_ordered() {
+        try (ShardIterator<Integer> iterator = newIterator(Comparator.naturalOrder(), 0, ShardFilters.NO_LIMIT)) {
+            assertThat(Lists.newArrayList(iterator)).containsExactly(1, 2, 3, 4, 7, 8, 9).inOrder();
+        }
+    }
+
+    @Test
+    public void merge_shards_reverse_ordered() {
+        MockResultSet shard1 = resultSetOf(7, 4, 1);
+        MockResultSet shard2 = resultSetOf(9, 8, 3, 2);
+        List<ResultSetIterator<Integer>> iterators = List.of(iteratorOf(shard1), iteratorOf(shard2));
+        try (ShardIterator<Integer> iterator = new ShardIterator<>(iterators, Comparator.reverseOrder(), 0, 100)) {
+            assertThat(Lists.newArrayList(iterator)).containsExactly(9, 8, 7, 4, 3, 2, 1).inOrder();
+        }
+    }
+
+    @Test
+    public void merge_shards_with_window() {
+        try (ShardIterator<Integer> iterator = newIterator(Comparator.naturalOrder(), 2, 3)) {
+            assertThat(Lists.newArrayList(iterator)).containsExactly(3, 4, 7).inOrder();
+        }
+    }
+
+    @Test
+    public void concat_shards_with_window() {
+        try (ShardIterator<Integer> iterator = newIterator(null, 2, 3)) {
+            assertThat(Lists.newArrayList(iterator)).containsExactly(7, 2, 3).inOrder();
+        }
+    }
+
+    @Test
+    public void close_closes_all_shards() throws SQLException {
+        try (ShardIterator<Integer> iterator = newIterator(Comparator.naturalOrder(), 0, 1)) {
+            assertThat(iterator.next()).isEqualTo(1);
+            assertThat(iterator.hasNext()).isFalse();
+        }
+        assertThat(shard1.isClosed()).isTrue();
+        assertThat(shard2.isClosed()).isTrue();
+        assertThat(shard3.isClosed()).isTrue();
+    }
+
+    @Test
+    public void shard_filter_window() {
+        CompositeFilter filter = CompositeFilter.builder()
+            .with(OrderBy.of(FakeColumn.INT, Order.ASC))
+            .with(Limit.of(10))
+            .with(Offset.of(20))
+            .build();
+        assertThat(ShardFilters.isOrdered(filter)).isTrue();
+        assertThat(ShardFilters.offsetOf(filter)).isEqualTo(20);
+        assertThat(ShardFilters.limitOf(filter)).isEqualTo(10);
+        assertThat((Unit) ShardFilters.shardFilter(filter))
+            .matches("""
+                ORDER BY i ASC
+                LIMIT ?
+                OFFSET ?
+                """)
+            .containsArgsExactly(30, 0);
+    }
+
+    @Test
+    public void shard_filter_no_window() {
+        CompositeFilter filter = CompositeFilter.builder().with(Limit.of(10)).build();
+        assertThat(ShardFilters.isOrdered(filter)).isFalse();
+        assertThat(ShardFilters.offsetOf(filter)).isEqualTo(0);
+        assertThat(ShardFilters.limitOf(filter)).isEqualTo(10);
+        assertThat(ShardFilters.shardFilter(filter)).isSameInstanceAs(filter);
+    }
+
+    private @NotNull ShardIterator<Integer> newIterator(Comparator<Integer> order, int offset, int limit) {
+        List<ResultSetIterator<Integer>> iterators = List.of(iteratorOf(shard1), iteratorOf(shard2), iteratorOf(shard3));
+        return new ShardIterator<>(iterators, order, offset, limit);
+    }
+
+    private static @NotNull ResultSetIterator<Integer> iteratorOf(@NotNull MockResultSet resultSet) {
+        return ResultSetIterator.of(resultSet, row -> row.getInt(1));
+    }
+
+    private static @NotNull MockResultSet resultSetOf(int @NotNull ... values) {
+        return mockResultSet(Arrays.stream(values).<Object[]>mapToObj(value -> arrayOf(value)).toList());
+    }
+}
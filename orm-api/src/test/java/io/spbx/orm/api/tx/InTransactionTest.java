@@ -2,6 +2,7 @@ package io.spbx.orm.api.tx;
 
 import com.mockrunner.jdbc.PreparedStatementResultSetHandler;
 import com.mockrunner.mock.jdbc.MockConnection;
+import com.mockrunner.mock.jdbc.MockDatabaseMetaData;
 import io.spbx.orm.api.QueryRunner;
 import io.spbx.orm.api.query.HardcodedSelectQuery;
 import io.spbx.util.base.error.Unchecked;
@@ -9,12 +10,16 @@ import io.spbx.util.func.ThrowConsumer;
 import io.spbx.util.func.ThrowFunction;
 import io.spbx.util.testing.MoreTruth;
 import io.spbx.util.testing.func.CalledOnce;
+import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.google.common.truth.Truth.assertThat;
 import static io.spbx.orm.testing.MockingJdbc.assertThat;
@@ -114,4 +119,120 @@ public class InTransactionTest {
 
         assertThat(mockedConnection).wasCommitted(1).wasRolledBack(0);
     }
+
+    /** {@link InTransaction#withRetry(RetryPolicy)} **/
+
+    @Test
+    public void run_retries_transient_error() throws SQLException {
+        mockedConnection.setAutoCommit(true);
+        mockEngine("PostgreSQL");
+        AtomicInteger attempts = new AtomicInteger();
+
+        int result = tx.withRetry(RetryPolicy.DEFAULT.withBackoff(Duration.ZERO, Duration.ZERO)).run(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                Unchecked.throwAny(new SQLException("Deadlock", "40P01"));
+            }
+            return attempts.get();
+        });
+
+        assertThat(result).isEqualTo(3);
+        assertThat(mockedConnection).hasAutocommit(true).wasCommitted(1).wasRolledBack(2);
+    }
+
+    @Test
+    public void run_retries_exhausted() throws SQLException {
+        mockedConnection.setAutoCommit(true);
+        mockEngine("MySQL");
+        AtomicInteger attempts = new AtomicInteger();
+
+        Exception exception = assertThrows(Exception.class, () ->
+            tx.withRetry(RetryPolicy.ofAttempts(2).withBackoff(Duration.ZERO, Duration.ZERO)).run(runner -> {
+                attempts.incrementAndGet();
+                Unchecked.throwAny(new SQLException("Lock wait timeout", "HY000", 1205));
+            })
+        );
+
+        assertThat(exception).hasCauseThat().hasMessageThat().isEqualTo("Lock wait timeout");
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(mockedConnection).hasAutocommit(true).wasCommitted(0).wasRolledBack(2);
+    }
+
+    @Test
+    public void run_does_not_retry_other_error() throws SQLException {
+        mockedConnection.setAutoCommit(true);
+        mockEngine("PostgreSQL");
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(Exception.class, () ->
+            tx.withRetry(RetryPolicy.DEFAULT).run(runner -> {
+                attempts.incrementAndGet();
+                Unchecked.throwAny(new SQLException("Unique violation", "23505"));
+            })
+        );
+
+        assertThat(attempts.get()).isEqualTo(1);
+        assertThat(mockedConnection).wasCommitted(0).wasRolledBack(1);
+    }
+
+    @Test
+    public void run_does_not_retry_nested() throws SQLException {
+        mockedConnection.setAutoCommit(false);
+        mockEngine("PostgreSQL");
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(Exception.class, () ->
+            tx.withRetry(RetryPolicy.DEFAULT).run(runner -> {
+                attempts.incrementAndGet();
+                Unchecked.throwAny(new SQLException("Serialization failure", "40001"));
+            })
+        );
+
+        assertThat(attempts.get()).isEqualTo(1);
+    }
+
+    /** {@link InTransaction#withIsolation(TxIsolation)} **/
+
+    @Test
+    public void run_with_isolation_and_read_only() throws SQLException {
+        mockedConnection.setAutoCommit(true);
+        mockedConnection.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+
+        tx.withIsolation(TxIsolation.SERIALIZABLE).withReadOnly(true).run(runner -> {
+            assertThat(mockedConnection.getTransactionIsolation()).isEqualTo(Connection.TRANSACTION_SERIALIZABLE);
+            assertThat(mockedConnection.isReadOnly()).isTrue();
+        });
+
+        assertThat(mockedConnection.getTransactionIsolation()).isEqualTo(Connection.TRANSACTION_READ_COMMITTED);
+        assertThat(mockedConnection.isReadOnly()).isFalse();
+        assertThat(mockedConnection).hasAutocommit(true).wasCommitted(1).wasRolledBack(0);
+    }
+
+    /** {@link InTransaction#runInSavepoint(ThrowFunction)} **/
+
+    @Test
+    public void runInSavepoint_rolls_back_only_savepoint() throws SQLException {
+        mockedConnection.setAutoCommit(true);
+
+        tx.run(runner -> {
+            assertThrows(SQLException.class, () ->
+                tx.runInSavepoint(nested -> {
+                    Unchecked.throwAny(new SQLException("Fail"));
+                })
+            );
+            assertThat(tx.runInSavepoint(nested -> {
+                return "ok";
+            })).isEqualTo("ok");
+        });
+
+        assertThat(mockedConnection.getSavepoints()).hasSize(2);
+        assertThat(mockedConnection.getRolledbackSavepoints()).hasSize(1);
+        assertThat(mockedConnection.getReleasedSavepoints()).hasSize(1);
+        assertThat(mockedConnection).hasAutocommit(true).wasCommitted(1);
+    }
+
+    private void mockEngine(@NotNull String databaseProductName) {
+        MockDatabaseMetaData metaData = new MockDatabaseMetaData();
+        metaData.setDatabaseProductName(databaseProductName);
+        mockedConnection.setMetaData(metaData);
+    }
 }
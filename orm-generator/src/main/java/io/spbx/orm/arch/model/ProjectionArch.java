@@ -0,0 +1,62 @@
+package io.spbx.orm.arch.model;
+
+import com.google.common.collect.ImmutableList;
+import io.spbx.orm.api.annotate.Model;
+import io.spbx.util.reflect.BasicAnnotations;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static io.spbx.orm.arch.InvalidSqlModelException.assure;
+import static io.spbx.orm.arch.InvalidSqlModelException.newInvalidSqlModelException;
+
+/**
+ * Represents the projection of the table: a record with a subset of the model fields.
+ * The projection fields are the table fields matching the record components, in the order of the components.
+ *
+ * @see Model#projections()
+ */
+@Immutable
+public record ProjectionArch(@NotNull Class<?> projectionClass,
+                             @NotNull ImmutableList<TableField> fields) implements HasColumns {
+    public static @NotNull ImmutableList<ProjectionArch> fromTable(@NotNull TableArch table) {
+        return BasicAnnotations.getOptionalAnnotation(table.modelClass(), Model.class)
+            .map(annotation -> Stream.of(annotation.projections()).map(klass -> of(table, klass)))
+            .orElseGet(Stream::empty)
+            .collect(ImmutableList.toImmutableList());
+    }
+
+    public static @NotNull ProjectionArch of(@NotNull TableArch table, @NotNull Class<?> projectionClass) {
+        String name = projectionClass.getSimpleName();
+        String model = table.modelClass().getSimpleName();
+        assure(projectionClass.isRecord(), "Projection `%s` of model `%s` is not a record", name, model);
+        assure(projectionClass.getRecordComponents().length > 0,
+               "Projection `%s` of model `%s` doesn't have fields", name, model);
+
+        ImmutableList<TableField> fields = Stream.of(projectionClass.getRecordComponents()).map(component -> {
+            TableField field = table.fields().stream()
+                .filter(tableField -> tableField.javaName().equals(component.getName()))
+                .findFirst()
+                .orElseThrow(() -> newInvalidSqlModelException(
+                    "Projection `%s` field `%s` not found in model `%s`", name, component.getName(), model
+                ));
+            assure(component.getType() == field.javaType(),
+                   "Projection `%s` field `%s` type `%s` doesn't match the model `%s` type `%s`",
+                   name, component.getName(), component.getType().getSimpleName(), model,
+                   field.javaType().getSimpleName());
+            return field;
+        }).collect(ImmutableList.toImmutableList());
+        return new ProjectionArch(projectionClass, fields);
+    }
+
+    public @NotNull String javaName() {
+        return projectionClass.getSimpleName();
+    }
+
+    @Override
+    public @NotNull List<Column> columns() {
+        return fields.stream().map(HasColumns::columns).flatMap(List::stream).toList();
+    }
+}
@@ -20,6 +20,7 @@ import java.util.stream.Stream;
 
 import static io.spbx.orm.api.ReadFollow.FOLLOW_ALL;
 import static io.spbx.orm.api.ReadFollow.FOLLOW_ONE_LEVEL;
+import static io.spbx.orm.arch.InvalidSqlModelException.failIf;
 import static io.spbx.orm.arch.InvalidSqlModelException.newInvalidSqlModelException;
 import static io.spbx.orm.arch.model.SqlNameValidator.validateSqlName;
 import static io.spbx.util.base.error.BasicExceptions.newInternalError;
@@ -30,6 +31,7 @@ import static io.spbx.util.code.jvm.JavaNameValidator.validateJavaPackage;
 public final class TableArch implements JavaNameHolder, HasColumns, HasPrefixedColumns {
     private final LazyInit<ImmutableList<TableField>> fieldsRef = AtomicLazyInit.createUninitialized();
     private final CacheCompute<Optional<TableField>> primaryKeyCache = AtomicCacheCompute.createEmpty();
+    private final CacheCompute<ImmutableList<ProjectionArch>> projectionsCache = AtomicCacheCompute.createEmpty();
 
     private final String sqlName;
     private final String javaName;
@@ -131,6 +133,10 @@ public final class TableArch implements JavaNameHolder, HasColumns, HasPrefixedC
         return fields().stream().flatMap(field -> field.columns().stream().map(column -> Pair.of(field, column))).toList();
     }
 
+    public @NotNull ImmutableList<ProjectionArch> projections() {
+        return projectionsCache.getOrCompute(() -> ProjectionArch.fromTable(this));
+    }
+
     public boolean isBridgeTable() {
         return bridgeInfo != null;
     }
@@ -192,6 +198,9 @@ public final class TableArch implements JavaNameHolder, HasColumns, HasPrefixedC
             leftBridgeFieldOrDie();
             rightBridgeFieldOrDie();
         }
+        List<String> projectionNames = projections().stream().map(ProjectionArch::javaName).toList();
+        failIf(projectionNames.stream().distinct().count() < projectionNames.size(),
+               "Projections of model `%s` have duplicate names: %s", describeModel(), projectionNames);
     }
 
     @Override
@@ -7,15 +7,29 @@ import io.spbx.orm.api.BridgeTable;
 import io.spbx.orm.api.Connector;
 import io.spbx.orm.api.DbAdmin;
 import io.spbx.orm.api.Engine;
+import io.spbx.orm.api.Follow;
+import io.spbx.orm.api.FollowSelect;
 import io.spbx.orm.api.Foreign;
 import io.spbx.orm.api.ForeignInt;
 import io.spbx.orm.api.ForeignLong;
 import io.spbx.orm.api.ForeignObj;
+import io.spbx.orm.api.ForeignResolver;
+import io.spbx.orm.api.ProjectedTable;
 import io.spbx.orm.api.QueryException;
 import io.spbx.orm.api.QueryRunner;
 import io.spbx.orm.api.ReadFollow;
+import io.spbx.orm.api.ReadOptions;
 import io.spbx.orm.api.ResultSetIterator;
 import io.spbx.orm.api.TableMeta;
+import io.spbx.orm.api.TableStatistics;
+import io.spbx.orm.api.batch.BatchOptions;
+import io.spbx.orm.api.batch.BatchResult;
+import io.spbx.orm.api.batch.InListChunks;
+import io.spbx.orm.api.batch.MultiRowInsert;
+import io.spbx.orm.api.batch.RowInList;
+import io.spbx.orm.api.cache.IdentityScope;
+import io.spbx.orm.api.cache.QueryResultCache;
+import io.spbx.orm.api.cache.RowCodec;
 import io.spbx.orm.api.entity.BatchEntityData;
 import io.spbx.orm.api.entity.BatchEntityIntData;
 import io.spbx.orm.api.entity.BatchEntityLongData;
@@ -24,13 +38,18 @@ import io.spbx.orm.api.entity.EntityData;
 import io.spbx.orm.api.entity.EntityIntData;
 import io.spbx.orm.api.entity.EntityLongData;
 import io.spbx.orm.api.query.Args;
+import io.spbx.orm.api.query.CompositeFilter;
 import io.spbx.orm.api.query.Contextual;
 import io.spbx.orm.api.query.Filter;
 import io.spbx.orm.api.query.FullColumn;
+import io.spbx.orm.api.query.InvalidQueryException;
 import io.spbx.orm.api.query.TermType;
 import io.spbx.orm.api.query.Where;
+import io.spbx.orm.arch.model.Column;
 import io.spbx.orm.arch.model.ForeignTableField;
 import io.spbx.orm.arch.model.JavaNameHolder;
+import io.spbx.orm.arch.model.JdbcType;
+import io.spbx.orm.arch.model.ProjectionArch;
 import io.spbx.orm.arch.model.TableArch;
 import io.spbx.orm.arch.model.TableField;
 import org.jetbrains.annotations.NotNull;
@@ -44,14 +63,29 @@ class ImportsCollector {
 
     private static final ImmutableList<Class<?>> DEFAULT_ORM_CLASSES = ImmutableList.of(
         Connector.class, QueryRunner.class, QueryException.class, Engine.class, ReadFollow.class, DbAdmin.class,
-        Filter.class, Where.class, Args.class, FullColumn.class, TermType.class,
-        io.spbx.orm.api.query.Column.class,
+        Filter.class, Where.class, Args.class, FullColumn.class, TermType.class, io.spbx.orm.api.query.Column.class,
         ResultSetIterator.class, TableMeta.class,
-        EntityData.class, EntityIntData.class, EntityLongData.class, EntityColumnMap.class,
-        BatchEntityData.class, BatchEntityIntData.class, BatchEntityLongData.class,
+        EntityData.class, EntityColumnMap.class, BatchEntityData.class,
         Contextual.class
     );
 
+    // Emitted for every table: constructors, `withFollow()`, `withReadOptions()` and `fromRow()`
+    private static final ImmutableList<Class<?>> READ_OPTIONS_CLASSES = ImmutableList.of(
+        ReadOptions.class, Follow.class, FollowSelect.class
+    );
+    // Emitted for every table: `count()`, `exists()` and the statistics-based estimates
+    private static final ImmutableList<Class<?>> COUNT_CLASSES = ImmutableList.of(
+        CompositeFilter.class, TableStatistics.class
+    );
+    // Emitted for every table: identity scope reads, cache invalidation on writes and `internalMeta()`
+    private static final ImmutableList<Class<?>> CACHE_CLASSES = ImmutableList.of(
+        IdentityScope.class, QueryResultCache.class, RowCodec.class
+    );
+    // Emitted for every table: `insertBatch()` and `bulkLoad()`
+    private static final ImmutableList<Class<?>> BATCH_WRITE_CLASSES = ImmutableList.of(
+        BatchOptions.class, BatchResult.class, MultiRowInsert.class
+    );
+
     private final ModelAdaptersLocator locator;
     private final TableArch table;
     private final Class<?> baseClass;
@@ -77,7 +111,7 @@ class ImportsCollector {
             .collect(Collectors.toList());
 
         List<Class<?>> foreignKeyClasses = table.hasForeignKeyField() ?
-            List.of(Foreign.class, ForeignInt.class, ForeignLong.class, ForeignObj.class) :
+            List.of(Foreign.class, ForeignInt.class, ForeignLong.class, ForeignObj.class, ForeignResolver.class) :
             List.of();
         /*List<Class<?>> foreignKeyClasses = table.foreignFields(ReadFollow.FOLLOW_ALL).stream()
                 .map(TableField::javaType)
@@ -91,14 +125,27 @@ class ImportsCollector {
                 .map(TableArch::modelClass)
                 .collect(Collectors.toList()) :
             List.of();
+        List<Class<?>> projectionClasses = table.projections().isEmpty() ?
+            List.of() :
+            Streams.concat(
+                Stream.of(ProjectedTable.class, InvalidQueryException.class),
+                table.projections().stream().map(ProjectionArch::projectionClass)
+            ).collect(Collectors.toList());
 
         List<Class<?>> allClasses = Streams.concat(
             DEFAULT_ORM_CLASSES.stream(),
+            READ_OPTIONS_CLASSES.stream(),
+            COUNT_CLASSES.stream(),
+            CACHE_CLASSES.stream(),
+            BATCH_WRITE_CLASSES.stream(),
+            batchReadClasses().stream(),
+            dataFactoryClasses().stream(),
             baseTableClasses().stream(),
             mappedTypes.stream(),
             mapperTypes.stream(),
             foreignKeyClasses.stream(),
-            foreignModelClasses.stream()
+            foreignModelClasses.stream(),
+            projectionClasses.stream()
         ).filter(this::isImportable).toList();
 
         List<FQN> adapterFqns = Streams.concat(
@@ -115,6 +162,33 @@ class ImportsCollector {
         return fqns.stream().map(FQN::toImportName).sorted().distinct().toList();
     }
 
+    // Mirrors `ModelTableCodegen.getBatchByPk()`
+    private @NotNull List<Class<?>> batchReadClasses() {
+        TableField primaryField = table.primaryKeyField();
+        if (primaryField == null) {
+            return List.of();
+        }
+        if (!primaryField.isNativelySupportedType()) {
+            return List.of(InListChunks.class, RowInList.class);
+        }
+        if (primaryField.columns(ReadFollow.NO_FOLLOW).size() != 1) {
+            return List.of();
+        }
+        return List.of(InListChunks.class);
+    }
+
+    // Mirrors `ModelTableCodegen.dataFactoryMethods()`
+    private @NotNull List<Class<?>> dataFactoryClasses() {
+        List<JdbcType> allTypes = table.columns().stream().map(Column::jdbcType).toList();
+        if (allTypes.stream().allMatch(type -> type == JdbcType.Int)) {
+            return List.of(EntityIntData.class, BatchEntityIntData.class);
+        }
+        if (allTypes.stream().allMatch(type -> type == JdbcType.Long)) {
+            return List.of(EntityLongData.class, BatchEntityLongData.class);
+        }
+        return List.of();
+    }
+
     private @NotNull List<Class<?>> baseTableClasses() {
         if (table.isBridgeTable()) {
             return List.of(baseClass, BridgeTable.class);
@@ -27,6 +27,18 @@ class InsertMaker {
              .appendLine("VALUES (", Stream.generate(() -> "?").limit(columns.size()).collect(COMMA_JOINER), ")");
     }
 
+    public @NotNull Snippet makeAllHeader(@NotNull TableArch table) {
+        return makeHeader(table, table.columns());
+    }
+
+    // The header of the multi-row insert: the rows are appended at runtime (see `MultiRowInsert`).
+    public @NotNull Snippet makeHeader(@NotNull TableArch table, @NotNull List<Column> columns) {
+        return new Snippet()
+            .appendLine("INSERT", ignore.value(), " INTO ", table.sqlName(),
+                        " (", columns.stream().map(Column::sqlName).collect(COMMA_JOINER), ")")
+            .appendLine("VALUES");
+    }
+
     enum Ignore {
         DEFAULT(""),
         IGNORE(" IGNORE"),
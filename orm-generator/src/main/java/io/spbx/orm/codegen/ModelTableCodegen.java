@@ -13,6 +13,7 @@ import io.spbx.orm.arch.model.HasColumns;
 import io.spbx.orm.arch.model.JdbcType;
 import io.spbx.orm.arch.model.OneColumnTableField;
 import io.spbx.orm.arch.model.PrefixedColumn;
+import io.spbx.orm.arch.model.ProjectionArch;
 import io.spbx.orm.arch.model.TableArch;
 import io.spbx.orm.arch.model.TableField;
 import io.spbx.orm.arch.util.Naming;
@@ -71,6 +72,8 @@ public class ModelTableCodegen extends BaseCodegen {
         classDef();
         constructors();
         withFollowOnRead();
+        withReadOptions();
+        withFollow();
 
         admin();
         getters();
@@ -85,6 +88,8 @@ public class ModelTableCodegen extends BaseCodegen {
         fetchPks();
         keyOf();
         iterator();
+        projections();
+        resolveForeign();
 
         insert();
         insertIgnore();
@@ -105,6 +110,7 @@ public class ModelTableCodegen extends BaseCodegen {
 
         insertDataBatch();
         updateDataWhereBatch();
+        bulkLoad();
 
         deleteByPk();
         deleteWhere();
@@ -191,16 +197,33 @@ public class ModelTableCodegen extends BaseCodegen {
         appendCode("""
         protected final Connector connector;
         protected final ReadFollow follow;
+        protected final ReadOptions readOptions;
+        protected final @Nullable Follow followGraph;
+        private final @Nullable String followQuery;
         $left_table_decl
         $right_table_decl
     
-        public $TableClass(@Nonnull Connector connector, @Nonnull ReadFollow follow) {
+        public $TableClass(@Nonnull Connector connector,
+                           @Nonnull ReadFollow follow,
+                           @Nonnull ReadOptions readOptions,
+                           @Nullable Follow followGraph) {
             this.connector = connector;
             this.follow = follow;
+            this.readOptions = readOptions;
+            this.followGraph = followGraph;
+            this.followQuery = followGraph != null ? FollowSelect.make(followGraph, $TableClass::selectFollow) : null;
             $left_table_init
             $right_table_init
         }
         
+        public $TableClass(@Nonnull Connector connector, @Nonnull ReadFollow follow, @Nonnull ReadOptions readOptions) {
+            this(connector, follow, readOptions, null);
+        }
+        
+        public $TableClass(@Nonnull Connector connector, @Nonnull ReadFollow follow) {
+            this(connector, follow, ReadOptions.DEFAULT);
+        }
+        
         public $TableClass(@Nonnull Connector connector) {
             this(connector, ReadFollow.NO_FOLLOW);
         }\n
@@ -212,18 +235,45 @@ public class ModelTableCodegen extends BaseCodegen {
             """
             @Override
             public @Nonnull $TableClass withReferenceFollowOnRead(@Nonnull ReadFollow follow) {
-                return this.follow == follow ? this : new $TableClass(connector, follow);
+                return this.follow == follow ? this : new $TableClass(connector, follow, readOptions, followGraph);
+            }
+
+            @Override
+            public boolean followsReferencesOnRead() {
+                return follow != ReadFollow.NO_FOLLOW || (followGraph != null && !followGraph.isEmpty());
             }\n
             """ :
             """
             @Override
             public @Nonnull $TableClass withReferenceFollowOnRead(@Nonnull ReadFollow follow) {
                 return this;
+            }
+
+            @Override
+            public boolean followsReferencesOnRead() {
+                return false;
             }\n
             """;
         appendCode(code, mainContext);
     }
 
+    private void withReadOptions() {
+        appendCode("""
+        @Override
+        public @Nonnull $TableClass withReadOptions(@Nonnull ReadOptions readOptions) {
+            return this.readOptions.equals(readOptions) ? this : new $TableClass(connector, follow, readOptions, followGraph);
+        }\n
+        """, mainContext);
+    }
+
+    private void withFollow() {
+        appendCode("""
+        public @Nonnull $TableClass withFollow(@Nonnull Follow graph) {
+            return graph.equals(followGraph) ? this : new $TableClass(connector, follow, readOptions, graph);
+        }\n
+        """, mainContext);
+    }
+
     private void admin() {
         appendCode("""
         @Override
@@ -242,9 +292,14 @@ public class ModelTableCodegen extends BaseCodegen {
         
         @Override
         public @Nonnull QueryRunner runner() {
-            return connector.runner();
+            return connector.runner().forTable("$table_sql");
+        }
+        
+        @Override
+        public @Nonnull QueryRunner readRunner() {
+            return connector.readRunner().forTable("$table_sql");
         }\n
-        """);
+        """, mainContext);
     }
 
     private void count() {
@@ -252,7 +307,7 @@ public class ModelTableCodegen extends BaseCodegen {
         @Override
         public int count() {
             String query = "SELECT COUNT(*) FROM $table_sql";
-            try (PreparedStatement statement = runner().prepareQuery(query);
+            try (PreparedStatement statement = readRunner().prepareQuery(query);
                  ResultSet result = statement.executeQuery()) {
                 return result.next() ? result.getInt(1) : 0;
             } catch (SQLException e) {
@@ -263,7 +318,7 @@ public class ModelTableCodegen extends BaseCodegen {
         @Override
         public int count(@Nonnull Filter filter) {
             String query = "SELECT COUNT(*) FROM $table_sql\\n" + filter.repr();
-            try (PreparedStatement statement = runner().prepareQuery(query, filter.args());
+            try (PreparedStatement statement = readRunner().prepareQuery(query, filter.args());
                  ResultSet result = statement.executeQuery()) {
                 return result.next() ? result.getInt(1) : 0;
             } catch (SQLException e) {
@@ -274,7 +329,7 @@ public class ModelTableCodegen extends BaseCodegen {
         @Override
         public long count64() {
             String query = "SELECT COUNT(*) FROM $table_sql";
-            try (PreparedStatement statement = runner().prepareQuery(query);
+            try (PreparedStatement statement = readRunner().prepareQuery(query);
                  ResultSet result = statement.executeQuery()) {
                 return result.next() ? result.getLong(1) : 0;
             } catch (SQLException e) {
@@ -285,12 +340,29 @@ public class ModelTableCodegen extends BaseCodegen {
         @Override
         public long count64(@Nonnull Filter filter) {
             String query = "SELECT COUNT(*) FROM $table_sql\\n" + filter.repr();
-            try (PreparedStatement statement = runner().prepareQuery(query, filter.args());
+            try (PreparedStatement statement = readRunner().prepareQuery(query, filter.args());
                  ResultSet result = statement.executeQuery()) {
                 return result.next() ? result.getLong(1) : 0;
             } catch (SQLException e) {
                 throw new QueryException("Failed to count in $TableClass", query, e);
             }
+        }
+        
+        @Override
+        public int countUpTo(@Nonnull Filter filter, int limit) {
+            CompositeFilter bounded = CompositeFilter.of(filter).withLimitAtMost(limit, engine());
+            String query = "SELECT COUNT(*) FROM (SELECT 1 FROM $table_sql\\n" + bounded.repr() + ") bounded";
+            try (PreparedStatement statement = readRunner().prepareQuery(query, bounded.args());
+                 ResultSet result = statement.executeQuery()) {
+                return result.next() ? result.getInt(1) : 0;
+            } catch (SQLException e) {
+                throw new QueryException("Failed to count in $TableClass", query, bounded.args(), e);
+            }
+        }
+        
+        @Override
+        public long estimateCount() {
+            return TableStatistics.shared().estimateCount(connector, this);
         }\n
         """, mainContext);
     }
@@ -300,7 +372,7 @@ public class ModelTableCodegen extends BaseCodegen {
         @Override
         public boolean isNotEmpty() {
             String query = "SELECT EXISTS (SELECT * FROM $table_sql LIMIT 1)";
-            try (PreparedStatement statement = runner().prepareQuery(query);
+            try (PreparedStatement statement = readRunner().prepareQuery(query);
                  ResultSet result = statement.executeQuery()) {
                 return result.next() && result.getBoolean(1);
             } catch (SQLException e) {
@@ -311,12 +383,24 @@ public class ModelTableCodegen extends BaseCodegen {
         @Override
         public boolean exists(@Nonnull Where where) {
             String query = "SELECT EXISTS (SELECT * FROM $table_sql " + where.repr() + " LIMIT 1)";
-            try (PreparedStatement statement = runner().prepareQuery(query, where.args());
+            try (PreparedStatement statement = readRunner().prepareQuery(query, where.args());
                  ResultSet result = statement.executeQuery()) {
                 return result.next() && result.getBoolean(1);
             } catch (SQLException e) {
                 throw new QueryException("Failed to check exists in $TableClass", query, where.args(), e);
             }
+        }
+    
+        @Override
+        public boolean exists(@Nonnull Filter filter) {
+            CompositeFilter bounded = CompositeFilter.of(filter).withLimitAtMost(1, engine());
+            String query = "SELECT EXISTS (SELECT * FROM $table_sql\\n" + bounded.repr() + ")";
+            try (PreparedStatement statement = readRunner().prepareQuery(query, bounded.args());
+                 ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            } catch (SQLException e) {
+                throw new QueryException("Failed to check exists in $TableClass", query, bounded.args(), e);
+            }
         }\n
         """, mainContext);
     }
@@ -331,8 +415,20 @@ public class ModelTableCodegen extends BaseCodegen {
         appendCode("""
         private static final String[] SELECT_ENTITY_ALL = {
         $constants
-        };\n
-        """, orderedMapOf("$constants", constants));
+        };
+
+        private @Nonnull String selectEntityAll() {
+            return followQuery != null ? followQuery : SELECT_ENTITY_ALL[follow.ordinal()];
+        }
+
+        private @Nonnull $ModelClass readEntity(@Nonnull ResultSet result) throws SQLException {
+            return followGraph != null ? fromRow(result, followGraph, 0) : fromRow(result, follow, 0);
+        }
+
+        private @Nullable IdentityScope readScope() {
+            return followGraph == null ? IdentityScope.current() : null;  // the scope is per ReadFollow level
+        }\n
+        """, mergeToMap(orderedMapOf("$constants", constants), mainContext));
     }
 
     private void existsByPk() {
@@ -349,8 +445,13 @@ public class ModelTableCodegen extends BaseCodegen {
         appendCode("""
         @Override
         public boolean exists($pk_annotation$pk_type $pk_name) {
+            IdentityScope scope = IdentityScope.current();
+            Boolean scoped = scope != null ? scope.exists("$table_sql", $pk_name) : null;
+            if (scoped != null) {
+                return scoped;
+            }
             String query = "SELECT EXISTS (SELECT * FROM $table_sql " + $sql_where_literal + " LIMIT 1)";
-            try (PreparedStatement statement = runner().prepareQuery(query, $pk_object);
+            try (PreparedStatement statement = readRunner().prepareQuery(query, $pk_object);
                  ResultSet result = statement.executeQuery()) {
                 return result.next() && result.getBoolean(1);
             } catch (SQLException e) {
@@ -374,10 +475,18 @@ public class ModelTableCodegen extends BaseCodegen {
         appendCode("""
         @Override
         public @Nullable $ModelClass getByPkOrNull($pk_annotation$pk_type $pk_name) {
-            String query = SELECT_ENTITY_ALL[follow.ordinal()] + $sql_where_literal;
-            try (PreparedStatement statement = runner().prepareQuery(query, $pk_object);
+            IdentityScope scope = readScope();
+            if (scope != null) {
+                return scope.getByPk("$table_sql", follow, $pk_name, () -> selectByPk($pk_name));
+            }
+            return selectByPk($pk_name);
+        }
+
+        private @Nullable $ModelClass selectByPk($pk_annotation$pk_type $pk_name) {
+            String query = selectEntityAll() + $sql_where_literal;
+            try (PreparedStatement statement = readRunner().prepareQuery(query, $pk_object);
                  ResultSet result = statement.executeQuery()) {
-                return result.next() ? fromRow(result, follow, 0) : null;
+                return result.next() ? readEntity(result) : null;
             } catch (SQLException e) {
                 throw new QueryException("Failed to find by PK in $TableClass", query, $pk_name, e);
             }
@@ -403,8 +512,12 @@ public class ModelTableCodegen extends BaseCodegen {
 
     private void getBatchByPk() {
         TableField primaryField = table.primaryKeyField();
-        if (primaryField == null || !primaryField.isNativelySupportedType()) {
-            return;  // non-native fields require keys conversion
+        if (primaryField == null) {
+            return;
+        }
+        if (!primaryField.isNativelySupportedType()) {
+            getBatchByConvertedPk(primaryField);  // non-native fields require keys conversion
+            return;
         }
 
         List<String> primaryColumns = primaryField.columns(ReadFollow.NO_FOLLOW)
@@ -416,27 +529,40 @@ public class ModelTableCodegen extends BaseCodegen {
         }
 
         String queryExecution = """
-            String query = SELECT_ENTITY_ALL[follow.ordinal()] + "WHERE $pk_column IN (" + "?,".repeat(keys.size() - 1) + "?)";
-            try (PreparedStatement statement = runner().prepareQuery(query, keys);
-                 ResultSet result = statement.executeQuery()) {
-                while (result.next()) {
-                    $ModelClass entity = fromRow(result, follow, 0);
-                    map.put(entity.$pk_getter, entity);
+            for ($chunk_type chunk : InListChunks.split(keys, engine())) {
+                String query = selectEntityAll() + "WHERE $pk_column IN (" +
+                               InListChunks.placeholders(chunk.size()) + ")";
+                try (PreparedStatement statement = readRunner().prepareQuery(query, chunk);
+                     ResultSet result = statement.executeQuery()) {
+                    while (result.next()) {
+                        $ModelClass entity = readEntity(result);
+                        map.put(entity.$pk_getter, entity);
+                    }
+                } catch (SQLException e) {
+                    throw new QueryException("Failed to find by PK batch in $TableClass", query, chunk, e);
                 }
-            } catch (SQLException e) {
-                throw new QueryException("Failed to find by PK batch in $TableClass", query, keys, e);
             }\
         """;
 
         Map<String, String> context = orderedMapOf(
-            "$query_execution", queryExecution,
             "$pk_column", primaryColumns.getFirst(),
             "$pk_getter", primaryField.javaAccessor()
         );
+        Map<String, String> objContext = mergeToMap(chunkContext(queryExecution, "List<?>"), context);
+        Map<String, String> intContext = mergeToMap(chunkContext(queryExecution, "IntArrayList"), context);
+        Map<String, String> longContext = mergeToMap(chunkContext(queryExecution, "LongArrayList"), context);
 
         appendCode("""
         @Override
         public @Nonnull Map<$PkClass, $ModelClass> getBatchByPk(@Nonnull Collection<? extends $PkClass> keys) {
+            IdentityScope scope = readScope();
+            if (scope != null) {
+                return scope.getBatchByPk("$table_sql", follow, keys, this::selectBatchByPk);
+            }
+            return selectBatchByPk(keys);
+        }
+
+        private @Nonnull Map<$PkClass, $ModelClass> selectBatchByPk(@Nonnull Collection<? extends $PkClass> keys) {
             if (keys.isEmpty()) {
                 return Map.of();
             }
@@ -444,12 +570,20 @@ public class ModelTableCodegen extends BaseCodegen {
         $query_execution
             return map;
         }\n
-        """, mergeToMap(context, mainContext, pkContext));
+        """, mergeToMap(objContext, mainContext, pkContext));
 
         if (table.isPrimaryKeyInt()) {
             appendCode("""
             @Override
             public @Nonnull IntObjectMap<$ModelClass> getBatchByPk(@Nonnull IntContainer keys) {
+                IdentityScope scope = readScope();
+                if (scope != null) {
+                    return scope.getBatchByPk("$table_sql", follow, keys, this::selectBatchByPk);
+                }
+                return selectBatchByPk(keys);
+            }
+
+            private @Nonnull IntObjectMap<$ModelClass> selectBatchByPk(@Nonnull IntContainer keys) {
                 if (keys.isEmpty()) {
                     return new IntObjectHashMap<>();
                 }
@@ -457,12 +591,20 @@ public class ModelTableCodegen extends BaseCodegen {
             $query_execution
                 return map;
             }\n
-            """, mergeToMap(context, mainContext, pkContext));
+            """, mergeToMap(intContext, mainContext, pkContext));
         }
         if (table.isPrimaryKeyLong()) {
             appendCode("""
             @Override
             public @Nonnull LongObjectMap<$ModelClass> getBatchByPk(@Nonnull LongContainer keys) {
+                IdentityScope scope = readScope();
+                if (scope != null) {
+                    return scope.getBatchByPk("$table_sql", follow, keys, this::selectBatchByPk);
+                }
+                return selectBatchByPk(keys);
+            }
+
+            private @Nonnull LongObjectMap<$ModelClass> selectBatchByPk(@Nonnull LongContainer keys) {
                 if (keys.isEmpty()) {
                     return new LongObjectHashMap<>();
                 }
@@ -470,8 +612,78 @@ public class ModelTableCodegen extends BaseCodegen {
             $query_execution
                 return map;
             }\n
-            """, mergeToMap(context, mainContext, pkContext));
+            """, mergeToMap(longContext, mainContext, pkContext));
+        }
+    }
+
+    private void getBatchByConvertedPk(@NotNull TableField primaryField) {
+        List<String> primaryColumns = table.columns(ReadFollow.NO_FOLLOW, TableField::isPrimaryKey)
+            .stream()
+            .map(PrefixedColumn::sqlPrefixedName)
+            .toList();
+        String pkObject = toPrimaryKeyObject(primaryField, "$pk_name");
+        Map<String, String> context = orderedMapOf(
+            "$add_pk_args", primaryColumns.size() == 1 ?
+                "args.add(%s);".formatted(pkObject) :
+                "Collections.addAll(args, %s);".formatted(pkObject),
+            "$pk_columns", primaryColumns.stream().map("\"%s\""::formatted).collect(Collectors.joining(", ")),
+            "$pk_getter", primaryField.javaAccessor()
+        );
+
+        appendCode("""
+        private static final RowInList PK_IN_LIST = RowInList.of($pk_columns);
+        
+        @Override
+        public @Nonnull Map<$PkClass, $ModelClass> getBatchByPk(@Nonnull Collection<? extends $PkClass> keys) {
+            IdentityScope scope = readScope();
+            if (scope != null) {
+                return scope.getBatchByPk("$table_sql", follow, keys, this::selectBatchByPk);
+            }
+            return selectBatchByPk(keys);
+        }
+
+        private @Nonnull Map<$PkClass, $ModelClass> selectBatchByPk(@Nonnull Collection<? extends $PkClass> keys) {
+            if (keys.isEmpty()) {
+                return Map.of();
+            }
+            HashMap<$PkClass, $ModelClass> map = new HashMap<>(keys.size());
+            for (List<? extends $PkClass> chunk : InListChunks.split(keys, PK_IN_LIST.maxChunkSize(engine()))) {
+                ArrayList<Object> args = new ArrayList<>(chunk.size() * PK_IN_LIST.columns());
+                for ($PkClass $pk_name : chunk) {
+                    $add_pk_args
+                }
+                String query = selectEntityAll() + "WHERE " +
+                               PK_IN_LIST.predicate(chunk.size(), engine());
+                try (PreparedStatement statement = readRunner().prepareQuery(query, args);
+                     ResultSet result = statement.executeQuery()) {
+                    while (result.next()) {
+                        $ModelClass entity = readEntity(result);
+                        map.put(entity.$pk_getter, entity);
+                    }
+                } catch (SQLException e) {
+                    throw new QueryException("Failed to find by PK batch in $TableClass", query, args, e);
+                }
+            }
+            return map;
+        }\n
+        """, mergeToMap(context, mainContext, pkContext));
+    }
+
+    private @NotNull String scopeWrite() {
+        TableField primaryField = table.primaryKeyField();
+        if (primaryField == null) {
+            return "IdentityScope.onWrite(\"%s\");".formatted(table.sqlName());
         }
+        String key = "%s.%s".formatted(mainContext.get("$model_param"), primaryField.javaAccessor());
+        return "IdentityScope.onWrite(\"%s\", %s);".formatted(table.sqlName(), key);
+    }
+
+    private static @NotNull Map<String, String> chunkContext(@NotNull String queryExecution,
+                                                             @NotNull String chunkType) {
+        return orderedMapOf(
+            "$query_execution", queryExecution,
+            "$chunk_type", chunkType
+        );
     }
 
     private void fetchPks() {
@@ -491,7 +703,7 @@ public class ModelTableCodegen extends BaseCodegen {
             public @Nonnull IntArrayList fetchPks(@Nonnull Filter filter) {
                 String query = "SELECT $pk_column FROM $table_sql\\n" + filter.repr();
                 try {
-                    return runner().fetchIntColumn(() -> runner().prepareQuery(query, filter.args()));
+                    return readRunner().fetchIntColumn(() -> readRunner().prepareQuery(query, filter.args()));
                 } catch (SQLException e) {
                     throw new QueryException("Failed to fetch by PKs in $TableClass", query, filter.args(), e);
                 }
@@ -504,7 +716,7 @@ public class ModelTableCodegen extends BaseCodegen {
             public @Nonnull LongArrayList fetchPks(@Nonnull Filter filter) {
                 String query = "SELECT $pk_column FROM $table_sql\\n" + filter.repr();
                 try {
-                    return runner().fetchLongColumn(() -> runner().prepareQuery(query, filter.args()));
+                    return readRunner().fetchLongColumn(() -> readRunner().prepareQuery(query, filter.args()));
                 } catch (SQLException e) {
                     throw new QueryException("Failed to fetch by PKs in $TableClass", query, filter.args(), e);
                 }
@@ -535,12 +747,10 @@ public class ModelTableCodegen extends BaseCodegen {
         appendCode("""
         @Override
         public void forEach(@Nonnull Consumer<? super $ModelClass> consumer) {
-            String query = SELECT_ENTITY_ALL[follow.ordinal()];
-            try (PreparedStatement statement = runner().prepareQuery(query);
-                 ResultSet result = statement.executeQuery()) {
-                while (result.next()) {
-                    consumer.accept(fromRow(result, follow, 0));
-                }
+            String query = selectEntityAll();
+            try (ResultSetIterator<$ModelClass> iterator = readRunner().iterate(query, Args.of(), readOptions,
+                                                                            this::readEntity)) {
+                iterator.forEachRemaining(consumer);
             } catch (SQLException e) {
                 throw new QueryException("Failed to iterate over $TableClass", query, e);
             }
@@ -548,10 +758,9 @@ public class ModelTableCodegen extends BaseCodegen {
     
         @Override
         public @Nonnull ResultSetIterator<$ModelClass> iterator() {
-            String query = SELECT_ENTITY_ALL[follow.ordinal()];
+            String query = selectEntityAll();
             try {
-                return ResultSetIterator.of(runner().prepareQuery(query).executeQuery(),
-                                            result -> fromRow(result, follow, 0));
+                return readRunner().iterate(query, Args.of(), readOptions, this::readEntity);
             } catch (SQLException e) {
                 throw new QueryException("Failed to iterate over $TableClass", query, e);
             }
@@ -559,10 +768,9 @@ public class ModelTableCodegen extends BaseCodegen {
 
         @Override
         public @Nonnull ResultSetIterator<$ModelClass> iterator(@Nonnull Filter filter) {
-            String query = SELECT_ENTITY_ALL[follow.ordinal()] + filter.repr();
+            String query = selectEntityAll() + filter.repr();
             try {
-                return ResultSetIterator.of(runner().prepareQuery(query, filter.args()).executeQuery(),
-                                            result -> fromRow(result, follow, 0));
+                return readRunner().iterate(query, filter.args(), readOptions, this::readEntity);
             } catch (SQLException e) {
                 throw new QueryException("Failed to iterate over $TableClass", query, filter.args(), e);
             }
@@ -570,10 +778,144 @@ public class ModelTableCodegen extends BaseCodegen {
         """, mainContext);
     }
 
+    private void projections() {
+        List<ProjectionArch> projections = table.projections();
+        if (projections.isEmpty()) {
+            return;
+        }
+
+        String constants = projections.stream()
+            .map(projection -> new SelectMaker(table).make(projection))
+            .map(query -> wrapAsStringLiteral(query).joinLines(INDENT1))
+            .collect(Collectors.joining(INDENT1.commaDelimiter(), INDENT1.prefix(), ""));
+        Map<String, String> context = orderedMapOf(
+            "$select_constants", constants,
+            "$projection_cases", Stream.iterate(0, i -> i < projections.size(), i -> i + 1)
+                .map(i -> """
+                    if (projection == %s.class) {
+                        return (Projected<P>) new Projected<%s>(SELECT_PROJECTION[%d], result -> fromRow%s(result, 0));
+                    }""".formatted(Naming.shortCanonicalJavaName(projections.get(i).projectionClass()),
+                                   Naming.shortCanonicalJavaName(projections.get(i).projectionClass()),
+                                   i, projections.get(i).javaName()))
+                .flatMap(String::lines)
+                .collect(linesJoiner(INDENT1))
+        );
+
+        appendCode("""
+        private static final String[] SELECT_PROJECTION = {
+        $select_constants
+        };
+
+        @SuppressWarnings("unchecked")
+        public <P> @Nonnull Projected<P> project(@Nonnull Class<P> projection) {
+        $projection_cases
+            throw InvalidQueryException.newInvalidQueryException("Projection is not declared for $ModelClass: %s", projection);
+        }
+
+        public final class Projected<P> implements ProjectedTable<P> {
+            private final String select;
+            private final ResultSetIterator.Converter<P> converter;
+
+            private Projected(@Nonnull String select, @Nonnull ResultSetIterator.Converter<P> converter) {
+                this.select = select;
+                this.converter = converter;
+            }
+
+            @Override
+            public @Nonnull ResultSetIterator<P> iterator() {
+                try {
+                    return readRunner().iterate(select, Args.of(), readOptions, converter);
+                } catch (SQLException e) {
+                    throw new QueryException("Failed to iterate over $TableClass projection", select, e);
+                }
+            }
+
+            @Override
+            public @Nonnull ResultSetIterator<P> iterator(@Nonnull Filter filter) {
+                String query = select + filter.repr();
+                try {
+                    return readRunner().iterate(query, filter.args(), readOptions, converter);
+                } catch (SQLException e) {
+                    throw new QueryException("Failed to iterate over $TableClass projection", query, filter.args(), e);
+                }
+            }
+        """, mergeToMap(context, mainContext));
+
+        if (table.hasPrimaryKeyField()) {
+            Snippet where = new Snippet().appendLines(WhereMaker.makeForPrimaryColumns(table));
+            Map<String, String> pkWhereContext = orderedMapOf(
+                "$sql_where_literal", wrapAsStringLiteral(where).joinLines(INDENT3),
+                "$pk_object", toPrimaryKeyObject(requireNonNull(table.primaryKeyField()), "$pk_name")
+            );
+            appendCode(2, """
+
+            public @Nullable P getByPkOrNull($pk_annotation$pk_type $pk_name) {
+                String query = select + $sql_where_literal;
+                try (PreparedStatement statement = readRunner().prepareQuery(query, $pk_object);
+                     ResultSet result = statement.executeQuery()) {
+                    return result.next() ? converter.apply(result) : null;
+                } catch (SQLException e) {
+                    throw new QueryException("Failed to find by PK in $TableClass projection", query, $pk_name, e);
+                }
+            }
+            """, mergeToMap(pkWhereContext, mainContext, pkContext));
+        }
+        appendCode("}\n\n");
+
+        ResultSetConversionMaker maker = new ResultSetConversionMaker("result", "ReadFollow.NO_FOLLOW", "start");
+        for (ProjectionArch projection : projections) {
+            Map<String, String> projectionContext = orderedMapOf(
+                "$ProjectionClass", Naming.shortCanonicalJavaName(projection.projectionClass()),
+                "$projection_name", projection.javaName(),
+                "$fields_assignments", maker.make(projection.fields()).join(linesJoiner(INDENT1)),
+                "$projection_fields", projection.fields().stream().map(TableField::javaName).collect(COMMA_JOINER)
+            );
+            appendCode("""
+            public static @Nonnull $ProjectionClass fromRow$projection_name(@Nonnull ResultSet result, int start) throws SQLException {
+            $fields_assignments
+                return new $ProjectionClass($projection_fields);
+            }\n
+            """, projectionContext);
+        }
+    }
+
+    private void resolveForeign() {
+        if (!table.hasForeignKeyField()) {
+            return;
+        }
+
+        Map<String, String> context = orderedMapOf(
+            "$resolve_calls", table.foreignFields(ReadFollow.FOLLOW_ONE_LEVEL).stream()
+                .map(this::resolveForeignCall)
+                .collect(linesJoiner(INDENT1))
+        );
+
+        appendCode("""
+        @Override
+        public void resolveForeign(@Nonnull Collection<? extends $ModelClass> entities, int depth) {
+            if (depth <= 0 || entities.isEmpty()) {
+                return;
+            }
+        $resolve_calls
+        }\n
+        """, mergeToMap(context, mainContext));
+    }
+
+    // Example: ForeignResolver.resolveInt(entities, (User user) -> user.company(), new CompanyTable(...), depth);
+    private @NotNull String resolveForeignCall(@NotNull ForeignTableField field) {
+        TableArch foreignTable = field.getForeignTable();
+        String method = foreignTable.isPrimaryKeyInt() ? "resolveInt" :
+                        foreignTable.isPrimaryKeyLong() ? "resolveLong" : "resolveObj";
+        return "ForeignResolver.%s(entities, ($ModelClass $model_param) -> $model_param.%s,%s".formatted(
+                   method, field.javaAccessor(), INDENT2.delimiter()) +
+               "new %s(connector, ReadFollow.NO_FOLLOW, readOptions), depth);".formatted(foreignTable.javaName());
+    }
+
     private void insert() {
         Snippet query = new InsertMaker(InsertMaker.Ignore.DEFAULT).makeAll(table);
         Map<String, String> context = orderedMapOf(
             "$model_id_assert", AssertModelIdMaker.makeAssert("$model_param", table).joinLines(),
+            "$scope_write", scopeWrite(),
             "$sql_query_literal", wrapAsStringLiteral(query).joinLines(INDENT2)
         );
 
@@ -581,11 +923,14 @@ public class ModelTableCodegen extends BaseCodegen {
         @Override
         public int insert(@Nonnull $ModelClass $model_param) {
             $model_id_assert
+            $scope_write
             String query = $sql_query_literal;
             try {
                 return runner().runUpdate(query, valuesForInsert($model_param));
             } catch (SQLException e) {
                 throw new QueryException("Failed to insert entity into $TableClass", query, $model_param, e);
+            } finally {
+                QueryResultCache.onWrite("$table_sql");
             }
         }\n
         """, mergeToMap(context, mainContext));
@@ -594,6 +939,7 @@ public class ModelTableCodegen extends BaseCodegen {
     private void insertIgnore() {
         Map<String, String> context = orderedMapOf(
             "$model_id_assert", AssertModelIdMaker.makeAssert("$model_param", table).joinLines(),
+            "$scope_write", scopeWrite(),
             "$sql_query_literal1", wrapAsStringLiteral(new InsertMaker(InsertMaker.Ignore.IGNORE).makeAll(table)).joinLines(INDENT3),
             "$sql_query_literal2", wrapAsStringLiteral(new InsertMaker(InsertMaker.Ignore.OR_IGNORE).makeAll(table)).joinLines(INDENT3)
         );
@@ -602,6 +948,7 @@ public class ModelTableCodegen extends BaseCodegen {
         @Override
         public int insertIgnore(@Nonnull $ModelClass $model_param) {
             $model_id_assert
+            $scope_write
             String query = switch (engine()) {
                 case MySQL, MariaDB, H2 -> $sql_query_literal1;
                 case SQLite -> $sql_query_literal2;
@@ -612,6 +959,8 @@ public class ModelTableCodegen extends BaseCodegen {
                 return runner().runUpdate(query, valuesForInsert($model_param));
             } catch (SQLException e) {
                 throw new QueryException("Failed to insert entity into $TableClass", query, $model_param, e);
+           } finally {
+               QueryResultCache.onWrite("$table_sql");
            }
         }\n
         """, mergeToMap(context, mainContext));
@@ -651,9 +1000,13 @@ public class ModelTableCodegen extends BaseCodegen {
         public $pk_type insertAutoIncPk(@Nonnull $ModelClass $model_param) {
            String query = $sql_query_literal;
            try {
-                return ($pk_type) runner().runAutoIncUpdate(query, valuesForInsertAutoIncPk($model_param)).lastId();
+                $pk_type key = ($pk_type) runner().runAutoIncUpdate(query, valuesForInsertAutoIncPk($model_param)).lastId();
+                IdentityScope.onWrite("$table_sql", key);
+                return key;
            } catch (SQLException e) {
                 throw new QueryException("Failed to insert new entity into $TableClass", query, $model_param, e);
+           } finally {
+               QueryResultCache.onWrite("$table_sql");
            }
         }\n
         """, mergeToMap(mainContext, pkContext, context));
@@ -692,12 +1045,15 @@ public class ModelTableCodegen extends BaseCodegen {
         appendCode("""
         @Override
         public int updateWhere(@Nonnull $ModelClass $model_param, @Nonnull Where where) {
+            IdentityScope.onWrite("$table_sql");
             String query = $sql_query_literal + where.repr();
             List<Object> args = valuesForUpdateWhere($model_param, where.args());
             try {
                 return runner().runUpdate(query, args);
             } catch (SQLException e) {
                 throw new QueryException("Failed to update entities in $TableClass by a filter", query, args, e);
+            } finally {
+                QueryResultCache.onWrite("$table_sql");
             }
         }\n
         """, mergeToMap(mainContext, context));
@@ -742,17 +1098,21 @@ public class ModelTableCodegen extends BaseCodegen {
             .appendLines(UpdateMaker.make(table, table.columns(TableField::isNotPrimaryKey)))
             .appendLines(WhereMaker.makeForPrimaryColumns(table));
         Map<String, String> context = orderedMapOf(
+            "$scope_write", scopeWrite(),
             "$sql_query_literal", wrapAsStringLiteral(query).joinLines(INDENT2)
         );
 
         appendCode("""
         @Override
         public int updateByPk(@Nonnull $ModelClass $model_param) {
+            $scope_write
             String query = $sql_query_literal;
             try {
                 return runner().runUpdate(query, valuesForUpdateByPk($model_param));
             } catch (SQLException e) {
                 throw new QueryException("Failed to update entity in $TableClass by PK", query, $model_param, e);
+            } finally {
+                QueryResultCache.onWrite("$table_sql");
             }
         }\n
         """, mergeToMap(mainContext, pkContext, context));
@@ -786,6 +1146,7 @@ public class ModelTableCodegen extends BaseCodegen {
         appendCode("""
         @Override
         public int insertData(@Nonnull EntityData<?> data) {
+            IdentityScope.onWrite("$table_sql");
             Collection<? extends Column> columns = data.columns();
             assert columns.size() > 0 : "Entity data contains empty columns: " + data;
 
@@ -795,6 +1156,8 @@ public class ModelTableCodegen extends BaseCodegen {
                 return statement.executeUpdate();
             } catch (SQLException e) {
                 throw new QueryException("Failed to insert entity data into $TableClass", query, data, e);
+            } finally {
+                QueryResultCache.onWrite("$table_sql");
             }
         }
         
@@ -811,6 +1174,7 @@ public class ModelTableCodegen extends BaseCodegen {
         appendCode("""
         @Override
         public int updateDataWhere(@Nonnull EntityData<?> data, @Nonnull Where where) {
+            IdentityScope.onWrite("$table_sql");
             Collection<? extends Column> columns = data.columns();
             assert columns.size() > 0 : "Entity data contains empty columns: " + data;
     
@@ -820,6 +1184,8 @@ public class ModelTableCodegen extends BaseCodegen {
                 return statement.executeUpdate();
             } catch (SQLException e) {
                 throw new QueryException("Failed to update entities data in $TableClass by a filter", query, data, e);
+            } finally {
+                QueryResultCache.onWrite("$table_sql");
             }
         }
         
@@ -833,20 +1199,40 @@ public class ModelTableCodegen extends BaseCodegen {
 
     private void insertBatch() {
         Snippet query = new InsertMaker(InsertMaker.Ignore.DEFAULT).makeAll(table);
+        Snippet header = new InsertMaker(InsertMaker.Ignore.DEFAULT).makeAllHeader(table);
         Map<String, String> context = orderedMapOf(
             // TODO[minor]: add an assert for batch
             // "$model_id_assert", AssertModelIdMaker.makeAssert("$model_param", table).join(),
-            "$sql_query_literal", wrapAsStringLiteral(query).joinLines(INDENT2)
+            "$sql_query_literal", wrapAsStringLiteral(query).joinLines(INDENT2),
+            "$sql_header_literal", wrapAsStringLiteral(header).joinLines(INDENT1),
+            "$columns_num", String.valueOf(table.columns().size())
         );
 
         appendCode("""
         @Override
         public int[] insertBatch(@Nonnull Collection<? extends $ModelClass> batch) {
+            IdentityScope.onWrite("$table_sql");
             String query = $sql_query_literal;
             try {
                 return runner().runUpdateBatch(query, batch.stream().map($TableClass::valuesForInsert).toList());
             } catch (SQLException e) {
                 throw new QueryException("Failed to insert a batch of entities into $TableClass", query, batch, e);
+            } finally {
+                QueryResultCache.onWrite("$table_sql");
+            }
+        }
+        
+        private static final MultiRowInsert INSERT_MULTI_ROW = MultiRowInsert.of($sql_header_literal, $columns_num);
+        
+        @Override
+        public @Nonnull BatchResult insertBatch(@Nonnull Stream<? extends $ModelClass> batch, @Nonnull BatchOptions options) {
+            IdentityScope.onWrite("$table_sql");
+            try {
+                return runner().runInsertBatch(INSERT_MULTI_ROW, batch.map($TableClass::valuesForInsert), options);
+            } catch (SQLException e) {
+                throw new QueryException("Failed to insert a batch of entities into $TableClass", INSERT_MULTI_ROW.sql(0), e);
+            } finally {
+                QueryResultCache.onWrite("$table_sql");
             }
         }\n
         """, mergeToMap(context, mainContext));
@@ -862,6 +1248,7 @@ public class ModelTableCodegen extends BaseCodegen {
         appendCode("""
         @Override
         public int[] updateWhereBatch(@Nonnull Collection<? extends $ModelClass> batch, @Nonnull Contextual<Where, $ModelClass> where) {
+            IdentityScope.onWrite("$table_sql");
             String query = $sql_query_literal + where.repr();
             try {
                 return runner().runUpdateBatch(
@@ -870,6 +1257,8 @@ public class ModelTableCodegen extends BaseCodegen {
                 );
             } catch (SQLException e) {
                 throw new QueryException("Failed to update a batch of entities in $TableClass by a filter", query, batch, e);
+            } finally {
+                QueryResultCache.onWrite("$table_sql");
             }
         }\n
         """, mergeToMap(context, mainContext));
@@ -879,6 +1268,7 @@ public class ModelTableCodegen extends BaseCodegen {
         appendCode("""
         @Override
         public int[] insertDataBatch(@Nonnull BatchEntityData<?> batchData) {
+            IdentityScope.onWrite("$table_sql");
             Collection<? extends Column> columns = batchData.columns();
             assert columns.size() > 0 : "Entity data contains empty columns: " + batchData;
     
@@ -888,15 +1278,53 @@ public class ModelTableCodegen extends BaseCodegen {
                 return statement.executeBatch();
             } catch (SQLException e) {
                 throw new QueryException("Failed to insert a batch of entity data into $TableClass", query, batchData, e);
+            } finally {
+                QueryResultCache.onWrite("$table_sql");
             }
         }\n
         """, mainContext);
     }
 
+    private void bulkLoad() {
+        Map<String, String> context = orderedMapOf(
+            "$columns_list", table.columns().stream().map(Column::sqlName).map(JavaSupport::wrapAsStringLiteral).collect(COMMA_JOINER)
+        );
+
+        appendCode("""
+        private static final List<String> INSERT_COLUMNS = List.of($columns_list);
+        
+        @Override
+        public long bulkLoad(@Nonnull Stream<? extends $ModelClass> batch) {
+            IdentityScope.onWrite("$table_sql");
+            try {
+                return runner().runBulkLoad("$table_sql", INSERT_COLUMNS, batch.map($TableClass::valuesForInsert).iterator(),
+                                            BatchOptions.DEFAULT.withRowsPerStatement(Integer.MAX_VALUE));
+            } catch (SQLException e) {
+                throw new QueryException("Failed to bulk load entities into $TableClass", "$table_sql", e);
+            } finally {
+                QueryResultCache.onWrite("$table_sql");
+            }
+        }
+        
+        @Override
+        public long bulkLoadData(@Nonnull BatchEntityData<?> batchData) {
+            IdentityScope.onWrite("$table_sql");
+            try {
+                return runner().runBulkLoad("$table_sql", batchData);
+            } catch (SQLException e) {
+                throw new QueryException("Failed to bulk load entity data into $TableClass", "$table_sql", batchData, e);
+            } finally {
+                QueryResultCache.onWrite("$table_sql");
+            }
+        }\n
+        """, mergeToMap(context, mainContext));
+    }
+
     private void updateDataWhereBatch() {
         appendCode("""
         @Override
         public <B> int[] updateDataWhereBatch(@Nonnull BatchEntityData<B> batchData, @Nonnull Contextual<Where, B> where) {
+            IdentityScope.onWrite("$table_sql");
             Collection<? extends Column> columns = batchData.columns();
             assert columns.size() > 0 : "Entity data contains empty columns: " + batchData;
     
@@ -906,6 +1334,8 @@ public class ModelTableCodegen extends BaseCodegen {
                 return statement.executeBatch();
             } catch (SQLException e) {
                 throw new QueryException("Failed to update batch of entity data in $TableClass by a filter", query, batchData, e);
+            } finally {
+                QueryResultCache.onWrite("$table_sql");
             }
         }\n
         """, mainContext);
@@ -927,11 +1357,14 @@ public class ModelTableCodegen extends BaseCodegen {
         appendCode("""
         @Override
         public int deleteByPk($pk_annotation$pk_type $pk_name) {
+            IdentityScope.onWrite("$table_sql", $pk_name);
             String query = $sql_query_literal;
             try {
                return runner().runUpdate(query, $pk_object);
            } catch (SQLException e) {
                throw new QueryException("Failed to delete entity in $TableClass by PK", query, $pk_name, e);
+           } finally {
+               QueryResultCache.onWrite("$table_sql");
            }
         }\n
         """, mergeToMap(context, mainContext, pkContext));
@@ -946,11 +1379,14 @@ public class ModelTableCodegen extends BaseCodegen {
         appendCode("""
         @Override
         public int deleteWhere(@Nonnull Where where) {
+            IdentityScope.onWrite("$table_sql");
             String query = $sql_query_literal + where.repr();
             try {
                return runner().runUpdate(query, where.args());
            } catch (SQLException e) {
                throw new QueryException("Failed to delete entities in $TableClass by a filter", query, where.args(), e);
+           } finally {
+               QueryResultCache.onWrite("$table_sql");
            }
         }\n
         """, mergeToMap(context, mainContext));
@@ -969,6 +1405,75 @@ public class ModelTableCodegen extends BaseCodegen {
             return new $ModelClass($model_fields);
         }\n
         """, mergeToMap(mainContext, context));
+
+        fromRowFollow();
+    }
+
+    private void fromRowFollow() {
+        List<ForeignTableField> foreignFields = table.foreignFields(ReadFollow.FOLLOW_ONE_LEVEL);
+        Map<String, String> context = orderedMapOf(
+            "$foreign_keys", foreignFields.stream()
+                .map(field -> ", OwnColumn.%s".formatted(field.foreignKeyColumn().sqlName()))
+                .collect(Collectors.joining()),
+            "$select_columns", table.fields().stream()
+                .map(this::selectFollowLines)
+                .flatMap(String::lines)
+                .collect(linesJoiner(INDENT1)),
+            "$own_columns_number", String.valueOf(table.columns().size()),
+            "$nested_columns_number", foreignFields.stream()
+                .map(field -> """
+                    if (graph.nested(OwnColumn.%s) instanceof Follow nested) {
+                        number += %s.columnsNumber(nested);
+                    }""".formatted(field.foreignKeyColumn().sqlName(), field.getForeignTable().javaName()))
+                .flatMap(String::lines)
+                .collect(linesJoiner(INDENT1)),
+            "$fields_assignments", foreignFields.isEmpty() ?
+                "return fromRow(result, ReadFollow.NO_FOLLOW, start);" :
+                new ResultSetConversionMaker("result", "graph", "start").makeForGraph(table).join(linesJoiner(INDENT1)),
+            "$return_entity", foreignFields.isEmpty() ?
+                EMPTY_LINE :
+                "return new $ModelClass(%s);".formatted(table.fields().stream().map(TableField::javaName).collect(COMMA_JOINER))
+        );
+
+        appendCode("""
+        public static void selectFollow(@Nonnull FollowSelect select, @Nonnull Follow graph) {
+            select.enter("$table_sql", graph$foreign_keys);
+        $select_columns
+            select.exit();
+        }
+
+        public static int columnsNumber(@Nonnull Follow graph) {
+            int number = $own_columns_number;
+        $nested_columns_number
+            return number;
+        }
+
+        public static @Nonnull $ModelClass fromRow(@Nonnull ResultSet result, @Nonnull Follow graph, int start) throws SQLException {
+        $fields_assignments
+            $return_entity
+        }\n
+        """, mergeToMap(context, mainContext));
+    }
+
+    // Example:
+    // select.column("author_id");
+    // if (graph.nested(OwnColumn.author_id) instanceof Follow nested) { ... }
+    private @NotNull String selectFollowLines(@NotNull TableField field) {
+        if (field instanceof ForeignTableField foreignField) {
+            TableArch foreignTable = foreignField.getForeignTable();
+            String foreignKey = foreignField.foreignKeyColumn().sqlName();
+            return """
+                select.column("%s");
+                if (graph.nested(OwnColumn.%s) instanceof Follow nested) {
+                    select.join("%s", "%s", "%s");
+                    %s.selectFollow(select, nested);
+                }""".formatted(foreignKey, foreignKey,
+                                foreignKey, foreignTable.sqlName(), foreignField.primaryKeyColumnInForeignTable().sqlName(),
+                                foreignTable.javaName());
+        }
+        return field.columns().stream()
+            .map(column -> "select.column(\"%s\");".formatted(column.sqlName()))
+            .collect(Collectors.joining("\n"));
     }
 
     private void bridge() {
@@ -1008,7 +1513,7 @@ public class ModelTableCodegen extends BaseCodegen {
         public @Nonnull ResultSetIterator<$left_id_wrap> iterateLeftIds(@Nonnull $right_id_wrap rightId) {
             String query = "SELECT $left_fk_sql FROM $table_sql WHERE $right_fk_sql = ?";
             try {
-                return ResultSetIterator.of(runner().prepareQuery(query, rightId).executeQuery(),
+                return ResultSetIterator.of(readRunner().prepareQuery(query, rightId).executeQuery(),
                                             result -> result.$left_result_getter(1));
             } catch (SQLException e) {
                 throw new QueryException("Failed to iterate over $TableClass", query, rightId, e);
@@ -1025,7 +1530,7 @@ public class ModelTableCodegen extends BaseCodegen {
         public @Nonnull ResultSetIterator<$right_id_wrap> iterateRightIds(@Nonnull $left_id_wrap leftId) {
             String query = "SELECT $right_fk_sql FROM $table_sql WHERE $left_fk_sql = ?";
             try {
-                return ResultSetIterator.of(runner().prepareQuery(query, leftId).executeQuery(),
+                return ResultSetIterator.of(readRunner().prepareQuery(query, leftId).executeQuery(),
                                             result -> result.$right_result_getter(1));
             } catch (SQLException e) {
                 throw new QueryException("Failed to iterate over $TableClass", query, leftId, e);
@@ -1079,7 +1584,7 @@ public class ModelTableCodegen extends BaseCodegen {
             
             public void forEachLeftId$TypeMarker$($right_id_native rightId, @Nonnull $TypeMarker$Consumer consumer) {
                 String query = "SELECT $left_fk_sql FROM $table_sql WHERE $right_fk_sql = ?";
-                try (PreparedStatement statement = runner().prepareQuery(query, rightId);
+                try (PreparedStatement statement = readRunner().prepareQuery(query, rightId);
                      ResultSet result = statement.executeQuery()) {
                     while (result.next()) {
                         consumer.accept(result.$left_result_getter(1));
@@ -1092,7 +1597,7 @@ public class ModelTableCodegen extends BaseCodegen {
             public @Nonnull $TypeMarker$ArrayList fetchAllLeftIds$TypeMarker$($right_id_native rightId) {
                 String query = "SELECT $left_fk_sql FROM $table_sql WHERE $right_fk_sql = ?";
                 try {
-                    return runner().fetch$TypeMarker$Column(() -> runner().prepareQuery(query, rightId));
+                    return readRunner().fetch$TypeMarker$Column(() -> readRunner().prepareQuery(query, rightId));
                 } catch (SQLException e) {
                     throw new QueryException("Failed to fetch left ids in $TableClass", query, rightId, e);
                 }
@@ -1118,7 +1623,7 @@ public class ModelTableCodegen extends BaseCodegen {
 
             public void forEachRightId$TypeMarker$($left_id_native leftId, @Nonnull $TypeMarker$Consumer consumer) {
                 String query = "SELECT $right_fk_sql FROM $table_sql WHERE $left_fk_sql = ?";
-                try (PreparedStatement statement = runner().prepareQuery(query, leftId);
+                try (PreparedStatement statement = readRunner().prepareQuery(query, leftId);
                      ResultSet result = statement.executeQuery()) {
                     while (result.next()) {
                         consumer.accept(result.$right_result_getter(1));
@@ -1131,7 +1636,7 @@ public class ModelTableCodegen extends BaseCodegen {
             public @Nonnull $TypeMarker$ArrayList fetchAllRightIds$TypeMarker$($left_id_native leftId) {
                 String query = "SELECT $right_fk_sql FROM $table_sql WHERE $left_fk_sql = ?";
                 try {
-                    return runner().fetch$TypeMarker$Column(() -> runner().prepareQuery(query, leftId));
+                    return readRunner().fetch$TypeMarker$Column(() -> readRunner().prepareQuery(query, leftId));
                 } catch (SQLException e) {
                     throw new QueryException("Failed to fetch right ids in $TableClass", query, leftId, e);
                 }
@@ -1189,7 +1694,9 @@ public class ModelTableCodegen extends BaseCodegen {
         public static final String NAME = "$table_sql";
         public static final Class<?> KEY_CLASS = $KeyClass;
         public static final Class<?> ENTITY_CLASS = $ModelClass.class;
-        public static final Function<Connector, $TableClass> INSTANTIATE = $TableClass::new;\n
+        public static final Function<Connector, $TableClass> INSTANTIATE = $TableClass::new;
+        public static final RowCodec<$ModelClass> ROW_CODEC =
+            RowCodec.of($TableClass::valuesForInsert, result -> fromRow(result, ReadFollow.NO_FOLLOW, 0));\n
         """, mergeToMap(mainContext, context, pkContext));
     }
 
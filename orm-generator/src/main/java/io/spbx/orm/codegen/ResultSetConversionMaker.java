@@ -10,7 +10,9 @@ import io.spbx.orm.arch.model.TableArch;
 import io.spbx.orm.arch.model.TableField;
 import io.spbx.orm.arch.util.Naming;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Stream;
 
@@ -32,18 +34,29 @@ class ResultSetConversionMaker {
     }
 
     public @NotNull Snippet make(@NotNull TableArch table) {
-        return new Snippet().appendMultilines(table.fields().stream().map(this::assignFieldLine));
+        return make(table.fields());
     }
 
-    private @NotNull String assignFieldLine(@NotNull TableField field) {
+    public @NotNull Snippet make(@NotNull List<TableField> fields) {
+        return new Snippet().appendMultilines(fields.stream().map(field -> assignFieldLine(field, false)));
+    }
+
+    /**
+     * Makes the conversion for the {@code Follow} graph in the {@code followParam} instead of the {@link ReadFollow}.
+     */
+    public @NotNull Snippet makeForGraph(@NotNull TableArch table) {
+        return new Snippet().appendMultilines(table.fields().stream().map(field -> assignFieldLine(field, true)));
+    }
+
+    private @NotNull String assignFieldLine(@NotNull TableField field, boolean graph) {
         Class<?> fieldType = field.javaType();
         String fieldClassName = FULL_NAME_CLASSES.contains(fieldType) ?
             fieldType.getName() :
             Naming.shortCanonicalJavaName(fieldType);
-        return "%s %s = %s;".formatted(fieldClassName, field.javaName(), fieldCreateExpr(field));
+        return "%s %s = %s;".formatted(fieldClassName, field.javaName(), fieldCreateExpr(field, graph));
     }
 
-    private @NotNull String fieldCreateExpr(@NotNull TableField field) {
+    private @NotNull String fieldCreateExpr(@NotNull TableField field, boolean graph) {
         return switch (field.typeSupport()) {
             case NATIVE -> {
                 assert field instanceof OneColumnTableField : "Native field is not one column: %s".formatted(field);
@@ -51,7 +64,9 @@ class ResultSetConversionMaker {
             }
             case FOREIGN_KEY -> {
                 assert field instanceof ForeignTableField : "Expected a foreign key field, but found %s".formatted(field);
-                yield foreignFieldSwitchExpr((ForeignTableField) field);
+                yield graph ?
+                    foreignFieldGraphSwitchExpr((ForeignTableField) field) :
+                    foreignFieldSwitchExpr((ForeignTableField) field);
             }
             case MAPPER_API -> {
                 assert field instanceof OneColumnTableField : "Mapped field is not one column: %s".formatted(field);
@@ -66,42 +81,79 @@ class ResultSetConversionMaker {
     }
 
     private @NotNull String foreignFieldSwitchExpr(@NotNull ForeignTableField field) {
-        Stream<String> indented = Stream.of(ReadFollow.values())
-            .map(follow -> field.isNotNull() ? caseForNotNull(field, follow) : caseForNullable(field, follow))
+        Stream<String> cases = Stream.of(ReadFollow.values()).map(follow -> {
+            if (follow == NO_FOLLOW) {
+                return caseFor(field, follow.name(), null, null);
+            }
+            String columnsNum = String.valueOf(field.columnsNumber(follow) - 1);  // exclude FK columns
+            String nested = "%s.%s".formatted(ReadFollow.class.getSimpleName(),
+                                              follow == FOLLOW_ONE_LEVEL ? NO_FOLLOW : FOLLOW_ALL);
+            return caseFor(field, follow.name(), nested, columnsNum);
+        });
+        return switchExpr(followParam, cases);
+    }
+
+    // Example:
+    // switch (graph.nested(OwnColumn.author_id)) {
+    //     case null -> ForeignInt.ofId(...);
+    //     case Follow _authorFollow -> ForeignInt.ofEntity(..., UserTable.fromRow(result, _authorFollow, ...));
+    // }
+    private @NotNull String foreignFieldGraphSwitchExpr(@NotNull ForeignTableField field) {
+        String nested = "_%sFollow".formatted(field.javaName());
+        String columnsNum = "%s.columnsNumber(%s)".formatted(field.getForeignTable().javaName(), nested);
+        Stream<String> cases = Stream.of(
+            caseFor(field, "null", null, null),
+            caseFor(field, "Follow " + nested, nested, columnsNum)
+        );
+        String selector = "%s.nested(OwnColumn.%s)".formatted(followParam, field.foreignKeyColumn().sqlName());
+        return switchExpr(selector, cases);
+    }
+
+    private static @NotNull String switchExpr(@NotNull String selector, @NotNull Stream<String> cases) {
+        Stream<String> indented = cases
             .flatMap(String::lines)
             .map(line -> INDENT1.spaces() + line);
         return new Snippet()
-            .appendFormattedLine("switch (%s) {", followParam)
+            .appendFormattedLine("switch (%s) {", selector)
             .appendLines(indented)
             .appendLine("}")
             .joinLines(INDENT1);
     }
 
-    private @NotNull String caseForNotNull(@NotNull ForeignTableField field, @NotNull ReadFollow follow) {
+    // The `nested` follow and the `columnsNum` are null for the case without following.
+    private @NotNull String caseFor(@NotNull ForeignTableField field, @NotNull String label,
+                                    @Nullable String nested, @Nullable String columnsNum) {
+        return field.isNotNull() ?
+            caseForNotNull(field, label, nested, columnsNum) :
+            caseForNullable(field, label, nested, columnsNum);
+    }
+
+    private @NotNull String caseForNotNull(@NotNull ForeignTableField field, @NotNull String label,
+                                           @Nullable String nested, @Nullable String columnsNum) {
         String fkParam = resultSetGetterExpr(field.foreignKeyColumn());
         String params;
         String factoryMethod;
-        if (follow == NO_FOLLOW) {
+        if (nested == null || columnsNum == null) {
             params = fkParam;
             factoryMethod = "ofId";
         } else {
-            int columnsNum = field.columnsNumber(follow) - 1;  // exclude FK columns
-            String fromRow = fromRowExpr(field, follow == FOLLOW_ONE_LEVEL ? NO_FOLLOW : FOLLOW_ALL, columnsNum);
+            String fromRow = fromRowExpr(field, nested, columnsNum);
             params = "%s, %s".formatted(fkParam, fromRow);
             factoryMethod = "ofEntity";
         }
         Class<?> factoryClass = field.javaType() == Foreign.class ? ForeignObj.class : field.javaType();
-        return "case %s -> %s.%s(%s);".formatted(follow, factoryClass.getSimpleName(), factoryMethod, params);
+        return "case %s -> %s.%s(%s);".formatted(label, factoryClass.getSimpleName(), factoryMethod, params);
     }
 
-    private @NotNull String caseForNullable(@NotNull ForeignTableField field, @NotNull ReadFollow follow) {
+    private @NotNull String caseForNullable(@NotNull ForeignTableField field, @NotNull String label,
+                                            @Nullable String nested, @Nullable String columnsNum) {
         Class<?> underlyingType = field.primaryKeyFieldInForeignTable().javaType();
         boolean isPrimitive = underlyingType.isPrimitive();
-        if (follow == NO_FOLLOW && isPrimitive) {
-            return caseForNotNull(field, follow);
+        boolean follows = nested != null && columnsNum != null;
+        if (!follows && isPrimitive) {
+            return caseForNotNull(field, label, null, null);
         }
 
-        int columnsNum = field.columnsNumber(follow) - 1;  // exclude FK columns
         String tmpVar = "_%s".formatted(field.javaName());
         String nullValue = isPrimitive ? "0" : "null";
         Class<?> factoryClass = field.javaType() == Foreign.class ? ForeignObj.class : field.javaType();
@@ -109,14 +161,14 @@ class ResultSetConversionMaker {
         String increment;
         String params;
         String factoryMethod;
-        if (follow == NO_FOLLOW) {
+        if (!follows) {
             increment = "/* no need to increment `%s` */".formatted(indexParam);
             factoryMethod = "ofId";
             params = tmpVar;
         } else {
             increment = "%s += %s".formatted(indexParam, columnsNum);
             factoryMethod = "ofEntity";
-            String fromRow = fromRowExpr(field, follow == FOLLOW_ONE_LEVEL ? NO_FOLLOW : FOLLOW_ALL, columnsNum);
+            String fromRow = fromRowExpr(field, nested, columnsNum);
             params = "%s, %s".formatted(tmpVar, fromRow);
         }
 
@@ -131,7 +183,7 @@ class ResultSetConversionMaker {
                 }
             }
             """.formatted(
-            follow,
+            label,
             Naming.shortCanonicalJavaName(underlyingType), tmpVar, resultSetGetterExpr(field.foreignKeyColumn()),
             tmpVar, nullValue,
             increment,
@@ -141,11 +193,11 @@ class ResultSetConversionMaker {
     }
 
     // Example: ForeignTable.fromRow(result, ReadFollow.NO_FOLLOW, (start += 2) - 2)
-    private @NotNull String fromRowExpr(@NotNull ForeignTableField field, @NotNull ReadFollow follow, int columnsNum) {
-        return "%s.fromRow(%s, %s.%s, (%s += %d) - %d)".formatted(
+    private @NotNull String fromRowExpr(@NotNull ForeignTableField field, @NotNull String nested, @NotNull String columnsNum) {
+        return "%s.fromRow(%s, %s, (%s += %s) - %s)".formatted(
             field.getForeignTable().javaName(),
             resultSetParam,
-            ReadFollow.class.getSimpleName(), follow,
+            nested,
             indexParam, columnsNum, columnsNum
         );
     }
@@ -1,8 +1,10 @@
 package io.spbx.orm.codegen;
 
 import io.spbx.orm.api.ReadFollow;
+import io.spbx.orm.arch.model.Column;
 import io.spbx.orm.arch.model.ForeignTableField;
 import io.spbx.orm.arch.model.PrefixedColumn;
+import io.spbx.orm.arch.model.ProjectionArch;
 import io.spbx.orm.arch.model.TableArch;
 import org.jetbrains.annotations.NotNull;
 
@@ -28,6 +30,11 @@ class SelectMaker {
         return compose(sqlName, columns, joins);
     }
 
+    public @NotNull Snippet make(@NotNull ProjectionArch projection) {
+        List<String> columns = projection.columns().stream().map(Column::sqlName).toList();
+        return compose(table.sqlName(), columns, List.of());
+    }
+
     private static @NotNull Snippet compose(@NotNull String table,
                                             @NotNull List<String> columns,
                                             @NotNull List<LeftJoin> joins) {
@@ -9,7 +9,11 @@ import io.spbx.orm.api.annotate.Model;
 import io.spbx.orm.api.annotate.Sql;
 import io.spbx.orm.arch.InvalidSqlModelException;
 import io.spbx.orm.arch.factory.MoreTestingArchClasses.AlsoProtectedFieldPublicGetterDerived;
+import io.spbx.orm.arch.model.Column;
 import io.spbx.orm.arch.model.JdbcType;
+import io.spbx.orm.arch.model.ProjectionArch;
+import io.spbx.orm.arch.model.TableArch;
+import io.spbx.orm.arch.model.TableField;
 import io.spbx.orm.arch.testing.TestingArchClasses.ProtectedFieldPublicGetterDerived;
 import io.spbx.orm.testing.FakeModelAdaptersLocator;
 import io.spbx.util.base.annotate.CanIgnoreReturnValue;
@@ -553,6 +557,57 @@ public class ArchFactoryTest {
             .isNativelySupportedType();
     }
 
+    /** Projections **/
+
+    @Test
+    public void projections() {
+        record User(int userId, String name) {}
+        record SongTitle(int songId, String title) {}
+        record SongAuthor(ForeignInt<User> author, int songId) {}
+        @Model(projections = {SongTitle.class, SongAuthor.class})
+        record Song(int songId, String title, String lyrics, ForeignInt<User> author) {}
+
+        Truth.assertThat(buildTableArch(User.class).projections()).isEmpty();
+
+        TableArch tableArch = buildTableArch(Song.class, listOf(User.class));
+        Truth.assertThat(tableArch.projections().stream().map(ProjectionArch::projectionClass))
+            .containsExactly(SongTitle.class, SongAuthor.class).inOrder();
+        Truth.assertThat(tableArch.projections().getFirst().fields().stream().map(TableField::javaName))
+            .containsExactly("songId", "title").inOrder();
+        Truth.assertThat(tableArch.projections().getLast().columns().stream().map(Column::sqlName))
+            .containsExactly("author_id", "song_id").inOrder();
+    }
+
+    @Test
+    public void invalid_projection_unknown_field() {
+        record UserEmail(int userId, String email) {}
+        @Model(projections = UserEmail.class) record User(int userId, String name) {}
+
+        InvalidSqlModelException e = assertInvalidModel(User.class);
+        Truth.assertThat(e).hasMessageThat().contains("User");
+        Truth.assertThat(e).hasCauseThat().hasMessageThat()
+            .isEqualTo("Projection `UserEmail` field `email` not found in model `User`");
+    }
+
+    @Test
+    public void invalid_projection_type_mismatch() {
+        record UserId(long userId) {}
+        @Model(projections = UserId.class) record User(int userId, String name) {}
+
+        InvalidSqlModelException e = assertInvalidModel(User.class);
+        Truth.assertThat(e).hasCauseThat().hasMessageThat()
+            .isEqualTo("Projection `UserId` field `userId` type `long` doesn't match the model `User` type `int`");
+    }
+
+    @Test
+    public void invalid_projection_not_record() {
+        @Model(projections = Object.class) record User(int userId, String name) {}
+
+        InvalidSqlModelException e = assertInvalidModel(User.class);
+        Truth.assertThat(e).hasCauseThat().hasMessageThat()
+            .isEqualTo("Projection `Object` of model `User` is not a record");
+    }
+
     /** Invalid models **/
 
     @Test
@@ -0,0 +1,77 @@
+package io.spbx.orm.arch.factory;
+
+import io.spbx.orm.adapter.std.time.InstantJdbcAdapter;
+import io.spbx.orm.api.ForeignInt;
+import io.spbx.orm.testing.FakeModelAdaptersLocator;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth.assertWithMessage;
+
+@Tag("slow")
+public class ArchJavaRunnerTest {
+    public record Author(int authorId, String name, Instant createdAt) {}
+    public record Post(long postId, ForeignInt<Author> author, String text) {}
+    public record Visit(Instant visitId, String page) {}
+    public record Counter(long left, long right) {}
+
+    @TempDir private Path tempDir;
+
+    @Test
+    public void generated_tables_compile() throws IOException {
+        FakeModelAdaptersLocator locator = FakeModelAdaptersLocator.defaults();
+        locator.setupAdapter(Instant.class, InstantJdbcAdapter.class);
+
+        Path sourceDir = tempDir.resolve("src");
+        RunInputs inputs = TestingArch.newRunInputs(Author.class, Post.class, Visit.class, Counter.class);
+        new ArchJavaRunner(locator).runGenerate(sourceDir.toString(), inputs);
+
+        List<File> sources = listJavaFiles(sourceDir);
+        assertThat(sources.stream().map(File::getName))
+            .containsExactly("AuthorTable.java", "PostTable.java", "VisitTable.java", "CounterTable.java");
+
+        List<Diagnostic<? extends JavaFileObject>> errors = compile(sources, Files.createDirectory(tempDir.resolve("out")));
+        assertWithMessage("Generated tables failed to compile: %s", errors).that(errors).isEmpty();
+    }
+
+    private static @NotNull List<File> listJavaFiles(@NotNull Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(path -> path.toString().endsWith(".java")).map(Path::toFile).toList();
+        }
+    }
+
+    private static @NotNull List<Diagnostic<? extends JavaFileObject>> compile(@NotNull List<File> sources,
+                                                                               @NotNull Path outputDir) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            List<String> options = List.of(
+                "-classpath", System.getProperty("java.class.path"),
+                "-d", outputDir.toString(),
+                "-proc:none"
+            );
+            compiler.getTask(null, fileManager, diagnostics, options, null, fileManager.getJavaFileObjectsFromFiles(sources))
+                .call();
+        }
+        return diagnostics.getDiagnostics().stream()
+            .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+            .toList();
+    }
+}
@@ -10,15 +10,23 @@ import io.spbx.orm.api.Foreign;
 import io.spbx.orm.api.ForeignInt;
 import io.spbx.orm.api.ForeignLong;
 import io.spbx.orm.api.ForeignObj;
+import io.spbx.orm.api.ForeignResolver;
 import io.spbx.orm.api.TableInt;
 import io.spbx.orm.api.TableLong;
 import io.spbx.orm.api.TableObj;
 import io.spbx.orm.api.annotate.Sql;
+import io.spbx.orm.api.batch.InListChunks;
+import io.spbx.orm.api.batch.RowInList;
+import io.spbx.orm.api.entity.BatchEntityIntData;
+import io.spbx.orm.api.entity.BatchEntityLongData;
+import io.spbx.orm.api.entity.EntityIntData;
+import io.spbx.orm.api.entity.EntityLongData;
 import io.spbx.orm.arch.factory.TestingArch;
 import io.spbx.orm.testing.FakeModelAdaptersLocator;
 import io.spbx.util.base.lang.Maybe;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
@@ -128,10 +136,42 @@ public class ImportsCollectorTest {
         assertThat(imports).containsAtLeast(importNameOf(Foreign.class),
                                             importNameOf(ForeignInt.class),
                                             importNameOf(ForeignLong.class),
-                                            importNameOf(ForeignObj.class));
+                                            importNameOf(ForeignObj.class),
+                                            importNameOf(ForeignResolver.class));
         assertThat(imports.stream().filter(IS_NOT_API)).isEmpty();
     }
 
+    @Test
+    public void imports_no_batch_reads_without_primary_key() {
+        record User(int i, String s) {}
+
+        List<String> imports = newImportsCollector(User.class, BaseTable.class).imports();
+        assertThat(imports).isInStrictOrder();
+        assertThat(imports).containsNoneOf(importNameOf(InListChunks.class), importNameOf(RowInList.class));
+        assertThat(imports).containsNoneOf(importNameOf(EntityIntData.class), importNameOf(EntityLongData.class));
+    }
+
+    @Test
+    public void imports_batch_reads_native_primary_key() {
+        record User(int id, int age) {}
+
+        List<String> imports = newImportsCollector(User.class, TableInt.class).imports();
+        assertThat(imports).isInStrictOrder();
+        assertThat(imports).contains(importNameOf(InListChunks.class));
+        assertThat(imports).doesNotContain(importNameOf(RowInList.class));
+        assertThat(imports).containsAtLeast(importNameOf(EntityIntData.class), importNameOf(BatchEntityIntData.class));
+        assertThat(imports).containsNoneOf(importNameOf(EntityLongData.class), importNameOf(BatchEntityLongData.class));
+    }
+
+    @Test
+    public void imports_batch_reads_converted_primary_key() {
+        record User(Instant id, String name) {}
+
+        List<String> imports = newImportsCollector(User.class, TableObj.class).imports();
+        assertThat(imports).isInStrictOrder();
+        assertThat(imports).containsAtLeast(importNameOf(InListChunks.class), importNameOf(RowInList.class));
+    }
+
     private static @NotNull ImportsCollector newImportsCollector(@NotNull Class<?> model, @NotNull Class<?> baseClass) {
         return new ImportsCollector(LOCATOR, TestingArch.buildTableArch(LOCATOR, model), baseClass);
     }
@@ -49,4 +49,20 @@ public class InsertMakerTest {
             VALUES (?, ?)
             """);
     }
+
+    @Test
+    public void makeHeader_two_columns() {
+        record User(int userId, String name) {}
+
+        TableArch tableArch = buildTableArch(User.class);
+
+        assertThatSql(new InsertMaker(Ignore.DEFAULT).makeAllHeader(tableArch)).matches("""
+            INSERT INTO user (user_id, name)
+            VALUES
+            """);
+        assertThatSql(new InsertMaker(Ignore.IGNORE).makeAllHeader(tableArch)).matches("""
+            INSERT IGNORE INTO user (user_id, name)
+            VALUES
+            """);
+    }
 }
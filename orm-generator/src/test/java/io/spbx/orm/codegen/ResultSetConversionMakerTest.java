@@ -335,4 +335,41 @@ public class ResultSetConversionMakerTest {
             };
         """);
     }
+
+    @Test
+    public void foreign_int_column_graph() {
+        record User(int userId, String name) {}
+        record Song(int songId, ForeignInt<User> author) {}
+
+        TableArch tableArch = buildTableArch(Song.class, listOf(User.class));
+        assertThatJava(new ResultSetConversionMaker("$resultSet", "$graph", "$index").makeForGraph(tableArch)).matches("""
+            int songId = $resultSet.getInt(++$index);
+            ForeignInt author = switch ($graph.nested(OwnColumn.author_id)) {
+                case null -> ForeignInt.ofId($resultSet.getInt(++$index));
+                case Follow _authorFollow -> ForeignInt.ofEntity($resultSet.getInt(++$index), UserTable.fromRow($resultSet, _authorFollow, ($index += UserTable.columnsNumber(_authorFollow)) - UserTable.columnsNumber(_authorFollow)));
+            };
+        """);
+    }
+
+    @Test
+    public void foreign_int_column_graph_nullable() {
+        record User(int userId, String name) {}
+        record Song(@Sql.Null ForeignInt<User> author) {}
+
+        TableArch tableArch = buildTableArch(Song.class, listOf(User.class));
+        assertThatJava(new ResultSetConversionMaker("$resultSet", "$graph", "$index").makeForGraph(tableArch)).matches("""
+            ForeignInt author = switch ($graph.nested(OwnColumn.author_id)) {
+                case null -> ForeignInt.ofId($resultSet.getInt(++$index));
+                case Follow _authorFollow -> {
+                    int _author = $resultSet.getInt(++$index);
+                    if (_author == 0) {
+                        $index += UserTable.columnsNumber(_authorFollow);
+                        yield ForeignInt.empty();
+                    } else {
+                        yield ForeignInt.ofEntity(_author, UserTable.fromRow($resultSet, _authorFollow, ($index += UserTable.columnsNumber(_authorFollow)) - UserTable.columnsNumber(_authorFollow)));
+                    }
+                }
+            };
+        """);
+    }
 }
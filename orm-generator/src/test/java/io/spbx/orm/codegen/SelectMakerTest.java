@@ -1,6 +1,7 @@
 package io.spbx.orm.codegen;
 
 import io.spbx.orm.api.ForeignInt;
+import io.spbx.orm.api.annotate.Model;
 import io.spbx.orm.arch.model.TableArch;
 import io.spbx.util.base.annotate.CanIgnoreReturnValue;
 import io.spbx.util.base.annotate.CheckReturnValue;
@@ -62,6 +63,22 @@ public class SelectMakerTest {
                 """);
     }
 
+    @Test
+    public void projection() {
+        record User(int userId, String name) {}
+        record SongAuthor(ForeignInt<User> author, String title) {}
+        @Model(projections = SongAuthor.class)
+        record Song(int songId, String title, String lyrics, ForeignInt<User> author) {}
+
+        TableArch tableArch = buildTableArch(Song.class, listOf(User.class));
+        SelectMaker selectMaker = new SelectMaker(tableArch);
+
+        assertThatSql(selectMaker.make(tableArch.projections().getFirst())).matches("""
+            SELECT author_id, title
+            FROM song
+            """);
+    }
+
     @CheckReturnValue
     private static @NotNull SelectMakerSubject assertThat(@NotNull SelectMaker selectMaker) {
         return new SelectMakerSubject(selectMaker);